@@ -0,0 +1,162 @@
+package org.bsc.langgraph4j.micrometer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.checkpoint.Checkpoint;
+import org.bsc.langgraph4j.instrumentation.GraphListener;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link GraphListener} that records the graph execution metrics in a Micrometer {@link MeterRegistry}.
+ * <p>
+ * The following meters are registered (the name prefix is {@value #DEFAULT_PREFIX} by default):
+ * <ul>
+ *     <li>{@code <prefix>.node} timer, tagged by {@code node} and {@code outcome}</li>
+ *     <li>{@code <prefix>.node.cache.hits} counter, tagged by {@code node}</li>
+ *     <li>{@code <prefix>.edge} timer, tagged by {@code source} and {@code target}</li>
+ *     <li>{@code <prefix>.state.clone} timer</li>
+ *     <li>{@code <prefix>.checkpoint.put} timer</li>
+ *     <li>{@code <prefix>.checkpoint.get} timer, tagged by {@code found}</li>
+ *     <li>{@code <prefix>.interrupts} counter, tagged by {@code node}</li>
+ *     <li>{@code <prefix>.errors} counter, tagged by {@code node}</li>
+ * </ul>
+ * Meters are looked up once and cached, so that recording a measure doesn't allocate.
+ *
+ * <pre>{@code
+ * var compileConfig = CompileConfig.builder()
+ *                         .listener( new MicrometerGraphListener( meterRegistry ) )
+ *                         .build();
+ * }</pre>
+ */
+public class MicrometerGraphListener implements GraphListener {
+
+    public static final String DEFAULT_PREFIX = "langgraph4j";
+
+    private static final String UNKNOWN_NODE = "unknown";
+
+    private final MeterRegistry registry;
+    private final String prefix;
+
+    private final Map<String, Timer> nodeSuccessTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> nodeErrorTimers = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Timer>> edgeTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> cacheHitCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> interruptCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> errorCounters = new ConcurrentHashMap<>();
+    private final Timer stateCloneTimer;
+    private final Timer checkpointPutTimer;
+    private final Timer checkpointHitTimer;
+    private final Timer checkpointMissTimer;
+
+    /**
+     * Creates a new listener using the {@value #DEFAULT_PREFIX} meter name prefix.
+     *
+     * @param registry the registry where meters are registered
+     */
+    public MicrometerGraphListener(MeterRegistry registry) {
+        this(registry, DEFAULT_PREFIX);
+    }
+
+    /**
+     * Creates a new listener.
+     *
+     * @param registry the registry where meters are registered
+     * @param prefix the meter name prefix
+     */
+    public MicrometerGraphListener(MeterRegistry registry, String prefix) {
+        this.registry = requireNonNull(registry, "registry cannot be null");
+        this.prefix = requireNonNull(prefix, "prefix cannot be null");
+
+        stateCloneTimer = Timer.builder(prefix + ".state.clone")
+                .description("time spent cloning the graph state")
+                .register(registry);
+        checkpointPutTimer = Timer.builder(prefix + ".checkpoint.put")
+                .description("time spent storing a checkpoint")
+                .register(registry);
+        checkpointHitTimer = checkpointGetTimer(true);
+        checkpointMissTimer = checkpointGetTimer(false);
+    }
+
+    private Timer checkpointGetTimer(boolean found) {
+        return Timer.builder(prefix + ".checkpoint.get")
+                .description("time spent retrieving a checkpoint")
+                .tag("found", String.valueOf(found))
+                .register(registry);
+    }
+
+    private Timer nodeTimer(String nodeId, String outcome) {
+        return Timer.builder(prefix + ".node")
+                .description("node execution time")
+                .tag("node", nodeId)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private Counter nodeCounter(String name, String nodeId) {
+        return Counter.builder(prefix + name)
+                .tag("node", nodeId)
+                .register(registry);
+    }
+
+    @Override
+    public void onNodeEnd(String nodeId, RunnableConfig config, long durationNanos, Throwable error) {
+        final var timer = (error == null) ?
+                nodeSuccessTimers.computeIfAbsent(nodeId, id -> nodeTimer(id, "success")) :
+                nodeErrorTimers.computeIfAbsent(nodeId, id -> nodeTimer(id, "error"));
+        timer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onNodeCacheHit(String nodeId, RunnableConfig config) {
+        cacheHitCounters.computeIfAbsent(nodeId, id -> nodeCounter(".node.cache.hits", id))
+                .increment();
+    }
+
+    @Override
+    public void onEdge(String sourceId, String targetId, RunnableConfig config, long durationNanos) {
+        edgeTimers.computeIfAbsent(sourceId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(targetId, id -> Timer.builder(prefix + ".edge")
+                        .description("edge evaluation time")
+                        .tag("source", sourceId)
+                        .tag("target", targetId)
+                        .register(registry))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onStateClone(long durationNanos) {
+        stateCloneTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onCheckpointPut(RunnableConfig config, Checkpoint checkpoint, long durationNanos) {
+        checkpointPutTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onCheckpointGet(RunnableConfig config, Optional<Checkpoint> checkpoint, long durationNanos) {
+        (checkpoint.isPresent() ? checkpointHitTimer : checkpointMissTimer)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onInterrupt(String nodeId, RunnableConfig config) {
+        interruptCounters.computeIfAbsent(nodeId, id -> nodeCounter(".interrupts", id))
+                .increment();
+    }
+
+    @Override
+    public void onError(String nodeId, RunnableConfig config, Throwable error) {
+        final var id = (nodeId == null) ? UNKNOWN_NODE : nodeId;
+        errorCounters.computeIfAbsent(id, key -> nodeCounter(".errors", key))
+                .increment();
+    }
+}
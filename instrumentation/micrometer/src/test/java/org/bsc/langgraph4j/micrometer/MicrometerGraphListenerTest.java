@@ -0,0 +1,65 @@
+package org.bsc.langgraph4j.micrometer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bsc.langgraph4j.CompileConfig;
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.cache.CachePolicy;
+import org.bsc.langgraph4j.checkpoint.MemorySaver;
+import org.bsc.langgraph4j.prebuilt.MessagesState;
+import org.bsc.langgraph4j.prebuilt.MessagesStateGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.bsc.langgraph4j.StateGraph.END;
+import static org.bsc.langgraph4j.StateGraph.START;
+import static org.bsc.langgraph4j.action.AsyncNodeAction.node_async;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MicrometerGraphListenerTest {
+
+    @Test
+    public void recordMetrics() throws Exception {
+        var registry = new SimpleMeterRegistry();
+
+        var workflow = new MessagesStateGraph<String>()
+                .addNode("A", node_async((MessagesState<String> state) -> Map.of("messages", "A")))
+                .addNode("B", node_async((MessagesState<String> state) -> Map.of("messages", "B")))
+                .addEdge(START, "A")
+                .addEdge("A", "B")
+                .addEdge("B", END)
+                .compile(CompileConfig.builder()
+                        .checkpointSaver(new MemorySaver())
+                        .interruptBefore("B")
+                        .listener(new MicrometerGraphListener(registry))
+                        .build());
+
+        workflow.stream(Map.of(), RunnableConfig.builder().build()).stream().toList();
+
+        assertEquals(1, registry.get("langgraph4j.node").tag("node", "A").tag("outcome", "success").timer().count());
+        assertEquals(1, registry.get("langgraph4j.edge").tag("source", "A").tag("target", "B").timer().count());
+        assertEquals(2, registry.get("langgraph4j.checkpoint.put").timer().count());
+        assertEquals(1, registry.get("langgraph4j.checkpoint.get").tag("found", "false").timer().count());
+        assertEquals(1.0, registry.get("langgraph4j.interrupts").tag("node", "A").counter().count());
+    }
+
+    @Test
+    public void countCacheHits() throws Exception {
+        var registry = new SimpleMeterRegistry();
+
+        var workflow = new MessagesStateGraph<String>()
+                .addNode("A", node_async((MessagesState<String> state) -> Map.of("messages", "A")),
+                        CachePolicy.builder().keyChannels("messages").build())
+                .addEdge(START, "A")
+                .addEdge("A", END)
+                .compile(CompileConfig.builder()
+                        .listener(new MicrometerGraphListener(registry))
+                        .build());
+
+        workflow.invoke(Map.of());
+        workflow.invoke(Map.of());
+
+        assertEquals(2, registry.get("langgraph4j.node").tag("node", "A").tag("outcome", "success").timer().count());
+        assertEquals(1.0, registry.get("langgraph4j.node.cache.hits").tag("node", "A").counter().count());
+    }
+}
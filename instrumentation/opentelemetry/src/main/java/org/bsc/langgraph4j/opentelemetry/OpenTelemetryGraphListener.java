@@ -0,0 +1,161 @@
+package org.bsc.langgraph4j.opentelemetry;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.checkpoint.BaseCheckpointSaver;
+import org.bsc.langgraph4j.checkpoint.Checkpoint;
+import org.bsc.langgraph4j.instrumentation.GraphListener;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link GraphListener} that traces the graph execution through OpenTelemetry.
+ * <p>
+ * A span is created for each node execution, edge evaluation and checkpoint operation. Spans are children of the
+ * span that is current when the callback is invoked. The span of a node whose result has been found in its cache
+ * has the {@code langgraph4j.node.cache_hit} attribute. A node failure sets the error status on the node span,
+ * interruptions and errors raised outside a node are recorded as events on the current span.
+ * <p>
+ * The open node spans are keyed by the execution id given by the graph runner, so the concurrent executions
+ * of the same node, even sharing the same {@link RunnableConfig}, end their own span.
+ *
+ * <pre>{@code
+ * var compileConfig = CompileConfig.builder()
+ *                         .listener( new OpenTelemetryGraphListener( openTelemetry ) )
+ *                         .build();
+ * }</pre>
+ */
+public class OpenTelemetryGraphListener implements GraphListener {
+
+    public static final String INSTRUMENTATION_NAME = "org.bsc.langgraph4j";
+
+    static final AttributeKey<String> NODE_ID = AttributeKey.stringKey("langgraph4j.node.id");
+    static final AttributeKey<Boolean> NODE_CACHE_HIT = AttributeKey.booleanKey("langgraph4j.node.cache_hit");
+    static final AttributeKey<String> EDGE_SOURCE = AttributeKey.stringKey("langgraph4j.edge.source");
+    static final AttributeKey<String> EDGE_TARGET = AttributeKey.stringKey("langgraph4j.edge.target");
+    static final AttributeKey<String> THREAD_ID = AttributeKey.stringKey("langgraph4j.thread.id");
+    static final AttributeKey<String> CHECKPOINT_ID = AttributeKey.stringKey("langgraph4j.checkpoint.id");
+    static final AttributeKey<Boolean> CHECKPOINT_FOUND = AttributeKey.booleanKey("langgraph4j.checkpoint.found");
+
+    private final Tracer tracer;
+    // execution id -> open node span
+    private final Map<Long, Span> nodeSpans = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new listener.
+     *
+     * @param openTelemetry the OpenTelemetry instance used to get the tracer
+     */
+    public OpenTelemetryGraphListener(OpenTelemetry openTelemetry) {
+        this(requireNonNull(openTelemetry, "openTelemetry cannot be null").getTracer(INSTRUMENTATION_NAME));
+    }
+
+    /**
+     * Creates a new listener.
+     *
+     * @param tracer the tracer used to create the spans
+     */
+    public OpenTelemetryGraphListener(Tracer tracer) {
+        this.tracer = requireNonNull(tracer, "tracer cannot be null");
+    }
+
+    private static String threadIdOf(RunnableConfig config) {
+        return config.threadId().orElse(BaseCheckpointSaver.THREAD_ID_DEFAULT);
+    }
+
+    /**
+     * Records an already completed operation as a span, starting it back in time by the given duration.
+     */
+    private void recordSpan(String name, RunnableConfig config, long durationNanos, Attributes attributes) {
+        final long end = System.currentTimeMillis() * 1_000_000L;
+        var builder = tracer.spanBuilder(name)
+                .setStartTimestamp(end - durationNanos, TimeUnit.NANOSECONDS)
+                .setAllAttributes(attributes);
+        if (config != null) {
+            builder.setAttribute(THREAD_ID, threadIdOf(config));
+        }
+        builder.startSpan().end(end, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onNodeStart(String nodeId, long executionId, RunnableConfig config) {
+        var span = tracer.spanBuilder("langgraph4j.node " + nodeId)
+                .setAttribute(NODE_ID, nodeId)
+                .setAttribute(THREAD_ID, threadIdOf(config))
+                .startSpan();
+        nodeSpans.put(executionId, span);
+    }
+
+    @Override
+    public void onNodeEnd(String nodeId, long executionId, RunnableConfig config, long durationNanos, Throwable error) {
+        var span = nodeSpans.remove(executionId);
+        if (span == null) {
+            return;
+        }
+        if (error != null) {
+            span.recordException(error);
+            span.setStatus(StatusCode.ERROR);
+        }
+        span.end();
+    }
+
+    @Override
+    public void onNodeCacheHit(String nodeId, long executionId, RunnableConfig config) {
+        var span = nodeSpans.get(executionId);
+        if (span != null) {
+            span.setAttribute(NODE_CACHE_HIT, true);
+        }
+    }
+
+    @Override
+    public void onEdge(String sourceId, String targetId, RunnableConfig config, long durationNanos) {
+        recordSpan("langgraph4j.edge", config, durationNanos,
+                Attributes.of(EDGE_SOURCE, sourceId, EDGE_TARGET, targetId));
+    }
+
+    @Override
+    public void onStateClone(long durationNanos) {
+        recordSpan("langgraph4j.state.clone", null, durationNanos, Attributes.empty());
+    }
+
+    @Override
+    public void onCheckpointPut(RunnableConfig config, Checkpoint checkpoint, long durationNanos) {
+        recordSpan("langgraph4j.checkpoint.put", config, durationNanos,
+                Attributes.of(NODE_ID, checkpoint.getNodeId(), CHECKPOINT_ID, checkpoint.getId()));
+    }
+
+    @Override
+    public void onCheckpointGet(RunnableConfig config, Optional<Checkpoint> checkpoint, long durationNanos) {
+        recordSpan("langgraph4j.checkpoint.get", config, durationNanos,
+                Attributes.of(CHECKPOINT_FOUND, checkpoint.isPresent()));
+    }
+
+    @Override
+    public void onInterrupt(String nodeId, RunnableConfig config) {
+        Span.current().addEvent("langgraph4j.interrupt",
+                Attributes.of(NODE_ID, nodeId, THREAD_ID, threadIdOf(config)));
+    }
+
+    @Override
+    public void onError(String nodeId, long executionId, RunnableConfig config, Throwable error) {
+        var span = (nodeId != null) ? nodeSpans.remove(executionId) : null;
+        if (span != null) {
+            // the node has not been completed
+            span.recordException(error);
+            span.setStatus(StatusCode.ERROR);
+            span.end();
+            return;
+        }
+        Span.current().recordException(error);
+    }
+}
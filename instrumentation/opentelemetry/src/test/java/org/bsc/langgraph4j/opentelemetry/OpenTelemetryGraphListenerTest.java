@@ -0,0 +1,115 @@
+package org.bsc.langgraph4j.opentelemetry;
+
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.testing.junit5.OpenTelemetryExtension;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.bsc.langgraph4j.CompileConfig;
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.cache.CachePolicy;
+import org.bsc.langgraph4j.checkpoint.MemorySaver;
+import org.bsc.langgraph4j.prebuilt.MessagesState;
+import org.bsc.langgraph4j.prebuilt.MessagesStateGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.bsc.langgraph4j.StateGraph.END;
+import static org.bsc.langgraph4j.StateGraph.START;
+import static org.bsc.langgraph4j.action.AsyncNodeAction.node_async;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpenTelemetryGraphListenerTest {
+
+    @RegisterExtension
+    static final OpenTelemetryExtension otel = OpenTelemetryExtension.create();
+
+    @Test
+    public void traceNodesEdgesAndCheckpoints() throws Exception {
+
+        var workflow = new MessagesStateGraph<String>()
+                .addNode("A", node_async((MessagesState<String> state) -> Map.of("messages", "A")))
+                .addNode("B", node_async((MessagesState<String> state) -> {
+                    throw new IllegalStateException("node failure");
+                }))
+                .addEdge(START, "A")
+                .addEdge("A", "B")
+                .addEdge("B", END)
+                .compile(CompileConfig.builder()
+                        .checkpointSaver(new MemorySaver())
+                        .listener(new OpenTelemetryGraphListener(otel.getOpenTelemetry()))
+                        .build());
+
+        assertThrows(Exception.class, () ->
+                workflow.stream(Map.of(), RunnableConfig.builder().threadId("T1").build()).stream().toList());
+
+        var spans = otel.getSpans();
+        var names = spans.stream().map(SpanData::getName).toList();
+
+        assertTrue(names.contains("langgraph4j.node A"));
+        assertTrue(names.contains("langgraph4j.edge"));
+        assertTrue(names.contains("langgraph4j.checkpoint.put"));
+        assertTrue(names.contains("langgraph4j.checkpoint.get"));
+
+        var nodeA = spans.stream().filter(s -> s.getName().equals("langgraph4j.node A")).findFirst().orElseThrow();
+        assertEquals("T1", nodeA.getAttributes().get(OpenTelemetryGraphListener.THREAD_ID));
+        assertEquals(StatusCode.UNSET, nodeA.getStatus().getStatusCode());
+
+        var nodeB = spans.stream().filter(s -> s.getName().equals("langgraph4j.node B")).findFirst().orElseThrow();
+        assertEquals(StatusCode.ERROR, nodeB.getStatus().getStatusCode());
+    }
+
+    @Test
+    public void markCacheHits() throws Exception {
+
+        var workflow = new MessagesStateGraph<String>()
+                .addNode("C", node_async((MessagesState<String> state) -> Map.of("messages", "C")),
+                        CachePolicy.builder().keyChannels("messages").build())
+                .addEdge(START, "C")
+                .addEdge("C", END)
+                .compile(CompileConfig.builder()
+                        .listener(new OpenTelemetryGraphListener(otel.getOpenTelemetry()))
+                        .build());
+
+        workflow.invoke(Map.of());
+        workflow.invoke(Map.of());
+
+        var hits = otel.getSpans().stream()
+                .filter(s -> s.getName().equals("langgraph4j.node C"))
+                .map(s -> s.getAttributes().get(OpenTelemetryGraphListener.NODE_CACHE_HIT))
+                .toList();
+        assertEquals(java.util.Arrays.asList(null, true), hits);
+    }
+
+    @Test
+    public void concurrentRunsSharingTheConfigEndTheirOwnSpans() throws Exception {
+
+        var workflow = new MessagesStateGraph<String>()
+                .addNode("S", node_async((MessagesState<String> state) -> {
+                    Thread.sleep(state.<Long>value("delay").orElseThrow());
+                    return Map.of();
+                }))
+                .addEdge(START, "S")
+                .addEdge("S", END)
+                .compile(CompileConfig.builder()
+                        .listener(new OpenTelemetryGraphListener(otel.getOpenTelemetry()))
+                        .build());
+
+        var config = RunnableConfig.builder().threadId("T1").build();
+        var slow = CompletableFuture.runAsync(() -> workflow.invoke(Map.of("delay", 300L), config));
+        Thread.sleep(50);
+        var fast = CompletableFuture.runAsync(() -> workflow.invoke(Map.of("delay", 10L), config));
+        CompletableFuture.allOf(slow, fast).join();
+
+        var durations = otel.getSpans().stream()
+                .filter(s -> s.getName().equals("langgraph4j.node S"))
+                .map(s -> TimeUnit.NANOSECONDS.toMillis(s.getEndEpochNanos() - s.getStartEpochNanos()))
+                .sorted()
+                .toList();
+        assertEquals(2, durations.size());
+        assertTrue(durations.get(0) < 300, "fast span: " + durations);
+        assertTrue(durations.get(1) >= 300, "slow span: " + durations);
+    }
+}
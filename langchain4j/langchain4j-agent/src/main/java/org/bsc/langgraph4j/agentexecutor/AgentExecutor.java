@@ -5,7 +5,6 @@ import dev.langchain4j.data.message.AiMessage;
 import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.data.message.ChatMessageType;
 import dev.langchain4j.invocation.InvocationContext;
-import dev.langchain4j.invocation.InvocationParameters;
 import dev.langchain4j.service.tool.ToolExecutor;
 import org.bsc.langgraph4j.GraphStateException;
 import org.bsc.langgraph4j.StateGraph;
@@ -13,6 +12,7 @@ import org.bsc.langgraph4j.action.*;
 import org.bsc.langgraph4j.agent.Agent;
 import org.bsc.langgraph4j.langchain4j.serializer.jackson.LC4jJacksonStateSerializer;
 import org.bsc.langgraph4j.langchain4j.serializer.std.LC4jStateSerializer;
+import org.bsc.langgraph4j.langchain4j.tool.LC4jInvocationParameters;
 import org.bsc.langgraph4j.langchain4j.tool.LC4jToolService;
 import org.bsc.langgraph4j.prebuilt.MessagesState;
 import org.bsc.langgraph4j.serializer.StateSerializer;
@@ -104,7 +104,7 @@ public interface AgentExecutor {
             }
 
             final var context = InvocationContext.builder()
-                                .invocationParameters( InvocationParameters.from(state.data()))
+                                .invocationParameters( LC4jInvocationParameters.ofState(state.data()))
                                 .build();
 
             return toolService.execute( toolExecutionRequests.get(), context, "messages")
@@ -1,10 +1,12 @@
 package org.bsc.langgraph4j.agentexecutor;
 
+import dev.langchain4j.data.message.AiMessage;
 import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.data.message.SystemMessage;
 import dev.langchain4j.model.chat.ChatModel;
 import dev.langchain4j.model.chat.StreamingChatModel;
 import dev.langchain4j.model.chat.request.ResponseFormat;
+import org.bsc.langgraph4j.cache.ResponseCache;
 import org.bsc.langgraph4j.langchain4j.tool.LC4jToolMapBuilder;
 import org.bsc.langgraph4j.prebuilt.MessagesState;
 import org.bsc.langgraph4j.serializer.StateSerializer;
@@ -16,6 +18,7 @@ public abstract class AgentExecutorBuilder<State extends MessagesState<ChatMessa
     StreamingChatModel streamingChatModel;
     SystemMessage systemMessage;
     ResponseFormat responseFormat;
+    ResponseCache<AiMessage> responseCache;
 
     @SuppressWarnings("unchecked")
     protected B result() {
@@ -53,4 +56,19 @@ public abstract class AgentExecutorBuilder<State extends MessagesState<ChatMessa
         return result();
     }
 
+    /**
+     * Sets the cache of the model responses, keyed by the canonical hash of the request
+     * (messages, tool specifications and parameters). On a hit the model isn't called and, when streaming,
+     * the cached response is replayed through the streaming generator.
+     *
+     * @param responseCache the response cache, e.g. {@link org.bsc.langgraph4j.cache.InMemoryResponseCache} or
+     *                      {@link org.bsc.langgraph4j.cache.FileResponseCache} with a
+     *                      {@link org.bsc.langgraph4j.langchain4j.serializer.std.ChatMesssageSerializer}
+     * @return the builder
+     */
+    public B responseCache(ResponseCache<AiMessage> responseCache ) {
+        this.responseCache = responseCache;
+        return result();
+    }
+
 }
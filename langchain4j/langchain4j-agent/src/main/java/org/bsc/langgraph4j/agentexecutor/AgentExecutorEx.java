@@ -4,7 +4,6 @@ import dev.langchain4j.agent.tool.ToolExecutionRequest;
 import dev.langchain4j.agent.tool.ToolSpecification;
 import dev.langchain4j.data.message.*;
 import dev.langchain4j.invocation.InvocationContext;
-import dev.langchain4j.invocation.InvocationParameters;
 import org.bsc.langgraph4j.GraphStateException;
 import org.bsc.langgraph4j.StateGraph;
 import org.bsc.langgraph4j.action.*;
@@ -12,6 +11,7 @@ import org.bsc.langgraph4j.agent.Agent;
 import org.bsc.langgraph4j.agent.AgentEx;
 import org.bsc.langgraph4j.langchain4j.serializer.jackson.LC4jJacksonStateSerializer;
 import org.bsc.langgraph4j.langchain4j.serializer.std.LC4jStateSerializer;
+import org.bsc.langgraph4j.langchain4j.tool.LC4jInvocationParameters;
 import org.bsc.langgraph4j.langchain4j.tool.LC4jToolService;
 import org.bsc.langgraph4j.prebuilt.MessagesState;
 import org.bsc.langgraph4j.serializer.StateSerializer;
@@ -150,7 +150,7 @@ public interface AgentExecutorEx {
                     ;
 
             final var context = InvocationContext.builder()
-                    .invocationParameters( InvocationParameters.from(state.data()))
+                    .invocationParameters( LC4jInvocationParameters.ofState(state.data()))
                     .build();
 
             return toolService.execute( toolExecutionRequests, context, "tool_execution_results")
@@ -1,21 +1,49 @@
 package org.bsc.langgraph4j.agentexecutor;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
 import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.ChatMessageSerializer;
 import dev.langchain4j.data.message.SystemMessage;
 import dev.langchain4j.model.chat.ChatModel;
 import dev.langchain4j.model.chat.StreamingChatModel;
 import dev.langchain4j.model.chat.request.ChatRequest;
 import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import dev.langchain4j.model.chat.request.DefaultChatRequestParameters;
+import dev.langchain4j.model.chat.request.ResponseFormat;
+import dev.langchain4j.model.chat.request.json.JsonAnyOfSchema;
+import dev.langchain4j.model.chat.request.json.JsonArraySchema;
+import dev.langchain4j.model.chat.request.json.JsonBooleanSchema;
+import dev.langchain4j.model.chat.request.json.JsonEnumSchema;
+import dev.langchain4j.model.chat.request.json.JsonIntegerSchema;
+import dev.langchain4j.model.chat.request.json.JsonNullSchema;
+import dev.langchain4j.model.chat.request.json.JsonNumberSchema;
+import dev.langchain4j.model.chat.request.json.JsonObjectSchema;
+import dev.langchain4j.model.chat.request.json.JsonRawSchema;
+import dev.langchain4j.model.chat.request.json.JsonReferenceSchema;
+import dev.langchain4j.model.chat.request.json.JsonSchemaElement;
+import dev.langchain4j.model.chat.request.json.JsonStringSchema;
 import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
 import dev.langchain4j.model.output.FinishReason;
 import org.bsc.langgraph4j.RunnableConfig;
 import org.bsc.langgraph4j.action.AsyncNodeActionWithConfig;
+import org.bsc.langgraph4j.cache.ResponseCache;
 import org.bsc.langgraph4j.langchain4j.generators.StreamingChatGenerator;
 import org.bsc.langgraph4j.prebuilt.MessagesState;
 
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 
 import static java.util.Optional.ofNullable;
@@ -24,10 +52,15 @@ public class CallModel<State extends MessagesState<ChatMessage>> implements Asyn
 
     static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(CallModel.class);
 
+    // the keys of the maps are sorted, so the canonical form doesn't depend on the order of the fields
+    private static final ObjectMapper canonicalMapper = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
     private final ChatModel chatModel;
     private final StreamingChatModel streamingChatModel;
     private final SystemMessage systemMessage;
     final ChatRequestParameters parameters;
+    private final ResponseCache<AiMessage> responseCache;
 
     /**
      * Constructs a CallAgent with the specified agent.
@@ -47,6 +80,7 @@ public class CallModel<State extends MessagesState<ChatMessage>> implements Asyn
         }
 
         this.parameters =  parametersBuilder.build();
+        this.responseCache = builder.responseCache;
     }
 
     public boolean isStreaming() {
@@ -94,6 +128,213 @@ public class CallModel<State extends MessagesState<ChatMessage>> implements Asyn
                 .build();
     }
 
+    /**
+     * Evaluates the cache key of a request from explicit fields, so that it is stable across runs and library
+     * versions: the messages as JSON followed, as JSON, by all the {@link ChatRequestParameters} (model name,
+     * sampling options, stop sequences, penalties, tool specifications sorted by name, tool choice and response
+     * format). The request parameters override the default ones of the model.
+     * <p>
+     * The parameters specific to a provider are the fields of the subclasses of {@link DefaultChatRequestParameters}.
+     * They are part of the key when their values are plain data (strings, numbers, booleans, enums, lists and maps
+     * of them), otherwise the request is not recognised and the key is empty: such requests are never cached.
+     *
+     * @return the cache key, empty if the request cannot be keyed reliably
+     */
+    Optional<String> cacheKeyOf( ChatRequest request, ChatRequestParameters modelParameters ) {
+        var parameters = ( modelParameters != null ) ? modelParameters.overrideWith( request.parameters() ) : request.parameters();
+
+        var canonical = new LinkedHashMap<String,Object>();
+        canonical.put( "model", parameters.modelName() );
+        canonical.put( "temperature", parameters.temperature() );
+        canonical.put( "topP", parameters.topP() );
+        canonical.put( "topK", parameters.topK() );
+        canonical.put( "frequencyPenalty", parameters.frequencyPenalty() );
+        canonical.put( "presencePenalty", parameters.presencePenalty() );
+        canonical.put( "maxOutputTokens", parameters.maxOutputTokens() );
+        canonical.put( "stopSequences", parameters.stopSequences() );
+        canonical.put( "tools", ofNullable( parameters.toolSpecifications() ).orElseGet( List::of ).stream()
+                .sorted( Comparator.comparing( ToolSpecification::name ) )
+                .map( CallModel::canonicalToolOf )
+                .toList() );
+        canonical.put( "toolChoice", ( parameters.toolChoice() != null ) ? parameters.toolChoice().name() : null );
+        canonical.put( "responseFormat", canonicalFormatOf( parameters.responseFormat() ) );
+
+        try {
+            canonical.put( "provider", providerParametersOf( parameters ) );
+
+            return Optional.of( ResponseCache.keyOf( ChatMessageSerializer.messagesToJson( request.messages() ) + '\n'
+                    + canonicalMapper.writeValueAsString( canonical ) ) );
+        } catch (ReflectiveOperationException | RuntimeException | JsonProcessingException e) {
+            log.debug( "request parameters {} not recognised, response not cached", parameters.getClass().getName(), e );
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Collects the fields declared by the subclasses of {@link DefaultChatRequestParameters}, sorted by name.
+     *
+     * @throws IllegalArgumentException if a value is not plain data
+     * @throws ReflectiveOperationException if a field cannot be read
+     */
+    private static Map<String,Object> providerParametersOf( ChatRequestParameters parameters ) throws ReflectiveOperationException {
+        if( !( parameters instanceof DefaultChatRequestParameters ) ) {
+            throw new IllegalArgumentException( "unknown parameters type: " + parameters.getClass().getName() );
+        }
+        var result = new TreeMap<String,Object>();
+        for( Class<?> type = parameters.getClass(); type != DefaultChatRequestParameters.class; type = type.getSuperclass() ) {
+            for( var field : type.getDeclaredFields() ) {
+                if( Modifier.isStatic( field.getModifiers() ) || field.isSynthetic() ) {
+                    continue;
+                }
+                field.setAccessible( true );
+                result.put( type.getSimpleName() + '.' + field.getName(), plainValueOf( field.get( parameters ) ) );
+            }
+        }
+        return result;
+    }
+
+    private static Object plainValueOf( Object value ) {
+        if( value == null || value instanceof String || value instanceof Number || value instanceof Boolean ) {
+            return value;
+        }
+        if( value instanceof Enum<?> e ) {
+            return e.name();
+        }
+        if( value instanceof Collection<?> collection ) {
+            return collection.stream().map( CallModel::plainValueOf ).toList();
+        }
+        if( value instanceof Map<?,?> map ) {
+            var result = new TreeMap<String,Object>();
+            map.forEach( ( k, v ) -> result.put( String.valueOf( plainValueOf( k ) ), plainValueOf( v ) ) );
+            return result;
+        }
+        throw new IllegalArgumentException( "not plain data: " + value.getClass().getName() );
+    }
+
+    private static Map<String,Object> canonicalToolOf( ToolSpecification tool ) {
+        var canonical = new LinkedHashMap<String,Object>();
+        canonical.put( "name", tool.name() );
+        canonical.put( "description", tool.description() );
+        canonical.put( "parameters", canonicalSchemaOf( tool.parameters() ) );
+        return canonical;
+    }
+
+    private static Map<String,Object> canonicalFormatOf( ResponseFormat format ) {
+        if( format == null ) {
+            return null;
+        }
+        var canonical = new LinkedHashMap<String,Object>();
+        canonical.put( "type", format.type().name() );
+        if( format.jsonSchema() != null ) {
+            canonical.put( "name", format.jsonSchema().name() );
+            canonical.put( "schema", canonicalSchemaOf( format.jsonSchema().rootElement() ) );
+        }
+        return canonical;
+    }
+
+    private static Map<String,Object> canonicalSchemasOf( Map<String, JsonSchemaElement> elements ) {
+        if( elements == null ) {
+            return null;
+        }
+        var result = new TreeMap<String,Object>();
+        elements.forEach( ( name, element ) -> result.put( name, canonicalSchemaOf( element ) ) );
+        return result;
+    }
+
+    /**
+     * Canonical form of a JSON schema element, built through its public accessors.
+     *
+     * @throws IllegalArgumentException if the type of the element is unknown
+     */
+    private static Map<String,Object> canonicalSchemaOf( JsonSchemaElement element ) {
+        if( element == null ) {
+            return null;
+        }
+        var canonical = new LinkedHashMap<String,Object>();
+        canonical.put( "description", element.description() );
+        if( element instanceof JsonObjectSchema object ) {
+            canonical.put( "type", "object" );
+            canonical.put( "properties", canonicalSchemasOf( object.properties() ) );
+            canonical.put( "required", object.required() );
+            canonical.put( "additionalProperties", object.additionalProperties() );
+            canonical.put( "definitions", canonicalSchemasOf( object.definitions() ) );
+        }
+        else if( element instanceof JsonArraySchema array ) {
+            canonical.put( "type", "array" );
+            canonical.put( "items", canonicalSchemaOf( array.items() ) );
+        }
+        else if( element instanceof JsonEnumSchema enumeration ) {
+            canonical.put( "type", "enum" );
+            canonical.put( "enum", enumeration.enumValues() );
+        }
+        else if( element instanceof JsonAnyOfSchema anyOf ) {
+            canonical.put( "type", "anyOf" );
+            canonical.put( "anyOf", anyOf.anyOf().stream().map( CallModel::canonicalSchemaOf ).toList() );
+        }
+        else if( element instanceof JsonReferenceSchema reference ) {
+            canonical.put( "type", "reference" );
+            canonical.put( "reference", reference.reference() );
+        }
+        else if( element instanceof JsonRawSchema raw ) {
+            canonical.put( "type", "raw" );
+            canonical.put( "schema", raw.schema() );
+        }
+        else if( element instanceof JsonStringSchema ) {
+            canonical.put( "type", "string" );
+        }
+        else if( element instanceof JsonIntegerSchema ) {
+            canonical.put( "type", "integer" );
+        }
+        else if( element instanceof JsonNumberSchema ) {
+            canonical.put( "type", "number" );
+        }
+        else if( element instanceof JsonBooleanSchema ) {
+            canonical.put( "type", "boolean" );
+        }
+        else if( element instanceof JsonNullSchema ) {
+            canonical.put( "type", "null" );
+        }
+        else {
+            throw new IllegalArgumentException( "unknown schema element: " + element.getClass().getName() );
+        }
+        return canonical;
+    }
+
+    private static ChatResponse cachedResponse( AiMessage message ) {
+        return ChatResponse.builder()
+                .aiMessage( message )
+                .finishReason( message.hasToolExecutionRequests() ? FinishReason.TOOL_EXECUTION : FinishReason.STOP )
+                .build();
+    }
+
+    // replays a cached response as a stream of a single chunk
+    private static void replay( AiMessage message, StreamingChatResponseHandler handler ) {
+        if( message.text() != null && !message.text().isEmpty() ) {
+            handler.onPartialResponse( message.text() );
+        }
+        handler.onCompleteResponse( cachedResponse( message ) );
+    }
+
+    private StreamingChatResponseHandler caching( String cacheKey, StreamingChatResponseHandler handler ) {
+        return new StreamingChatResponseHandler() {
+            @Override
+            public void onPartialResponse(String partialResponse) {
+                handler.onPartialResponse( partialResponse );
+            }
+
+            @Override
+            public void onCompleteResponse(ChatResponse completeResponse) {
+                responseCache.put( cacheKey, completeResponse.aiMessage() );
+                handler.onCompleteResponse( completeResponse );
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                handler.onError( error );
+            }
+        };
+    }
+
     /**
      * Applies the action to the given state and returns the result.
      *
@@ -109,21 +350,44 @@ public class CallModel<State extends MessagesState<ChatMessage>> implements Asyn
             throw new IllegalArgumentException("no input provided!");
         }
 
-        if( isStreaming() && !config.isRunningInStudio() ) {
+        var streaming = isStreaming() && !config.isRunningInStudio();
+        var request = prepareRequest(messages);
+        var cacheKey = ( responseCache != null )
+                ? cacheKeyOf(request, streaming ? streamingChatModel.defaultRequestParameters() : chatModel.defaultRequestParameters()).orElse(null)
+                : null;
+        var cached = ( cacheKey != null ) ? responseCache.get(cacheKey) : Optional.<AiMessage>empty();
+
+        if( streaming ) {
 
             var generator = StreamingChatGenerator.<State>builder()
                     .mapResult( this::mapResult )
                     .startingNode("agent")
                     .startingState( state )
                     .build();
-            streamingChatModel.chat(prepareRequest(messages),  generator.handler());
+
+            if( cached.isPresent() ) {
+                log.trace( "response cache hit: {}", cacheKey );
+                replay( cached.get(), generator.handler() );
+            }
+            else {
+                streamingChatModel.chat(request, ( cacheKey != null ) ? caching( cacheKey, generator.handler() ) : generator.handler());
+            }
 
             return Map.of( "_generator", generator);
 
 
         }
         else {
-            var response = chatModel.chat(prepareRequest(messages));
+            if( cached.isPresent() ) {
+                log.trace( "response cache hit: {}", cacheKey );
+                return mapResult( cachedResponse( cached.get() ) );
+            }
+
+            var response = chatModel.chat(request);
+
+            if( cacheKey != null ) {
+                responseCache.put( cacheKey, response.aiMessage() );
+            }
 
             return mapResult(response);
         }
@@ -0,0 +1,193 @@
+package org.bsc.langgraph4j.agentexecutor;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import dev.langchain4j.model.chat.request.DefaultChatRequestParameters;
+import dev.langchain4j.model.chat.request.ToolChoice;
+import dev.langchain4j.model.chat.request.json.JsonObjectSchema;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import dev.langchain4j.model.output.FinishReason;
+import org.bsc.async.AsyncGenerator;
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.cache.FileResponseCache;
+import org.bsc.langgraph4j.cache.InMemoryResponseCache;
+import org.bsc.langgraph4j.langchain4j.serializer.std.ChatMesssageSerializer;
+import org.bsc.langgraph4j.streaming.StreamingOutput;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CallModelResponseCacheTest {
+
+    static class CountingChatModel implements ChatModel {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public ChatResponse doChat(ChatRequest request) {
+            calls.incrementAndGet();
+            return ChatResponse.builder()
+                    .aiMessage(AiMessage.from("answer to " + ((UserMessage) request.messages().get(1)).singleText()))
+                    .finishReason(FinishReason.STOP)
+                    .build();
+        }
+    }
+
+    static class CountingStreamingChatModel implements StreamingChatModel {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public void doChat(ChatRequest request, StreamingChatResponseHandler handler) {
+            calls.incrementAndGet();
+            handler.onPartialResponse("streamed ");
+            handler.onPartialResponse("answer");
+            handler.onCompleteResponse(ChatResponse.builder()
+                    .aiMessage(AiMessage.from("streamed answer"))
+                    .finishReason(FinishReason.STOP)
+                    .build());
+        }
+    }
+
+    private static AgentExecutor.State stateOf(String prompt) {
+        return new AgentExecutor.State(Map.of("messages", List.of(UserMessage.from(prompt))));
+    }
+
+    @Test
+    public void identicalRequestsHitTheCache() {
+        var model = new CountingChatModel();
+        var cache = new InMemoryResponseCache<AiMessage>();
+        var callModel = new CallModel<AgentExecutor.State>(AgentExecutor.builder()
+                .chatModel(model)
+                .responseCache(cache));
+        var config = RunnableConfig.builder().build();
+
+        var result = callModel.applySync(stateOf("hi"), config);
+        assertEquals("answer to hi", result.get(AgentExecutor.State.FINAL_RESPONSE));
+
+        // another thread, same request
+        result = callModel.applySync(stateOf("hi"), RunnableConfig.builder().threadId("t2").build());
+        assertEquals("answer to hi", result.get(AgentExecutor.State.FINAL_RESPONSE));
+        assertEquals(1, model.calls.get());
+
+        callModel.applySync(stateOf("bye"), config);
+        assertEquals(2, model.calls.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void cachedResponseIsReplayedAsStream(@TempDir Path folder) throws Exception {
+        var model = new CountingStreamingChatModel();
+        var cache = new FileResponseCache<>(folder, new ChatMesssageSerializer(), AiMessage.class);
+        var callModel = new CallModel<AgentExecutor.State>(AgentExecutor.builder()
+                .chatModel(model)
+                .responseCache(cache));
+        var config = RunnableConfig.builder().build();
+
+        for (int i = 0; i < 2; ++i) {
+            var result = callModel.applySync(stateOf("hi"), config);
+            var generator = (AsyncGenerator<StreamingOutput<AgentExecutor.State>>) result.get("_generator");
+
+            var text = new StringBuilder();
+            AsyncGenerator.Data<StreamingOutput<AgentExecutor.State>> data;
+            while (!(data = generator.next()).isDone()) {
+                text.append(data.future().join().chunk());
+            }
+            assertEquals("streamed answer", text.toString());
+            var output = (Map<String, Object>) data.resultValue();
+            assertEquals("streamed answer", output.get(AgentExecutor.State.FINAL_RESPONSE));
+        }
+        assertEquals(1, model.calls.get());
+    }
+
+    @Test
+    public void keyDependsOnExplicitFields() {
+        var callModel = new CallModel<AgentExecutor.State>(AgentExecutor.builder()
+                .chatModel(new CountingChatModel()));
+        var weather = ToolSpecification.builder()
+                .name("weather")
+                .description("the weather of a city")
+                .parameters(JsonObjectSchema.builder().addStringProperty("city").build())
+                .build();
+        var time = ToolSpecification.builder().name("time").build();
+
+        java.util.function.BiFunction<Double, List<ToolSpecification>, String> keyOf = (temperature, tools) ->
+                callModel.cacheKeyOf(ChatRequest.builder()
+                                .messages(UserMessage.from("hi"))
+                                .parameters(ChatRequestParameters.builder().toolSpecifications(tools).build())
+                                .build(),
+                        ChatRequestParameters.builder().modelName("gpt").temperature(temperature).build())
+                        .orElseThrow();
+
+        var key = keyOf.apply(0.0, List.of(weather, time));
+        assertEquals(key, keyOf.apply(0.0, List.of(time, weather)));
+        assertNotEquals(key, keyOf.apply(0.7, List.of(weather, time)));
+        assertNotEquals(key, keyOf.apply(0.0, List.of(weather)));
+        assertNotEquals(key, keyOf.apply(0.0, List.of(weather, ToolSpecification.builder().name("time").description("now").build())));
+    }
+
+    @Test
+    public void keyCoversAllRequestParameters() {
+        var callModel = new CallModel<AgentExecutor.State>(AgentExecutor.builder()
+                .chatModel(new CountingChatModel()));
+
+        java.util.function.Function<ChatRequestParameters, String> keyOf = parameters ->
+                callModel.cacheKeyOf(ChatRequest.builder()
+                                .messages(UserMessage.from("hi"))
+                                .parameters(parameters)
+                                .build(),
+                        ChatRequestParameters.builder().modelName("gpt").build())
+                        .orElseThrow();
+
+        var key = keyOf.apply(ChatRequestParameters.builder().build());
+        assertEquals(key, keyOf.apply(ChatRequestParameters.builder().build()));
+        assertNotEquals(key, keyOf.apply(ChatRequestParameters.builder().topP(0.5).build()));
+        assertNotEquals(key, keyOf.apply(ChatRequestParameters.builder().topK(5).build()));
+        assertNotEquals(key, keyOf.apply(ChatRequestParameters.builder().maxOutputTokens(10).build()));
+        assertNotEquals(key, keyOf.apply(ChatRequestParameters.builder().stopSequences(List.of("stop")).build()));
+        assertNotEquals(key, keyOf.apply(ChatRequestParameters.builder().frequencyPenalty(0.5).build()));
+        assertNotEquals(key, keyOf.apply(ChatRequestParameters.builder().presencePenalty(0.5).build()));
+        assertNotEquals(key, keyOf.apply(ChatRequestParameters.builder().toolChoice(ToolChoice.REQUIRED).build()));
+    }
+
+    static class ProviderParameters extends DefaultChatRequestParameters {
+        final Object value;
+
+        ProviderParameters(Object value) {
+            super(DefaultChatRequestParameters.builder().modelName("gpt"));
+            this.value = value;
+        }
+    }
+
+    @Test
+    public void providerParametersAreKeyedOrNotCached() {
+        var callModel = new CallModel<AgentExecutor.State>(AgentExecutor.builder()
+                .chatModel(new CountingChatModel()));
+
+        java.util.function.Function<ChatRequestParameters, java.util.Optional<String>> keyOf = parameters ->
+                callModel.cacheKeyOf(ChatRequest.builder()
+                                .messages(UserMessage.from("hi"))
+                                .parameters(parameters)
+                                .build(),
+                        null);
+
+        var key = keyOf.apply(new ProviderParameters("low"));
+        assertTrue(key.isPresent());
+        assertEquals(key, keyOf.apply(new ProviderParameters("low")));
+        assertNotEquals(key, keyOf.apply(new ProviderParameters("high")));
+        assertNotEquals(key, keyOf.apply(new ProviderParameters(List.of("low"))));
+        // values that are not plain data are not recognised
+        assertTrue(keyOf.apply(new ProviderParameters(new Object())).isEmpty());
+    }
+}
@@ -5,10 +5,12 @@ import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
 import org.bsc.async.AsyncGenerator;
 import org.bsc.async.AsyncGeneratorQueue;
 import org.bsc.langgraph4j.state.AgentState;
+import org.bsc.langgraph4j.streaming.BoundedStreamingQueue;
 import org.bsc.langgraph4j.streaming.StreamingOutput;
 
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.function.Function;
@@ -29,6 +31,7 @@ public class StreamingChatGenerator<State extends AgentState> extends AsyncGener
     }
 
     final StreamingChatResponseHandler handler;
+    private final BlockingQueue<Data<StreamingOutput<State>>> queue;
 
     /**
      * Constructs an LLMStreamingGenerator with the specified parameters.
@@ -44,6 +47,7 @@ public class StreamingChatGenerator<State extends AgentState> extends AsyncGener
                                    Function<ChatResponse, Map<String,Object>> mapResult)
     {
         super(new AsyncGeneratorQueue.Generator<>( Objects.requireNonNull(queue, "queue cannot be null" )  ));
+        this.queue = queue;
 
         this.handler = new StreamingChatResponseHandler() {
 
@@ -78,6 +82,17 @@ public class StreamingChatGenerator<State extends AgentState> extends AsyncGener
         return handler;
     }
 
+    /**
+     * Returns the metrics of the queue, if it is a {@link BoundedStreamingQueue}.
+     *
+     * @return the queue metrics
+     */
+    public Optional<BoundedStreamingQueue.Metrics> queueMetrics() {
+        return ( queue instanceof BoundedStreamingQueue<?> bounded ) ?
+                Optional.of( bounded.metrics() ) :
+                Optional.empty();
+    }
+
     /**
      * Builder class for constructing instances of LLMStreamingGenerator.
      *
@@ -100,6 +115,20 @@ public class StreamingChatGenerator<State extends AgentState> extends AsyncGener
             return this;
         }
 
+        /**
+         * Sets a bounded lock-free queue, in place of the default unbounded one, so that the tokens don't pile up
+         * when the consumer is slower than the model.
+         *
+         * @param capacity the queue capacity, rounded up to a power of two
+         * @param overflowPolicy how the tokens are handled when the queue is full
+         * @return the builder instance
+         * @see BoundedStreamingQueue
+         */
+        public Builder<State> boundedQueue( int capacity, BoundedStreamingQueue.OverflowPolicy overflowPolicy ) {
+            this.queue = BoundedStreamingQueue.ofStreamingOutput( capacity, overflowPolicy );
+            return this;
+        }
+
         /**
          * Sets the mapping function for the builder.
          *
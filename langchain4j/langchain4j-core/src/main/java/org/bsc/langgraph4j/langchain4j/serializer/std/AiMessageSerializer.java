@@ -3,18 +3,21 @@ package org.bsc.langgraph4j.langchain4j.serializer.std;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.ArrayList;
 import java.util.List;
 
 import dev.langchain4j.agent.tool.ToolExecutionRequest;
 import dev.langchain4j.data.message.AiMessage;
 import org.bsc.langgraph4j.serializer.Serializer;
 
+import static org.bsc.langgraph4j.serializer.std.CompactIO.*;
 
 /**
  * The AiMessageSerializer class implements the Serializer interface for the AiMessage type.
  * It provides methods to serialize and deserialize AiMessage objects.
  */
 public class AiMessageSerializer implements Serializer<AiMessage> {
+    private final ToolExecutionRequestSerializer toolExecutionRequest = new ToolExecutionRequestSerializer();
     
     /**
      * Serializes the given AiMessage object to the specified output stream.
@@ -57,4 +60,29 @@ public class AiMessageSerializer implements Serializer<AiMessage> {
         }
         return AiMessage.aiMessage(Serializer.readUTF(in));
     }
+
+    void writeCompact(AiMessage object, ObjectOutput out) throws IOException {
+        writeNullableString(object.text(), out);
+        writeNullableString(object.thinking(), out);
+        final var requests = object.hasToolExecutionRequests() ? object.toolExecutionRequests() : List.<ToolExecutionRequest>of();
+        writeVarInt(requests.size(), out);
+        for (var request : requests) {
+            toolExecutionRequest.writeCompact(request, out);
+        }
+    }
+
+    AiMessage readCompact(ObjectInput in) throws IOException {
+        final var builder = AiMessage.builder()
+                .text(readNullableString(in))
+                .thinking(readNullableString(in));
+        final int size = readVarInt(in);
+        if (size > 0) {
+            final var requests = new ArrayList<ToolExecutionRequest>(size);
+            for (int i = 0; i < size; ++i) {
+                requests.add(toolExecutionRequest.readCompact(in));
+            }
+            builder.toolExecutionRequests(requests);
+        }
+        return builder.build();
+    }
 }
@@ -3,21 +3,70 @@ package org.bsc.langgraph4j.langchain4j.serializer.std;
 import dev.langchain4j.data.message.*;
 
 import org.bsc.langgraph4j.serializer.Serializer;
+import org.bsc.langgraph4j.serializer.std.CompactIO;
+import org.bsc.langgraph4j.serializer.std.ContentAddressedSerializer;
+import org.bsc.langgraph4j.serializer.std.MessageStore;
+import org.bsc.langgraph4j.serializer.std.SerializerMapper;
 
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.io.StreamCorruptedException;
+import java.util.Objects;
 
 /**
  * The ChatMesssageSerializer class is responsible for serializing and deserializing 
  * ChatMessage objects. It implements the Serializer interface for the ChatMessage type.
+ * <p>
+ * Messages are written in a compact format: a raw one byte type tag followed by the message fields, as varint-prefixed
+ * UTF-8 strings (see {@link CompactIO}). The previous format, starting with the Java serialized
+ * {@link ChatMessageType}, is still read.
+ * <p>
+ * If created with a {@link MessageStore}, the messages are written once in the store and
+ * only their references are written in the serialized state, see {@link ContentAddressedSerializer}.
+ * Both the inline messages and the references are read.
  */
 public class ChatMesssageSerializer implements Serializer<ChatMessage> {
+    // raw tags, outside the object stream type codes (see CompactIO)
+    static final int TAG_AI = 1;
+    static final int TAG_USER = 2;
+    static final int TAG_SYSTEM = 3;
+    static final int TAG_TOOL_EXECUTION_RESULT = 4;
+
     final AiMessageSerializer ai = new AiMessageSerializer();
     final UserMessageSerializer user = new UserMessageSerializer();
     final SystemMessageSerializer system = new SystemMessageSerializer();
     final ToolExecutionResultMessageSerializer toolExecutionResult = new ToolExecutionResultMessageSerializer();
 
+    private final ContentAddressedSerializer<ChatMessage> references;
+
+    public ChatMesssageSerializer() {
+        this.references = null;
+    }
+
+    /**
+     * Creates a serializer writing the messages in the given store.
+     *
+     * @param store  the message store
+     * @param mapper the mapper of the state serializer, resolving the serializers of the nested objects
+     */
+    public ChatMesssageSerializer(MessageStore store, SerializerMapper mapper) {
+        Objects.requireNonNull(store, "store cannot be null");
+        Objects.requireNonNull(mapper, "mapper cannot be null");
+
+        this.references = new ContentAddressedSerializer<>(new Serializer<>() {
+            @Override
+            public void write(ChatMessage object, ObjectOutput out) throws IOException {
+                writeCompact(object, out);
+            }
+
+            @Override
+            public ChatMessage read(ObjectInput in) throws IOException, ClassNotFoundException {
+                return ChatMesssageSerializer.this.read(in);
+            }
+        }, store, mapper);
+    }
+
     /**
      * Serializes the given ChatMessage object to the specified output stream.
      *
@@ -27,19 +76,33 @@ public class ChatMesssageSerializer implements Serializer<ChatMessage> {
      */
     @Override
     public void write(ChatMessage object, ObjectOutput out) throws IOException {
-        out.writeObject(object.type());
+        if (references != null) {
+            references.write(object, out);
+        } else {
+            writeCompact(object, out);
+        }
+    }
+
+    private void writeCompact(ChatMessage object, ObjectOutput out) throws IOException {
         switch (object.type()) {
             case AI:
-                ai.write((AiMessage) object, out);
+                out.writeByte(TAG_AI);
+                ai.writeCompact((AiMessage) object, out);
                 break;
             case USER:
-                user.write((UserMessage) object, out);
+                out.writeByte(TAG_USER);
+                user.writeCompact((UserMessage) object, out);
                 break;
             case SYSTEM:
-                system.write((SystemMessage) object, out);
+                out.writeByte(TAG_SYSTEM);
+                system.writeCompact((SystemMessage) object, out);
                 break;
             case TOOL_EXECUTION_RESULT:
-                toolExecutionResult.write((ToolExecutionResultMessage) object, out);
+                out.writeByte(TAG_TOOL_EXECUTION_RESULT);
+                toolExecutionResult.writeCompact((ToolExecutionResultMessage) object, out);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported chat message type: " + object.type());
         }
     }
 
@@ -53,9 +116,37 @@ public class ChatMesssageSerializer implements Serializer<ChatMessage> {
      */
     @Override
     public ChatMessage read(ObjectInput in) throws IOException, ClassNotFoundException {
+        final int tag = CompactIO.readTag(in);
+        if (tag >= 0) {
+            return readTagged(tag, in);
+        }
+        final Object header = in.readObject();
+        if (header instanceof ChatMessageType type) {
+            return readLegacy(type, in);
+        }
+        throw new StreamCorruptedException("invalid chat message header: " + header);
+    }
 
-        ChatMessageType type = (ChatMessageType) in.readObject();
+    private ChatMessage readTagged(int tag, ObjectInput in) throws IOException, ClassNotFoundException {
+        switch (tag) {
+            case TAG_AI:
+                return ai.readCompact(in);
+            case TAG_USER:
+                return user.readCompact(in);
+            case TAG_SYSTEM:
+                return system.readCompact(in);
+            case TAG_TOOL_EXECUTION_RESULT:
+                return toolExecutionResult.readCompact(in);
+            case ContentAddressedSerializer.REFERENCE:
+                if (references == null) {
+                    throw new StreamCorruptedException("message reference found, but no message store has been configured");
+                }
+                return references.readReference(in);
+        }
+        throw new StreamCorruptedException(String.format("invalid chat message tag: 0x%02X", tag));
+    }
 
+    private ChatMessage readLegacy(ChatMessageType type, ObjectInput in) throws IOException, ClassNotFoundException {
         switch (type) {
             case AI:
                 return ai.read(in);
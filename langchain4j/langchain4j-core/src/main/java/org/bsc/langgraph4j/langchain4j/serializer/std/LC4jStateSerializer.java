@@ -2,16 +2,48 @@ package org.bsc.langgraph4j.langchain4j.serializer.std;
 
 import dev.langchain4j.agent.tool.ToolExecutionRequest;
 import dev.langchain4j.data.message.ChatMessage;
+import org.bsc.langgraph4j.serializer.std.MessageStore;
 import org.bsc.langgraph4j.serializer.std.ObjectStreamStateSerializer;
 import org.bsc.langgraph4j.state.AgentState;
 import org.bsc.langgraph4j.state.AgentStateFactory;
 
+import java.io.IOException;
+
 public class LC4jStateSerializer<State extends AgentState> extends ObjectStreamStateSerializer<State> {
 
+    // clones the states writing the messages inline, null if the messages are already written inline
+    private final LC4jStateSerializer<State> cloneSerializer;
+
     public LC4jStateSerializer( AgentStateFactory<State> stateFactory ) {
         super(stateFactory);
 
         mapper().register(ToolExecutionRequest.class, new ToolExecutionRequestSerializer());
         mapper().register(ChatMessage.class, new ChatMesssageSerializer());
+        cloneSerializer = null;
+    }
+
+    /**
+     * Creates a serializer writing the chat messages once in the given store, so the serialized states
+     * hold only the message references.
+     * The store is written only by the serialization of the checkpoints: the clones of the states, taken
+     * on each step, write the messages inline.
+     *
+     * @param stateFactory the state factory
+     * @param messageStore the content-addressed message store
+     */
+    public LC4jStateSerializer( AgentStateFactory<State> stateFactory, MessageStore messageStore ) {
+        super(stateFactory);
+
+        mapper().register(ToolExecutionRequest.class, new ToolExecutionRequestSerializer());
+        mapper().register(ChatMessage.class, new ChatMesssageSerializer(messageStore, mapper()));
+        cloneSerializer = new LC4jStateSerializer<>(stateFactory);
+    }
+
+    @Override
+    public State cloneObject(State object) throws IOException, ClassNotFoundException {
+        if (cloneSerializer != null) {
+            return cloneSerializer.cloneObject(object);
+        }
+        return super.cloneObject(object);
     }
 }
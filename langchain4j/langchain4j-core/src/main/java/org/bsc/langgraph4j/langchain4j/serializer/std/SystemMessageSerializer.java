@@ -7,6 +7,8 @@ import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 
+import static org.bsc.langgraph4j.serializer.std.CompactIO.*;
+
 /**
  * The SystemMessageSerializer class implements the Serializer interface for the SystemMessage type.
  * It provides methods to serialize and deserialize SystemMessage objects.
@@ -38,4 +40,12 @@ public class SystemMessageSerializer implements Serializer<SystemMessage> {
         String text = Serializer.readUTF(in);
         return SystemMessage.systemMessage(text);
     }
+
+    void writeCompact(SystemMessage object, ObjectOutput out) throws IOException {
+        writeString(object.text(), out);
+    }
+
+    SystemMessage readCompact(ObjectInput in) throws IOException {
+        return SystemMessage.systemMessage(readString(in));
+    }
 }
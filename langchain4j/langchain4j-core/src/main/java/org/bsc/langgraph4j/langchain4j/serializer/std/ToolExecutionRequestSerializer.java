@@ -8,6 +8,8 @@ import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 
+import static org.bsc.langgraph4j.serializer.std.CompactIO.*;
+
 /**
  * The ToolExecutionRequestSerializer class implements the Serializer interface
  * for the ToolExecutionRequest type. It provides methods to serialize and 
@@ -50,4 +52,18 @@ public class ToolExecutionRequestSerializer implements NullableObjectSerializer<
                 .arguments(Serializer.readUTF(in))
                 .build();
     }
+
+    void writeCompact(ToolExecutionRequest object, ObjectOutput out) throws IOException {
+        writeNullableString(object.id(), out);
+        writeNullableString(object.name(), out);
+        writeNullableString(object.arguments(), out);
+    }
+
+    ToolExecutionRequest readCompact(ObjectInput in) throws IOException {
+        return ToolExecutionRequest.builder()
+                .id(readNullableString(in))
+                .name(readNullableString(in))
+                .arguments(readNullableString(in))
+                .build();
+    }
 }
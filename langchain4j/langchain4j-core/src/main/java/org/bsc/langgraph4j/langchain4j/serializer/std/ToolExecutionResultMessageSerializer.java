@@ -8,6 +8,8 @@ import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 
+import static org.bsc.langgraph4j.serializer.std.CompactIO.*;
+
 /**
  * This class is responsible for serializing and deserializing 
  * instances of ToolExecutionResultMessage. It implements the 
@@ -50,4 +52,17 @@ public class ToolExecutionResultMessageSerializer implements NullableObjectSeria
         String text = Serializer.readUTF(in);
         return new ToolExecutionResultMessage( id, toolName, text );
     }
+
+    void writeCompact(ToolExecutionResultMessage object, ObjectOutput out) throws IOException {
+        writeNullableString( object.id(), out );
+        writeNullableString( object.toolName(), out );
+        writeNullableString( object.text(), out );
+    }
+
+    ToolExecutionResultMessage readCompact(ObjectInput in) throws IOException {
+        final var id = readNullableString(in);
+        final var toolName = readNullableString(in);
+        final var text = readNullableString(in);
+        return new ToolExecutionResultMessage( id, toolName, text );
+    }
 }
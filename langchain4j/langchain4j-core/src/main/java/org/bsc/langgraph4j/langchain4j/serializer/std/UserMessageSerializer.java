@@ -8,6 +8,8 @@ import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 
+import static org.bsc.langgraph4j.serializer.std.CompactIO.*;
+
 /**
  * The UserMessageSerializer class implements the NullableObjectSerializer interface for the UserMessage type.
  * It provides methods to serialize and deserialize UserMessage objects.
@@ -49,4 +51,18 @@ public class UserMessageSerializer implements NullableObjectSerializer<UserMessa
                 .orElseGet( () -> UserMessage.from(text) );
 
     }
+
+    void writeCompact(UserMessage object, ObjectOutput out) throws IOException {
+        if( !object.hasSingleText() ) {
+            throw new IllegalArgumentException( "Unsupported content type: " + object.type() );
+        }
+        writeString( object.singleText(), out );
+        writeNullableString( object.name(), out );
+    }
+
+    UserMessage readCompact(ObjectInput in) throws IOException {
+        final var text = readString(in);
+        final var name = readNullableString(in);
+        return ( name != null ) ? UserMessage.from(name, text) : UserMessage.from(text);
+    }
 }
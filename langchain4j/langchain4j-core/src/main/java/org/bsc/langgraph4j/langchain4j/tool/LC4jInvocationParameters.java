@@ -0,0 +1,103 @@
+package org.bsc.langgraph4j.langchain4j.tool;
+
+import dev.langchain4j.invocation.InvocationParameters;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.requireNonNull;
+import static org.bsc.langgraph4j.utils.CollectionsUtils.overlayMap;
+
+/**
+ * {@link InvocationParameters} resolving the keys on demand from a read-only view of the graph state,
+ * instead of copying the whole state into a new map for every tool call.
+ * <p>
+ * The values put by the tools are held by this instance only and hide the state ones.
+ * A scope of a single tool call is created through {@link #scoped(InvocationParameters, String, Object)},
+ * that shares the parent parameters without copying them.
+ * The map returned by {@link #asMap()} is a read-only view.
+ */
+public class LC4jInvocationParameters extends InvocationParameters {
+
+    private final Map<String, Object> base;
+    private final Map<String, Object> local = new ConcurrentHashMap<>();
+    private final Map<String, Object> view;
+
+    /**
+     * Creates the invocation parameters backed by the given state data, e.g. {@code state.data()}.
+     *
+     * @param state the state data, not copied
+     * @return the invocation parameters
+     */
+    public static LC4jInvocationParameters ofState(Map<String, Object> state) {
+        return new LC4jInvocationParameters(requireNonNull(state, "state cannot be null"));
+    }
+
+    /**
+     * Creates the invocation parameters of a single tool call, holding the given value on top of the parent ones.
+     *
+     * @param parent the parent parameters, may be null
+     * @param key    the key of the scoped value
+     * @param value  the scoped value
+     * @return the invocation parameters
+     */
+    public static LC4jInvocationParameters scoped(InvocationParameters parent, String key, Object value) {
+        var result = new LC4jInvocationParameters((parent != null) ? parent.asMap() : Map.of());
+        result.local.put(requireNonNull(key, "key cannot be null"), requireNonNull(value, "value cannot be null"));
+        return result;
+    }
+
+    private LC4jInvocationParameters(Map<String, Object> base) {
+        this.base = base;
+        this.view = overlayMap(base, local);
+    }
+
+    @Override
+    public Map<String, Object> asMap() {
+        return view;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key) {
+        return (T) view.get(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getOrDefault(String key, T defaultValue) {
+        return (T) view.getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    public <T> void put(String key, T value) {
+        local.put(key, value);
+    }
+
+    @Override
+    public boolean containsKey(String key) {
+        return local.containsKey(key) || base.containsKey(key);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof InvocationParameters that)) {
+            return false;
+        }
+        return Objects.equals(view, that.asMap());
+    }
+
+    @Override
+    public int hashCode() {
+        return view.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "LC4jInvocationParameters{" + view + "}";
+    }
+}
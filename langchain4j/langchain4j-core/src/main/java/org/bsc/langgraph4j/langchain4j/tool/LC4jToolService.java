@@ -5,7 +5,6 @@ import dev.langchain4j.agent.tool.ToolExecutionRequest;
 import dev.langchain4j.agent.tool.ToolSpecification;
 import dev.langchain4j.data.message.ToolExecutionResultMessage;
 import dev.langchain4j.invocation.InvocationContext;
-import dev.langchain4j.invocation.InvocationParameters;
 import dev.langchain4j.service.tool.ToolExecutor;
 import org.bsc.langgraph4j.action.Command;
 
@@ -179,16 +178,11 @@ public final  class LC4jToolService {
             .findFirst()
             .map(e -> {
 
-                final var contextMapData = mergeMap(
-                        ofNullable(toolContext.invocationParameters())
-                                .map( InvocationParameters::asMap )
-                                .orElseGet(Map::of),
-                        Map.of(COMMAND_RESULT, scopedCommandResult),
-                        (v1, v2) -> v2);
-
                 final var newToolContext = InvocationContext.builder()
                         .chatMemoryId(toolContext.chatMemoryId())
-                        .invocationParameters( InvocationParameters.from(contextMapData) )
+                        .invocationParameters( LC4jInvocationParameters.scoped( toolContext.invocationParameters(),
+                                                                            COMMAND_RESULT,
+                                                                            scopedCommandResult ) )
                         .build();
 
                 return e.executeWithContext(request, newToolContext);
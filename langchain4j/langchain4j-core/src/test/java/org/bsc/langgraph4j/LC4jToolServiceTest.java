@@ -9,15 +9,19 @@ import dev.langchain4j.invocation.InvocationContext;
 import dev.langchain4j.invocation.InvocationParameters;
 import dev.langchain4j.model.chat.request.json.JsonObjectSchema;
 import dev.langchain4j.service.tool.ToolExecutor;
+import org.bsc.langgraph4j.langchain4j.tool.LC4jInvocationParameters;
 import org.bsc.langgraph4j.langchain4j.tool.LC4jToolResponseBuilder;
 import org.bsc.langgraph4j.langchain4j.tool.LC4jToolService;
 import org.bsc.langgraph4j.utils.TypeRef;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static java.lang.String.format;
+import static org.bsc.langgraph4j.agent.ToolResponseBuilder.COMMAND_RESULT;
 import static org.bsc.langgraph4j.utils.CollectionsUtils.lastOf;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -195,4 +199,43 @@ public class LC4jToolServiceTest {
 
 
     }
+
+    @Test
+    public void invokeToolWithStateParameters() {
+
+        var toolNode = LC4jToolService.builder()
+                .toolsFromObject( new TestTool() )
+                .build();
+
+        var state = new HashMap<String,Object>( Map.of( "arg1", "value1", "messages", List.of() ) );
+
+        var result = toolNode.execute(
+                        List.of(ToolExecutionRequest.builder()
+                                .name("execTestWithContextAndReturnCommand")
+                                .arguments("{ \"arg0\": \"test succeeded\"}")
+                                .build()),
+                        InvocationContext.builder()
+                                .invocationParameters(LC4jInvocationParameters.ofState(state))
+                                .build()
+                        , "messages" )
+                .join();
+
+        assertEquals("value2", result.update().get("arg2") );
+        assertEquals( Map.of( "arg1", "value1", "messages", List.of() ), state );
+
+        // the state is not copied, the scope overlays it
+        var parent = LC4jInvocationParameters.ofState(state);
+        var scoped = LC4jInvocationParameters.scoped( parent, COMMAND_RESULT, new AtomicReference<>() );
+
+        state.put( "arg3", "value3");
+        scoped.put( "arg1", "scoped");
+
+        assertEquals( "value3", scoped.get("arg3") );
+        assertEquals( "scoped", scoped.get("arg1") );
+        assertEquals( "value1", parent.get("arg1") );
+        assertTrue( scoped.containsKey(COMMAND_RESULT) );
+        assertFalse( parent.containsKey(COMMAND_RESULT) );
+        assertEquals( 4, scoped.asMap().size() );
+        assertThrows( UnsupportedOperationException.class, () -> scoped.asMap().put( "arg4", "value4") );
+    }
 }
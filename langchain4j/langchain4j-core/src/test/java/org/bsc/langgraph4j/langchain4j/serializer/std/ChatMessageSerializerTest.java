@@ -0,0 +1,102 @@
+package org.bsc.langgraph4j.langchain4j.serializer.std;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import org.bsc.langgraph4j.prebuilt.MessagesState;
+import org.bsc.langgraph4j.serializer.Serializer;
+import org.bsc.langgraph4j.serializer.std.ObjectStreamStateSerializer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChatMessageSerializerTest {
+
+    public static class State extends MessagesState<ChatMessage> {
+        public State(Map<String, Object> initData) {
+            super(initData);
+        }
+    }
+
+    /**
+     * Writes the messages in the format preceding the compact one
+     */
+    static class LegacyChatMessageSerializer implements Serializer<ChatMessage> {
+        final ChatMesssageSerializer serializer = new ChatMesssageSerializer();
+
+        @Override
+        public void write(ChatMessage object, ObjectOutput out) throws IOException {
+            out.writeObject(object.type());
+            switch (object.type()) {
+                case AI -> serializer.ai.write((AiMessage) object, out);
+                case USER -> serializer.user.write((UserMessage) object, out);
+                case SYSTEM -> serializer.system.write((SystemMessage) object, out);
+                case TOOL_EXECUTION_RESULT -> serializer.toolExecutionResult.write((ToolExecutionResultMessage) object, out);
+                default -> throw new IllegalArgumentException();
+            }
+        }
+
+        @Override
+        public ChatMessage read(ObjectInput in) throws IOException, ClassNotFoundException {
+            return serializer.read(in);
+        }
+    }
+
+    static class LegacyStateSerializer extends ObjectStreamStateSerializer<State> {
+        LegacyStateSerializer() {
+            super(State::new);
+            mapper().register(ToolExecutionRequest.class, new ToolExecutionRequestSerializer());
+            mapper().register(ChatMessage.class, new LegacyChatMessageSerializer());
+        }
+    }
+
+    private final List<ChatMessage> messages = List.of(
+            SystemMessage.from("You are a helpful assistant"),
+            UserMessage.from("bartolomeo", "what's the weather in Napoli? ☀️"),
+            AiMessage.from(ToolExecutionRequest.builder().id("call_1").name("weather").arguments("{\"city\":\"Napoli\"}").build(),
+                    ToolExecutionRequest.builder().name("forecast").arguments("{}").build()),
+            ToolExecutionResultMessage.from("call_1", "weather", "sunny"),
+            AiMessage.from("it is sunny " + "and warm ".repeat(20_000)));
+
+    @Test
+    public void compactRoundTrip() throws Exception {
+        var serializer = new LC4jStateSerializer<>(State::new);
+
+        var data = Map.<String, Object>of("messages", messages);
+        var result = serializer.dataFromBytes(serializer.dataToBytes(data));
+
+        assertEquals(messages, result.get("messages"));
+    }
+
+    @Test
+    public void aiMessageKeepsTextAndToolRequests() throws Exception {
+        var serializer = new LC4jStateSerializer<>(State::new);
+
+        var message = AiMessage.from("let me check",
+                List.of(ToolExecutionRequest.builder().id("call_1").name("weather").arguments("{}").build()));
+        var result = serializer.dataFromBytes(serializer.dataToBytes(Map.of("message", message)));
+
+        assertEquals(message, result.get("message"));
+    }
+
+    @Test
+    public void legacyFormatIsRead() throws Exception {
+        var data = Map.<String, Object>of("messages", messages);
+
+        var legacyBytes = new LegacyStateSerializer().dataToBytes(data);
+        var compactBytes = new LC4jStateSerializer<>(State::new).dataToBytes(data);
+
+        assertEquals(messages, new LC4jStateSerializer<>(State::new).dataFromBytes(legacyBytes).get("messages"));
+        assertTrue(compactBytes.length < legacyBytes.length,
+                "compact " + compactBytes.length + " legacy " + legacyBytes.length);
+    }
+}
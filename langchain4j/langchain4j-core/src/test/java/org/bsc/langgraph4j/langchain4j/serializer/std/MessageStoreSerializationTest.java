@@ -0,0 +1,141 @@
+package org.bsc.langgraph4j.langchain4j.serializer.std;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.checkpoint.Checkpoint;
+import org.bsc.langgraph4j.checkpoint.CheckpointRetentionPolicy;
+import org.bsc.langgraph4j.checkpoint.FileSystemSaver;
+import org.bsc.langgraph4j.prebuilt.MessagesState;
+import org.bsc.langgraph4j.serializer.std.FileSystemMessageStore;
+import org.bsc.langgraph4j.serializer.std.InMemoryMessageStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MessageStoreSerializationTest {
+
+    public static class State extends MessagesState<ChatMessage> {
+        public State(Map<String, Object> initData) {
+            super(initData);
+        }
+    }
+
+    private List<ChatMessage> conversation(int turns) {
+        var messages = new ArrayList<ChatMessage>();
+        messages.add(SystemMessage.from("You are a helpful assistant"));
+        for (int i = 0; i < turns; ++i) {
+            messages.add(UserMessage.from("question number " + i + " about the weather in a city far away"));
+            var request = ToolExecutionRequest.builder()
+                    .id("call_" + i)
+                    .name("weather")
+                    .arguments("{\"city\":\"city " + i + "\"}")
+                    .build();
+            messages.add(AiMessage.from(request));
+            messages.add(ToolExecutionResultMessage.from(request, "sunny, " + (20 + i % 10) + " degrees"));
+            messages.add(AiMessage.from("the weather in city " + i + " is sunny. " + "A typical answer spans a few sentences. ".repeat(10)));
+        }
+        return messages;
+    }
+
+    @Test
+    public void checkpointsHoldMessageReferences() throws Exception {
+        var store = new InMemoryMessageStore();
+        var serializer = new LC4jStateSerializer<>(State::new, store);
+        var inlineSerializer = new LC4jStateSerializer<>(State::new);
+
+        var messages = conversation(20);
+        var data = Map.<String, Object>of("messages", messages);
+
+        var bytes = serializer.dataToBytes(data);
+        var inlineBytes = inlineSerializer.dataToBytes(data);
+
+        assertEquals(messages.size(), store.size());
+        assertTrue(bytes.length < inlineBytes.length / 2,
+                "referenced " + bytes.length + " inline " + inlineBytes.length);
+
+        assertEquals(messages, serializer.dataFromBytes(bytes).get("messages"));
+
+        // the next step stores only the new message
+        var next = new ArrayList<>(messages);
+        next.add(UserMessage.from("thank you"));
+        serializer.dataToBytes(Map.of("messages", next));
+        assertEquals(messages.size() + 1, store.size());
+    }
+
+    @Test
+    public void cloneLeavesTheStoreUntouched() throws Exception {
+        var store = new InMemoryMessageStore();
+        var serializer = new LC4jStateSerializer<>(State::new, store);
+
+        var messages = conversation(5);
+        var clone = serializer.cloneObject(Map.of("messages", messages));
+
+        assertEquals(messages, clone.messages());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void inlineMessagesAreStillRead() throws Exception {
+        var serializer = new LC4jStateSerializer<>(State::new, new InMemoryMessageStore());
+        var inlineSerializer = new LC4jStateSerializer<>(State::new);
+
+        var data = Map.<String, Object>of("messages", conversation(3));
+
+        var result = serializer.dataFromBytes(inlineSerializer.dataToBytes(data));
+        assertEquals(data.get("messages"), result.get("messages"));
+    }
+
+    @Test
+    public void referencesRequireTheStore() throws Exception {
+        var serializer = new LC4jStateSerializer<>(State::new, new InMemoryMessageStore());
+        var inlineSerializer = new LC4jStateSerializer<>(State::new);
+
+        var bytes = serializer.dataToBytes(Map.of("messages", conversation(1)));
+        assertThrows(Exception.class, () -> inlineSerializer.dataFromBytes(bytes));
+    }
+
+    @Test
+    public void fileSystemStoreIsSharedAcrossSerializers(@TempDir Path folder) throws Exception {
+        var data = Map.<String, Object>of("messages", conversation(5));
+
+        var bytes = new LC4jStateSerializer<>(State::new, new FileSystemMessageStore(folder)).dataToBytes(data);
+
+        // a new serializer, e.g. after a restart, resolves the references from the files
+        var result = new LC4jStateSerializer<>(State::new, new FileSystemMessageStore(folder)).dataFromBytes(bytes);
+        assertEquals(data.get("messages"), result.get("messages"));
+    }
+
+    @Test
+    public void sweptCheckpointsKeepTheirMessagesInTheStore(@TempDir Path folder) throws Exception {
+        var store = new InMemoryMessageStore();
+        var saver = new FileSystemSaver(folder.resolve("checkpoints"), new LC4jStateSerializer<>(State::new, store),
+                CheckpointRetentionPolicy.builder().maxAge(Duration.ofMillis(1)).build());
+        var config = RunnableConfig.builder().threadId("swept").build();
+
+        var messages = conversation(2);
+        saver.put(config, Checkpoint.builder()
+                .nodeId("agent")
+                .nextNodeId("agent")
+                .state(Map.of("messages", messages))
+                .build());
+        saver.release(config);
+        TimeUnit.MILLISECONDS.sleep(10);
+        assertTrue(saver.sweep() > 0);
+
+        // the store is append-only, the messages are not freed with the checkpoints
+        assertEquals(messages.size(), store.size());
+    }
+}
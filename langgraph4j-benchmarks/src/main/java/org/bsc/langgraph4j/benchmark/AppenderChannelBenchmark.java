@@ -0,0 +1,46 @@
+package org.bsc.langgraph4j.benchmark;
+
+import org.bsc.langgraph4j.state.AgentState;
+import org.bsc.langgraph4j.state.AppenderChannel;
+import org.bsc.langgraph4j.state.Channel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of appending messages to an {@link AppenderChannel} as the channel grows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AppenderChannelBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int size;
+
+    Map<String, Channel<?>> channels;
+    Map<String, Object> state;
+    Map<String, Object> partialState;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        channels = Graphs.schema();
+        partialState = Map.of("messages", List.of("a new message"));
+    }
+
+    // the reducer mutates the accumulated list, so it must be rebuilt before every invocation
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        state = Graphs.stateData(size);
+    }
+
+    @Benchmark
+    public Map<String, Object> append() {
+        return AgentState.updateState(state, partialState, channels);
+    }
+}
@@ -0,0 +1,88 @@
+package org.bsc.langgraph4j.benchmark;
+
+import org.bsc.langgraph4j.BatchResult;
+import org.bsc.langgraph4j.CompiledGraph;
+import org.bsc.langgraph4j.GraphInput;
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.StateGraph;
+import org.bsc.langgraph4j.state.AgentState;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.bsc.langgraph4j.StateGraph.END;
+import static org.bsc.langgraph4j.StateGraph.START;
+import static org.bsc.langgraph4j.action.AsyncNodeAction.node_async;
+
+/**
+ * Measures the throughput, in graph executions per second, of a batch of inputs run by a loop of
+ * {@code invokeFinal} or by {@code CompiledGraph.batch} with a bounded concurrency.
+ * The work is either CPU bound (a linear graph of no-op nodes) or I/O bound (a node waiting 1 ms, as a remote call).
+ * The sequential loop doesn't depend on the concurrency, it is the baseline of each configuration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchBenchmark {
+
+    static final int INPUTS = 200;
+
+    @Param({"cpu", "io"})
+    String work;
+
+    @Param({"1", "8", "32"})
+    int concurrency;
+
+    CompiledGraph<AgentState> graph;
+    List<GraphInput> inputs;
+    RunnableConfig config;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        var workflow = switch (work) {
+            case "cpu" -> Graphs.linear(10);
+            case "io" -> new StateGraph<>(Graphs.schema(), AgentState::new)
+                    .addNode("call", node_async(state -> {
+                        Thread.sleep(1);
+                        return Map.of();
+                    }))
+                    .addEdge(START, "call")
+                    .addEdge("call", END);
+            default -> throw new IllegalArgumentException("unknown work: " + work);
+        };
+        graph = workflow.compile(Graphs.compileConfig());
+        inputs = IntStream.range(0, INPUTS)
+                .mapToObj(i -> GraphInput.args(Map.of("input", i)))
+                .toList();
+        config = RunnableConfig.builder().build();
+        System.out.printf("%n%s: %d inputs, concurrency %d%n", work, INPUTS, concurrency);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INPUTS)
+    public int sequential() {
+        int completed = 0;
+        for (var input : inputs) {
+            if (graph.invokeFinal(input, config).isPresent()) {
+                ++completed;
+            }
+        }
+        return completed;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INPUTS)
+    public long batch() {
+        try (var results = graph.batch(inputs, config, concurrency)) {
+            return results.filter(result -> !result.isError())
+                    .map(BatchResult::finalOutput)
+                    .count();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.bsc.langgraph4j.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks uber-jar.
+ * <p>
+ * It accepts the standard JMH command line options and always enables the {@link GCProfiler}
+ * so that allocation rate ({@code gc.alloc.rate.norm}) is reported together with throughput.
+ * <pre>
+ * mvn -pl langgraph4j-benchmarks -am package -DskipTests
+ * java -jar langgraph4j-benchmarks/target/benchmarks.jar [regexp] [jmh options]
+ * </pre>
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        var commandLineOptions = new CommandLineOptions(args);
+
+        var options = new OptionsBuilder()
+                .parent(commandLineOptions)
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,111 @@
+package org.bsc.langgraph4j.benchmark;
+
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.checkpoint.BaseCheckpointSaver;
+import org.bsc.langgraph4j.checkpoint.Checkpoint;
+import org.bsc.langgraph4j.checkpoint.FileSystemSaver;
+import org.bsc.langgraph4j.checkpoint.MemorySaver;
+import org.bsc.langgraph4j.serializer.std.ObjectStreamStateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures checkpoint put/get on the built-in checkpoint savers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckpointSaverBenchmark {
+
+    @Param({"memory", "filesystem"})
+    String saverType;
+
+    @Param({"1", "100"})
+    int history;
+
+    Path folder;
+    BaseCheckpointSaver saver;
+    Map<String, Object> data;
+    RunnableConfig historyConfig;
+    RunnableConfig firstCheckpointConfig;
+    long threadCounter;
+
+    private Checkpoint newCheckpoint() {
+        return Checkpoint.builder()
+                .nodeId("agent")
+                .nextNodeId("tool")
+                .state(data)
+                .build();
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() throws Exception {
+        data = Graphs.stateData(10);
+        saver = switch (saverType) {
+            case "memory" -> new MemorySaver();
+            case "filesystem" -> {
+                folder = Files.createTempDirectory("langgraph4j-bench");
+                yield new FileSystemSaver(folder, new ObjectStreamStateSerializer<>(AgentState::new));
+            }
+            default -> throw new IllegalArgumentException("unknown saver: " + saverType);
+        };
+
+        historyConfig = RunnableConfig.builder().threadId("history").build();
+        String firstId = null;
+        for (int i = 0; i < history; ++i) {
+            var checkpoint = newCheckpoint();
+            saver.put(historyConfig, checkpoint);
+            if (firstId == null) {
+                firstId = checkpoint.getId();
+            }
+        }
+        firstCheckpointConfig = historyConfig.withCheckPointId(firstId);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        if (folder != null) {
+            try (var paths = Files.walk(folder)) {
+                paths.sorted(Comparator.reverseOrder())
+                        .forEach(path -> path.toFile().delete());
+            }
+            folder = null;
+        }
+    }
+
+    /**
+     * put the first checkpoint of a new thread
+     */
+    @Benchmark
+    public RunnableConfig putNewThread() throws Exception {
+        var config = RunnableConfig.builder().threadId("thread-" + (++threadCounter)).build();
+        return saver.put(config, newCheckpoint());
+    }
+
+    /**
+     * get the last checkpoint of a thread with {@code history} checkpoints
+     */
+    @Benchmark
+    public Optional<Checkpoint> getLast() {
+        return saver.get(historyConfig);
+    }
+
+    /**
+     * get the oldest checkpoint, by id, of a thread with {@code history} checkpoints
+     */
+    @Benchmark
+    public Optional<Checkpoint> getById() {
+        return saver.get(firstCheckpointConfig);
+    }
+}
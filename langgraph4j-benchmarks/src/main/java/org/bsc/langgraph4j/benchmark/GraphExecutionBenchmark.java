@@ -0,0 +1,102 @@
+package org.bsc.langgraph4j.benchmark;
+
+import org.bsc.langgraph4j.CompiledGraph;
+import org.bsc.langgraph4j.GraphInput;
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.state.AgentState;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link CompiledGraph} step loop on different graph topologies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphExecutionBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Linear {
+        @Param({"1", "10", "50"})
+        int nodes;
+
+        CompiledGraph<AgentState> graph;
+
+        @Setup
+        public void setup() throws Exception {
+            graph = Graphs.linear(nodes).compile(Graphs.compileConfig());
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Conditional {
+        @Param({"5", "20"})
+        int hops;
+
+        CompiledGraph<AgentState> graph;
+
+        @Setup
+        public void setup() throws Exception {
+            graph = Graphs.conditional(hops).compile(Graphs.compileConfig());
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Parallel {
+        @Param({"2", "8", "32"})
+        int width;
+
+        CompiledGraph<AgentState> graph;
+
+        @Setup
+        public void setup() throws Exception {
+            graph = Graphs.parallel(width).compile(Graphs.compileConfig());
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Nested {
+        @Param({"1", "2", "3", "4", "5"})
+        int depth;
+
+        @Param({"embedded", "inlined"})
+        String mode;
+
+        CompiledGraph<AgentState> graph;
+
+        @Setup
+        public void setup() throws Exception {
+            graph = Graphs.nested(depth, "inlined".equals(mode));
+        }
+    }
+
+    private static Optional<AgentState> invoke(CompiledGraph<AgentState> graph) {
+        return graph.invoke(GraphInput.args(Map.of("input", "benchmark")), RunnableConfig.builder().build());
+    }
+
+    @Benchmark
+    public Optional<AgentState> linear(Linear state) {
+        return invoke(state.graph);
+    }
+
+    @Benchmark
+    public Optional<AgentState> conditional(Conditional state) {
+        return invoke(state.graph);
+    }
+
+    @Benchmark
+    public Optional<AgentState> parallel(Parallel state) {
+        return invoke(state.graph);
+    }
+
+    @Benchmark
+    public Optional<AgentState> nestedSubgraph(Nested state) {
+        return invoke(state.graph);
+    }
+}
@@ -0,0 +1,121 @@
+package org.bsc.langgraph4j.benchmark;
+
+import org.bsc.langgraph4j.CompileConfig;
+import org.bsc.langgraph4j.CompiledGraph;
+import org.bsc.langgraph4j.GraphStateException;
+import org.bsc.langgraph4j.StateGraph;
+import org.bsc.langgraph4j.state.AgentState;
+import org.bsc.langgraph4j.state.Channel;
+import org.bsc.langgraph4j.state.Channels;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.bsc.langgraph4j.StateGraph.END;
+import static org.bsc.langgraph4j.StateGraph.START;
+import static org.bsc.langgraph4j.action.AsyncEdgeAction.edge_async;
+
+/**
+ * Factory of the graphs and states used by benchmarks
+ */
+final class Graphs {
+
+    static final int RECURSION_LIMIT = 10_000;
+
+    private Graphs() {}
+
+    static Map<String, Channel<?>> schema() {
+        return Map.of("messages", Channels.appender(ArrayList::new));
+    }
+
+    static CompileConfig compileConfig() {
+        return CompileConfig.builder()
+                .recursionLimit(RECURSION_LIMIT)
+                .build();
+    }
+
+    static List<String> messages(int size) {
+        return IntStream.range(0, size)
+                .mapToObj(i -> "message %d: the quick brown fox jumps over the lazy dog".formatted(i))
+                .toList();
+    }
+
+    static Map<String, Object> stateData(int messages) {
+        return Map.of(
+                "messages", new ArrayList<>(messages(messages)),
+                "counter", messages,
+                "input", "what's the weather like today?");
+    }
+
+    /**
+     * START -> node_0 -> ... -> node_(n-1) -> END
+     */
+    static StateGraph<AgentState> linear(int nodes) throws GraphStateException {
+        var workflow = new StateGraph<>(schema(), AgentState::new);
+
+        var previous = START;
+        for (int i = 0; i < nodes; ++i) {
+            var id = "node_" + i;
+            workflow.addNode(id, state -> completedFuture(Map.of()));
+            workflow.addEdge(previous, id);
+            previous = id;
+        }
+        return workflow.addEdge(previous, END);
+    }
+
+    /**
+     * START -> router -(counter < hops)-> router
+     *                 -(counter >= hops)-> END
+     */
+    static StateGraph<AgentState> conditional(int hops) throws GraphStateException {
+        return new StateGraph<>(schema(), AgentState::new)
+                .addNode("router", state -> completedFuture(Map.of("counter", state.<Integer>value("counter").orElse(0) + 1)))
+                .addEdge(START, "router")
+                .addConditionalEdges("router",
+                        edge_async(state -> state.<Integer>value("counter").orElse(0) < hops ? "loop" : "exit"),
+                        Map.of("loop", "router", "exit", END));
+    }
+
+    /**
+     * START -> fanout -> [ branch_0 ... branch_(width-1) ] -> join -> END
+     */
+    static StateGraph<AgentState> parallel(int width) throws GraphStateException {
+        var workflow = new StateGraph<>(schema(), AgentState::new)
+                .addNode("fanout", state -> completedFuture(Map.of()))
+                .addNode("join", state -> completedFuture(Map.of()))
+                .addEdge(START, "fanout")
+                .addEdge("join", END);
+
+        for (int i = 0; i < width; ++i) {
+            var id = "branch_" + i;
+            var message = "message from " + id;
+            workflow.addNode(id, state -> completedFuture(Map.of("messages", message)));
+            workflow.addEdge("fanout", id);
+            workflow.addEdge(id, "join");
+        }
+        return workflow;
+    }
+
+    /**
+     * Graph that embeds {@code depth} levels of compiled subgraphs, the innermost one being a single no-op node.
+     *
+     * @param inline whether the subgraphs are inlined in the outermost graph ({@link CompileConfig#inlineSubgraphs()})
+     */
+    static CompiledGraph<AgentState> nested(int depth, boolean inline) throws GraphStateException {
+        var graph = linear(1).compile(compileConfig());
+
+        for (int level = 0; level < depth; ++level) {
+            var workflow = new StateGraph<>(schema(), AgentState::new)
+                    .addNode("subgraph_" + level, graph)
+                    .addEdge(START, "subgraph_" + level)
+                    .addEdge("subgraph_" + level, END);
+            graph = (level == depth - 1 && inline) ?
+                    workflow.compile(CompileConfig.builder(compileConfig()).inlineSubgraphs(true).build()) :
+                    workflow.compile(compileConfig());
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,76 @@
+package org.bsc.langgraph4j.benchmark;
+
+import org.bsc.langgraph4j.serializer.std.ObjectStreamStateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+import org.bsc.langgraph4j.state.Channel;
+import org.bsc.langgraph4j.state.Channels;
+import org.bsc.langgraph4j.state.CompactionPolicy;
+import org.bsc.langgraph4j.state.TokenCounter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a turn of a long running thread: the append of a message to the history and the serialization of
+ * the state, as done on each checkpoint. The history is held by a plain appender channel, growing with the thread,
+ * or by an appender channel compacted within a token budget.
+ * The size of the history and of the serialized state at steady state are printed on setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoryCompactionBenchmark {
+
+    @Param({"appender", "compacting"})
+    String channel;
+
+    @Param({"10000"})
+    int turns;
+
+    Map<String, Channel<?>> schema;
+    ObjectStreamStateSerializer<AgentState> serializer;
+    Map<String, Object> state;
+    int turn;
+
+    static String message(int turn) {
+        return "turn %d: the quick brown fox jumps over the lazy dog".formatted(turn);
+    }
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        schema = switch (channel) {
+            case "appender" -> Map.of("messages", Channels.<String>appender(ArrayList::new));
+            case "compacting" -> Map.of("messages", Channels.<String>appender(ArrayList::new,
+                    CompactionPolicy.<String>builder()
+                            .tokenCounter(TokenCounter.approximate(m -> m))
+                            .maxTokens(8_000)
+                            .pinned(1)
+                            .build()));
+            default -> throw new IllegalArgumentException("unknown channel: " + channel);
+        };
+        serializer = new ObjectStreamStateSerializer<>(AgentState::new);
+    }
+
+    // the channel mutates the history, so the thread is replayed before every iteration
+    @Setup(Level.Iteration)
+    public void setupIteration() throws Exception {
+        state = Map.of();
+        for (turn = 0; turn < turns; ++turn) {
+            state = AgentState.updateState(state, Map.of("messages", message(turn)), schema);
+        }
+        System.out.printf("%n%s: %d messages in history, state serialized in %d bytes%n",
+                channel, ((List<?>) state.get("messages")).size(), serializer.dataToBytes(state).length);
+    }
+
+    @Benchmark
+    public byte[] turn() throws Exception {
+        state = AgentState.updateState(state, Map.of("messages", message(turn++)), schema);
+        return serializer.dataToBytes(state);
+    }
+}
@@ -0,0 +1,129 @@
+package org.bsc.langgraph4j.benchmark;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import org.bsc.langgraph4j.langchain4j.serializer.std.AiMessageSerializer;
+import org.bsc.langgraph4j.langchain4j.serializer.std.ChatMesssageSerializer;
+import org.bsc.langgraph4j.langchain4j.serializer.std.LC4jStateSerializer;
+import org.bsc.langgraph4j.langchain4j.serializer.std.SystemMessageSerializer;
+import org.bsc.langgraph4j.langchain4j.serializer.std.ToolExecutionRequestSerializer;
+import org.bsc.langgraph4j.langchain4j.serializer.std.ToolExecutionResultMessageSerializer;
+import org.bsc.langgraph4j.langchain4j.serializer.std.UserMessageSerializer;
+import org.bsc.langgraph4j.serializer.Serializer;
+import org.bsc.langgraph4j.serializer.StateSerializer;
+import org.bsc.langgraph4j.serializer.std.ObjectStreamStateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code dataToBytes} and {@code dataFromBytes} of a langchain4j conversation, written in the compact
+ * tagged format of {@link ChatMesssageSerializer} or in the format preceding it.
+ * The size of the serialized conversation is printed on setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageSerializerBenchmark {
+
+    /**
+     * Writes the messages in the format preceding the compact one: the message type as serialized enum
+     * followed by the fields written by the per-type serializers.
+     */
+    static class LegacyChatMessageSerializer implements Serializer<ChatMessage> {
+        final AiMessageSerializer ai = new AiMessageSerializer();
+        final UserMessageSerializer user = new UserMessageSerializer();
+        final SystemMessageSerializer system = new SystemMessageSerializer();
+        final ToolExecutionResultMessageSerializer toolExecutionResult = new ToolExecutionResultMessageSerializer();
+        final ChatMesssageSerializer reader = new ChatMesssageSerializer();
+
+        @Override
+        public void write(ChatMessage object, ObjectOutput out) throws IOException {
+            out.writeObject(object.type());
+            switch (object.type()) {
+                case AI -> ai.write((AiMessage) object, out);
+                case USER -> user.write((UserMessage) object, out);
+                case SYSTEM -> system.write((SystemMessage) object, out);
+                case TOOL_EXECUTION_RESULT -> toolExecutionResult.write((ToolExecutionResultMessage) object, out);
+                default -> throw new IllegalArgumentException("unsupported message type: " + object.type());
+            }
+        }
+
+        @Override
+        public ChatMessage read(ObjectInput in) throws IOException, ClassNotFoundException {
+            return reader.read(in);
+        }
+    }
+
+    static class LegacyStateSerializer extends ObjectStreamStateSerializer<AgentState> {
+        LegacyStateSerializer() {
+            super(AgentState::new);
+            mapper().register(ToolExecutionRequest.class, new ToolExecutionRequestSerializer());
+            mapper().register(ChatMessage.class, new LegacyChatMessageSerializer());
+        }
+    }
+
+    @Param({"legacy", "compact"})
+    String format;
+
+    @Param({"500"})
+    int messages;
+
+    StateSerializer<AgentState> stateSerializer;
+    Map<String, Object> data;
+    byte[] bytes;
+
+    static List<ChatMessage> conversation(int size) {
+        var result = new ArrayList<ChatMessage>(size);
+        result.add(SystemMessage.from("You are a helpful assistant"));
+        for (int i = 1; result.size() < size; ++i) {
+            switch (i % 4) {
+                case 1 -> result.add(UserMessage.from("question number " + i + ": what's the weather like today?"));
+                case 2 -> result.add(AiMessage.from(ToolExecutionRequest.builder()
+                        .id("call_" + i)
+                        .name("weather")
+                        .arguments("{\"city\":\"Napoli\",\"day\":" + i + "}")
+                        .build()));
+                case 3 -> result.add(ToolExecutionResultMessage.from("call_" + (i - 1), "weather", "sunny, 24 degrees"));
+                default -> result.add(AiMessage.from("the weather is sunny with a temperature of 24 degrees, turn " + i));
+            }
+        }
+        return result;
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        stateSerializer = switch (format) {
+            case "legacy" -> new LegacyStateSerializer();
+            case "compact" -> new LC4jStateSerializer<>(AgentState::new);
+            default -> throw new IllegalArgumentException("unknown format: " + format);
+        };
+        data = Map.of("messages", conversation(messages));
+        bytes = stateSerializer.dataToBytes(data);
+        System.out.printf("%n%s format: %d messages serialized in %d bytes%n", format, messages, bytes.length);
+    }
+
+    @Benchmark
+    public byte[] dataToBytes() throws Exception {
+        return stateSerializer.dataToBytes(data);
+    }
+
+    @Benchmark
+    public Map<String, Object> dataFromBytes() throws Exception {
+        return stateSerializer.dataFromBytes(bytes);
+    }
+}
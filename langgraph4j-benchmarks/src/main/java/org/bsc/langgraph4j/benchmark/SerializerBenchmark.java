@@ -0,0 +1,70 @@
+package org.bsc.langgraph4j.benchmark;
+
+import org.bsc.langgraph4j.serializer.StateSerializer;
+import org.bsc.langgraph4j.serializer.compression.CompressedStateSerializer;
+import org.bsc.langgraph4j.serializer.compression.CompressionCodec;
+import org.bsc.langgraph4j.serializer.plain_text.gson.GsonStateSerializer;
+import org.bsc.langgraph4j.serializer.plain_text.jackson.JacksonStateSerializer;
+import org.bsc.langgraph4j.serializer.std.ObjectStreamStateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code cloneObject} of every built-in state serializer, invoked by the graph runner on each step,
+ * and {@code dataToBytes}, invoked by the checkpoint savers, also with compression enabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializerBenchmark {
+
+    static class JacksonSerializer extends JacksonStateSerializer<AgentState> {
+        JacksonSerializer() {
+            super(AgentState::new);
+        }
+    }
+
+    static class GsonSerializer extends GsonStateSerializer<AgentState> {
+        GsonSerializer() {
+            super(AgentState::new);
+        }
+    }
+
+    @Param({"std", "jackson", "gson", "std+lz4", "std+zstd"})
+    String serializer;
+
+    @Param({"10", "100"})
+    int messages;
+
+    StateSerializer<AgentState> stateSerializer;
+    Map<String, Object> data;
+
+    @Setup
+    public void setup() {
+        stateSerializer = switch (serializer) {
+            case "std" -> new ObjectStreamStateSerializer<>(AgentState::new);
+            case "jackson" -> new JacksonSerializer();
+            case "gson" -> new GsonSerializer();
+            case "std+lz4" -> new CompressedStateSerializer<>(new ObjectStreamStateSerializer<>(AgentState::new), CompressionCodec.lz4());
+            case "std+zstd" -> new CompressedStateSerializer<>(new ObjectStreamStateSerializer<>(AgentState::new), CompressionCodec.zstd());
+            default -> throw new IllegalArgumentException("unknown serializer: " + serializer);
+        };
+        data = Graphs.stateData(messages);
+    }
+
+    @Benchmark
+    public AgentState cloneObject() throws Exception {
+        return stateSerializer.cloneObject(data);
+    }
+
+    @Benchmark
+    public byte[] dataToBytes() throws Exception {
+        return stateSerializer.dataToBytes(data);
+    }
+}
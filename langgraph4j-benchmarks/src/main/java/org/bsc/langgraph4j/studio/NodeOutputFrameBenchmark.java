@@ -0,0 +1,77 @@
+package org.bsc.langgraph4j.studio;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.bsc.langgraph4j.NodeOutput;
+import org.bsc.langgraph4j.state.AgentState;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the studio output frames of a stream whose messages grow at each step, written in the
+ * {@link NodeOutputFrameWriter.Format#FULL full} or {@link NodeOutputFrameWriter.Format#INCREMENTAL incremental}
+ * format. The bytes per event are printed on setup.
+ * <p>
+ * It belongs to the studio package, as the frame writer is internal to the studio.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NodeOutputFrameBenchmark {
+
+    @Param({"FULL", "INCREMENTAL"})
+    String format;
+
+    @Param({"200"})
+    int steps;
+
+    ObjectMapper objectMapper;
+    List<NodeOutput<AgentState>> outputs;
+
+    static List<NodeOutput<AgentState>> growingMessagesOutputs(int steps) {
+        var result = new ArrayList<NodeOutput<AgentState>>(steps);
+        var messages = new ArrayList<String>();
+        for (int i = 0; i < steps; ++i) {
+            messages.add("message %d: the quick brown fox jumps over the lazy dog".formatted(i));
+            var state = new AgentState(Map.of(
+                    "messages", List.copyOf(messages),
+                    "step", i));
+            result.add(NodeOutput.of("agent", state));
+        }
+        return result;
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        var module = new SimpleModule();
+        module.addSerializer(NodeOutput.class, new NodeOutputSerializer());
+        objectMapper = new ObjectMapper().registerModule(module);
+        outputs = growingMessagesOutputs(steps);
+
+        var writer = new StringWriter();
+        var frameWriter = new NodeOutputFrameWriter(NodeOutputFrameWriter.Format.valueOf(format), objectMapper, writer, "thread1");
+        for (var output : outputs) {
+            frameWriter.write(output);
+        }
+        System.out.printf("%n%s format: %d events written in %d bytes, %d bytes per event%n",
+                format, steps, writer.getBuffer().length(), writer.getBuffer().length() / steps);
+    }
+
+    @Benchmark
+    public int stream() throws Exception {
+        var writer = new StringWriter();
+        var frameWriter = new NodeOutputFrameWriter(NodeOutputFrameWriter.Format.valueOf(format), objectMapper, writer, "thread1");
+        for (var output : outputs) {
+            frameWriter.write(output);
+        }
+        return writer.getBuffer().length();
+    }
+}
@@ -0,0 +1,121 @@
+package org.bsc.langgraph4j;
+
+import org.bsc.langgraph4j.state.AgentState;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiFunction;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+/**
+ * Iterator over the results of a batch of graph executions, submitted lazily to an executor.
+ * <p>
+ * At most {@code concurrency} executions are submitted and not yet consumed, so a slow consumer bounds the
+ * executions in flight and the results held in memory.
+ *
+ * @param <State> the type of the state
+ */
+final class BatchIterator<State extends AgentState> implements Iterator<BatchResult<State>> {
+
+    private final List<GraphInput> inputs;
+    private final List<RunnableConfig> configs;
+    private final BiFunction<GraphInput, RunnableConfig, NodeOutput<State>> invocation;
+    private final int concurrency;
+    private final Executor executor;
+    private final CompiledGraph.BatchOrder order;
+    private final Runnable onComplete;
+
+    // submitted results, in input order
+    private final Deque<CompletableFuture<BatchResult<State>>> submitted = new ArrayDeque<>();
+    // completed results, in completion order
+    private final BlockingQueue<BatchResult<State>> completed = new LinkedBlockingQueue<>();
+    private int submittedCount;
+    private int consumedCount;
+
+    BatchIterator(List<GraphInput> inputs,
+                  List<RunnableConfig> configs,
+                  BiFunction<GraphInput, RunnableConfig, NodeOutput<State>> invocation,
+                  int concurrency,
+                  Executor executor,
+                  CompiledGraph.BatchOrder order,
+                  Runnable onComplete) {
+        this.inputs = inputs;
+        this.configs = configs;
+        this.invocation = invocation;
+        this.concurrency = concurrency;
+        this.executor = executor;
+        this.order = order;
+        this.onComplete = onComplete;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return consumedCount < inputs.size();
+    }
+
+    @Override
+    public BatchResult<State> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        while (submittedCount < inputs.size() && submittedCount - consumedCount < concurrency) {
+            submit(submittedCount++);
+        }
+
+        final BatchResult<State> result;
+        if (order == CompiledGraph.BatchOrder.INPUT) {
+            result = submitted.removeFirst().join();
+        } else {
+            try {
+                result = completed.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("batch interrupted");
+            }
+        }
+
+        if (++consumedCount == inputs.size()) {
+            onComplete.run();
+        }
+        return result;
+    }
+
+    private void submit(int index) {
+        final var input = inputs.get(index);
+        final var config = configs.get(index);
+
+        CompletableFuture<BatchResult<State>> result;
+        try {
+            result = CompletableFuture.supplyAsync(() -> execute(index, input, config), executor);
+        } catch (RejectedExecutionException e) {
+            result = completedFuture(new BatchResult<>(index, config, null, e));
+        }
+
+        if (order == CompiledGraph.BatchOrder.INPUT) {
+            submitted.addLast(result);
+        } else {
+            result.thenAccept(completed::add);
+        }
+    }
+
+    // the error of an input is held by its result, without affecting the others
+    private BatchResult<State> execute(int index, GraphInput input, RunnableConfig config) {
+        try {
+            return new BatchResult<>(index, config, invocation.apply(input, config), null);
+        } catch (Throwable ex) {
+            final var error = (ex instanceof CompletionException && ex.getCause() != null) ? ex.getCause() : ex;
+            return new BatchResult<>(index, config, null, error);
+        }
+    }
+}
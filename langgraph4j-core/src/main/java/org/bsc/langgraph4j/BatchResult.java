@@ -0,0 +1,51 @@
+package org.bsc.langgraph4j;
+
+import org.bsc.langgraph4j.state.AgentState;
+
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Result of a single input of {@link CompiledGraph#batch(java.util.List, RunnableConfig, int)}.
+ * <p>
+ * A failed execution doesn't affect the other inputs of the batch: its error is held by the result.
+ *
+ * @param index  the position of the input in the batch
+ * @param config the configuration of the execution
+ * @param output the final output of the execution, null if failed or if no output was produced
+ * @param error  the error of the execution, null if succeeded
+ * @param <State> the type of the state
+ */
+public record BatchResult<State extends AgentState>(int index, RunnableConfig config, NodeOutput<State> output, Throwable error) {
+
+    public BatchResult {
+        requireNonNull(config, "config cannot be null");
+    }
+
+    /**
+     * @return true if the execution failed
+     */
+    public boolean isError() {
+        return error != null;
+    }
+
+    /**
+     * Returns the final output of the execution.
+     *
+     * @return the final output, empty if the execution failed or produced no output
+     */
+    public Optional<NodeOutput<State>> finalOutput() {
+        return ofNullable(output);
+    }
+
+    /**
+     * Returns the final state of the execution.
+     *
+     * @return the final state, empty if the execution failed or produced no output
+     */
+    public Optional<State> state() {
+        return finalOutput().map(NodeOutput::state);
+    }
+}
@@ -1,12 +1,17 @@
 package org.bsc.langgraph4j;
 
 import org.bsc.langgraph4j.checkpoint.BaseCheckpointSaver;
+import org.bsc.langgraph4j.instrumentation.GraphListener;
+import org.bsc.langgraph4j.retry.RetryPolicy;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import static java.util.Objects.requireNonNull;
 import static java.util.Optional.ofNullable;
 
 
@@ -16,13 +21,18 @@ import static java.util.Optional.ofNullable;
  */
 public class CompileConfig {
 
+    public static final int DEFAULT_BATCH_THREADS = 16;
+
     private BaseCheckpointSaver checkpointSaver;
     private Set<String> interruptsBefore = Set.of();
     private Set<String> interruptsAfter = Set.of();
     private boolean releaseThread = false;
     private boolean interruptBeforeEdge = false;
     private int recursionLimit = 25;
-
+    private boolean inlineSubgraphs = false;
+    private List<GraphListener> listeners = List.of();
+    private RetryPolicy retryPolicy;
+    private int batchThreads = DEFAULT_BATCH_THREADS;
 
     public int recursionLimit() {
         return recursionLimit;
@@ -69,6 +79,45 @@ public class CompileConfig {
         return interruptBeforeEdge;
     }
 
+    /**
+     * Returns whether the compiled subgraphs are inlined in the parent graph.
+     *
+     * @return true if option is enabled, false otherwise
+     * @see Builder#inlineSubgraphs(boolean)
+     */
+    public boolean inlineSubgraphs() {
+        return inlineSubgraphs;
+    }
+
+    /**
+     * Returns the registered instrumentation listeners.
+     *
+     * @return an unmodifiable {@link List} of {@link GraphListener}, empty if none has been registered
+     */
+    public List<GraphListener> listeners() {
+        return listeners;
+    }
+
+    /**
+     * Returns the retry policy applied to the nodes added without their own policy.
+     *
+     * @return an {@link Optional} containing the default retry policy, empty if not set
+     * @see Builder#retryPolicy(RetryPolicy)
+     */
+    public Optional<RetryPolicy> retryPolicy() {
+        return ofNullable(retryPolicy);
+    }
+
+    /**
+     * Returns the maximum number of threads of the executor shared by the batches of the compiled graph.
+     *
+     * @return the maximum number of batch threads
+     * @see Builder#batchThreads(int)
+     */
+    public int batchThreads() {
+        return batchThreads;
+    }
+
     /**
      * Returns a new {@link Builder} instance with the default {@link CompileConfig}.
      *
@@ -190,6 +239,69 @@ public class CompileConfig {
             return this;
         }
 
+        /**
+         * Sets whether the compiled subgraphs, added through {@link StateGraph#addNode(String, CompiledGraph)},
+         * are inlined in the parent graph.
+         * <p>
+         * By default a compiled subgraph runs as a nested graph, with its own step loop and thread id, and its outputs
+         * are streamed back through the parent. If this is set to {@code true}, the subgraph nodes and edges, at any
+         * nesting level, are merged into the parent graph on compilation (as it happens for a subgraph added as
+         * {@link StateGraph}), so their steps run in the parent step loop, on the parent state and channels.
+         * In this mode the subgraph's own checkpoint saver is not used, its interruptions are applied to the
+         * inlined nodes and the nodes are reported with the {@code <subgraph id>-<node id>} identifier.
+         *
+         * @param inlineSubgraphs if {@code true}, inline the compiled subgraphs
+         * @return The current {@code Builder} instance for method chaining.
+         */
+        public Builder inlineSubgraphs( boolean inlineSubgraphs ) {
+            this.config.inlineSubgraphs = inlineSubgraphs;
+            return this;
+        }
+
+        /**
+         * Registers an instrumentation listener notified around node, edge and checkpoint execution.
+         * Listeners are notified in registration order.
+         *
+         * @param listener the listener to register
+         * @return The current {@code Builder} instance for method chaining.
+         */
+        public Builder listener( GraphListener listener ) {
+            requireNonNull( listener, "listener cannot be null" );
+            var listeners = new ArrayList<>(this.config.listeners);
+            listeners.add(listener);
+            this.config.listeners = List.copyOf(listeners);
+            return this;
+        }
+
+        /**
+         * Sets the retry policy applied to the nodes added without their own policy,
+         * see {@link StateGraph#addNode(String, org.bsc.langgraph4j.action.AsyncNodeActionWithConfig, RetryPolicy)}.
+         * Compiled subgraph nodes are not retried.
+         *
+         * @param retryPolicy the default retry policy, {@code null} to disable it
+         * @return The current {@code Builder} instance for method chaining.
+         */
+        public Builder retryPolicy( RetryPolicy retryPolicy ) {
+            this.config.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of threads of the executor shared by the batches of the compiled graph
+         * (default {@value CompileConfig#DEFAULT_BATCH_THREADS}),
+         * see {@link CompiledGraph#batch(java.util.List, RunnableConfig, int)}.
+         *
+         * @param batchThreads the maximum number of batch threads, must be greater than 0
+         * @return The current {@code Builder} instance for method chaining.
+         */
+        public Builder batchThreads( int batchThreads ) {
+            if( batchThreads <= 0 ) {
+                throw new IllegalArgumentException("batchThreads must be > 0!");
+            }
+            this.config.batchThreads = batchThreads;
+            return this;
+        }
+
         /**
          * Initializes the compilation configuration and returns it.
          *
@@ -217,6 +329,11 @@ public class CompileConfig {
         this.interruptsAfter = config.interruptsAfter;
         this.releaseThread = config.releaseThread;
         this.interruptBeforeEdge = config.interruptBeforeEdge;
+        this.recursionLimit = config.recursionLimit;
+        this.listeners = config.listeners;
+        this.inlineSubgraphs = config.inlineSubgraphs;
+        this.retryPolicy = config.retryPolicy;
+        this.batchThreads = config.batchThreads;
 
     }
 
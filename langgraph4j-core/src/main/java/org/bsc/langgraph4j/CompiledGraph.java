@@ -2,24 +2,42 @@ package org.bsc.langgraph4j;
 
 import org.bsc.async.AsyncGenerator;
 import org.bsc.langgraph4j.action.*;
+import org.bsc.langgraph4j.cache.CachedNodeAction;
+import org.bsc.langgraph4j.checkpoint.AsyncCheckpointSaver;
 import org.bsc.langgraph4j.checkpoint.BaseCheckpointSaver;
 import org.bsc.langgraph4j.checkpoint.Checkpoint;
+import org.bsc.langgraph4j.instrumentation.GraphListener;
 import org.bsc.langgraph4j.internal.edge.Edge;
 import org.bsc.langgraph4j.internal.edge.EdgeValue;
+import org.bsc.langgraph4j.internal.node.Node;
 import org.bsc.langgraph4j.internal.node.ParallelNode;
+import org.bsc.langgraph4j.internal.node.SubCompiledGraphNode;
 import org.bsc.langgraph4j.internal.node.SubCompiledGraphNodeAction;
+import org.bsc.langgraph4j.internal.node.SubStateGraphNode;
+import org.bsc.langgraph4j.retry.RetryingNodeAction;
 import org.bsc.langgraph4j.state.AgentState;
 import org.bsc.langgraph4j.state.StateSnapshot;
+import org.bsc.langgraph4j.streaming.CoalescingGenerator;
+import org.bsc.langgraph4j.streaming.GeneratorPublisher;
 import org.bsc.langgraph4j.utils.TryFunction;
 import org.bsc.langgraph4j.utils.TypeRef;
 
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
@@ -29,6 +47,7 @@ import static java.util.concurrent.CompletableFuture.failedFuture;
 import static java.util.stream.Collectors.toList;
 import static org.bsc.langgraph4j.StateGraph.END;
 import static org.bsc.langgraph4j.StateGraph.START;
+import static org.bsc.langgraph4j.checkpoint.BaseCheckpointSaver.THREAD_ID_DEFAULT;
 
 /**
  * Represents a compiled graph of nodes and edges.
@@ -40,6 +59,8 @@ public class CompiledGraph<State extends AgentState> {
     private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(CompiledGraph.class);
 
     private static final String INTERRUPT_AFTER = "__INTERRUPTED__";
+    // the ids of the node executions notified to the listeners, unique across the compiled graphs
+    private static final AtomicLong nodeExecutions = new AtomicLong();
 
     /**
      * Enum representing various error messages related to graph runner.
@@ -70,11 +91,41 @@ public class CompiledGraph<State extends AgentState> {
 
     public enum StreamMode {
         VALUES,
-        SNAPSHOTS
+        SNAPSHOTS,
+        /**
+         * Emits the node outputs without cloning the state. The state of each output is a read-only view
+         * over the current graph state, eventually restricted to the channels selected through
+         * {@link RunnableConfig#streamChannels()}.
+         * <p>
+         * The channel values are shared with the running graph (e.g. lists managed by an appender channel
+         * are updated in place), so the output must be consumed before requesting the next one and must
+         * not be retained. Use {@link #VALUES} when an independent copy of the state is needed.
+         * <p>
+         * The {@link List}, {@link Set}, {@link Map} and other {@link Collection} values are wrapped in unmodifiable
+         * views, so they cannot be changed through the output. Their elements and the other mutable values are not
+         * wrapped: changing them changes the graph state.
+         */
+        VIEWS
+    }
+
+    /**
+     * Order of the results of {@link #batch(List, RunnableConfig, int, Executor, BatchOrder)}
+     */
+    public enum BatchOrder {
+        /**
+         * Results in the order of the inputs: a slow execution delays the results of the following inputs.
+         */
+        INPUT,
+        /**
+         * Results as soon as their execution completes.
+         */
+        COMPLETION
     }
 
     public final StateGraph<State> stateGraph;
 
+    private volatile ThreadPoolExecutor batchExecutor;
+
     final Map<String, AsyncNodeActionWithConfig<State>> nodes = new LinkedHashMap<>();
     final Map<String, EdgeValue<State>> edges = new LinkedHashMap<>();
 
@@ -84,6 +135,12 @@ public class CompiledGraph<State extends AgentState> {
 
     public final CompileConfig compileConfig;
 
+    /**
+     * the registered instrumentation listener, null if none has been registered.
+     * It is always checked before measuring anything so that no work is done when instrumentation is disabled
+     */
+    private final GraphListener listener;
+
     /**
      * Constructs a CompiledGraph with the given StateGraph.
      *
@@ -115,11 +172,14 @@ public class CompiledGraph<State extends AgentState> {
                                 .interruptsAfter(processedData.interruptsAfter())
                                 .build();
 
+        this.listener = this.compileConfig.listeners().isEmpty() ? null : GraphListener.of(this.compileConfig.listeners());
+
         // EVALUATES NODES
         for (var n : processedData.nodes().elements ) {
             var factory = n.actionFactory();
             requireNonNull(factory, format("action factory for node id '%s' is null!", n.id()));
-            nodes.put(n.id(), factory.apply(compileConfig));
+            var action = factory.apply(compileConfig);
+            nodes.put(n.id(), n.isParallel() ? action : withRetryPolicy( n.id(), action ) );
         }
 
         // EVALUATE EDGES
@@ -174,6 +234,39 @@ public class CompiledGraph<State extends AgentState> {
         }
     }
 
+    /**
+     * Wraps the given node action with the default retry policy, if any, unless it has its own policy
+     * or it is a compiled subgraph, and binds the state cloner of the retried actions.
+     * For cached actions, the retries are applied on cache miss, and the cache keys are bound to the id of the node
+     * in this graph, that differs from the id given to {@code addNode} when the node comes from a merged subgraph, and
+     * fingerprinted by the state serializer of this graph. The fan-out of a parallel node is never
+     * wrapped: its branches are the actions of the target nodes, each one retried on its own.
+     */
+    private AsyncNodeActionWithConfig<State> withRetryPolicy( String nodeId, AsyncNodeActionWithConfig<State> action ) {
+        if( action instanceof SubCompiledGraphNodeAction<State> ) {
+            return action;
+        }
+        if( action instanceof CachedNodeAction<State> cachedAction ) {
+            return cachedAction.withNodeId( nodeId )
+                    .withStateSerializer( stateGraph.getStateSerializer() )
+                    .mapAction( a -> withRetryPolicy( nodeId, a ) );
+        }
+        if( action instanceof RetryingNodeAction<State> retryingAction ) {
+            return retryingAction.withStateCloner( this::cloneAttemptState );
+        }
+        return compileConfig.retryPolicy()
+                .<AsyncNodeActionWithConfig<State>>map( policy -> new RetryingNodeAction<>( nodeId, action, policy, this::cloneAttemptState ) )
+                .orElse( action );
+    }
+
+    private State cloneAttemptState( State state ) {
+        try {
+            return cloneState( state.data() );
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
     /**
      * Gets the history of graph states relate to a specific Thread ID. Useful for:
      * - Debugging execution history
@@ -293,6 +386,16 @@ public class CompiledGraph<State extends AgentState> {
     }
 
     private Command nextNodeId(EdgeValue<State> route , Map<String,Object> state, String nodeId, RunnableConfig config ) throws Exception {
+        if( listener == null ) {
+            return evaluateEdge(route, state, nodeId, config);
+        }
+        final long start = System.nanoTime();
+        final var command = evaluateEdge(route, state, nodeId, config);
+        listener.onEdge(nodeId, command.gotoNode(), config, System.nanoTime() - start);
+        return command;
+    }
+
+    private Command evaluateEdge(EdgeValue<State> route , Map<String,Object> state, String nodeId, RunnableConfig config ) throws Exception {
 
         if( route == null ) {
             throw RunnableErrors.missingEdge.exception(nodeId);
@@ -334,7 +437,7 @@ public class CompiledGraph<State extends AgentState> {
 
     private Command getEntryPoint( Map<String,Object> state, RunnableConfig config ) throws Exception {
         var entryPoint = this.edges.get(START);
-        return nextNodeId(entryPoint, state, "entryPoint", config);
+        return nextNodeId(entryPoint, state, START, config);
     }
 
     private boolean shouldInterruptBefore( String nodeId, String previousNodeId ) {
@@ -353,18 +456,45 @@ public class CompiledGraph<State extends AgentState> {
                 compileConfig.interruptsAfter().contains(nodeId);
     }
 
-    private Optional<Checkpoint> addCheckpoint( RunnableConfig config, String nodeId, Map<String,Object> state, String nextNodeId ) throws Exception {
+    private Optional<Checkpoint> newCheckpoint( String nodeId, Map<String,Object> state, String nextNodeId ) throws Exception {
         if( compileConfig.checkpointSaver().isPresent() ) {
-            var cp =  Checkpoint.builder()
+            return Optional.of( Checkpoint.builder()
                                 .nodeId( nodeId )
                                 .state( cloneState(state) )
                                 .nextNodeId( nextNodeId )
-                                .build();
-            compileConfig.checkpointSaver().get().put( config, cp );
-            return Optional.of(cp);
+                                .build() );
         }
         return Optional.empty();
+    }
+
+    /**
+     * Stores the checkpoint. When the saver is an {@link AsyncCheckpointSaver} the returned future completes
+     * once the checkpoint is stored, without blocking the calling thread.
+     */
+    private CompletableFuture<RunnableConfig> putCheckpoint( RunnableConfig config, Checkpoint cp ) throws Exception {
+        final var saver = compileConfig.checkpointSaver().orElseThrow( () -> (new IllegalStateException("Missing CheckpointSaver!")) );
+        final long start = System.nanoTime();
+
+        if( saver instanceof AsyncCheckpointSaver asyncSaver ) {
+            var result = asyncSaver.putAsync( config, cp );
+            if( listener == null ) {
+                return result;
+            }
+            return result.whenComplete( (newConfig, error) -> {
+                if( error == null ) {
+                    listener.onCheckpointPut( config, cp, System.nanoTime() - start );
+                }
+                else {
+                    listener.onError( cp.getNodeId(), config, error );
+                }
+            });
+        }
 
+        var newConfig = saver.put( config, cp );
+        if( listener != null ) {
+            listener.onCheckpointPut( config, cp, System.nanoTime() - start );
+        }
+        return completedFuture( newConfig );
     }
 
     Map<String,Object> getInitialStateFromSchema() {
@@ -374,13 +504,29 @@ public class CompiledGraph<State extends AgentState> {
     Map<String,Object> getInitialState(Map<String,Object> inputs, RunnableConfig config) {
 
         return compileConfig.checkpointSaver()
-                .flatMap( saver -> saver.get( config ) )
+                .flatMap( saver -> getCheckpoint( saver, config ) )
                 .map( cp -> AgentState.updateState( cp.getState(), inputs, stateGraph.getChannels() ))
                 .orElseGet( () -> AgentState.updateState( getInitialStateFromSchema(), inputs, stateGraph.getChannels() ));
     }
 
+    private Optional<Checkpoint> getCheckpoint( BaseCheckpointSaver saver, RunnableConfig config ) {
+        if( listener == null ) {
+            return saver.get( config );
+        }
+        final long start = System.nanoTime();
+        final var result = saver.get( config );
+        listener.onCheckpointGet( config, result, System.nanoTime() - start );
+        return result;
+    }
+
     State cloneState( Map<String,Object> data ) throws IOException, ClassNotFoundException, InstantiationException, IllegalAccessException {
-        return stateGraph.getStateSerializer().cloneObject(data);
+        if( listener == null ) {
+            return stateGraph.getStateSerializer().cloneObject(data);
+        }
+        final long start = System.nanoTime();
+        final var result = stateGraph.getStateSerializer().cloneObject(data);
+        listener.onStateClone( System.nanoTime() - start );
+        return result;
     }
 
     /**
@@ -399,6 +545,24 @@ public class CompiledGraph<State extends AgentState> {
         return new AsyncGenerator.WithEmbed<>( generator );
     }
 
+    /**
+     * Creates a {@link Flow.Publisher} of NodeOutput based on the provided inputs.
+     * <p>
+     * Each subscription runs the graph as {@link #stream(GraphInput, RunnableConfig)} does, advancing the steps only
+     * while the subscriber has outstanding demand. Cancelling the subscription cancels the execution, interrupting
+     * the running node.
+     *
+     * @param input the input data
+     * @param config the invoke configuration
+     * @return a publisher of NodeOutput
+     */
+    public Flow.Publisher<NodeOutput<State>> publisher( GraphInput input, RunnableConfig config ) {
+        requireNonNull(config, "config cannot be null");
+        requireNonNull( input, "input cannot be null" );
+
+        return new GeneratorPublisher<>( () -> stream( input, config ) );
+    }
+
     /**
      * Creates an AsyncGenerator stream of NodeOutput based on the provided inputs.
      *
@@ -495,6 +659,143 @@ public class CompiledGraph<State extends AgentState> {
         return invokeFinal( GraphInput.args(inputs), RunnableConfig.builder().build() ).map( NodeOutput::state);
     }
 
+    /**
+     * Returns the executor shared by the batches of this graph, created on first use.
+     * It runs at most {@link CompileConfig#batchThreads()} executions at the same time, the others wait in its queue,
+     * and its daemon threads are released when idle, so repeated batches reuse the same threads.
+     */
+    private ThreadPoolExecutor batchExecutor() {
+        var result = batchExecutor;
+        if( result == null ) {
+            synchronized( this ) {
+                result = batchExecutor;
+                if( result == null ) {
+                    batchExecutor = result = newBatchExecutor( compileConfig.batchThreads(), 60 );
+                }
+            }
+        }
+        return result;
+    }
+
+    private static ThreadPoolExecutor newBatchExecutor( int threads, long keepAliveSeconds ) {
+        final var threadCount = new AtomicInteger();
+        final var executor = new ThreadPoolExecutor( threads, threads,
+                keepAliveSeconds, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    var thread = new Thread( runnable, format("langgraph4j-batch-%d", threadCount.incrementAndGet()) );
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Invokes the graph for each input, running at most {@code concurrency} executions at the same time on the
+     * executor shared by the batches of this graph, and returns the results in input order.
+     * The executions of all the batches running on the shared executor are bounded by
+     * {@link CompileConfig#batchThreads()}.
+     *
+     * @param inputs      the inputs
+     * @param template    the configuration of the executions
+     * @param concurrency the maximum number of executions in flight, must be greater than 0
+     * @return the stream of the results
+     * @see #batch(List, RunnableConfig, int, Executor, BatchOrder)
+     * @see #batchOnDedicatedThreads(List, RunnableConfig, int, BatchOrder)
+     */
+    public Stream<BatchResult<State>> batch( List<GraphInput> inputs, RunnableConfig template, int concurrency ) {
+        return batch( inputs, template, concurrency, batchExecutor(), BatchOrder.INPUT, () -> {} );
+    }
+
+    /**
+     * Invokes the graph for each input, running at most {@code concurrency} executions at the same time on
+     * {@code concurrency} threads created for this batch, and shut down when the stream is consumed or closed.
+     * It suits a large batch that must not compete with the other batches of the graph.
+     *
+     * @param inputs      the inputs
+     * @param template    the configuration of the executions
+     * @param concurrency the maximum number of executions in flight, must be greater than 0
+     * @param order       the order of the results
+     * @return the stream of the results
+     * @see #batch(List, RunnableConfig, int, Executor, BatchOrder)
+     */
+    public Stream<BatchResult<State>> batchOnDedicatedThreads( List<GraphInput> inputs,
+                                                               RunnableConfig template,
+                                                               int concurrency,
+                                                               BatchOrder order ) {
+        if( concurrency <= 0 ) {
+            throw new IllegalArgumentException("concurrency must be > 0!");
+        }
+        // threads of an abandoned stream don't outlive the batch
+        final var executor = newBatchExecutor( concurrency, 1 );
+
+        return batch( inputs, template, concurrency, executor, order, executor::shutdown );
+    }
+
+    /**
+     * Invokes the graph for each input, running at most {@code concurrency} executions at the same time on the given
+     * executor, e.g. shared by several batches.
+     * <p>
+     * The executions are submitted lazily while the stream is consumed: the executions submitted and not yet
+     * consumed never exceed {@code concurrency}, bounding the results held in memory.
+     * Each execution runs as {@link #invokeFinal(GraphInput, RunnableConfig)} with the template configuration
+     * and its own thread id, {@code <template thread id>-<input index>}, so the checkpoints of different inputs
+     * don't mix. A failed execution doesn't affect the others: its error is held by its {@link BatchResult}.
+     *
+     * @param inputs      the inputs
+     * @param template    the configuration of the executions
+     * @param concurrency the maximum number of executions in flight, must be greater than 0
+     * @param executor    the executor running the executions
+     * @param order       the order of the results
+     * @return the stream of the results
+     */
+    public Stream<BatchResult<State>> batch( List<GraphInput> inputs,
+                                             RunnableConfig template,
+                                             int concurrency,
+                                             Executor executor,
+                                             BatchOrder order ) {
+        return batch( inputs, template, concurrency, executor, order, () -> {} );
+    }
+
+    private Stream<BatchResult<State>> batch( List<GraphInput> inputs,
+                                              RunnableConfig template,
+                                              int concurrency,
+                                              Executor executor,
+                                              BatchOrder order,
+                                              Runnable onComplete ) {
+        requireNonNull( inputs, "inputs cannot be null" );
+        requireNonNull( template, "template cannot be null" );
+        requireNonNull( executor, "executor cannot be null" );
+        requireNonNull( order, "order cannot be null" );
+        if( concurrency <= 0 ) {
+            throw new IllegalArgumentException("concurrency must be > 0!");
+        }
+
+        final var threadId = template.threadId().orElse(THREAD_ID_DEFAULT);
+        final var configs = new ArrayList<RunnableConfig>( inputs.size() );
+        for( int i = 0; i < inputs.size(); ++i ) {
+            configs.add( RunnableConfig.builder(template)
+                            .threadId( format("%s-%d", threadId, i) )
+                            .build() );
+        }
+
+        if( inputs.isEmpty() ) {
+            onComplete.run();
+        }
+
+        final var iterator = new BatchIterator<State>( List.copyOf(inputs),
+                configs,
+                ( input, config ) -> invokeFinal( input, config ).orElse(null),
+                concurrency,
+                executor,
+                order,
+                onComplete );
+
+        return StreamSupport.stream( Spliterators.spliterator( iterator, inputs.size(), Spliterator.ORDERED | Spliterator.NONNULL ), false )
+                .onClose( onComplete );
+    }
+
 
     /**
      * Generates a drawable graph representation of the state graph.
@@ -612,6 +913,8 @@ public class CompiledGraph<State extends AgentState> {
         Map<String,Object> currentState;
         final Context context;
         int iteration = 0;
+        // the id of the last node execution notified to the listener
+        long executionId = 0L;
         final RunnableConfig config;
 
         protected AsyncNodeGenerator(GraphInput input, RunnableConfig config )  {
@@ -623,7 +926,7 @@ public class CompiledGraph<State extends AgentState> {
 
                 var saver = compileConfig.checkpointSaver()
                         .orElseThrow(() -> (new IllegalStateException("Resume request without a configured checkpoint saver!")));
-                var startCheckpoint = saver.get( config )
+                var startCheckpoint = getCheckpoint( saver, config )
                         .orElseThrow( () -> (new IllegalStateException("Resume request without a valid checkpoint!")) );
 
                 this.currentState = startCheckpoint.getState();
@@ -666,9 +969,50 @@ public class CompiledGraph<State extends AgentState> {
 
         @SuppressWarnings("unchecked")
         protected Output buildNodeOutput(String nodeId ) throws Exception {
+            if( config.streamMode() == StreamMode.VIEWS ) {
+                return (Output)NodeOutput.of( nodeId, stateGraph.getStateFactory().apply( stateView() ) );
+            }
             return  (Output)NodeOutput.of( nodeId, cloneState(currentState) );
         }
 
+        /**
+         * Creates a read-only view of the current state restricted to the channels selected in the config.
+         * Values are not copied, the collection values are wrapped to prevent their modification.
+         */
+        private Map<String,Object> stateView() {
+            final var channels = config.streamChannels();
+            final var view = new HashMap<String,Object>( channels.isEmpty() ? currentState.size() : channels.size() );
+
+            if( channels.isEmpty() ) {
+                currentState.forEach( (key, value) -> view.put( key, readOnlyValue( value ) ) );
+            }
+            else {
+                for( var key : channels ) {
+                    final var value = currentState.get(key);
+                    if( value != null ) {
+                        view.put( key, readOnlyValue( value ) );
+                    }
+                }
+            }
+            return view;
+        }
+
+        private Object readOnlyValue( Object value ) {
+            if( value instanceof List<?> list ) {
+                return Collections.unmodifiableList(list);
+            }
+            if( value instanceof Set<?> set ) {
+                return Collections.unmodifiableSet(set);
+            }
+            if( value instanceof Map<?,?> map ) {
+                return Collections.unmodifiableMap(map);
+            }
+            if( value instanceof Collection<?> collection ) {
+                return Collections.unmodifiableCollection(collection);
+            }
+            return value;
+        }
+
         @SuppressWarnings("unchecked")
         protected Output buildStateSnapshot( Checkpoint checkpoint ) throws Exception {
             return (Output)StateSnapshot.of( checkpoint, config, stateGraph.getStateFactory() ) ;
@@ -683,7 +1027,9 @@ public class CompiledGraph<State extends AgentState> {
                 .findFirst()
                 .map( generatorEntry -> {
 
-                    final var generator = (AsyncGenerator<Output>) generatorEntry.getValue();
+                    final var generator = config.streamCoalescing()
+                            .map( policy -> (AsyncGenerator<Output>) new CoalescingGenerator<>( (AsyncGenerator<Output>) generatorEntry.getValue(), policy ) )
+                            .orElseGet( () -> (AsyncGenerator<Output>) generatorEntry.getValue() );
 
                     return Data.composeWith( generator, data -> {
 
@@ -723,7 +1069,32 @@ public class CompiledGraph<State extends AgentState> {
 
         private CompletableFuture<Data<Output>> evaluateAction( AsyncNodeActionWithConfig<State> action ) {
                 try {
-                    return action.apply( cloneState(currentState), config)
+                    final var nodeId = context.currentNodeId();
+
+                    // on cache hit neither the state is cloned nor the action is applied
+                    final long lookupStart = ( listener != null ) ? System.nanoTime() : 0L;
+                    final long executionId = ( listener != null ) ? ( this.executionId = nodeExecutions.incrementAndGet() ) : 0L;
+                    final Optional<Map<String,Object>> cached = ( action instanceof CachedNodeAction<State> cachedAction ) ?
+                            cachedAction.lookup( currentState ) :
+                            Optional.empty();
+
+                    final CompletableFuture<Map<String,Object>> future;
+                    if( cached.isPresent() ) {
+                        if( listener != null ) {
+                            listener.onNodeStart( nodeId, executionId, config );
+                            listener.onNodeCacheHit( nodeId, executionId, config );
+                            listener.onNodeEnd( nodeId, executionId, config, System.nanoTime() - lookupStart, null );
+                        }
+                        future = completedFuture( cached.get() );
+                    }
+                    else {
+                        final var nodeState = cloneState(currentState);
+                        future = ( listener == null ) ?
+                                action.apply( nodeState, config ) :
+                                applyWithListener( action, nodeState, nodeId, executionId );
+                    }
+
+                    return future
                             .thenApply(TryFunction.Try(updateState -> {
 
 
@@ -752,12 +1123,43 @@ public class CompiledGraph<State extends AgentState> {
                 }
         }
 
+        private CompletableFuture<Map<String,Object>> applyWithListener( AsyncNodeActionWithConfig<State> action, State nodeState, String nodeId, long executionId ) {
+            listener.onNodeStart( nodeId, executionId, config );
+            final long start = System.nanoTime();
+            try {
+                return action.apply( nodeState, config )
+                        .whenComplete( (result, error) -> listener.onNodeEnd( nodeId, executionId, config, System.nanoTime() - start, error ) );
+            }
+            catch( RuntimeException e ) {
+                listener.onNodeEnd( nodeId, executionId, config, System.nanoTime() - start, e );
+                throw e;
+            }
+        }
+
+        private Data<Output> interrupted( InterruptionMetadata<State> interruption ) {
+            if( listener != null ) {
+                listener.onInterrupt( interruption.nodeId(), config );
+            }
+            return Data.done( interruption );
+        }
+
         private CompletableFuture<Output> getNodeOutput() throws Exception {
-            Optional<Checkpoint>  cp = addCheckpoint(config, context.currentNodeId(), currentState, context.nextNodeId());
-            return completedFuture(( cp.isPresent() && config.streamMode() == StreamMode.SNAPSHOTS) ?
+            return checkpointAndOutput( context.currentNodeId(), context.currentNodeId() );
+        }
+
+        /**
+         * Builds the output, then stores the checkpoint. The output is completed once the checkpoint is stored.
+         */
+        private CompletableFuture<Output> checkpointAndOutput( String checkpointNodeId, String outputNodeId ) throws Exception {
+            final Optional<Checkpoint> cp = newCheckpoint( checkpointNodeId, currentState, context.nextNodeId() );
+            final Output output = ( cp.isPresent() && config.streamMode() == StreamMode.SNAPSHOTS) ?
                     buildStateSnapshot(cp.get()) :
-                    buildNodeOutput( context.currentNodeId() ))
-                    ;
+                    buildNodeOutput( outputNodeId );
+
+            if( cp.isEmpty() ) {
+                return completedFuture( output );
+            }
+            return putCheckpoint( config, cp.get() ).thenApply( newConfig -> output );
         }
 
         private Optional<BaseCheckpointSaver.Tag> releaseThread() throws Exception {
@@ -793,7 +1195,7 @@ public class CompiledGraph<State extends AgentState> {
                     var interruption = returnFromEmbed.get().value(new TypeRef<InterruptionMetadata<State>>(){} );
 
                     if( interruption.isPresent() ) {
-                        return Data.done( interruption.get() );
+                        return interrupted( interruption.get() );
                     }
 
                     return Data.of( getNodeOutput() );
@@ -805,11 +1207,7 @@ public class CompiledGraph<State extends AgentState> {
                     context.setNextNodeId(nextNodeCommand.gotoNode());
                     currentState = nextNodeCommand.update();
 
-                    var cp = addCheckpoint( config, START, currentState, context.nextNodeId() );
-
-                    var output =  ( cp.isPresent() && config.streamMode() == StreamMode.SNAPSHOTS) ?
-                            buildStateSnapshot(cp.get()) :
-                            buildNodeOutput( context.currentNodeId() );
+                    var output = checkpointAndOutput( START, context.currentNodeId() );
 
                     context.setCurrentNodeId(context.nextNodeId());
                     //currentNodeId = nextNodeId;
@@ -841,11 +1239,11 @@ public class CompiledGraph<State extends AgentState> {
 
                 // check on previous node
                 if( shouldInterruptAfter( context.currentNodeId(), context.nextNodeId() )) {
-                    return Data.done( InterruptionMetadata.builder(context.currentNodeId(), cloneState(currentState)).build() );
+                    return interrupted( InterruptionMetadata.builder(context.currentNodeId(), cloneState(currentState)).build() );
                 }
 
                 if( shouldInterruptBefore( context.nextNodeId(), context.currentNodeId() ) ) {
-                    return Data.done(InterruptionMetadata.builder(context.currentNodeId(), cloneState(currentState)).build() );
+                    return interrupted( InterruptionMetadata.builder(context.currentNodeId(), cloneState(currentState)).build() );
                 }
 
                 context.setCurrentNodeId( context.nextNodeId() );
@@ -861,7 +1259,7 @@ public class CompiledGraph<State extends AgentState> {
                     final var interruption = (InterruptableAction<State>) action;
                     final var interruptMetadata = interruption.interrupt(context.currentNodeId(), cloneState(currentState));
                     if( interruptMetadata.isPresent() ) {
-                        return Data.done( interruptMetadata.get() );
+                        return interrupted( interruptMetadata.get() );
                     }
                 }
 
@@ -869,6 +1267,9 @@ public class CompiledGraph<State extends AgentState> {
             }
             catch( Throwable e ) {
                 log.error( e.getMessage(), e );
+                if( listener != null ) {
+                    listener.onError( context.currentNodeId(), executionId, config, e );
+                }
                 return Data.error(e);
             }
 
@@ -890,9 +1291,20 @@ record ProcessedNodesEdgesAndConfig<State extends AgentState>(
                 config.interruptsAfter() );
     }
 
+    /**
+     * Returns the subgraph nodes to merge into the parent graph: the subgraphs added as {@link StateGraph} and,
+     * if {@link CompileConfig#inlineSubgraphs()} is enabled, the compiled ones.
+     */
+    private static <State extends AgentState> List<Node<State>> subgraphNodesToMerge( StateGraph.Nodes<State> nodes, CompileConfig config ) {
+        return nodes.elements.stream()
+                .filter( n -> n instanceof SubStateGraphNode<State> ||
+                            ( config.inlineSubgraphs() && n instanceof SubCompiledGraphNode<State> ) )
+                .toList();
+    }
+
     static <State extends AgentState> ProcessedNodesEdgesAndConfig<State> process(StateGraph<State> stateGraph, CompileConfig config ) throws GraphStateException {
 
-        var subgraphNodes = stateGraph.nodes.onlySubStateGraphNodes();
+        var subgraphNodes = subgraphNodesToMerge( stateGraph.nodes, config );
 
         if( subgraphNodes.isEmpty() ) {
             return new ProcessedNodesEdgesAndConfig<>( stateGraph, config );
@@ -900,105 +1312,125 @@ record ProcessedNodesEdgesAndConfig<State extends AgentState>(
 
         var interruptsBefore = config.interruptsBefore();
         var interruptsAfter = config.interruptsAfter();
-        var nodes = new StateGraph.Nodes<>( stateGraph.nodes.exceptSubStateGraphNodes() );
+        var nodes = new StateGraph.Nodes<>( stateGraph.nodes.elements );
         var edges = new StateGraph.Edges<>( stateGraph.edges.elements);
 
-        for( var subgraphNode : subgraphNodes ) {
+        // nested subgraphs are merged level by level, until no subgraph node is left
+        for( ; !subgraphNodes.isEmpty(); subgraphNodes = subgraphNodesToMerge( nodes, config ) ) {
 
-            var sgWorkflow = subgraphNode.subGraph();
+            subgraphNodes.forEach( nodes.elements::remove );
 
-            //
-            // Process START Node
-            //
-            var sgEdgeStart = sgWorkflow.edges.edgeBySourceId(START).orElseThrow();
+            for( var subgraphNode : subgraphNodes ) {
 
-            if( sgEdgeStart.isParallel() ) {
-                throw new GraphStateException( "subgraph not support start with parallel branches yet!"  );
-            }
+                @SuppressWarnings("unchecked")
+                final var subgraph = (SubGraphNode<State>) subgraphNode;
 
-            var sgEdgeStartTarget = sgEdgeStart.target();
+                if( subgraphNode instanceof SubCompiledGraphNode<State> compiledNode ) {
+                    // Process Interruptions of the inlined compiled subgraph
+                    var sgConfig = compiledNode.compiledSubGraph().compileConfig;
+                    interruptsBefore = Stream.concat( interruptsBefore.stream(),
+                                    sgConfig.interruptsBefore().stream().map( subgraph::formatId ) )
+                            .collect(Collectors.toUnmodifiableSet());
+                    interruptsAfter = Stream.concat( interruptsAfter.stream(),
+                                    sgConfig.interruptsAfter().stream().map( subgraph::formatId ) )
+                            .collect(Collectors.toUnmodifiableSet());
+                }
 
-            if( sgEdgeStartTarget.id() == null ) {
-                throw new GraphStateException( format("the target for node '%s' is null!", subgraphNode.id())  );
-            }
+                var sgWorkflow = subgraph.subGraph();
 
-            var sgEdgeStartRealTargetId = subgraphNode.formatId( sgEdgeStartTarget.id()  );
+                //
+                // Process START Node
+                //
+                var sgEdgeStart = sgWorkflow.edges.edgeBySourceId(START).orElseThrow();
 
-            // Process Interruption (Before) Subgraph(s)
-            interruptsBefore = interruptsBefore.stream().map( interrupt ->
-                Objects.equals( subgraphNode.id(), interrupt ) ?
-                        sgEdgeStartRealTargetId :
-                        interrupt
-            ).collect(Collectors.toUnmodifiableSet());
+                if( sgEdgeStart.isParallel() ) {
+                    throw new GraphStateException( "subgraph not support start with parallel branches yet!"  );
+                }
 
-            var edgesWithSubgraphTargetId =  edges.edgesByTargetId( subgraphNode.id() );
+                var sgEdgeStartTarget = sgEdgeStart.target();
 
-            if( edgesWithSubgraphTargetId.isEmpty() ) {
-                throw new GraphStateException( format("the node '%s' is not present as target in graph!", subgraphNode.id())  );
-            }
+                if( sgEdgeStartTarget.id() == null ) {
+                    throw new GraphStateException( format("the target for node '%s' is null!", subgraphNode.id())  );
+                }
 
-            for( var edgeWithSubgraphTargetId : edgesWithSubgraphTargetId  ) {
+                var sgEdgeStartRealTargetId = subgraph.formatId( sgEdgeStartTarget.id()  );
 
-                var newEdge = edgeWithSubgraphTargetId.withSourceAndTargetIdsUpdated( subgraphNode,
-                        Function.identity(),
-                        id -> new EdgeValue<>( (Objects.equals( id, subgraphNode.id() ) ?
-                                            subgraphNode.formatId( sgEdgeStartTarget.id()  ) : id)));
-                edges.elements.remove(edgeWithSubgraphTargetId);
-                edges.elements.add( newEdge );
+                // Process Interruption (Before) Subgraph(s)
+                interruptsBefore = interruptsBefore.stream().map( interrupt ->
+                    Objects.equals( subgraphNode.id(), interrupt ) ?
+                            sgEdgeStartRealTargetId :
+                            interrupt
+                ).collect(Collectors.toUnmodifiableSet());
 
-            }
-            //
-            // Process END Nodes
-            //
-            var sgEdgesEnd = sgWorkflow.edges.edgesByTargetId(END);
+                var edgesWithSubgraphTargetId =  edges.edgesByTargetId( subgraphNode.id() );
 
-            var edgeWithSubgraphSourceId = edges.edgeBySourceId( subgraphNode.id() ).orElseThrow();
+                if( edgesWithSubgraphTargetId.isEmpty() ) {
+                    throw new GraphStateException( format("the node '%s' is not present as target in graph!", subgraphNode.id())  );
+                }
 
-            if( edgeWithSubgraphSourceId.isParallel() ) {
-                throw new GraphStateException( "subgraph not support routes to parallel branches yet!" );
-            }
+                for( var edgeWithSubgraphTargetId : edgesWithSubgraphTargetId  ) {
 
-            // Process Interruption (After) Subgraph(s)
-            if( interruptsAfter.contains(subgraphNode.id()) ) {
+                    var newEdge = edgeWithSubgraphTargetId.withSourceAndTargetIdsUpdated( subgraphNode,
+                            Function.identity(),
+                            id -> new EdgeValue<>( (Objects.equals( id, subgraphNode.id() ) ?
+                                                subgraph.formatId( sgEdgeStartTarget.id()  ) : id)));
+                    edges.elements.remove(edgeWithSubgraphTargetId);
+                    edges.elements.add( newEdge );
 
-                var exceptionMessage = ( edgeWithSubgraphSourceId.target().id()==null ) ?
-                                "'interruption after' on subgraph is not supported yet!" :
-                                format("'interruption after' on subgraph is not supported yet! consider to use 'interruption before' node: '%s'",
-                                        edgeWithSubgraphSourceId.target().id());
-                throw new GraphStateException( exceptionMessage );
+                }
+                //
+                // Process END Nodes
+                //
+                var sgEdgesEnd = sgWorkflow.edges.edgesByTargetId(END);
 
-            }
+                var edgeWithSubgraphSourceId = edges.edgeBySourceId( subgraphNode.id() ).orElseThrow();
 
-            sgEdgesEnd.stream()
-                    .map( e -> e.withSourceAndTargetIdsUpdated( subgraphNode,
-                                    subgraphNode::formatId,
-                                    id  -> (Objects.equals(id,END) ?
-                                                    edgeWithSubgraphSourceId.target() :
-                                                    new EdgeValue<>(subgraphNode.formatId(id)) ) )
-                    )
-                    .forEach( edges.elements::add);
-            edges.elements.remove(edgeWithSubgraphSourceId);
+                if( edgeWithSubgraphSourceId.isParallel() ) {
+                    throw new GraphStateException( "subgraph not support routes to parallel branches yet!" );
+                }
 
+                // Process Interruption (After) Subgraph(s)
+                if( interruptsAfter.contains(subgraphNode.id()) ) {
+
+                    var exceptionMessage = ( edgeWithSubgraphSourceId.target().id()==null ) ?
+                                    "'interruption after' on subgraph is not supported yet!" :
+                                    format("'interruption after' on subgraph is not supported yet! consider to use 'interruption before' node: '%s'",
+                                            edgeWithSubgraphSourceId.target().id());
+                    throw new GraphStateException( exceptionMessage );
+
+                }
+
+                sgEdgesEnd.stream()
+                        .map( e -> e.withSourceAndTargetIdsUpdated( subgraphNode,
+                                        subgraph::formatId,
+                                        id  -> (Objects.equals(id,END) ?
+                                                        edgeWithSubgraphSourceId.target() :
+                                                        new EdgeValue<>(subgraph.formatId(id)) ) )
+                        )
+                        .forEach( edges.elements::add);
+                edges.elements.remove(edgeWithSubgraphSourceId);
 
-        //
-            // Process edges
-            //
-            sgWorkflow.edges.elements.stream()
-                    .filter( e -> !Objects.equals( e.sourceId(),START) )
-                    .filter( e -> !e.anyMatchByTargetId(END) )
-                    .map( e ->
-                            e.withSourceAndTargetIdsUpdated( subgraphNode,
-                                    subgraphNode::formatId,
-                                    id  -> new EdgeValue<>( subgraphNode.formatId(id))) )
-                    .forEach(edges.elements::add);
 
             //
-            // Process nodes
-            //
-            sgWorkflow.nodes.elements.stream()
-                    .map( n -> n.withIdUpdated( subgraphNode::formatId) )
-                    .forEach(nodes.elements::add);
+                // Process edges
+                //
+                sgWorkflow.edges.elements.stream()
+                        .filter( e -> !Objects.equals( e.sourceId(),START) )
+                        .filter( e -> !e.anyMatchByTargetId(END) )
+                        .map( e ->
+                                e.withSourceAndTargetIdsUpdated( subgraphNode,
+                                        subgraph::formatId,
+                                        id  -> new EdgeValue<>( subgraph.formatId(id))) )
+                        .forEach(edges.elements::add);
+
+                //
+                // Process nodes
+                //
+                sgWorkflow.nodes.elements.stream()
+                        .map( n -> n.withIdUpdated( subgraph::formatId) )
+                        .forEach(nodes.elements::add);
 
+            }
         }
 
         return  new ProcessedNodesEdgesAndConfig<>(
@@ -1,11 +1,14 @@
 package org.bsc.langgraph4j;
 
 import org.bsc.langgraph4j.internal.node.ParallelNode;
+import org.bsc.langgraph4j.streaming.CoalescingPolicy;
 import org.bsc.langgraph4j.utils.TypeRef;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Executor;
 
 import static java.lang.String.format;
@@ -29,6 +32,8 @@ public final class RunnableConfig implements HasMetadata {
     private final String checkPointId;
     private final String nextNode;
     private final CompiledGraph.StreamMode streamMode;
+    private final Set<String> streamChannels;
+    private final CoalescingPolicy streamCoalescing;
     private final Map<String,Object> metadata;
 
     /**
@@ -39,6 +44,24 @@ public final class RunnableConfig implements HasMetadata {
     public CompiledGraph.StreamMode streamMode() {
         return streamMode;
     }
+    /**
+     * Returns the channels projected in the node outputs when the stream mode is {@link CompiledGraph.StreamMode#VIEWS}.
+     *
+     * @return an unmodifiable {@link Set} of channel names, empty means all the channels
+     */
+    public Set<String> streamChannels() {
+        return streamChannels;
+    }
+
+    /**
+     * Returns the policy merging the streaming chunks emitted by the embedded generators.
+     *
+     * @return the coalescing policy, empty means that every chunk is emitted as it arrives
+     */
+    public Optional<CoalescingPolicy> streamCoalescing() {
+        return ofNullable(streamCoalescing);
+    }
+
     /**
      * Returns the thread ID as an {@link Optional}.
      *
@@ -147,6 +170,8 @@ public final class RunnableConfig implements HasMetadata {
         private String checkPointId;
         private String nextNode;
         private CompiledGraph.StreamMode streamMode = CompiledGraph.StreamMode.VALUES;
+        private Set<String> streamChannels = Set.of();
+        private CoalescingPolicy streamCoalescing;
 
         /**
          * Constructs a new instance of the {@link Builder} with default configuration settings.
@@ -164,6 +189,8 @@ public final class RunnableConfig implements HasMetadata {
             this.checkPointId   = config.checkPointId;
             this.nextNode       = config.nextNode;
             this.streamMode     = config.streamMode;
+            this.streamChannels = config.streamChannels;
+            this.streamCoalescing = config.streamCoalescing;
         }
         /**
          * Sets the ID of the thread.
@@ -206,6 +233,42 @@ public final class RunnableConfig implements HasMetadata {
             return this;
         }
 
+        /**
+         * Sets the channels projected in the node outputs when the stream mode is {@link CompiledGraph.StreamMode#VIEWS}.
+         * If no channel is given, all the channels are emitted.
+         *
+         * @param channels the names of the channels to emit
+         * @return A reference to this builder for method chaining.
+         */
+        public Builder streamChannels(String... channels) {
+            this.streamChannels = Set.of(channels);
+            return this;
+        }
+
+        /**
+         * Sets the channels projected in the node outputs when the stream mode is {@link CompiledGraph.StreamMode#VIEWS}.
+         * If the collection is empty, all the channels are emitted.
+         *
+         * @param channels the names of the channels to emit
+         * @return A reference to this builder for method chaining.
+         */
+        public Builder streamChannels(Collection<String> channels) {
+            this.streamChannels = Set.copyOf(requireNonNull(channels, "channels cannot be null!"));
+            return this;
+        }
+
+        /**
+         * Sets the policy merging the consecutive {@link org.bsc.langgraph4j.streaming.StreamingOutput} chunks
+         * emitted by the embedded generators (e.g. the tokens of a streaming chat model), by time window or count.
+         *
+         * @param streamCoalescing the coalescing policy, null means that every chunk is emitted as it arrives
+         * @return A reference to this builder for method chaining.
+         */
+        public Builder streamCoalescing(CoalescingPolicy streamCoalescing) {
+            this.streamCoalescing = streamCoalescing;
+            return this;
+        }
+
         /**
          * Adds a custom {@link Executor} for a specific parallel node.
          * <p>
@@ -241,6 +304,8 @@ public final class RunnableConfig implements HasMetadata {
         this.checkPointId   = builder.checkPointId;
         this.nextNode       = builder.nextNode;
         this.streamMode     = builder.streamMode;
+        this.streamChannels = builder.streamChannels;
+        this.streamCoalescing = builder.streamCoalescing;
         this.metadata       = ofNullable(builder.metadata())
                                 .map( Map::copyOf )
                                 .orElse(null);
@@ -1,12 +1,16 @@
 package org.bsc.langgraph4j;
 
 import org.bsc.langgraph4j.action.*;
+import org.bsc.langgraph4j.cache.CachePolicy;
+import org.bsc.langgraph4j.cache.CachedNodeAction;
 import org.bsc.langgraph4j.internal.edge.Edge;
 import org.bsc.langgraph4j.internal.edge.EdgeCondition;
 import org.bsc.langgraph4j.internal.edge.EdgeValue;
 import org.bsc.langgraph4j.internal.node.Node;
 import org.bsc.langgraph4j.internal.node.SubCompiledGraphNode;
 import org.bsc.langgraph4j.internal.node.SubStateGraphNode;
+import org.bsc.langgraph4j.retry.RetryPolicy;
+import org.bsc.langgraph4j.retry.RetryingNodeAction;
 import org.bsc.langgraph4j.serializer.StateSerializer;
 import org.bsc.langgraph4j.serializer.std.ObjectStreamStateSerializer;
 import org.bsc.langgraph4j.state.AgentState;
@@ -160,6 +164,100 @@ public class StateGraph<State extends AgentState> {
         return this;
     }
 
+    /**
+     * Adds a node whose results are cached according to the given policy.
+     *
+     * @param id          the identifier of the node
+     * @param action      the action to be performed by the node
+     * @param cachePolicy the caching policy of the node results
+     * @return this
+     * @throws GraphStateException if the node identifier is invalid or the node already exists
+     * @see CachePolicy
+     */
+    public StateGraph<State> addNode(String id, AsyncNodeAction<State> action, CachePolicy cachePolicy) throws GraphStateException {
+        return addNode( id, AsyncNodeActionWithConfig.of(action), cachePolicy );
+    }
+
+    /**
+     * Adds a node whose results are cached according to the given policy.
+     *
+     * @param id          the identifier of the node
+     * @param action      the action to be performed by the node
+     * @param cachePolicy the caching policy of the node results
+     * @return this
+     * @throws GraphStateException if the node identifier is invalid or the node already exists
+     * @see CachePolicy
+     */
+    public StateGraph<State> addNode(String id, AsyncNodeActionWithConfig<State> action, CachePolicy cachePolicy) throws GraphStateException {
+        Objects.requireNonNull( cachePolicy, "cachePolicy cannot be null" );
+        return addNode( id, new CachedNodeAction<>( id, action, cachePolicy ) );
+    }
+
+    /**
+     * Adds a node whose failed attempts are retried according to the given policy.
+     *
+     * @param id          the identifier of the node
+     * @param action      the action to be performed by the node
+     * @param retryPolicy the retry policy of the node
+     * @return this
+     * @throws GraphStateException if the node identifier is invalid or the node already exists
+     * @see RetryPolicy
+     */
+    public StateGraph<State> addNode(String id, AsyncNodeAction<State> action, RetryPolicy retryPolicy) throws GraphStateException {
+        return addNode( id, AsyncNodeActionWithConfig.of(action), retryPolicy );
+    }
+
+    /**
+     * Adds a node whose failed attempts are retried according to the given policy.
+     *
+     * @param id          the identifier of the node
+     * @param action      the action to be performed by the node
+     * @param retryPolicy the retry policy of the node
+     * @return this
+     * @throws GraphStateException if the node identifier is invalid or the node already exists
+     * @see RetryPolicy
+     */
+    public StateGraph<State> addNode(String id, AsyncNodeActionWithConfig<State> action, RetryPolicy retryPolicy) throws GraphStateException {
+        Objects.requireNonNull( retryPolicy, "retryPolicy cannot be null" );
+        return addNode( id, new RetryingNodeAction<>( id, action, retryPolicy ) );
+    }
+
+    /**
+     * Adds a node whose results are cached according to the given cache policy and whose failed attempts,
+     * on cache miss, are retried according to the given retry policy.
+     *
+     * @param id          the identifier of the node
+     * @param action      the action to be performed by the node
+     * @param cachePolicy the caching policy of the node results
+     * @param retryPolicy the retry policy of the node
+     * @return this
+     * @throws GraphStateException if the node identifier is invalid or the node already exists
+     * @see CachePolicy
+     * @see RetryPolicy
+     */
+    public StateGraph<State> addNode(String id, AsyncNodeAction<State> action, CachePolicy cachePolicy, RetryPolicy retryPolicy) throws GraphStateException {
+        return addNode( id, AsyncNodeActionWithConfig.of(action), cachePolicy, retryPolicy );
+    }
+
+    /**
+     * Adds a node whose results are cached according to the given cache policy and whose failed attempts,
+     * on cache miss, are retried according to the given retry policy.
+     *
+     * @param id          the identifier of the node
+     * @param action      the action to be performed by the node
+     * @param cachePolicy the caching policy of the node results
+     * @param retryPolicy the retry policy of the node
+     * @return this
+     * @throws GraphStateException if the node identifier is invalid or the node already exists
+     * @see CachePolicy
+     * @see RetryPolicy
+     */
+    public StateGraph<State> addNode(String id, AsyncNodeActionWithConfig<State> action, CachePolicy cachePolicy, RetryPolicy retryPolicy) throws GraphStateException {
+        Objects.requireNonNull( cachePolicy, "cachePolicy cannot be null" );
+        Objects.requireNonNull( retryPolicy, "retryPolicy cannot be null" );
+        return addNode( id, new CachedNodeAction<>( id, new RetryingNodeAction<>( id, action, retryPolicy ), cachePolicy ) );
+    }
+
     /**
      * Adds node that behave as conditional edges.
      *
@@ -0,0 +1,224 @@
+package org.bsc.langgraph4j.cache;
+
+import org.bsc.langgraph4j.serializer.StateSerializer;
+import org.bsc.langgraph4j.serializer.std.MessageStore;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Caching policy of a node whose result is a pure function of some channels of the state.
+ * <p>
+ * When a node is added with a cache policy, its result is stored keyed by the node id and the values of the
+ * {@link #keyChannels()} of the input state. If the node is evaluated again with the same values (e.g. on retry,
+ * replay or time travel) the cached partial state is applied without invoking the node action.
+ * <p>
+ * The key channels must be given explicitly. Their values are not held by the cache: the key holds the SHA-256
+ * fingerprint of their serialized form, written by the state serializer of the graph, so the values changed
+ * after the evaluation don't affect the cached entries, and the cost of a lookup depends only on the key channels.
+ * Two evaluations share the entry when the serialized forms of their key values are the same.
+ * If the values cannot be serialized, the node is evaluated without caching.
+ *
+ * <pre>{@code
+ * workflow.addNode( "retrieve", node_async(retriever),
+ *                   CachePolicy.builder()
+ *                      .keyChannels("query")
+ *                      .ttl(Duration.ofMinutes(10))
+ *                      .maxSize(500)
+ *                      .build() );
+ * }</pre>
+ */
+public final class CachePolicy {
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private List<String> keyChannels = List.of();
+    private Duration ttl;
+    private int maxSize = DEFAULT_MAX_SIZE;
+    private NodeCache cache;
+    private Clock clock = Clock.systemUTC();
+
+    private CachePolicy() {}
+
+    /**
+     * Returns the channels of the input state forming the cache key.
+     *
+     * @return the key channels
+     */
+    public List<String> keyChannels() {
+        return keyChannels;
+    }
+
+    /**
+     * Returns the time to live of the cached results.
+     *
+     * @return the time to live, empty means no expiration
+     */
+    public Optional<Duration> ttl() {
+        return ofNullable(ttl);
+    }
+
+    /**
+     * Returns the maximum number of results held by the default in-memory cache.
+     *
+     * @return the maximum number of results
+     */
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the backend storing the cached results.
+     *
+     * @return the cache backend
+     */
+    public NodeCache cache() {
+        return cache;
+    }
+
+    /**
+     * Evaluates the cache key of a node evaluation, fingerprinting the values of the key channels
+     * in the order they were given.
+     *
+     * @param nodeId     the node id
+     * @param state      the input state data
+     * @param serializer the serializer writing the values of the key channels
+     * @return the cache key
+     * @throws IOException if the values of the key channels cannot be serialized
+     */
+    public NodeCache.Key keyOf(String nodeId, Map<String, Object> state, StateSerializer<?> serializer) throws IOException {
+        requireNonNull(state, "state cannot be null");
+        requireNonNull(serializer, "serializer cannot be null");
+        final var input = new LinkedHashMap<String, Object>(keyChannels.size());
+        for (var channel : keyChannels) {
+            if (state.containsKey(channel)) {
+                input.put(channel, state.get(channel));
+            }
+        }
+        try (var stream = new ByteArrayOutputStream()) {
+            var out = new ObjectOutputStream(stream);
+            serializer.writeData(input, out);
+            out.flush();
+            return new NodeCache.Key(nodeId, MessageStore.hashOf(stream.toByteArray()));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return format("CachePolicy{ keyChannels=%s, ttl=%s, maxSize=%d, cache=%s }",
+                keyChannels,
+                ttl,
+                maxSize,
+                cache.getClass().getSimpleName());
+    }
+
+    /**
+     * Returns a new {@link Builder} instance.
+     *
+     * @return A {@link Builder} instance.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder of {@link CachePolicy}
+     */
+    public static class Builder {
+        private final CachePolicy policy = new CachePolicy();
+
+        /**
+         * Sets the channels of the input state forming the cache key (required).
+         *
+         * @param keyChannels the key channels
+         * @return this builder
+         */
+        public Builder keyChannels(String... keyChannels) {
+            requireNonNull(keyChannels, "keyChannels cannot be null");
+            policy.keyChannels = List.of(keyChannels);
+            return this;
+        }
+
+        /**
+         * Sets the time to live of the cached results (default no expiration).
+         *
+         * @param ttl the time to live, must be positive
+         * @return this builder
+         */
+        public Builder ttl(Duration ttl) {
+            requireNonNull(ttl, "ttl cannot be null");
+            if (ttl.isNegative() || ttl.isZero()) {
+                throw new IllegalArgumentException("ttl must be positive!");
+            }
+            policy.ttl = ttl;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of results held by the default in-memory cache
+         * (default {@value CachePolicy#DEFAULT_MAX_SIZE}). Ignored if a cache backend is set.
+         *
+         * @param maxSize the maximum number of results, must be greater than 0
+         * @return this builder
+         */
+        public Builder maxSize(int maxSize) {
+            if (maxSize <= 0) {
+                throw new IllegalArgumentException("maxSize must be > 0!");
+            }
+            policy.maxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * Sets the backend storing the cached results (default {@link InMemoryNodeCache}).
+         *
+         * @param cache the cache backend
+         * @return this builder
+         */
+        public Builder cache(NodeCache cache) {
+            policy.cache = requireNonNull(cache, "cache cannot be null");
+            return this;
+        }
+
+        /**
+         * Sets the clock used by the default in-memory cache to evaluate the expiration (default UTC system clock).
+         *
+         * @param clock the clock
+         * @return this builder
+         */
+        public Builder clock(Clock clock) {
+            policy.clock = requireNonNull(clock, "clock cannot be null");
+            return this;
+        }
+
+        /**
+         * Creates the cache policy.
+         *
+         * @return the cache policy
+         * @throws IllegalArgumentException if no key channel is set
+         */
+        public CachePolicy build() {
+            if (policy.keyChannels.isEmpty()) {
+                throw new IllegalArgumentException("keyChannels cannot be empty!");
+            }
+            var result = new CachePolicy();
+            result.keyChannels = policy.keyChannels;
+            result.ttl = policy.ttl;
+            result.maxSize = policy.maxSize;
+            result.clock = policy.clock;
+            result.cache = (policy.cache != null) ? policy.cache : new InMemoryNodeCache(policy.maxSize, policy.clock);
+            return result;
+        }
+    }
+}
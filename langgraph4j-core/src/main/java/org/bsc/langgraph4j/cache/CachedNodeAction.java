@@ -0,0 +1,140 @@
+package org.bsc.langgraph4j.cache;
+
+import org.bsc.async.AsyncGenerator;
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.action.AsyncNodeActionWithConfig;
+import org.bsc.langgraph4j.serializer.StateSerializer;
+import org.bsc.langgraph4j.serializer.std.ObjectStreamStateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Node action memoizing the results of the wrapped action according to a {@link CachePolicy}.
+ * <p>
+ * The graph runner looks up the cache before cloning the state, so on a hit neither the state nor
+ * the action are evaluated, and the listeners are notified through
+ * {@link org.bsc.langgraph4j.instrumentation.GraphListener#onNodeCacheHit(String, RunnableConfig)}.
+ * Results holding streaming values ({@link AsyncGenerator}) are not cached.
+ * <p>
+ * The cache keys hold the node id, that the compiled graph rebinds through {@link #withNodeId(String)} to the
+ * id of the node in the compiled graph: the copies of a subgraph merged in a parent graph don't share entries.
+ * The values of the key channels are fingerprinted by the state serializer that the compiled graph binds through
+ * {@link #withStateSerializer(StateSerializer)}, by default an {@link ObjectStreamStateSerializer}.
+ *
+ * @param <State> the type of the agent state
+ */
+public final class CachedNodeAction<State extends AgentState> implements AsyncNodeActionWithConfig<State> {
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(CachedNodeAction.class);
+
+    private final String nodeId;
+    private final AsyncNodeActionWithConfig<State> action;
+    private final CachePolicy policy;
+    private final StateSerializer<?> stateSerializer;
+
+    public CachedNodeAction(String nodeId, AsyncNodeActionWithConfig<State> action, CachePolicy policy) {
+        this(nodeId, action, policy, new ObjectStreamStateSerializer<>(AgentState::new));
+    }
+
+    private CachedNodeAction(String nodeId, AsyncNodeActionWithConfig<State> action, CachePolicy policy, StateSerializer<?> stateSerializer) {
+        this.nodeId = requireNonNull(nodeId, "nodeId cannot be null");
+        this.action = requireNonNull(action, "action cannot be null");
+        this.policy = requireNonNull(policy, "policy cannot be null");
+        this.stateSerializer = requireNonNull(stateSerializer, "stateSerializer cannot be null");
+    }
+
+    public CachePolicy policy() {
+        return policy;
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Returns a copy of this action, sharing the same policy and wrapped action, that keys the results
+     * with the given node id.
+     *
+     * @param nodeId the node id
+     * @return the new cached action
+     */
+    public CachedNodeAction<State> withNodeId(String nodeId) {
+        return new CachedNodeAction<>(nodeId, action, policy, stateSerializer);
+    }
+
+    /**
+     * Returns a copy of this action, sharing the same policy and wrapped action, that fingerprints the values
+     * of the key channels with the given serializer.
+     *
+     * @param stateSerializer the state serializer of the graph
+     * @return the new cached action
+     */
+    public CachedNodeAction<State> withStateSerializer(StateSerializer<?> stateSerializer) {
+        return new CachedNodeAction<>(nodeId, action, policy, stateSerializer);
+    }
+
+    /**
+     * Returns a copy of this action, sharing the same policy, that wraps the action returned by the given function.
+     *
+     * @param mapper the function receiving the wrapped action
+     * @return the new cached action
+     */
+    public CachedNodeAction<State> mapAction(UnaryOperator<AsyncNodeActionWithConfig<State>> mapper) {
+        return new CachedNodeAction<>(nodeId, mapper.apply(action), policy, stateSerializer);
+    }
+
+    /**
+     * Looks up the cached result for the given state.
+     *
+     * @param state the input state data
+     * @return the cached partial state, empty on miss
+     */
+    public Optional<Map<String, Object>> lookup(Map<String, Object> state) {
+        var result = keyOf(state).flatMap(key -> policy.cache().get(key));
+        if (result.isPresent()) {
+            log.trace("cache hit for node '{}'", nodeId);
+        }
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> apply(State state, RunnableConfig config) {
+        final var key = keyOf(state.data());
+        if (key.isEmpty()) {
+            return action.apply(state, config);
+        }
+        var cached = policy.cache().get(key.get());
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+        return action.apply(state, config).thenApply(result -> {
+            if (result != null && isCacheable(result)) {
+                var value = Collections.unmodifiableMap(new HashMap<>(result));
+                policy.cache().put(key.get(), value, policy.ttl().orElse(null));
+                return value;
+            }
+            return result;
+        });
+    }
+
+    private Optional<NodeCache.Key> keyOf(Map<String, Object> state) {
+        try {
+            return Optional.of(policy.keyOf(nodeId, state, stateSerializer));
+        } catch (IOException e) {
+            log.warn("node '{}' is not cached, its key channels {} cannot be serialized", nodeId, policy.keyChannels(), e);
+            return Optional.empty();
+        }
+    }
+
+    private static boolean isCacheable(Map<String, Object> result) {
+        return result.values().stream().noneMatch(value -> value instanceof AsyncGenerator<?>);
+    }
+}
@@ -0,0 +1,116 @@
+package org.bsc.langgraph4j.cache;
+
+import org.bsc.langgraph4j.serializer.Serializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link ResponseCache} holding each response in a file named {@code <key>.response}, directly in the target folder.
+ * <p>
+ * The responses survive restarts, so a recorded run (e.g. an evaluation suite) can be replayed offline and
+ * deterministically. The first response stored for a key is kept: a replay always returns the recorded one.
+ * A response is written to a temporary file and then moved to its final name, so a concurrent reader, also from
+ * another process, never sees a partially written file. An unreadable file is reported and treated as a miss.
+ *
+ * @param <V> the type of the cached responses
+ */
+public class FileResponseCache<V> implements ResponseCache<V> {
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(FileResponseCache.class);
+
+    private static final String EXTENSION = ".response";
+
+    private final Path targetFolder;
+    private final Serializer<? super V> serializer;
+    private final Class<V> type;
+
+    /**
+     * Creates a cache.
+     *
+     * @param targetFolder the folder holding the responses, created if missing
+     * @param serializer   the serializer of the responses
+     * @param type         the type of the responses
+     * @throws IOException if the folder cannot be created
+     */
+    public FileResponseCache(Path targetFolder, Serializer<? super V> serializer, Class<V> type) throws IOException {
+        this.targetFolder = requireNonNull(targetFolder, "targetFolder cannot be null");
+        this.serializer = requireNonNull(serializer, "serializer cannot be null");
+        this.type = requireNonNull(type, "type cannot be null");
+        Files.createDirectories(targetFolder);
+    }
+
+    private Path pathOf(String key) {
+        requireNonNull(key, "key cannot be null");
+        if (key.isEmpty() || !key.chars().allMatch(c -> (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+            throw new IllegalArgumentException("invalid key: " + key);
+        }
+        return targetFolder.resolve(key + EXTENSION);
+    }
+
+    @Override
+    public Optional<V> get(String key) {
+        final var path = pathOf(key);
+        try {
+            return Optional.of(type.cast(serializer.bytesToObject(Files.readAllBytes(path))));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            log.warn("cannot read cached response '{}'", key, e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void put(String key, V value) {
+        final var path = pathOf(key);
+        requireNonNull(value, "value cannot be null");
+        if (Files.exists(path)) {
+            return;
+        }
+        try {
+            final var temp = Files.createTempFile(targetFolder, key, ".tmp");
+            try {
+                Files.write(temp, serializer.objectToBytes(value));
+                try {
+                    Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, path);
+                }
+            } catch (FileAlreadyExistsException e) {
+                // stored concurrently
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            log.warn("cannot write cached response '{}'", key, e);
+        }
+    }
+
+    /**
+     * Removes the response files, leaving any other file of the target folder in place.
+     */
+    @Override
+    public void clear() {
+        try (var paths = Files.list(targetFolder)) {
+            paths.filter(path -> path.getFileName().toString().endsWith(EXTENSION))
+                    .forEach(path -> {
+                        try {
+                            Files.deleteIfExists(path);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.bsc.langgraph4j.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * In-memory {@link NodeCache} holding at most a given number of entries, evicted in least recently used order.
+ */
+public class InMemoryNodeCache implements NodeCache {
+
+    private record Entry(Map<String, Object> value, long expiresAtMillis) {}
+
+    private final int maxSize;
+    private final Clock clock;
+    private final Map<Key, Entry> entries;
+    private final ReentrantLock _lock = new ReentrantLock();
+
+    /**
+     * Creates a cache using the UTC system clock to evaluate the expiration of the entries.
+     *
+     * @param maxSize the maximum number of entries, must be greater than 0
+     */
+    public InMemoryNodeCache(int maxSize) {
+        this(maxSize, Clock.systemUTC());
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxSize the maximum number of entries, must be greater than 0
+     * @param clock   the clock used to evaluate the expiration of the entries
+     */
+    public InMemoryNodeCache(int maxSize, Clock clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be > 0!");
+        }
+        this.maxSize = maxSize;
+        this.clock = requireNonNull(clock, "clock cannot be null");
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > InMemoryNodeCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return the number of entries, including the expired ones not yet evicted
+     */
+    public int size() {
+        _lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            _lock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<Map<String, Object>> get(Key key) {
+        requireNonNull(key, "key cannot be null");
+        _lock.lock();
+        try {
+            var entry = entries.get(key);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            if (entry.expiresAtMillis() <= clock.millis()) {
+                entries.remove(key);
+                return Optional.empty();
+            }
+            return Optional.of(entry.value());
+        } finally {
+            _lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(Key key, Map<String, Object> value, Duration ttl) {
+        requireNonNull(key, "key cannot be null");
+        requireNonNull(value, "value cannot be null");
+        final long expiresAt = (ttl == null) ? Long.MAX_VALUE : clock.millis() + ttl.toMillis();
+        _lock.lock();
+        try {
+            entries.put(key, new Entry(value, expiresAt));
+        } finally {
+            _lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        _lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            _lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.bsc.langgraph4j.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * In-memory {@link ResponseCache} holding at most a given number of responses, evicted in least recently used order.
+ *
+ * @param <V> the type of the cached responses
+ */
+public class InMemoryResponseCache<V> implements ResponseCache<V> {
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final int maxSize;
+    private final Map<String, V> entries;
+    private final ReentrantLock _lock = new ReentrantLock();
+
+    /**
+     * Creates a cache holding at most {@value #DEFAULT_MAX_SIZE} responses.
+     */
+    public InMemoryResponseCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxSize the maximum number of responses, must be greater than 0
+     */
+    public InMemoryResponseCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be > 0!");
+        }
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > InMemoryResponseCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return the number of cached responses
+     */
+    public int size() {
+        _lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            _lock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<V> get(String key) {
+        requireNonNull(key, "key cannot be null");
+        _lock.lock();
+        try {
+            return Optional.ofNullable(entries.get(key));
+        } finally {
+            _lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(String key, V value) {
+        requireNonNull(key, "key cannot be null");
+        requireNonNull(value, "value cannot be null");
+        _lock.lock();
+        try {
+            entries.put(key, value);
+        } finally {
+            _lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        _lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            _lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.bsc.langgraph4j.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Backend storing the partial states returned by the cached nodes.
+ * <p>
+ * The default backend is {@link InMemoryNodeCache}. Other backends (e.g. distributed caches) can be
+ * plugged through {@link CachePolicy.Builder#cache(NodeCache)}.
+ *
+ * @see CachePolicy
+ */
+public interface NodeCache {
+
+    /**
+     * Key of a cached result: the node id and the fingerprint of the values of the key channels of the input state.
+     *
+     * @param nodeId      the node id
+     * @param fingerprint the SHA-256 hash of the serialized values of the key channels
+     * @see CachePolicy#keyOf(String, Map, org.bsc.langgraph4j.serializer.StateSerializer)
+     */
+    record Key(String nodeId, String fingerprint) {
+        public Key {
+            requireNonNull(nodeId, "nodeId cannot be null");
+            requireNonNull(fingerprint, "fingerprint cannot be null");
+        }
+    }
+
+    /**
+     * Looks up a cached result.
+     *
+     * @param key the cache key
+     * @return the cached partial state, empty if missing or expired
+     */
+    Optional<Map<String, Object>> get(Key key);
+
+    /**
+     * Stores a result.
+     *
+     * @param key   the cache key
+     * @param value the partial state returned by the node
+     * @param ttl   the time to live of the entry, null means no expiration
+     */
+    void put(Key key, Map<String, Object> value, Duration ttl);
+
+    /**
+     * Removes all the cached results.
+     */
+    void clear();
+}
@@ -0,0 +1,56 @@
+package org.bsc.langgraph4j.cache;
+
+import org.bsc.langgraph4j.serializer.std.MessageStore;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Backend storing the responses of a chat model, keyed by the hash of the canonical form of the request
+ * (messages, tool specifications and parameters).
+ * <p>
+ * The agent executors use it to answer repeated identical requests (e.g. during development, evaluations or
+ * replays) without calling the model. The available backends are {@link InMemoryResponseCache}, holding the
+ * most recently used responses, and {@link FileResponseCache}, surviving restarts so that a recorded run can be
+ * replayed offline.
+ * <p>
+ * A failure of the backend must not fail the model call: the implementations report it and behave as a miss.
+ *
+ * @param <V> the type of the cached responses
+ */
+public interface ResponseCache<V> {
+
+    /**
+     * Looks up a cached response.
+     *
+     * @param key the cache key, see {@link #keyOf(String)}
+     * @return the cached response, empty if missing
+     */
+    Optional<V> get(String key);
+
+    /**
+     * Stores a response.
+     *
+     * @param key   the cache key, see {@link #keyOf(String)}
+     * @param value the response
+     */
+    void put(String key, V value);
+
+    /**
+     * Removes all the cached responses.
+     */
+    void clear();
+
+    /**
+     * Evaluates the cache key of a request.
+     *
+     * @param canonicalRequest the canonical form of the request, equal for equivalent requests across runs
+     * @return the SHA-256 hash of the canonical form, as lowercase hexadecimal string
+     */
+    static String keyOf(String canonicalRequest) {
+        requireNonNull(canonicalRequest, "canonicalRequest cannot be null");
+        return MessageStore.hashOf(canonicalRequest.getBytes(StandardCharsets.UTF_8));
+    }
+}
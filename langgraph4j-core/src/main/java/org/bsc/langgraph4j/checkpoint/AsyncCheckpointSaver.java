@@ -0,0 +1,113 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.utils.TrySupplier;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Asynchronous variant of {@link BaseCheckpointSaver}.
+ * <p>
+ * When the configured checkpoint saver implements this interface, the graph runner composes
+ * {@link #putAsync(RunnableConfig, Checkpoint)} with the node output instead of blocking the thread
+ * that completed the node action.
+ * <p>
+ * A synchronous saver can be adapted through {@link #of(BaseCheckpointSaver, Executor)}.
+ */
+public interface AsyncCheckpointSaver extends BaseCheckpointSaver {
+    /**
+     * Default number of threads of the executors created by the savers backed by a database.
+     */
+    int DEFAULT_ASYNC_THREADS = 4;
+
+    CompletableFuture<Collection<Checkpoint>> listAsync(RunnableConfig config);
+
+    CompletableFuture<Optional<Checkpoint>> getAsync(RunnableConfig config);
+
+    CompletableFuture<RunnableConfig> putAsync(RunnableConfig config, Checkpoint checkpoint);
+
+    CompletableFuture<Tag> releaseAsync(RunnableConfig config);
+
+    /**
+     * Adapts a synchronous saver, running its operations on the given executor.
+     * The adapter implements {@link HasVersions} if the saver does.
+     *
+     * @param saver    the synchronous saver
+     * @param executor the executor running the saver operations
+     * @return the asynchronous saver
+     */
+    static AsyncCheckpointSaver of(BaseCheckpointSaver saver, Executor executor) {
+        requireNonNull(saver, "saver cannot be null");
+        requireNonNull(executor, "executor cannot be null");
+        if (saver instanceof AsyncCheckpointSaver asyncSaver) {
+            return asyncSaver;
+        }
+        return ExecutorCheckpointSaver.of(saver, executor);
+    }
+
+    /**
+     * Creates an executor running at most the given number of operations concurrently, e.g. the size of
+     * the connection pool of a JDBC saver. The threads are daemon and are released when idle.
+     *
+     * @param name       the prefix of the thread names
+     * @param maxThreads the maximum number of threads
+     * @return the executor
+     */
+    static ExecutorService boundedExecutor(String name, int maxThreads) {
+        requireNonNull(name, "name cannot be null");
+        if (maxThreads <= 0) {
+            throw new IllegalArgumentException("maxThreads must be greater than 0");
+        }
+        final var count = new AtomicInteger();
+        var executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    var thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Runs the given operation on the executor, or in the calling thread if the executor is null.
+     *
+     * @param operation the operation
+     * @param executor  the executor, may be null
+     * @param <T>       the result type
+     * @return the future result of the operation
+     */
+    static <T> CompletableFuture<T> supplyAsync(TrySupplier<T, Exception> operation, Executor executor) {
+        if (executor == null) {
+            try {
+                return CompletableFuture.completedFuture(operation.tryGet());
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        final var result = new CompletableFuture<T>();
+        try {
+            executor.execute(() -> {
+                try {
+                    result.complete(operation.tryGet());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+}
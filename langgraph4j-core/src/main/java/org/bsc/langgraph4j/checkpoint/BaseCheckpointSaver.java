@@ -24,4 +24,24 @@ public interface BaseCheckpointSaver {
 
     Tag release(RunnableConfig config) throws Exception;
 
+    /**
+     * Returns the retention policy enforced by this saver.
+     *
+     * @return the retention policy, empty if the checkpoint history is unbounded
+     */
+    default Optional<CheckpointRetentionPolicy> retentionPolicy() {
+        return Optional.empty();
+    }
+
+    /**
+     * Purges the released threads that are expired according to the {@link CheckpointRetentionPolicy#maxAge()}.
+     *
+     * @return the number of purged items
+     * @throws Exception if an error occurs purging the underlying storage
+     * @see CheckpointSweeper
+     */
+    default int sweep() throws Exception {
+        return 0;
+    }
+
 }
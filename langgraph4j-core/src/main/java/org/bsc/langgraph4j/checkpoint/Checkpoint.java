@@ -2,6 +2,7 @@ package org.bsc.langgraph4j.checkpoint;
 
 import org.bsc.langgraph4j.state.AgentState;
 import org.bsc.langgraph4j.state.Channel;
+import org.bsc.langgraph4j.utils.TimeOrderedUUID;
 
 import java.util.*;
 
@@ -16,6 +17,9 @@ import static java.util.Objects.requireNonNull;
  *
  * The checkpoint is serializable and can be persisted and restored.
  *
+ * The checkpoint id is, by default, a time-ordered UUID (see {@link TimeOrderedUUID}),
+ * so checkpoint ids sort in creation order.
+ *
  * @see AgentState
  */
 public class Checkpoint {
@@ -46,7 +50,7 @@ public class Checkpoint {
      */
     public static Checkpoint copyOf( Checkpoint checkpoint ) {
         requireNonNull( checkpoint, "checkpoint cannot be null" );
-        return new Checkpoint( UUID.randomUUID().toString(),
+        return new Checkpoint( TimeOrderedUUID.nextString(),
                                 checkpoint.state,
                                 checkpoint.nodeId,
                                 checkpoint.nextNodeId);
@@ -66,7 +70,7 @@ public class Checkpoint {
     }
 
     public static class Builder {
-        private String id = UUID.randomUUID().toString();
+        private String id = TimeOrderedUUID.nextString();
         private Map<String,Object> state = null;
         private String nodeId = null ;
         private String nextNodeId = null;
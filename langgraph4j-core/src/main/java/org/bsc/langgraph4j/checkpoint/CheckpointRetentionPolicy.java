@@ -0,0 +1,250 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import org.bsc.langgraph4j.serializer.StateSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Retention policy of the checkpoints stored by a {@link BaseCheckpointSaver}.
+ * <p>
+ * The policy is enforced incrementally by the saver on each {@code put}, for the thread of the stored checkpoint:
+ * <ul>
+ *     <li>{@link #maxCheckpoints()}: keep at most the last N checkpoints</li>
+ *     <li>{@link #maxAge()}: drop the checkpoints older than the given duration</li>
+ *     <li>{@link #maxBytes()}: keep the most recent checkpoints whose total size doesn't exceed the given bytes</li>
+ * </ul>
+ * The last checkpoint of a thread is always retained, since it is required to resume the execution.
+ * <p>
+ * Released threads are purged by {@link BaseCheckpointSaver#sweep()} when older than {@link #maxAge()},
+ * see {@link CheckpointSweeper} to run it in background.
+ *
+ * <pre>{@code
+ * var saver = new MemorySaver( CheckpointRetentionPolicy.builder()
+ *                                  .maxCheckpoints(10)
+ *                                  .maxAge(Duration.ofDays(1))
+ *                                  .build() );
+ * }</pre>
+ */
+public final class CheckpointRetentionPolicy {
+
+    private int maxCheckpoints = 0;
+    private Duration maxAge;
+    private long maxBytes = 0;
+    private ToLongFunction<Checkpoint> checkpointSize;
+    private Clock clock = Clock.systemUTC();
+
+    private CheckpointRetentionPolicy() {}
+
+    /**
+     * Returns the maximum number of checkpoints retained per thread.
+     *
+     * @return the maximum number of checkpoints, 0 means unlimited
+     */
+    public int maxCheckpoints() {
+        return maxCheckpoints;
+    }
+
+    /**
+     * Returns the maximum age of the checkpoints.
+     *
+     * @return the maximum age, empty means unlimited
+     */
+    public Optional<Duration> maxAge() {
+        return ofNullable(maxAge);
+    }
+
+    /**
+     * Returns the maximum total size, in bytes, of the checkpoints retained per thread.
+     *
+     * @return the maximum total size, 0 means unlimited
+     */
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Returns the clock used to evaluate the age of the checkpoints.
+     *
+     * @return the clock
+     */
+    public Clock clock() {
+        return clock;
+    }
+
+    /**
+     * Returns the size, in bytes, of the given checkpoint.
+     *
+     * @param checkpoint the checkpoint
+     * @return the size of the checkpoint, 0 if no maximum size has been set
+     */
+    public long sizeOf(Checkpoint checkpoint) {
+        return (checkpointSize == null) ? 0 : checkpointSize.applyAsLong(checkpoint);
+    }
+
+    /**
+     * Checks whether something saved at the given time is expired.
+     *
+     * @param savedAtMillis the save time in milliseconds since epoch
+     * @return true if a maximum age has been set and it has been exceeded
+     */
+    public boolean isExpired(long savedAtMillis) {
+        return maxAge != null && clock.millis() - savedAtMillis > maxAge.toMillis();
+    }
+
+    /**
+     * Evaluates how many of the given checkpoints must be retained.
+     *
+     * @param newestFirst   the checkpoints of a thread, the most recent first
+     * @param savedAtMillis function returning the save time of a checkpoint, in milliseconds since epoch
+     * @param sizeInBytes   function returning the size of a checkpoint, in bytes
+     * @return the number of leading checkpoints to retain, never less than 1 if the checkpoints are not empty
+     */
+    public int retainedCount(Iterable<Checkpoint> newestFirst,
+                             ToLongFunction<Checkpoint> savedAtMillis,
+                             ToLongFunction<Checkpoint> sizeInBytes) {
+        int count = 0;
+        long totalBytes = 0;
+        for (var checkpoint : newestFirst) {
+            if (count > 0) {
+                if (maxCheckpoints > 0 && count >= maxCheckpoints) {
+                    break;
+                }
+                if (isExpired(savedAtMillis.applyAsLong(checkpoint))) {
+                    break;
+                }
+            }
+            if (maxBytes > 0) {
+                totalBytes += sizeInBytes.applyAsLong(checkpoint);
+                if (count > 0 && totalBytes > maxBytes) {
+                    break;
+                }
+            }
+            ++count;
+        }
+        return count;
+    }
+
+    /**
+     * Returns a function that evaluates the size of a checkpoint as the length of its state serialized
+     * by the given serializer.
+     *
+     * @param stateSerializer the state serializer
+     * @return the size function
+     */
+    public static ToLongFunction<Checkpoint> serializedSize(StateSerializer<?> stateSerializer) {
+        requireNonNull(stateSerializer, "stateSerializer cannot be null");
+        return checkpoint -> {
+            try {
+                return stateSerializer.dataToBytes(checkpoint.getState()).length;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return format("CheckpointRetentionPolicy{ maxCheckpoints=%d, maxAge=%s, maxBytes=%d }",
+                maxCheckpoints,
+                maxAge,
+                maxBytes);
+    }
+
+    /**
+     * Returns a new {@link Builder} instance.
+     *
+     * @return A {@link Builder} instance.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder of {@link CheckpointRetentionPolicy}
+     */
+    public static class Builder {
+        private final CheckpointRetentionPolicy policy = new CheckpointRetentionPolicy();
+
+        /**
+         * Sets the maximum number of checkpoints retained per thread.
+         *
+         * @param maxCheckpoints the maximum number of checkpoints, must be greater than 0
+         * @return this builder
+         */
+        public Builder maxCheckpoints(int maxCheckpoints) {
+            if (maxCheckpoints <= 0) {
+                throw new IllegalArgumentException("maxCheckpoints must be > 0!");
+            }
+            policy.maxCheckpoints = maxCheckpoints;
+            return this;
+        }
+
+        /**
+         * Sets the maximum age of the checkpoints. It is also used to purge the released threads.
+         *
+         * @param maxAge the maximum age, must be positive
+         * @return this builder
+         */
+        public Builder maxAge(Duration maxAge) {
+            requireNonNull(maxAge, "maxAge cannot be null");
+            if (maxAge.isNegative() || maxAge.isZero()) {
+                throw new IllegalArgumentException("maxAge must be positive!");
+            }
+            policy.maxAge = maxAge;
+            return this;
+        }
+
+        /**
+         * Sets the maximum total size of the checkpoints retained per thread.
+         * The size of each checkpoint is evaluated once, when it is stored.
+         *
+         * @param maxBytes       the maximum total size in bytes, must be greater than 0
+         * @param checkpointSize the function evaluating the size of a checkpoint
+         * @return this builder
+         * @see #serializedSize(StateSerializer)
+         */
+        public Builder maxBytes(long maxBytes, ToLongFunction<Checkpoint> checkpointSize) {
+            if (maxBytes <= 0) {
+                throw new IllegalArgumentException("maxBytes must be > 0!");
+            }
+            policy.maxBytes = maxBytes;
+            policy.checkpointSize = requireNonNull(checkpointSize, "checkpointSize cannot be null");
+            return this;
+        }
+
+        /**
+         * Sets the clock used to evaluate the age of the checkpoints (default UTC system clock).
+         *
+         * @param clock the clock
+         * @return this builder
+         */
+        public Builder clock(Clock clock) {
+            policy.clock = requireNonNull(clock, "clock cannot be null");
+            return this;
+        }
+
+        /**
+         * Creates the retention policy.
+         *
+         * @return the retention policy
+         */
+        public CheckpointRetentionPolicy build() {
+            var result = new CheckpointRetentionPolicy();
+            result.maxCheckpoints = policy.maxCheckpoints;
+            result.maxAge = policy.maxAge;
+            result.maxBytes = policy.maxBytes;
+            result.checkpointSize = policy.checkpointSize;
+            result.clock = policy.clock;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Periodically invokes {@link BaseCheckpointSaver#sweep()} on a background daemon thread,
+ * purging the released threads expired according to the saver {@link CheckpointRetentionPolicy}.
+ *
+ * <pre>{@code
+ * try( var sweeper = CheckpointSweeper.start( saver, Duration.ofMinutes(10) ) ) {
+ *     ...
+ * }
+ * }</pre>
+ */
+public final class CheckpointSweeper implements AutoCloseable {
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(CheckpointSweeper.class);
+
+    private final BaseCheckpointSaver saver;
+    private final ScheduledExecutorService executor;
+
+    private CheckpointSweeper(BaseCheckpointSaver saver) {
+        this.saver = saver;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "langgraph4j-checkpoint-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts sweeping the given saver at a fixed interval.
+     *
+     * @param saver    the checkpoint saver
+     * @param interval the interval between two sweeps
+     * @return the started sweeper, to close when no longer needed
+     */
+    public static CheckpointSweeper start(BaseCheckpointSaver saver, Duration interval) {
+        requireNonNull(saver, "saver cannot be null");
+        requireNonNull(interval, "interval cannot be null");
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("interval must be positive!");
+        }
+        if (saver.retentionPolicy().flatMap(CheckpointRetentionPolicy::maxAge).isEmpty()) {
+            log.warn("saver {} has no retention policy with max age. Nothing will be swept.", saver.getClass().getSimpleName());
+        }
+        var sweeper = new CheckpointSweeper(saver);
+        sweeper.executor.scheduleWithFixedDelay(sweeper::sweep, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        return sweeper;
+    }
+
+    private void sweep() {
+        try {
+            int purged = saver.sweep();
+            if (purged > 0) {
+                log.debug("swept {} expired items from {}", purged, saver.getClass().getSimpleName());
+            }
+        } catch (Exception e) {
+            log.error("checkpoint sweep failed", e);
+        }
+    }
+
+    /**
+     * Stops sweeping.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,108 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import org.bsc.langgraph4j.RunnableConfig;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static org.bsc.langgraph4j.checkpoint.AsyncCheckpointSaver.supplyAsync;
+
+/**
+ * Runs the operations of a synchronous saver on an executor.
+ *
+ * @see AsyncCheckpointSaver#of(BaseCheckpointSaver, Executor)
+ */
+class ExecutorCheckpointSaver implements AsyncCheckpointSaver {
+
+    /**
+     * Variant forwarding the versions of a saver implementing {@link HasVersions}.
+     */
+    static class Versioned extends ExecutorCheckpointSaver implements HasVersions {
+        private final HasVersions versions;
+
+        Versioned(BaseCheckpointSaver saver, HasVersions versions, Executor executor) {
+            super(saver, executor);
+            this.versions = versions;
+        }
+
+        @Override
+        public Collection<Integer> versionsByThreadId(String threadId) {
+            return versions.versionsByThreadId(threadId);
+        }
+
+        @Override
+        public Optional<Integer> lastVersionByThreadId(String threadId) {
+            return versions.lastVersionByThreadId(threadId);
+        }
+    }
+
+    /**
+     * Creates the adapter of the given saver, implementing {@link HasVersions} if the saver does.
+     */
+    static ExecutorCheckpointSaver of(BaseCheckpointSaver saver, Executor executor) {
+        if (saver instanceof HasVersions versions) {
+            return new Versioned(saver, versions, executor);
+        }
+        return new ExecutorCheckpointSaver(saver, executor);
+    }
+
+    private final BaseCheckpointSaver saver;
+    private final Executor executor;
+
+    ExecutorCheckpointSaver(BaseCheckpointSaver saver, Executor executor) {
+        this.saver = saver;
+        this.executor = executor;
+    }
+
+    @Override
+    public Collection<Checkpoint> list(RunnableConfig config) {
+        return saver.list(config);
+    }
+
+    @Override
+    public Optional<Checkpoint> get(RunnableConfig config) {
+        return saver.get(config);
+    }
+
+    @Override
+    public RunnableConfig put(RunnableConfig config, Checkpoint checkpoint) throws Exception {
+        return saver.put(config, checkpoint);
+    }
+
+    @Override
+    public Tag release(RunnableConfig config) throws Exception {
+        return saver.release(config);
+    }
+
+    @Override
+    public Optional<CheckpointRetentionPolicy> retentionPolicy() {
+        return saver.retentionPolicy();
+    }
+
+    @Override
+    public int sweep() throws Exception {
+        return saver.sweep();
+    }
+
+    @Override
+    public CompletableFuture<Collection<Checkpoint>> listAsync(RunnableConfig config) {
+        return supplyAsync(() -> saver.list(config), executor);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Checkpoint>> getAsync(RunnableConfig config) {
+        return supplyAsync(() -> saver.get(config), executor);
+    }
+
+    @Override
+    public CompletableFuture<RunnableConfig> putAsync(RunnableConfig config, Checkpoint checkpoint) {
+        return supplyAsync(() -> saver.put(config, checkpoint), executor);
+    }
+
+    @Override
+    public CompletableFuture<Tag> releaseAsync(RunnableConfig config) {
+        return supplyAsync(() -> saver.release(config), executor);
+    }
+}
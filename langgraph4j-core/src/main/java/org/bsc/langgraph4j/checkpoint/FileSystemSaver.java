@@ -35,9 +35,21 @@ public class FileSystemSaver extends MemorySaver {
     private final Path targetFolder;
     private final Serializer<Checkpoint> serializer;
 
-    @SuppressWarnings("unchecked")
     public FileSystemSaver(Path targetFolder, StateSerializer<? extends AgentState> stateSerializer) {
+        this(targetFolder, stateSerializer, null);
+    }
 
+    /**
+     * Creates a saver that prunes the checkpoints of a thread, on each put, according to the given policy.
+     * The released versions ("thread-<i>threadId</i>-v<i>N</i>.saver") older than the policy max age are deleted by {@link #sweep()}.
+     *
+     * @param targetFolder the folder where the checkpoints are stored
+     * @param stateSerializer the state serializer
+     * @param retentionPolicy the retention policy, may be null
+     */
+    @SuppressWarnings("unchecked")
+    public FileSystemSaver(Path targetFolder, StateSerializer<? extends AgentState> stateSerializer, CheckpointRetentionPolicy retentionPolicy) {
+        super(retentionPolicy);
         Objects.requireNonNull(stateSerializer, "stateSerializer cannot be null");
         this.targetFolder = Objects.requireNonNull(targetFolder, "targetFolder cannot be null");
         this.serializer = new CheckPointSerializer((StateSerializer<AgentState>) stateSerializer);
@@ -99,6 +111,9 @@ public class FileSystemSaver extends MemorySaver {
         File targetFile = getFile(config);
         if (targetFile.exists() && checkpoints.isEmpty()) {
             deserialize(targetFile, checkpoints);
+            // the file is rewritten on each put: its last modification is the latest save time of its checkpoints
+            var savedAt = targetFile.lastModified();
+            checkpoints.forEach(checkpoint -> loadedCheckpointSavedAt(checkpoint, savedAt));
         }
         return checkpoints;
 
@@ -162,6 +177,44 @@ public class FileSystemSaver extends MemorySaver {
 
     }
 
+    /**
+     * Deletes the released versions of the threads whose last modification is older than
+     * the {@link CheckpointRetentionPolicy#maxAge()}.
+     *
+     * @return the number of deleted files
+     * @throws IOException if the target folder cannot be listed
+     */
+    @Override
+    public int sweep() throws IOException {
+        var policy = retentionPolicy().filter(p -> p.maxAge().isPresent()).orElse(null);
+        if (policy == null) {
+            return 0;
+        }
+        var versionPattern = Pattern.compile(format("thread-.+-v\\d+\\%s$", EXTENSION));
+
+        List<Path> expired;
+        try (var stream = Files.list(targetFolder)) {
+            expired = stream
+                    .filter(path -> versionPattern.matcher(path.getFileName().toString()).matches())
+                    .filter(path -> {
+                        try {
+                            return policy.isExpired(Files.getLastModifiedTime(path).toMillis());
+                        } catch (IOException e) {
+                            log.warn("cannot read last modified time of {}", path, e);
+                            return false;
+                        }
+                    })
+                    .toList();
+        }
+        int deleted = 0;
+        for (var path : expired) {
+            if (Files.deleteIfExists(path)) {
+                ++deleted;
+            }
+        }
+        return deleted;
+    }
+
     /**
      * delete the checkpoint file associated with the given RunnableConfig.
      *
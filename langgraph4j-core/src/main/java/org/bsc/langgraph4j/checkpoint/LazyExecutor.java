@@ -0,0 +1,96 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Executor creating the underlying executor service on the first task, and shutting it down on {@link #close()}.
+ * <p>
+ * The savers backed by a database use it as default executor of their asynchronous operations, so that a saver
+ * never used asynchronously starts no thread, and a closed saver releases its threads.
+ */
+public final class LazyExecutor implements Executor, AutoCloseable {
+
+    private final Supplier<ExecutorService> factory;
+    private final ReentrantLock _lock = new ReentrantLock();
+    private ExecutorService executor;
+    private boolean closed;
+
+    /**
+     * Creates the executor.
+     *
+     * @param factory the factory of the underlying executor service, invoked at most once
+     */
+    public LazyExecutor(Supplier<ExecutorService> factory) {
+        this.factory = requireNonNull(factory, "factory cannot be null");
+    }
+
+    /**
+     * Creates an executor lazily backed by {@link AsyncCheckpointSaver#boundedExecutor(String, int)}.
+     *
+     * @param name       the prefix of the thread names
+     * @param maxThreads the maximum number of threads
+     * @return the executor
+     */
+    public static LazyExecutor bounded(String name, int maxThreads) {
+        requireNonNull(name, "name cannot be null");
+        if (maxThreads <= 0) {
+            throw new IllegalArgumentException("maxThreads must be greater than 0");
+        }
+        return new LazyExecutor(() -> AsyncCheckpointSaver.boundedExecutor(name, maxThreads));
+    }
+
+    private ExecutorService executor() {
+        _lock.lock();
+        try {
+            if (closed) {
+                throw new RejectedExecutionException("executor closed");
+            }
+            if (executor == null) {
+                executor = requireNonNull(factory.get(), "executor cannot be null");
+            }
+            return executor;
+        } finally {
+            _lock.unlock();
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor().execute(command);
+    }
+
+    /**
+     * @return true if the underlying executor service has been created
+     */
+    public boolean isStarted() {
+        _lock.lock();
+        try {
+            return executor != null;
+        } finally {
+            _lock.unlock();
+        }
+    }
+
+    /**
+     * Shuts down the underlying executor service, if created: the submitted tasks are completed, the new ones
+     * are rejected.
+     */
+    @Override
+    public void close() {
+        _lock.lock();
+        try {
+            closed = true;
+            if (executor != null) {
+                executor.shutdown();
+            }
+        } finally {
+            _lock.unlock();
+        }
+    }
+}
@@ -4,18 +4,105 @@ import org.bsc.langgraph4j.RunnableConfig;
 import org.bsc.langgraph4j.utils.TryFunction;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.stream.IntStream;
 
 import static java.lang.String.format;
 import static java.util.Optional.ofNullable;
+import static org.bsc.langgraph4j.checkpoint.AsyncCheckpointSaver.supplyAsync;
 
-public class MemorySaver implements BaseCheckpointSaver {
+public class MemorySaver implements AsyncCheckpointSaver {
+
+    private record RetentionInfo(long savedAt, long bytes) {}
+
+    /**
+     * Checkpoints of a thread by id. Each checkpoint has an ordinal, increasing with its insertion, so that its
+     * position in the history (the most recent first) is {@code nextOrdinal - 1 - ordinal}: prunes remove the
+     * oldest checkpoints and don't shift the positions.
+     */
+    private static final class CheckpointIndex {
+        private record Entry(long ordinal, Checkpoint checkpoint) {}
+
+        private final Map<String, Entry> entries = new HashMap<>();
+        private long nextOrdinal;
+
+        void loaded( LinkedList<Checkpoint> checkpoints ) {
+            entries.clear();
+            nextOrdinal = checkpoints.size();
+            long ordinal = nextOrdinal;
+            for( var checkpoint : checkpoints ) {
+                entries.put( checkpoint.getId(), new Entry( --ordinal, checkpoint ) );
+            }
+        }
+
+        void inserted( Checkpoint checkpoint ) {
+            entries.put( checkpoint.getId(), new Entry( nextOrdinal++, checkpoint ) );
+        }
+
+        void removed( Checkpoint checkpoint ) {
+            entries.remove( checkpoint.getId() );
+        }
+
+        Optional<Checkpoint> get( String id ) {
+            return ofNullable( entries.get( id ) ).map( Entry::checkpoint );
+        }
+
+        /**
+         * Replaces a checkpoint in the history, in place.
+         *
+         * @return the replaced checkpoint, empty if not found
+         */
+        Optional<Checkpoint> replace( LinkedList<Checkpoint> checkpoints, String id, Checkpoint checkpoint ) {
+            var entry = entries.remove( id );
+            if( entry == null ) {
+                return Optional.empty();
+            }
+            // LinkedList.set walks from the nearest end: the most recent checkpoints, the most likely to be replaced, are at the head
+            var replaced = checkpoints.set( (int) (nextOrdinal - 1 - entry.ordinal()), checkpoint );
+            if( replaced != entry.checkpoint() ) {
+                throw new IllegalStateException( format("checkpoint index out of sync on %s!", id) );
+            }
+            entries.put( checkpoint.getId(), new Entry( entry.ordinal(), checkpoint ) );
+            return Optional.of( replaced );
+        }
+    }
 
     final Map<String, LinkedList<Checkpoint>> _checkpointsByThread = new HashMap<>();
+    private final Map<String, CheckpointIndex> _checkpointIndexByThread = new HashMap<>();
     private final ReentrantLock _lock = new ReentrantLock();
+    private final CheckpointRetentionPolicy retentionPolicy;
+    private final Map<String, RetentionInfo> _retentionInfoById = new HashMap<>();
+    // save times of the checkpoints loaded from an underlying storage, until they are evaluated
+    private final Map<String, Long> _loadedSavedAtById = new HashMap<>();
 
     public MemorySaver( ) {
+        this( null );
+    }
+
+    /**
+     * Creates a saver that prunes the checkpoints of a thread, on each put, according to the given policy.
+     *
+     * @param retentionPolicy the retention policy, null means unbounded history
+     */
+    public MemorySaver( CheckpointRetentionPolicy retentionPolicy ) {
+        this.retentionPolicy = retentionPolicy;
+    }
+
+    @Override
+    public Optional<CheckpointRetentionPolicy> retentionPolicy() {
+        return ofNullable(retentionPolicy);
+    }
+
+    /**
+     * Returns the executor running the asynchronous operations.
+     * The in-memory saver never blocks, so it completes them in the calling thread; savers backed by a
+     * storage override this method to run them on a dedicated executor.
+     *
+     * @return the executor, null to run the operations in the calling thread
+     */
+    protected Executor asyncExecutor() {
+        return null;
     }
 
     protected LinkedList<Checkpoint> loadedCheckpoints(RunnableConfig config, LinkedList<Checkpoint> checkpoints) throws Exception {
@@ -28,12 +115,70 @@ public class MemorySaver implements BaseCheckpointSaver {
     protected void releasedCheckpoints( RunnableConfig config, LinkedList<Checkpoint> checkpoints, Tag releaseTag) throws Exception {
     }
 
+    /**
+     * Records when a checkpoint loaded by {@link #loadedCheckpoints} has been saved in the underlying storage,
+     * so that the retention policy ages it from that time. The loaded checkpoints without a save time are aged
+     * from the first time they are evaluated.
+     *
+     * @param checkpoint the loaded checkpoint
+     * @param savedAt the time the checkpoint has been saved, in milliseconds since the epoch
+     */
+    protected final void loadedCheckpointSavedAt( Checkpoint checkpoint, long savedAt ) {
+        if( retentionPolicy != null ) {
+            _loadedSavedAtById.put( checkpoint.getId(), savedAt );
+        }
+    }
+    /**
+     * Invoked when checkpoints have been pruned by the retention policy, before the new checkpoint is inserted.
+     *
+     * @param config the runnable config
+     * @param checkpoints the retained checkpoints, the most recent first
+     * @param removed the pruned checkpoints
+     * @throws Exception if an error occurs removing the checkpoints from the underlying storage
+     */
+    protected void removedCheckpoints( RunnableConfig config, LinkedList<Checkpoint> checkpoints, List<Checkpoint> removed) throws Exception {
+    }
+
+    private RetentionInfo retentionInfo( Checkpoint checkpoint ) {
+        return _retentionInfoById.computeIfAbsent( checkpoint.getId(), id -> {
+            var savedAt = _loadedSavedAtById.remove( id );
+            return new RetentionInfo( savedAt != null ? savedAt : retentionPolicy.clock().millis(), retentionPolicy.sizeOf(checkpoint) );
+        });
+    }
+
+    private List<Checkpoint> prune( LinkedList<Checkpoint> checkpoints ) {
+        int retained = retentionPolicy.retainedCount( checkpoints,
+                checkpoint -> retentionInfo(checkpoint).savedAt(),
+                checkpoint -> retentionInfo(checkpoint).bytes() );
+        if( retained >= checkpoints.size() ) {
+            return List.of();
+        }
+        var removed = new ArrayList<Checkpoint>( checkpoints.size() - retained );
+        while( checkpoints.size() > retained ) {
+            var checkpoint = checkpoints.removeLast();
+            _retentionInfoById.remove( checkpoint.getId() );
+            _loadedSavedAtById.remove( checkpoint.getId() );
+            removed.add( checkpoint );
+        }
+        return removed;
+    }
+
+    private CheckpointIndex checkpointIndex( RunnableConfig config ) {
+        return _checkpointIndexByThread.computeIfAbsent( config.threadId().orElse(THREAD_ID_DEFAULT), k -> new CheckpointIndex() );
+    }
+
     protected final <T> T loadOrInitCheckpoints(RunnableConfig config,
                                                 TryFunction<LinkedList<Checkpoint>, T, Exception> transformer) throws Exception {
         _lock.lock();
         try {
             var threadId = config.threadId().orElse(THREAD_ID_DEFAULT);
-            return transformer.tryApply( loadedCheckpoints( config, _checkpointsByThread.computeIfAbsent(threadId, k -> new LinkedList<>()) ) );
+            var checkpoints = _checkpointsByThread.computeIfAbsent(threadId, k -> new LinkedList<>());
+            var wasEmpty = checkpoints.isEmpty();
+            var loaded = loadedCheckpoints( config, checkpoints );
+            if( wasEmpty && !loaded.isEmpty() ) { // checkpoints loaded from an underlying storage
+                checkpointIndex( config ).loaded( loaded );
+            }
+            return transformer.tryApply( loaded );
 
         } finally {
             _lock.unlock();
@@ -45,7 +190,8 @@ public class MemorySaver implements BaseCheckpointSaver {
     }
 
     protected final Collection<Checkpoint> remove( String threadId ) {
-        return _checkpointsByThread.remove( Objects.requireNonNull(threadId) );
+        _checkpointIndexByThread.remove( Objects.requireNonNull(threadId) );
+        return _checkpointsByThread.remove( threadId );
     }
 
     @Override
@@ -63,10 +209,7 @@ public class MemorySaver implements BaseCheckpointSaver {
         try {
             return loadOrInitCheckpoints( config, checkpoints -> {
                 if( config.checkPointId().isPresent() ) {
-                    return config.checkPointId()
-                            .flatMap( id -> checkpoints.stream()
-                                    .filter( checkpoint -> checkpoint.getId().equals(id) )
-                                    .findFirst());
+                    return checkpointIndex( config ).get( config.checkPointId().get() );
                 }
                 return getLast(checkpoints,config);
 
@@ -83,16 +226,27 @@ public class MemorySaver implements BaseCheckpointSaver {
 
             if (config.checkPointId().isPresent()) { // Replace Checkpoint
                 String checkPointId = config.checkPointId().get();
-                int index = IntStream.range(0, checkpoints.size())
-                        .filter(i -> checkpoints.get(i).getId().equals(checkPointId))
-                        .findFirst()
-                        .orElseThrow(() -> (new NoSuchElementException(format("Checkpoint with id %s not found!", checkPointId))));
-                checkpoints.set(index, checkpoint );
+                var replaced = checkpointIndex( config ).replace( checkpoints, checkPointId, checkpoint )
+                        .orElseThrow( () -> new NoSuchElementException(format("Checkpoint with id %s not found!", checkPointId)) );
+                if( retentionPolicy != null ) {
+                    _retentionInfoById.remove( replaced.getId() );
+                    retentionInfo( checkpoint );
+                }
                 updatedCheckpoint( config, checkpoints, checkpoint);
                 return config;
             }
 
+            var index = checkpointIndex( config );
             checkpoints.push( checkpoint ); // Add Checkpoint
+            index.inserted( checkpoint );
+            if( retentionPolicy != null ) {
+                retentionInfo( checkpoint );
+                var removed = prune( checkpoints );
+                removed.forEach( index::removed );
+                if( !removed.isEmpty() ) {
+                    removedCheckpoints( config, checkpoints, removed );
+                }
+            }
             insertedCheckpoint( config, checkpoints, checkpoint);
 
             return RunnableConfig.builder(config)
@@ -111,9 +265,35 @@ public class MemorySaver implements BaseCheckpointSaver {
 
             var tag =  new Tag( threadId, remove(threadId) );
 
+            if( retentionPolicy != null ) {
+                tag.checkpoints().forEach( checkpoint -> {
+                    _retentionInfoById.remove( checkpoint.getId() );
+                    _loadedSavedAtById.remove( checkpoint.getId() );
+                });
+            }
+
             releasedCheckpoints( config, checkpoints, tag );
 
             return tag;
         });
     }
+    @Override
+    public final CompletableFuture<Collection<Checkpoint>> listAsync(RunnableConfig config) {
+        return supplyAsync( () -> list(config), asyncExecutor() );
+    }
+
+    @Override
+    public final CompletableFuture<Optional<Checkpoint>> getAsync(RunnableConfig config) {
+        return supplyAsync( () -> get(config), asyncExecutor() );
+    }
+
+    @Override
+    public final CompletableFuture<RunnableConfig> putAsync(RunnableConfig config, Checkpoint checkpoint) {
+        return supplyAsync( () -> put(config, checkpoint), asyncExecutor() );
+    }
+
+    @Override
+    public final CompletableFuture<Tag> releaseAsync(RunnableConfig config) {
+        return supplyAsync( () -> release(config), asyncExecutor() );
+    }
 }
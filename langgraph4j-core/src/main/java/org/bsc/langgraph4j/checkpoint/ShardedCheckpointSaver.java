@@ -0,0 +1,461 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import org.bsc.langgraph4j.RunnableConfig;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A checkpoint saver that spreads the threads over several underlying savers (shards), e.g. different databases.
+ * <p>
+ * Each thread id is routed by consistent hashing to one shard, that holds its whole checkpoint history.
+ * Every shard is placed on a hash ring through a number of virtual nodes, so adding a shard moves only
+ * about {@code 1/N} of the threads.
+ * <p>
+ * When shards are added, the threads whose owner has changed are migrated on first access (read-through):
+ * the owner computed with the previous layout is looked up and the history found there is copied, oldest first,
+ * to the new owner and then released on the previous one. A migration interrupted by an error is resumed on the
+ * next access, copying only the checkpoints the new owner doesn't hold yet: the copy is complete once the new owner
+ * holds the head of the previous one. Until then the operations on the thread fail, so they are never routed to
+ * a partial history. The migration of a thread holds a lock of that thread only.
+ * Threads can also be migrated eagerly through {@link #migrate(RunnableConfig)}.
+ * Once all the threads have been migrated, {@link #completeRebalance()} stops looking up the previous layouts.
+ * The threads already checked during a rebalance are remembered in a bounded LRU set: a thread evicted from it
+ * is checked again on its next access.
+ * <p>
+ * The saver is asynchronous: the {@code *Async} operations are delegated to the owning shard when it implements
+ * {@link AsyncCheckpointSaver}, otherwise they run the synchronous operations on the executor of the builder.
+ * <p>
+ * Example:
+ * <pre>{@code
+ * var saver = ShardedCheckpointSaver.builder()
+ *                  .shard( "pg1", postgresSaver1 )
+ *                  .shard( "pg2", postgresSaver2 )
+ *                  .build();
+ *
+ * // later on
+ * saver.addShard( "pg3", postgresSaver3 );
+ * }</pre>
+ */
+public class ShardedCheckpointSaver implements AsyncCheckpointSaver {
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(ShardedCheckpointSaver.class);
+
+    public static final int DEFAULT_VIRTUAL_NODES = 128;
+    public static final int DEFAULT_MAX_CHECKED_THREADS = 10_000;
+
+    /**
+     * Immutable consistent hash ring.
+     */
+    static final class Ring {
+        private final NavigableMap<Long, String> nodes = new TreeMap<>();
+        private final Set<String> shards;
+
+        Ring(Collection<String> shards, int virtualNodes) {
+            this.shards = Set.copyOf(shards);
+            for (var shard : shards) {
+                for (int i = 0; i < virtualNodes; ++i) {
+                    nodes.put(hash(shard + "#" + i), shard);
+                }
+            }
+        }
+
+        Set<String> shards() {
+            return shards;
+        }
+
+        String owner(String threadId) {
+            var entry = nodes.ceilingEntry(hash(threadId));
+            return (entry != null) ? entry.getValue() : nodes.firstEntry().getValue();
+        }
+
+        // FNV-1a 64 bit, followed by the murmur3 finalizer to spread similar keys
+        static long hash(String key) {
+            long h = 0xcbf29ce484222325L;
+            for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+                h ^= (b & 0xff);
+                h *= 0x100000001b3L;
+            }
+            h ^= (h >>> 33);
+            h *= 0xff51afd7ed558ccdL;
+            h ^= (h >>> 33);
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= (h >>> 33);
+            return h;
+        }
+    }
+
+    private final Map<String, BaseCheckpointSaver> shards;
+    private final Map<String, AsyncCheckpointSaver> asyncShards = new ConcurrentHashMap<>();
+    private final Executor executor;
+    private final int virtualNodes;
+    private volatile Ring ring;
+    private volatile List<Ring> previousRings;
+    // threads already checked for migration against the current previous rings, most recently used last
+    private final Map<String, Boolean> checkedThreads;
+    // guards the changes of the layout
+    private final ReentrantLock layoutLock = new ReentrantLock();
+    // locks of the threads being migrated, removed when no longer held or awaited
+    private final Map<String, ThreadLock> migrationLocks = new ConcurrentHashMap<>();
+
+    private static final class ThreadLock {
+        private final ReentrantLock lock = new ReentrantLock();
+        private int users;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    protected ShardedCheckpointSaver(Builder builder) {
+        if (builder.shards.isEmpty()) {
+            throw new IllegalArgumentException("at least one shard must be provided");
+        }
+        this.shards = new ConcurrentHashMap<>(builder.shards);
+        this.executor = (builder.executor != null) ? builder.executor : Runnable::run;
+        this.shards.forEach((name, saver) -> asyncShards.put(name, AsyncCheckpointSaver.of(saver, executor)));
+        this.virtualNodes = builder.virtualNodes;
+        final int maxCheckedThreads = builder.maxCheckedThreads;
+        this.checkedThreads = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > maxCheckedThreads;
+            }
+        });
+        this.ring = new Ring(shards.keySet(), virtualNodes);
+
+        if (builder.previousShards != null) {
+            for (var name : builder.previousShards) {
+                if (!shards.containsKey(name)) {
+                    throw new IllegalArgumentException(format("previous shard '%s' is not a shard", name));
+                }
+            }
+            this.previousRings = List.of(new Ring(builder.previousShards, virtualNodes));
+        } else {
+            this.previousRings = List.of();
+        }
+    }
+
+    /**
+     * @return the names of the shards
+     */
+    public Set<String> shardNames() {
+        return ring.shards();
+    }
+
+    /**
+     * Returns the name of the shard owning the given thread.
+     *
+     * @param threadId the thread id
+     * @return the shard name
+     */
+    public String shardOf(String threadId) {
+        return ring.owner(requireNonNull(threadId, "threadId cannot be null"));
+    }
+
+    /**
+     * Adds a new shard. The threads now owned by the new shard are migrated on first access.
+     *
+     * @param name  the shard name
+     * @param saver the shard saver
+     */
+    public void addShard(String name, BaseCheckpointSaver saver) {
+        requireNonNull(name, "name cannot be null");
+        requireNonNull(saver, "saver cannot be null");
+
+        layoutLock.lock();
+        try {
+            if (shards.putIfAbsent(name, saver) != null) {
+                throw new IllegalArgumentException(format("shard '%s' already exists", name));
+            }
+            asyncShards.put(name, AsyncCheckpointSaver.of(saver, executor));
+            var previous = new ArrayList<Ring>(previousRings.size() + 1);
+            previous.add(ring);
+            previous.addAll(previousRings);
+
+            previousRings = List.copyOf(previous);
+            ring = new Ring(shards.keySet(), virtualNodes);
+            checkedThreads.clear();
+        } finally {
+            layoutLock.unlock();
+        }
+    }
+
+    /**
+     * Stops looking up the previous shard layouts. To invoke once all the threads have been migrated.
+     */
+    public void completeRebalance() {
+        layoutLock.lock();
+        try {
+            previousRings = List.of();
+            checkedThreads.clear();
+        } finally {
+            layoutLock.unlock();
+        }
+    }
+
+    /**
+     * Eagerly migrates the given thread to the shard owning it.
+     *
+     * @param config the configuration holding the thread id
+     * @return true if checkpoints have been moved
+     * @throws Exception if an error occurs accessing the shards
+     */
+    public boolean migrate(RunnableConfig config) throws Exception {
+        var threadId = config.threadId().orElse(THREAD_ID_DEFAULT);
+        return migrateLocked(threadId, true);
+    }
+
+    int checkedThreadCount() {
+        return checkedThreads.size();
+    }
+
+    int migrationLockCount() {
+        return migrationLocks.size();
+    }
+
+    private boolean needsMigrationCheck(String threadId) {
+        // get, unlike containsKey, refreshes the entry
+        return !previousRings.isEmpty() && checkedThreads.get(threadId) == null;
+    }
+
+    private String route(RunnableConfig config) {
+        var threadId = config.threadId().orElse(THREAD_ID_DEFAULT);
+        if (needsMigrationCheck(threadId)) {
+            try {
+                migrateLocked(threadId, false);
+            } catch (Exception e) {
+                throw new IllegalStateException(format("migration of thread '%s' failed", threadId), e);
+            }
+        }
+        return ring.owner(threadId);
+    }
+
+    /**
+     * Runs an asynchronous operation on the shard owning the thread. A pending migration check, that accesses the
+     * shards synchronously, runs on the executor before the operation.
+     */
+    private <T> CompletableFuture<T> routeAsync(RunnableConfig config,
+                                                Function<AsyncCheckpointSaver, CompletableFuture<T>> operation) {
+        var threadId = config.threadId().orElse(THREAD_ID_DEFAULT);
+        if (needsMigrationCheck(threadId)) {
+            return AsyncCheckpointSaver.supplyAsync(() -> asyncShards.get(route(config)), executor)
+                    .thenCompose(operation);
+        }
+        try {
+            return operation.apply(asyncShards.get(route(config)));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private boolean migrateLocked(String threadId, boolean recheck) throws Exception {
+        var threadLock = migrationLocks.compute(threadId, (id, current) -> {
+            var result = (current != null) ? current : new ThreadLock();
+            ++result.users;
+            return result;
+        });
+        threadLock.lock.lock();
+        try {
+            if (recheck) {
+                checkedThreads.remove(threadId);
+            }
+            return migrateIfNeeded(threadId);
+        } finally {
+            threadLock.lock.unlock();
+            migrationLocks.computeIfPresent(threadId, (id, current) -> (--current.users == 0) ? null : current);
+        }
+    }
+
+    private boolean migrateIfNeeded(String threadId) throws Exception {
+        if (checkedThreads.get(threadId) != null) {
+            return false;
+        }
+        // layout evaluated by this check, a concurrent change of the layout triggers a new check
+        var currentRing = ring;
+        var currentPreviousRings = previousRings;
+        var config = RunnableConfig.builder().threadId(threadId).build();
+
+        var ownerName = currentRing.owner(threadId);
+        var owner = shards.get(ownerName);
+
+        boolean migrated = false;
+        for (var previousRing : currentPreviousRings) {
+            var previousName = previousRing.owner(threadId);
+            if (previousName.equals(ownerName)) {
+                continue;
+            }
+            var previous = shards.get(previousName);
+            var checkpoints = new ArrayList<>(previous.list(config));
+            if (checkpoints.isEmpty()) {
+                continue;
+            }
+            // checkpoints copied by an interrupted migration
+            var copied = new HashSet<String>();
+            owner.list(config).forEach(checkpoint -> copied.add(checkpoint.getId()));
+
+            // list is newest first
+            Collections.reverse(checkpoints);
+            int count = 0;
+            for (var checkpoint : checkpoints) {
+                if (!copied.contains(checkpoint.getId())) {
+                    owner.put(config, checkpoint);
+                    ++count;
+                }
+            }
+            previous.release(config);
+
+            log.debug("thread '{}' migrated from shard '{}' to shard '{}' ({} of {} checkpoints copied)",
+                    threadId, previousName, ownerName, count, checkpoints.size());
+            migrated = true;
+            break;
+        }
+        if (currentRing == ring && currentPreviousRings == previousRings) {
+            checkedThreads.put(threadId, Boolean.TRUE);
+        }
+        return migrated;
+    }
+
+    @Override
+    public Collection<Checkpoint> list(RunnableConfig config) {
+        return shards.get(route(config)).list(config);
+    }
+
+    @Override
+    public Optional<Checkpoint> get(RunnableConfig config) {
+        return shards.get(route(config)).get(config);
+    }
+
+    @Override
+    public RunnableConfig put(RunnableConfig config, Checkpoint checkpoint) throws Exception {
+        return shards.get(route(config)).put(config, checkpoint);
+    }
+
+    @Override
+    public Tag release(RunnableConfig config) throws Exception {
+        return shards.get(route(config)).release(config);
+    }
+
+    @Override
+    public CompletableFuture<Collection<Checkpoint>> listAsync(RunnableConfig config) {
+        return routeAsync(config, shard -> shard.listAsync(config));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Checkpoint>> getAsync(RunnableConfig config) {
+        return routeAsync(config, shard -> shard.getAsync(config));
+    }
+
+    @Override
+    public CompletableFuture<RunnableConfig> putAsync(RunnableConfig config, Checkpoint checkpoint) {
+        return routeAsync(config, shard -> shard.putAsync(config, checkpoint));
+    }
+
+    @Override
+    public CompletableFuture<Tag> releaseAsync(RunnableConfig config) {
+        return routeAsync(config, shard -> shard.releaseAsync(config));
+    }
+
+    /**
+     * Sweeps every shard.
+     *
+     * @return the total number of purged items
+     * @throws Exception if an error occurs purging a shard
+     */
+    @Override
+    public int sweep() throws Exception {
+        int result = 0;
+        for (var shard : shards.values()) {
+            result += shard.sweep();
+        }
+        return result;
+    }
+
+    public static class Builder {
+        private final Map<String, BaseCheckpointSaver> shards = new LinkedHashMap<>();
+        private int virtualNodes = DEFAULT_VIRTUAL_NODES;
+        private int maxCheckedThreads = DEFAULT_MAX_CHECKED_THREADS;
+        private Collection<String> previousShards;
+        private Executor executor;
+
+        /**
+         * Adds a shard. The name identifies the shard on the hash ring, so it must be kept stable across restarts.
+         *
+         * @param name  the shard name
+         * @param saver the shard saver
+         * @return this builder
+         */
+        public Builder shard(String name, BaseCheckpointSaver saver) {
+            requireNonNull(name, "name cannot be null");
+            requireNonNull(saver, "saver cannot be null");
+            if (shards.putIfAbsent(name, saver) != null) {
+                throw new IllegalArgumentException(format("shard '%s' already exists", name));
+            }
+            return this;
+        }
+
+        /**
+         * Sets the number of virtual nodes of each shard on the hash ring. Defaults to {@value ShardedCheckpointSaver#DEFAULT_VIRTUAL_NODES}.
+         *
+         * @param virtualNodes the number of virtual nodes
+         * @return this builder
+         */
+        public Builder virtualNodes(int virtualNodes) {
+            if (virtualNodes <= 0) {
+                throw new IllegalArgumentException("virtualNodes must be greater than 0");
+            }
+            this.virtualNodes = virtualNodes;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of threads remembered as already checked for migration during a rebalance.
+         * Defaults to {@value ShardedCheckpointSaver#DEFAULT_MAX_CHECKED_THREADS}.
+         *
+         * @param maxCheckedThreads the maximum number of remembered threads
+         * @return this builder
+         */
+        public Builder maxCheckedThreads(int maxCheckedThreads) {
+            if (maxCheckedThreads <= 0) {
+                throw new IllegalArgumentException("maxCheckedThreads must be greater than 0");
+            }
+            this.maxCheckedThreads = maxCheckedThreads;
+            return this;
+        }
+
+        /**
+         * Sets the executor running the asynchronous operations of the shards not implementing
+         * {@link AsyncCheckpointSaver}, and the migration checks of the asynchronous operations.
+         * By default they run in the calling thread.
+         *
+         * @param executor the executor
+         * @return this builder
+         */
+        public Builder executor(Executor executor) {
+            this.executor = requireNonNull(executor, "executor cannot be null");
+            return this;
+        }
+
+        /**
+         * Declares the shards of the previous layout, to resume a rebalance interrupted by a restart.
+         *
+         * @param names the names of the shards before the new ones were added
+         * @return this builder
+         */
+        public Builder previousShards(String... names) {
+            this.previousShards = List.of(names);
+            return this;
+        }
+
+        public ShardedCheckpointSaver build() {
+            return new ShardedCheckpointSaver(this);
+        }
+    }
+}
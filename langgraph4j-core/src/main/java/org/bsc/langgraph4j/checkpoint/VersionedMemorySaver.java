@@ -16,14 +16,33 @@ import static java.util.Optional.ofNullable;
 public class VersionedMemorySaver implements BaseCheckpointSaver, HasVersions {
 
     final Map<String, TreeMap<Integer,Tag>> _checkpointsHistoryByThread = new HashMap<>();
-    final MemorySaver noVersionSaver = new MemorySaver();
+    final Map<String, Map<Integer,Long>> _releaseTimeByThread = new HashMap<>();
+    final MemorySaver noVersionSaver;
 
     private final ReentrantLock _lock = new ReentrantLock();
+    private final CheckpointRetentionPolicy retentionPolicy;
 
     /**
      * Default constructor for the {@link VersionedMemorySaver} class. Initializes a new instance of the class with default settings.
      */
     public VersionedMemorySaver() {
+        this( null );
+    }
+
+    /**
+     * Creates a saver that prunes the checkpoints of a thread, on each put, according to the given policy.
+     * The released versions older than the policy max age are removed by {@link #sweep()}.
+     *
+     * @param retentionPolicy the retention policy, null means unbounded history
+     */
+    public VersionedMemorySaver( CheckpointRetentionPolicy retentionPolicy ) {
+        this.retentionPolicy = retentionPolicy;
+        this.noVersionSaver = new MemorySaver( retentionPolicy );
+    }
+
+    @Override
+    public Optional<CheckpointRetentionPolicy> retentionPolicy() {
+        return ofNullable( retentionPolicy );
     }
 
     /**
@@ -183,6 +202,11 @@ public class VersionedMemorySaver implements BaseCheckpointSaver, HasVersions {
 
             checkpointsHistory.put( threadVersion + 1, tag );
 
+            if( retentionPolicy != null ) {
+                _releaseTimeByThread.computeIfAbsent( threadId, k -> new HashMap<>() )
+                        .put( threadVersion + 1, retentionPolicy.clock().millis() );
+            }
+
             return tag;
 
         }
@@ -190,4 +214,45 @@ public class VersionedMemorySaver implements BaseCheckpointSaver, HasVersions {
             _lock.unlock();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Removes the released versions older than the {@link CheckpointRetentionPolicy#maxAge()}.
+     *
+     * @return the number of removed versions
+     */
+    @Override
+    public int sweep() {
+        if( retentionPolicy == null || retentionPolicy.maxAge().isEmpty() ) {
+            return 0;
+        }
+        _lock.lock();
+        try {
+            int removed = 0;
+            var threads = _releaseTimeByThread.entrySet().iterator();
+            while( threads.hasNext() ) {
+                var thread = threads.next();
+                var history = _checkpointsHistoryByThread.get( thread.getKey() );
+                var versions = thread.getValue().entrySet().iterator();
+                while( versions.hasNext() ) {
+                    var version = versions.next();
+                    if( retentionPolicy.isExpired( version.getValue() ) ) {
+                        versions.remove();
+                        if( history != null && history.remove( version.getKey() ) != null ) {
+                            ++removed;
+                        }
+                    }
+                }
+                if( thread.getValue().isEmpty() ) {
+                    threads.remove();
+                }
+                if( history != null && history.isEmpty() ) {
+                    _checkpointsHistoryByThread.remove( thread.getKey() );
+                }
+            }
+            return removed;
+        }
+        finally {
+            _lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.bsc.langgraph4j.instrumentation;
+
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.checkpoint.Checkpoint;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link GraphListener} that forwards every callback to a list of listeners.
+ * Plain loops are used on purpose to avoid allocations on the hot path.
+ */
+record CompositeGraphListener(List<GraphListener> listeners) implements GraphListener {
+
+    @Override
+    public void onNodeStart(String nodeId, RunnableConfig config) {
+        for (int i = 0; i < listeners.size(); ++i) {
+            listeners.get(i).onNodeStart(nodeId, config);
+        }
+    }
+
+    @Override
+    public void onNodeStart(String nodeId, long executionId, RunnableConfig config) {
+        for (int i = 0; i < listeners.size(); ++i) {
+            listeners.get(i).onNodeStart(nodeId, executionId, config);
+        }
+    }
+
+    @Override
+    public void onNodeEnd(String nodeId, RunnableConfig config, long durationNanos, Throwable error) {
+        for (int i = 0; i < listeners.size(); ++i) {
+            listeners.get(i).onNodeEnd(nodeId, config, durationNanos, error);
+        }
+    }
+
+    @Override
+    public void onNodeEnd(String nodeId, long executionId, RunnableConfig config, long durationNanos, Throwable error) {
+        for (int i = 0; i < listeners.size(); ++i) {
+            listeners.get(i).onNodeEnd(nodeId, executionId, config, durationNanos, error);
+        }
+    }
+
+    @Override
+    public void onNodeCacheHit(String nodeId, RunnableConfig config) {
+        for (int i = 0; i < listeners.size(); ++i) {
+            listeners.get(i).onNodeCacheHit(nodeId, config);
+        }
+    }
+
+    @Override
+    public void onNodeCacheHit(String nodeId, long executionId, RunnableConfig config) {
+        for (int i = 0; i < listeners.size(); ++i) {
+            listeners.get(i).onNodeCacheHit(nodeId, executionId, config);
+        }
+    }
+
+    @Override
+    public void onEdge(String sourceId, String targetId, RunnableConfig config, long durationNanos) {
+        for (int i = 0; i < listeners.size(); ++i) {
+            listeners.get(i).onEdge(sourceId, targetId, config, durationNanos);
+        }
+    }
+
+    @Override
+    public void onStateClone(long durationNanos) {
+        for (int i = 0; i < listeners.size(); ++i) {
+            listeners.get(i).onStateClone(durationNanos);
+        }
+    }
+
+    @Override
+    public void onCheckpointPut(RunnableConfig config, Checkpoint checkpoint, long durationNanos) {
+        for (int i = 0; i < listeners.size(); ++i) {
+            listeners.get(i).onCheckpointPut(config, checkpoint, durationNanos);
+        }
+    }
+
+    @Override
+    public void onCheckpointGet(RunnableConfig config, Optional<Checkpoint> checkpoint, long durationNanos) {
+        for (int i = 0; i < listeners.size(); ++i) {
+            listeners.get(i).onCheckpointGet(config, checkpoint, durationNanos);
+        }
+    }
+
+    @Override
+    public void onInterrupt(String nodeId, RunnableConfig config) {
+        for (int i = 0; i < listeners.size(); ++i) {
+            listeners.get(i).onInterrupt(nodeId, config);
+        }
+    }
+
+    @Override
+    public void onError(String nodeId, RunnableConfig config, Throwable error) {
+        for (int i = 0; i < listeners.size(); ++i) {
+            listeners.get(i).onError(nodeId, config, error);
+        }
+    }
+
+    @Override
+    public void onError(String nodeId, long executionId, RunnableConfig config, Throwable error) {
+        for (int i = 0; i < listeners.size(); ++i) {
+            listeners.get(i).onError(nodeId, executionId, config, error);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.bsc.langgraph4j.instrumentation;
+
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.checkpoint.Checkpoint;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Instrumentation SPI notified by the graph runner around node, edge and checkpoint execution.
+ * <p>
+ * Listeners are registered through {@link org.bsc.langgraph4j.CompileConfig.Builder#listener(GraphListener)}.
+ * All the callbacks are invoked synchronously on the thread that is running the graph, so implementations
+ * must be fast, thread safe and must not throw. Durations are measured with {@link System#nanoTime()} and
+ * are only measured when at least one listener is registered.
+ * <p>
+ * Every method has an empty default implementation, so implementations can override only the callbacks they need.
+ * <p>
+ * The graph runner invokes the node callbacks carrying an {@code executionId}, that identifies a single execution of
+ * a node and is unique across all the graphs running in the JVM. They default to the callbacks without the id, so
+ * the listeners that need to correlate the start and the end of a node execution (e.g. to keep a span open) should
+ * override them, instead of relying on the node id and the config that can be shared by concurrent executions.
+ */
+public interface GraphListener {
+
+    /**
+     * Called before the action of a node is invoked.
+     *
+     * @param nodeId the id of the node
+     * @param config the runnable config of the current execution
+     */
+    default void onNodeStart(String nodeId, RunnableConfig config) {}
+
+    /**
+     * Called before the action of a node is invoked. By default it calls {@link #onNodeStart(String, RunnableConfig)}.
+     *
+     * @param nodeId the id of the node
+     * @param executionId the id of this execution of the node
+     * @param config the runnable config of the current execution
+     */
+    default void onNodeStart(String nodeId, long executionId, RunnableConfig config) {
+        onNodeStart(nodeId, config);
+    }
+
+    /**
+     * Called when the action of a node completes, either normally or exceptionally.
+     *
+     * @param nodeId the id of the node
+     * @param config the runnable config of the current execution
+     * @param durationNanos the node execution time in nanoseconds
+     * @param error the error raised by the node, or {@code null} if it completed normally
+     */
+    default void onNodeEnd(String nodeId, RunnableConfig config, long durationNanos, Throwable error) {}
+
+    /**
+     * Called when the action of a node completes, either normally or exceptionally.
+     * By default it calls {@link #onNodeEnd(String, RunnableConfig, long, Throwable)}.
+     *
+     * @param nodeId the id of the node
+     * @param executionId the id of this execution of the node, the one given to the matching start
+     * @param config the runnable config of the current execution
+     * @param durationNanos the node execution time in nanoseconds
+     * @param error the error raised by the node, or {@code null} if it completed normally
+     */
+    default void onNodeEnd(String nodeId, long executionId, RunnableConfig config, long durationNanos, Throwable error) {
+        onNodeEnd(nodeId, config, durationNanos, error);
+    }
+
+    /**
+     * Called between {@link #onNodeStart(String, RunnableConfig)} and
+     * {@link #onNodeEnd(String, RunnableConfig, long, Throwable)} when the result of a node has been found in its
+     * cache, so its action has not been invoked. The duration of the node is then the time of the cache lookup.
+     *
+     * @param nodeId the id of the node
+     * @param config the runnable config of the current execution
+     */
+    default void onNodeCacheHit(String nodeId, RunnableConfig config) {}
+
+    /**
+     * Called when the result of a node has been found in its cache. By default it calls
+     * {@link #onNodeCacheHit(String, RunnableConfig)}.
+     *
+     * @param nodeId the id of the node
+     * @param executionId the id of this execution of the node, the one given to the matching start
+     * @param config the runnable config of the current execution
+     */
+    default void onNodeCacheHit(String nodeId, long executionId, RunnableConfig config) {
+        onNodeCacheHit(nodeId, config);
+    }
+
+    /**
+     * Called when an edge has been evaluated and the next node has been chosen.
+     *
+     * @param sourceId the id of the edge source node
+     * @param targetId the id of the chosen target node
+     * @param config the runnable config of the current execution
+     * @param durationNanos the edge evaluation time in nanoseconds
+     */
+    default void onEdge(String sourceId, String targetId, RunnableConfig config, long durationNanos) {}
+
+    /**
+     * Called when the state has been cloned through the graph state serializer.
+     *
+     * @param durationNanos the clone time in nanoseconds
+     */
+    default void onStateClone(long durationNanos) {}
+
+    /**
+     * Called when a checkpoint has been stored in the checkpoint saver.
+     *
+     * @param config the runnable config of the current execution
+     * @param checkpoint the stored checkpoint
+     * @param durationNanos the time spent in the checkpoint saver in nanoseconds
+     */
+    default void onCheckpointPut(RunnableConfig config, Checkpoint checkpoint, long durationNanos) {}
+
+    /**
+     * Called when a checkpoint has been requested to the checkpoint saver.
+     *
+     * @param config the runnable config of the current execution
+     * @param checkpoint the retrieved checkpoint, empty if not found
+     * @param durationNanos the time spent in the checkpoint saver in nanoseconds
+     */
+    default void onCheckpointGet(RunnableConfig config, Optional<Checkpoint> checkpoint, long durationNanos) {}
+
+    /**
+     * Called when the graph execution is interrupted.
+     *
+     * @param nodeId the id of the node where the execution has been interrupted
+     * @param config the runnable config of the current execution
+     */
+    default void onInterrupt(String nodeId, RunnableConfig config) {}
+
+    /**
+     * Called when the graph execution fails.
+     *
+     * @param nodeId the id of the current node, can be null
+     * @param config the runnable config of the current execution
+     * @param error the raised error
+     */
+    default void onError(String nodeId, RunnableConfig config, Throwable error) {}
+
+    /**
+     * Called when the graph execution fails. By default it calls {@link #onError(String, RunnableConfig, Throwable)}.
+     *
+     * @param nodeId the id of the current node, can be null
+     * @param executionId the id of the last execution of a node, 0 if no node has been executed
+     * @param config the runnable config of the current execution
+     * @param error the raised error
+     */
+    default void onError(String nodeId, long executionId, RunnableConfig config, Throwable error) {
+        onError(nodeId, config, error);
+    }
+
+    /**
+     * Combines the given listeners into a single one that notifies each of them in order.
+     *
+     * @param listeners the listeners to combine
+     * @return the single listener if the collection contains only one element, otherwise a composite listener
+     * @throws IllegalArgumentException if the collection is empty
+     */
+    static GraphListener of(Collection<GraphListener> listeners) {
+        requireNonNull(listeners, "listeners cannot be null");
+        if (listeners.isEmpty()) {
+            throw new IllegalArgumentException("listeners cannot be empty");
+        }
+        if (listeners.size() == 1) {
+            return listeners.iterator().next();
+        }
+        return new CompositeGraphListener(List.copyOf(listeners));
+    }
+
+}
@@ -6,6 +6,7 @@ import org.bsc.langgraph4j.SubGraphNode;
 import org.bsc.langgraph4j.state.AgentState;
 
 import java.util.Objects;
+import java.util.function.Function;
 
 public class SubCompiledGraphNode<State extends AgentState> extends Node<State> implements SubGraphNode<State> {
 
@@ -20,4 +21,13 @@ public class SubCompiledGraphNode<State extends AgentState> extends Node<State>
     public StateGraph<State> subGraph() {
         return subGraph.stateGraph;
     }
+
+    public CompiledGraph<State> compiledSubGraph() {
+        return subGraph;
+    }
+
+    @Override
+    public Node<State> withIdUpdated( Function<String,String> newId ) {
+        return new SubCompiledGraphNode<>( newId.apply( id() ), subGraph );
+    }
 }
@@ -67,6 +67,7 @@ public record SubCompiledGraphNodeAction<State extends AgentState>(
                                             .map( threadId -> format("%s_%s", threadId, subGraphId()))
                                             .orElseGet(this::subGraphId))
                         .streamMode( config.streamMode() )
+                        .streamChannels( config.streamChannels() )
                         .build();
             }
         }
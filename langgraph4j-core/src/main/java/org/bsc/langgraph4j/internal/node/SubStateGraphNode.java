@@ -5,6 +5,7 @@ import org.bsc.langgraph4j.SubGraphNode;
 import org.bsc.langgraph4j.state.AgentState;
 
 import java.util.Objects;
+import java.util.function.Function;
 
 public class SubStateGraphNode<State extends AgentState> extends Node<State> implements SubGraphNode<State> {
 
@@ -23,4 +24,8 @@ public class SubStateGraphNode<State extends AgentState> extends Node<State> imp
         return SubGraphNode.formatId( id(), nodeId );
     }
 
+    @Override
+    public Node<State> withIdUpdated( Function<String,String> newId ) {
+        return new SubStateGraphNode<>( newId.apply( id() ), subGraph );
+    }
 }
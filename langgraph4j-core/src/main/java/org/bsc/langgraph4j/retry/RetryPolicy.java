@@ -0,0 +1,358 @@
+package org.bsc.langgraph4j.retry;
+
+import org.bsc.langgraph4j.GraphStateException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Retry policy of a node action.
+ * <p>
+ * A failed attempt is retried, up to {@link #maxAttempts()}, if the failure satisfies {@link #isRetryable(Throwable)}.
+ * The delay before the attempt {@code n + 1} grows exponentially,
+ * {@code min(maxInterval, initialInterval * backoffFactor^(n - 1))}, and is randomly reduced by up to
+ * {@link #jitter()} of its value so that the retries of concurrent runs are spread over time.
+ * <p>
+ * Optionally the policy enables hedged execution: if an attempt doesn't complete within {@link #hedgeAfter()} or,
+ * when not set, within the {@link #hedgePercentile()} of the latencies observed for the node, a second attempt is
+ * started and the first successful result is used. Hedging must only be enabled for idempotent actions.
+ * <p>
+ * The attempts share the input state of the node: the state is neither cloned nor checkpointed again.
+ *
+ * <pre>{@code
+ * workflow.addNode( "call_model", callModel,
+ *                   RetryPolicy.builder()
+ *                      .maxAttempts(4)
+ *                      .initialInterval(Duration.ofMillis(200))
+ *                      .retryOn( e -> e instanceof IOException )
+ *                      .hedgePercentile(0.95)
+ *                      .build() );
+ * }</pre>
+ */
+public final class RetryPolicy {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    public static final int DEFAULT_HEDGE_MIN_SAMPLES = 20;
+
+    /**
+     * The default retry predicate: every exception except the ones denoting a programming error,
+     * that are not going to succeed on retry.
+     */
+    public static final Predicate<Throwable> DEFAULT_RETRY_ON = e ->
+            e instanceof Exception &&
+            !(e instanceof IllegalArgumentException ||
+              e instanceof NullPointerException ||
+              e instanceof ClassCastException ||
+              e instanceof UnsupportedOperationException ||
+              e instanceof GraphStateException);
+
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private Duration initialInterval = Duration.ofMillis(500);
+    private double backoffFactor = 2.0;
+    private Duration maxInterval = Duration.ofSeconds(30);
+    private double jitter = 0.5;
+    private Predicate<Throwable> retryOn = DEFAULT_RETRY_ON;
+    private Duration hedgeAfter;
+    private double hedgePercentile = 0;
+    private int hedgeMinSamples = DEFAULT_HEDGE_MIN_SAMPLES;
+
+    private RetryPolicy() {}
+
+    /**
+     * @return the maximum number of attempts, including the first one
+     */
+    public int maxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * @return the delay before the first retry
+     */
+    public Duration initialInterval() {
+        return initialInterval;
+    }
+
+    /**
+     * @return the multiplier of the delay between consecutive retries
+     */
+    public double backoffFactor() {
+        return backoffFactor;
+    }
+
+    /**
+     * @return the maximum delay between retries
+     */
+    public Duration maxInterval() {
+        return maxInterval;
+    }
+
+    /**
+     * @return the maximum fraction of the delay randomly subtracted from it
+     */
+    public double jitter() {
+        return jitter;
+    }
+
+    /**
+     * Returns the fixed delay after which a hedged attempt is started.
+     *
+     * @return the hedging delay, empty if not set
+     */
+    public Optional<Duration> hedgeAfter() {
+        return ofNullable(hedgeAfter);
+    }
+
+    /**
+     * Returns the latency percentile after which a hedged attempt is started.
+     *
+     * @return the percentile in (0, 1), 0 if not set
+     */
+    public double hedgePercentile() {
+        return hedgePercentile;
+    }
+
+    /**
+     * @return the number of observed latencies required to evaluate the {@link #hedgePercentile()}
+     */
+    public int hedgeMinSamples() {
+        return hedgeMinSamples;
+    }
+
+    /**
+     * @return true if either {@link #hedgeAfter()} or {@link #hedgePercentile()} is set
+     */
+    public boolean isHedgingEnabled() {
+        return hedgeAfter != null || hedgePercentile > 0;
+    }
+
+    /**
+     * Checks whether a failure can be retried. {@link CompletionException} and {@link ExecutionException}
+     * are unwrapped before evaluating the predicate.
+     *
+     * @param error the failure
+     * @return true if the failure can be retried
+     */
+    public boolean isRetryable(Throwable error) {
+        return retryOn.test(unwrap(error));
+    }
+
+    /**
+     * Evaluates the delay before the next attempt.
+     *
+     * @param attempt the number of the failed attempt, starting from 1
+     * @return the delay, including the jitter
+     */
+    public Duration backoff(int attempt) {
+        double delay = initialInterval.toMillis() * Math.pow(backoffFactor, Math.max(0, attempt - 1));
+        delay = Math.min(delay, maxInterval.toMillis());
+        if (jitter > 0) {
+            delay -= delay * jitter * ThreadLocalRandom.current().nextDouble();
+        }
+        return Duration.ofMillis(Math.round(delay));
+    }
+
+    static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return format("RetryPolicy{ maxAttempts=%d, initialInterval=%s, backoffFactor=%s, maxInterval=%s, jitter=%s, hedgeAfter=%s, hedgePercentile=%s }",
+                maxAttempts,
+                initialInterval,
+                backoffFactor,
+                maxInterval,
+                jitter,
+                hedgeAfter,
+                hedgePercentile);
+    }
+
+    /**
+     * Returns a new {@link Builder} instance.
+     *
+     * @return A {@link Builder} instance.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder of {@link RetryPolicy}
+     */
+    public static class Builder {
+        private final RetryPolicy policy = new RetryPolicy();
+
+        /**
+         * Sets the maximum number of attempts, including the first one
+         * (default {@value RetryPolicy#DEFAULT_MAX_ATTEMPTS}).
+         *
+         * @param maxAttempts the maximum number of attempts, must be greater than 0
+         * @return this builder
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            if (maxAttempts <= 0) {
+                throw new IllegalArgumentException("maxAttempts must be > 0!");
+            }
+            policy.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Sets the delay before the first retry (default 500 ms).
+         *
+         * @param initialInterval the delay, must not be negative
+         * @return this builder
+         */
+        public Builder initialInterval(Duration initialInterval) {
+            requireNonNull(initialInterval, "initialInterval cannot be null");
+            if (initialInterval.isNegative()) {
+                throw new IllegalArgumentException("initialInterval must not be negative!");
+            }
+            policy.initialInterval = initialInterval;
+            return this;
+        }
+
+        /**
+         * Sets the multiplier of the delay between consecutive retries (default 2).
+         *
+         * @param backoffFactor the multiplier, must be at least 1
+         * @return this builder
+         */
+        public Builder backoffFactor(double backoffFactor) {
+            if (backoffFactor < 1) {
+                throw new IllegalArgumentException("backoffFactor must be >= 1!");
+            }
+            policy.backoffFactor = backoffFactor;
+            return this;
+        }
+
+        /**
+         * Sets the maximum delay between retries (default 30 seconds).
+         *
+         * @param maxInterval the maximum delay, must not be negative
+         * @return this builder
+         */
+        public Builder maxInterval(Duration maxInterval) {
+            requireNonNull(maxInterval, "maxInterval cannot be null");
+            if (maxInterval.isNegative()) {
+                throw new IllegalArgumentException("maxInterval must not be negative!");
+            }
+            policy.maxInterval = maxInterval;
+            return this;
+        }
+
+        /**
+         * Sets the maximum fraction of the delay randomly subtracted from it (default 0.5).
+         *
+         * @param jitter the fraction, between 0 (no jitter) and 1
+         * @return this builder
+         */
+        public Builder jitter(double jitter) {
+            if (jitter < 0 || jitter > 1) {
+                throw new IllegalArgumentException("jitter must be between 0 and 1!");
+            }
+            policy.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * Sets the predicate selecting the failures to retry (default {@link RetryPolicy#DEFAULT_RETRY_ON}).
+         *
+         * @param retryOn the predicate
+         * @return this builder
+         */
+        public Builder retryOn(Predicate<Throwable> retryOn) {
+            policy.retryOn = requireNonNull(retryOn, "retryOn cannot be null");
+            return this;
+        }
+
+        /**
+         * Sets the exception types to retry, replacing the default predicate.
+         *
+         * @param types the exception types
+         * @return this builder
+         */
+        @SafeVarargs
+        public final Builder retryOn(Class<? extends Throwable>... types) {
+            final var retryable = List.of(types);
+            return retryOn(e -> retryable.stream().anyMatch(type -> type.isInstance(e)));
+        }
+
+        /**
+         * Enables hedging, starting a second attempt if the first one doesn't complete within the given delay.
+         *
+         * @param hedgeAfter the hedging delay, must be positive
+         * @return this builder
+         */
+        public Builder hedgeAfter(Duration hedgeAfter) {
+            requireNonNull(hedgeAfter, "hedgeAfter cannot be null");
+            if (hedgeAfter.isNegative() || hedgeAfter.isZero()) {
+                throw new IllegalArgumentException("hedgeAfter must be positive!");
+            }
+            policy.hedgeAfter = hedgeAfter;
+            return this;
+        }
+
+        /**
+         * Enables hedging, starting a second attempt if the first one exceeds the given percentile of the latencies
+         * observed for the node. Hedging starts once enough latencies have been observed, see
+         * {@link #hedgeMinSamples(int)}.
+         *
+         * @param hedgePercentile the percentile, e.g. 0.95
+         * @return this builder
+         */
+        public Builder hedgePercentile(double hedgePercentile) {
+            if (hedgePercentile <= 0 || hedgePercentile >= 1) {
+                throw new IllegalArgumentException("hedgePercentile must be between 0 and 1 (exclusive)!");
+            }
+            policy.hedgePercentile = hedgePercentile;
+            return this;
+        }
+
+        /**
+         * Sets the number of observed latencies required to evaluate the hedging percentile
+         * (default {@value RetryPolicy#DEFAULT_HEDGE_MIN_SAMPLES}).
+         *
+         * @param hedgeMinSamples the number of latencies, must be greater than 0
+         * @return this builder
+         */
+        public Builder hedgeMinSamples(int hedgeMinSamples) {
+            if (hedgeMinSamples <= 0) {
+                throw new IllegalArgumentException("hedgeMinSamples must be > 0!");
+            }
+            policy.hedgeMinSamples = hedgeMinSamples;
+            return this;
+        }
+
+        /**
+         * Creates the retry policy.
+         *
+         * @return the retry policy
+         */
+        public RetryPolicy build() {
+            var result = new RetryPolicy();
+            result.maxAttempts = policy.maxAttempts;
+            result.initialInterval = policy.initialInterval;
+            result.backoffFactor = policy.backoffFactor;
+            result.maxInterval = policy.maxInterval;
+            result.jitter = policy.jitter;
+            result.retryOn = policy.retryOn;
+            result.hedgeAfter = policy.hedgeAfter;
+            result.hedgePercentile = policy.hedgePercentile;
+            result.hedgeMinSamples = policy.hedgeMinSamples;
+            return result;
+        }
+    }
+}
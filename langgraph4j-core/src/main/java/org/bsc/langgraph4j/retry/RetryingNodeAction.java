@@ -0,0 +1,302 @@
+package org.bsc.langgraph4j.retry;
+
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.action.AsyncNodeActionWithConfig;
+import org.bsc.langgraph4j.state.AgentState;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+
+/**
+ * Node action retrying, and optionally hedging, the wrapped action according to a {@link RetryPolicy}.
+ * <p>
+ * Each attempt is applied to its own clone of the input state, made by the state cloner bound by the compiled graph,
+ * so neither a failed attempt nor a concurrent hedged one can alter the state seen by the others. Since the graph
+ * runner stores the checkpoint once the node completes, no checkpoint is stored for the failed attempts.
+ * <p>
+ * Hedged attempts run on their own threads: once one of them succeeds the other one is cancelled, interrupting it.
+ *
+ * @param <State> the type of the agent state
+ */
+public final class RetryingNodeAction<State extends AgentState> implements AsyncNodeActionWithConfig<State> {
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(RetryingNodeAction.class);
+
+    /**
+     * Sliding window of the latencies of the successful attempts.
+     */
+    static final class LatencyWindow {
+        private final long[] samples;
+        private int count = 0;
+        private int next = 0;
+        private final ReentrantLock _lock = new ReentrantLock();
+
+        LatencyWindow(int size) {
+            this.samples = new long[size];
+        }
+
+        void record(long nanos) {
+            _lock.lock();
+            try {
+                samples[next] = nanos;
+                next = (next + 1) % samples.length;
+                count = Math.min(count + 1, samples.length);
+            } finally {
+                _lock.unlock();
+            }
+        }
+
+        Optional<Duration> percentile(double percentile, int minSamples) {
+            final long[] sorted;
+            _lock.lock();
+            try {
+                if (count < minSamples) {
+                    return Optional.empty();
+                }
+                sorted = Arrays.copyOf(samples, count);
+            } finally {
+                _lock.unlock();
+            }
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return Optional.of(Duration.ofNanos(sorted[Math.max(0, index)]));
+        }
+    }
+
+    private static final int LATENCY_WINDOW_SIZE = 256;
+
+    // idle threads are released after a minute
+    private static final ExecutorService HEDGING_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        var thread = new Thread(runnable, "langgraph4j-hedging");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String nodeId;
+    private final AsyncNodeActionWithConfig<State> action;
+    private final RetryPolicy policy;
+    private final LatencyWindow latencies;
+    private final UnaryOperator<State> stateCloner;
+
+    public RetryingNodeAction(String nodeId, AsyncNodeActionWithConfig<State> action, RetryPolicy policy) {
+        this(nodeId, action, policy, UnaryOperator.identity());
+    }
+
+    /**
+     * Creates the action.
+     *
+     * @param nodeId the node id
+     * @param action the retried action
+     * @param policy the retry policy
+     * @param stateCloner the function cloning the input state for each attempt
+     */
+    public RetryingNodeAction(String nodeId, AsyncNodeActionWithConfig<State> action, RetryPolicy policy, UnaryOperator<State> stateCloner) {
+        this(nodeId, action, policy,
+                (requireNonNull(policy, "policy cannot be null").hedgePercentile() > 0) ?
+                        new LatencyWindow(Math.max(LATENCY_WINDOW_SIZE, policy.hedgeMinSamples())) :
+                        null,
+                stateCloner);
+    }
+
+    private RetryingNodeAction(String nodeId, AsyncNodeActionWithConfig<State> action, RetryPolicy policy,
+                               LatencyWindow latencies, UnaryOperator<State> stateCloner) {
+        this.nodeId = requireNonNull(nodeId, "nodeId cannot be null");
+        this.action = requireNonNull(action, "action cannot be null");
+        this.policy = requireNonNull(policy, "policy cannot be null");
+        this.latencies = latencies;
+        this.stateCloner = requireNonNull(stateCloner, "stateCloner cannot be null");
+    }
+
+    public RetryPolicy policy() {
+        return policy;
+    }
+
+    /**
+     * Returns a copy of this action, sharing the same policy and observed latencies, that clones the input state
+     * of each attempt with the given function.
+     *
+     * @param stateCloner the function cloning the input state
+     * @return the new retrying action
+     */
+    public RetryingNodeAction<State> withStateCloner(UnaryOperator<State> stateCloner) {
+        return new RetryingNodeAction<>(nodeId, action, policy, latencies, stateCloner);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> apply(State state, RunnableConfig config) {
+        return attempt(state, config, 1);
+    }
+
+    private CompletableFuture<Map<String, Object>> attempt(State state, RunnableConfig config, int attempt) {
+        final var hedgeDelay = hedgeDelay();
+        final CompletableFuture<Map<String, Object>> result;
+        try {
+            result = hedgeDelay.isPresent() ?
+                    hedged(state, config, hedgeDelay.get()) :
+                    invoke(stateCloner.apply(state), config);
+        } catch (Throwable e) {
+            // the state cannot be cloned
+            return failedFuture(e);
+        }
+
+        return result.handle((value, error) -> {
+            if (error == null) {
+                return completedFuture(value);
+            }
+            final var cause = RetryPolicy.unwrap(error);
+            if (attempt >= policy.maxAttempts() || !policy.isRetryable(cause)) {
+                return CompletableFuture.<Map<String, Object>>failedFuture(cause);
+            }
+            final var delay = policy.backoff(attempt);
+            log.warn("node '{}' attempt {} of {} failed, retrying in {} ms: {}",
+                    nodeId, attempt, policy.maxAttempts(), delay.toMillis(), cause.toString());
+
+            final var next = new CompletableFuture<Map<String, Object>>();
+            CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS).execute(() ->
+                    attempt(state, config, attempt + 1).whenComplete((v, e) -> {
+                        if (e == null) {
+                            next.complete(v);
+                        } else {
+                            next.completeExceptionally(e);
+                        }
+                    }));
+            return next;
+        }).thenCompose(Function.identity());
+    }
+
+    private Optional<Duration> hedgeDelay() {
+        if (policy.hedgeAfter().isPresent()) {
+            return policy.hedgeAfter();
+        }
+        if (latencies != null) {
+            return latencies.percentile(policy.hedgePercentile(), policy.hedgeMinSamples());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Attempt running on a thread of its own, so that it can be interrupted once the concurrent one has succeeded.
+     */
+    private final class HedgedAttempt {
+        final CompletableFuture<Map<String, Object>> result = new CompletableFuture<>();
+        private final FutureTask<Void> task;
+        private volatile CompletableFuture<Map<String, Object>> running;
+
+        HedgedAttempt(State state, RunnableConfig config) {
+            this.task = new FutureTask<>(() -> {
+                var future = invoke(state, config);
+                running = future;
+                future.whenComplete((value, error) -> {
+                    if (error == null) {
+                        result.complete(value);
+                    } else {
+                        result.completeExceptionally(error);
+                    }
+                });
+                return null;
+            });
+        }
+
+        void start() {
+            HEDGING_EXECUTOR.execute(task);
+        }
+
+        void cancel() {
+            task.cancel(true);
+            var future = running;
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Starts an attempt and, if it doesn't complete within the given delay, a second concurrent one.
+     * The result is the first successful one, or the last failure if both fail.
+     */
+    private CompletableFuture<Map<String, Object>> hedged(State state, RunnableConfig config, Duration delay) {
+        final var result = new CompletableFuture<Map<String, Object>>();
+        final var pending = new AtomicInteger(1);
+        final var primary = new HedgedAttempt(stateCloner.apply(state), config);
+        final var secondary = new AtomicReference<HedgedAttempt>();
+
+        primary.result.whenComplete((value, error) -> {
+            if (error == null) {
+                if (result.complete(value)) {
+                    var hedge = secondary.get();
+                    if (hedge != null) {
+                        hedge.cancel();
+                    }
+                }
+            } else if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(error);
+            }
+        });
+        primary.start();
+
+        CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+            // no hedge once the result is available or the first attempt has failed
+            if (result.isDone() || pending.getAndUpdate(p -> (p == 0) ? 0 : p + 1) == 0) {
+                return;
+            }
+            final HedgedAttempt hedge;
+            try {
+                hedge = new HedgedAttempt(stateCloner.apply(state), config);
+            } catch (Throwable e) {
+                if (pending.decrementAndGet() == 0) {
+                    result.completeExceptionally(e);
+                }
+                return;
+            }
+            secondary.set(hedge);
+            if (result.isDone()) { // the primary has succeeded meanwhile
+                return;
+            }
+            log.debug("node '{}' exceeded {} ms, starting a hedged attempt", nodeId, delay.toMillis());
+            hedge.result.whenComplete((value, error) -> {
+                if (error == null) {
+                    if (result.complete(value)) {
+                        primary.cancel();
+                    }
+                } else if (pending.decrementAndGet() == 0) {
+                    result.completeExceptionally(error);
+                }
+            });
+            hedge.start();
+        });
+
+        return result;
+    }
+
+    private CompletableFuture<Map<String, Object>> invoke(State state, RunnableConfig config) {
+        final long start = System.nanoTime();
+        try {
+            var result = action.apply(state, config);
+            if (latencies == null) {
+                return result;
+            }
+            return result.whenComplete((value, error) -> {
+                if (error == null) {
+                    latencies.record(System.nanoTime() - start);
+                }
+            });
+        } catch (Throwable e) {
+            return failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package org.bsc.langgraph4j.serializer.compression;
+
+import org.bsc.langgraph4j.serializer.StateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.OptionalDataException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link StateSerializer} that compresses the output of another state serializer.
+ * <p>
+ * It can be used with every checkpoint saver in place of the original serializer. The data is written as
+ * <pre>
+ *  [header: object][codec id: byte]([dictionary id: int])[original length: int][payload length: int][payload]
+ * </pre>
+ * The header is the {@link #HEADER} string, written as an object: the data written by the original serializer
+ * before the compression was enabled starts with primitive data instead, that the object stream reports
+ * without consuming it, so it is read through the original serializer. This requires the original serializer to
+ * start its output with primitive data, as the serializers provided by the library do.
+ * The codec byte makes the format self-describing: payloads written with a different codec
+ * (e.g. before switching from LZ4 to zstd) are still readable, provided that the codec library is available.
+ * The dictionary id is present only for the {@link CompressionCodec#ZSTD_DICTIONARY} codec: a payload compressed
+ * with another dictionary than the configured one (e.g. after a dictionary rotation) is rejected instead of
+ * being decoded with the wrong dictionary.
+ * Payloads shorter than the configured minimum size, or that do not shrink, are stored uncompressed.
+ * <p>
+ * The lengths are checked against a maximum size, so a corrupted checkpoint cannot force a huge allocation.
+ * <p>
+ * The state cloning performed by the graph runner is delegated to the original serializer and is never compressed.
+ * <p>
+ * Example:
+ * <pre>{@code
+ * var serializer = new CompressedStateSerializer<>( new ObjectStreamStateSerializer<>(AgentState::new),
+ *                                                   CompressionCodec.lz4() );
+ * }</pre>
+ *
+ * @param <State> the type of the agent state
+ */
+public class CompressedStateSerializer<State extends AgentState> extends StateSerializer<State> {
+
+    public static final int DEFAULT_MIN_SIZE = 256;
+    public static final int DEFAULT_MAX_SIZE = 128 * 1024 * 1024;
+    /**
+     * The header of the compressed data, carrying the format version.
+     */
+    public static final String HEADER = "langgraph4j.compressed/1";
+
+    private final StateSerializer<State> delegate;
+    private final CompressionCodec codec;
+    private final int minSize;
+    private final int maxSize;
+
+    public CompressedStateSerializer(StateSerializer<State> delegate, CompressionCodec codec) {
+        this(delegate, codec, DEFAULT_MIN_SIZE);
+    }
+
+    /**
+     * @param delegate the serializer of the state
+     * @param codec the codec used to compress the serialized state
+     * @param minSize the minimum size in bytes of the serialized state for it to be compressed
+     */
+    public CompressedStateSerializer(StateSerializer<State> delegate, CompressionCodec codec, int minSize) {
+        this(delegate, codec, minSize, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param delegate the serializer of the state
+     * @param codec the codec used to compress the serialized state
+     * @param minSize the minimum size in bytes of the serialized state for it to be compressed
+     * @param maxSize the maximum size in bytes of the serialized state, compressed or not, written or read
+     */
+    public CompressedStateSerializer(StateSerializer<State> delegate, CompressionCodec codec, int minSize, int maxSize) {
+        super(requireNonNull(delegate, "delegate cannot be null").stateFactory());
+        this.delegate = delegate;
+        this.codec = requireNonNull(codec, "codec cannot be null");
+        if (minSize < 0) {
+            throw new IllegalArgumentException("minSize cannot be negative");
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be greater than 0");
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Trains a zstd dictionary from sample states, serialized with the given serializer.
+     *
+     * @param serializer the serializer of the state
+     * @param samples the sample states, e.g. taken from existing checkpoints
+     * @param dictionarySize the maximum size of the dictionary in bytes
+     * @return the trained dictionary, to be used with {@link CompressionCodec#zstd(byte[])}
+     * @throws IOException if a sample cannot be serialized
+     */
+    public static byte[] trainDictionary(StateSerializer<?> serializer,
+                                         Collection<Map<String, Object>> samples,
+                                         int dictionarySize) throws IOException {
+        requireNonNull(serializer, "serializer cannot be null");
+        requireNonNull(samples, "samples cannot be null");
+
+        var bytes = new ArrayList<byte[]>(samples.size());
+        for (var sample : samples) {
+            bytes.add(serializer.dataToBytes(sample));
+        }
+        return CompressionCodec.trainZstdDictionary(bytes, dictionarySize);
+    }
+
+    public StateSerializer<State> delegate() {
+        return delegate;
+    }
+
+    public CompressionCodec codec() {
+        return codec;
+    }
+
+    @Override
+    public String contentType() {
+        return delegate.contentType() + "; compressed";
+    }
+
+    @Override
+    public State cloneObject(State object) throws IOException, ClassNotFoundException {
+        return delegate.cloneObject(object);
+    }
+
+    @Override
+    public void writeData(Map<String, Object> data, ObjectOutput out) throws IOException {
+        final byte[] bytes = delegate.dataToBytes(data);
+        if (bytes.length > maxSize) {
+            throw new IOException("serialized state of %d bytes exceeds the maximum size of %d bytes"
+                    .formatted(bytes.length, maxSize));
+        }
+
+        CompressionCodec used = CompressionCodec.none();
+        byte[] payload = bytes;
+        if (bytes.length >= minSize) {
+            var compressed = codec.compress(bytes);
+            if (compressed.length < bytes.length) {
+                used = codec;
+                payload = compressed;
+            }
+        }
+
+        out.writeObject(HEADER);
+        out.writeByte(used.id());
+        if (used.id() == CompressionCodec.ZSTD_DICTIONARY) {
+            out.writeInt(used.dictionaryId());
+        }
+        out.writeInt(bytes.length);
+        out.writeInt(payload.length);
+        out.write(payload);
+    }
+
+    @Override
+    public Map<String, Object> readData(ObjectInput in) throws IOException, ClassNotFoundException {
+        final Object header;
+        try {
+            header = in.readObject();
+        } catch (OptionalDataException e) {
+            if (e.eof) {
+                throw e;
+            }
+            // written by the original serializer, before the compression was enabled
+            return delegate.readData(in);
+        }
+        if (!HEADER.equals(header)) {
+            throw new IOException("unsupported compressed state header '%s'".formatted(header));
+        }
+
+        final byte id = in.readByte();
+        final int dictionaryId = (id == CompressionCodec.ZSTD_DICTIONARY) ? in.readInt() : 0;
+        final int originalLength = in.readInt();
+        final int length = in.readInt();
+        if (originalLength < 0 || length < 0) {
+            throw new IOException("corrupted compressed state");
+        }
+        if (originalLength > maxSize || length > maxSize) {
+            throw new IOException("compressed state of %d bytes exceeds the maximum size of %d bytes"
+                    .formatted(Math.max(originalLength, length), maxSize));
+        }
+
+        var decoder = (id == codec.id()) ? codec : CompressionCodec.forId(id);
+        if (decoder.dictionaryId() != dictionaryId) {
+            throw new IOException("state compressed with dictionary %08x, configured dictionary is %08x"
+                    .formatted(dictionaryId, decoder.dictionaryId()));
+        }
+
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+
+        return delegate.dataFromBytes(decoder.decompress(payload, originalLength));
+    }
+}
@@ -0,0 +1,138 @@
+package org.bsc.langgraph4j.serializer.compression;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Block compression codec used by {@link CompressedStateSerializer}.
+ * <p>
+ * Every codec is identified by a one byte {@link #id()} that is written in front of the compressed payload,
+ * so the stored data is self-describing and can be read back regardless of the codec currently configured.
+ * <p>
+ * The LZ4 and zstd codecs require respectively {@code org.lz4:lz4-java} and {@code com.github.luben:zstd-jni}
+ * on the classpath, while the {@code deflate} codec relies only on the JDK.
+ */
+public interface CompressionCodec {
+
+    byte NONE = 0;
+    byte DEFLATE = 1;
+    byte LZ4 = 2;
+    byte ZSTD = 3;
+    byte ZSTD_DICTIONARY = 4;
+
+    /**
+     * @return the identifier written in the header byte of the compressed payload
+     */
+    byte id();
+
+    /**
+     * Returns the identifier of the dictionary of the codec, written in the header after the codec identifier
+     * when the codec is {@link #ZSTD_DICTIONARY}, so that a payload is never decoded with another dictionary.
+     *
+     * @return the dictionary identifier, 0 if the codec has no dictionary
+     */
+    default int dictionaryId() {
+        return 0;
+    }
+
+    byte[] compress(byte[] data) throws IOException;
+
+    /**
+     * Decompresses the given payload.
+     *
+     * @param data the compressed payload
+     * @param originalLength the length of the uncompressed data
+     * @return the uncompressed data
+     * @throws IOException if the payload is corrupted
+     */
+    byte[] decompress(byte[] data, int originalLength) throws IOException;
+
+    /**
+     * @return a codec that stores the data as is
+     */
+    static CompressionCodec none() {
+        return NoneCodec.INSTANCE;
+    }
+
+    /**
+     * @return a codec based on {@link java.util.zip.Deflater}, available without additional dependencies
+     */
+    static CompressionCodec deflate() {
+        return new DeflateCodec();
+    }
+
+    /**
+     * @return a LZ4 codec, favouring speed over compression ratio
+     */
+    static CompressionCodec lz4() {
+        return new Lz4Codec();
+    }
+
+    /**
+     * @return a zstd codec with the default compression level
+     */
+    static CompressionCodec zstd() {
+        return new ZstdCodec(null, ZstdCodec.DEFAULT_LEVEL);
+    }
+
+    /**
+     * @param level the zstd compression level
+     * @return a zstd codec with the given compression level
+     */
+    static CompressionCodec zstd(int level) {
+        return new ZstdCodec(null, level);
+    }
+
+    /**
+     * Creates a zstd codec using a pre-trained dictionary.
+     * <p>
+     * A dictionary trained on sample checkpoints greatly improves the compression of small payloads.
+     * The same dictionary must be provided to read back the compressed data: its zstd dictionary id
+     * (or, for a raw content dictionary, its CRC-32) is stored with the payload and checked on read.
+     *
+     * @param dictionary the dictionary
+     * @return a zstd codec using the given dictionary
+     * @see #trainZstdDictionary(Collection, int)
+     */
+    static CompressionCodec zstd(byte[] dictionary) {
+        return new ZstdCodec(dictionary, ZstdCodec.DEFAULT_LEVEL);
+    }
+
+    /**
+     * @param dictionary the dictionary
+     * @param level the zstd compression level
+     * @return a zstd codec using the given dictionary and compression level
+     */
+    static CompressionCodec zstd(byte[] dictionary, int level) {
+        return new ZstdCodec(dictionary, level);
+    }
+
+    /**
+     * Trains a zstd dictionary from the given samples.
+     *
+     * @param samples the samples, typically serialized checkpoint states
+     * @param dictionarySize the maximum size of the dictionary in bytes
+     * @return the trained dictionary
+     */
+    static byte[] trainZstdDictionary(Collection<byte[]> samples, int dictionarySize) {
+        return ZstdCodec.train(samples, dictionarySize);
+    }
+
+    /**
+     * Returns the default codec for the given identifier.
+     *
+     * @param id the codec identifier
+     * @return the codec
+     * @throws IOException if the identifier is unknown or requires a dictionary
+     */
+    static CompressionCodec forId(byte id) throws IOException {
+        return switch (id) {
+            case NONE -> none();
+            case DEFLATE -> deflate();
+            case LZ4 -> lz4();
+            case ZSTD -> zstd();
+            case ZSTD_DICTIONARY -> throw new IOException("zstd dictionary is required to decompress the payload");
+            default -> throw new IOException("unknown compression codec: " + id);
+        };
+    }
+}
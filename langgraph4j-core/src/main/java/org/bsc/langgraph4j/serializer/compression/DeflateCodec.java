@@ -0,0 +1,60 @@
+package org.bsc.langgraph4j.serializer.compression;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+final class DeflateCodec implements CompressionCodec {
+
+    @Override
+    public byte id() {
+        return DEFLATE;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) {
+        var deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            byte[] buffer = new byte[Math.max(64, data.length / 2)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int originalLength) throws IOException {
+        var inflater = new Inflater(true);
+        try {
+            inflater.setInput(data);
+            byte[] result = new byte[originalLength];
+            int length = 0;
+            while (length < originalLength && !inflater.finished()) {
+                int n = inflater.inflate(result, length, originalLength - length);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += n;
+            }
+            if (length != originalLength) {
+                throw new IOException("corrupted deflate payload");
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new IOException("corrupted deflate payload", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
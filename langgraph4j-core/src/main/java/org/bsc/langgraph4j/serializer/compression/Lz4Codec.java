@@ -0,0 +1,37 @@
+package org.bsc.langgraph4j.serializer.compression;
+
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+
+import java.io.IOException;
+
+final class Lz4Codec implements CompressionCodec {
+
+    // the factory is resolved on first use, so lz4-java is required only when the codec is actually used
+    private static final class Holder {
+        static final LZ4Factory FACTORY = LZ4Factory.fastestInstance();
+    }
+
+    @Override
+    public byte id() {
+        return LZ4;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) {
+        return Holder.FACTORY.fastCompressor().compress(data);
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int originalLength) throws IOException {
+        try {
+            var result = Holder.FACTORY.safeDecompressor().decompress(data, originalLength);
+            if (result.length != originalLength) {
+                throw new IOException("corrupted lz4 payload");
+            }
+            return result;
+        } catch (LZ4Exception e) {
+            throw new IOException("corrupted lz4 payload", e);
+        }
+    }
+}
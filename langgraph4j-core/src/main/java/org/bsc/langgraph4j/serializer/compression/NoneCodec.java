@@ -0,0 +1,23 @@
+package org.bsc.langgraph4j.serializer.compression;
+
+final class NoneCodec implements CompressionCodec {
+
+    static final NoneCodec INSTANCE = new NoneCodec();
+
+    private NoneCodec() {}
+
+    @Override
+    public byte id() {
+        return NONE;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) {
+        return data;
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int originalLength) {
+        return data;
+    }
+}
@@ -0,0 +1,96 @@
+package org.bsc.langgraph4j.serializer.compression;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.github.luben.zstd.ZstdException;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.zip.CRC32;
+
+import static java.util.Objects.requireNonNull;
+
+final class ZstdCodec implements CompressionCodec {
+
+    static final int DEFAULT_LEVEL = 3;
+
+    private final int level;
+    private final int dictionaryId;
+    private final ZstdDictCompress compressDictionary;
+    private final ZstdDictDecompress decompressDictionary;
+
+    ZstdCodec(byte[] dictionary, int level) {
+        this.level = level;
+        if (dictionary != null) {
+            compressDictionary = new ZstdDictCompress(dictionary, level);
+            decompressDictionary = new ZstdDictDecompress(dictionary);
+            dictionaryId = dictionaryIdOf(dictionary);
+        } else {
+            compressDictionary = null;
+            decompressDictionary = null;
+            dictionaryId = 0;
+        }
+    }
+
+    // the id of a trained dictionary, or the CRC-32 of a raw content dictionary, that has no id
+    static int dictionaryIdOf(byte[] dictionary) {
+        long id = Zstd.getDictIdFromDict(dictionary);
+        if (id == 0) {
+            var crc = new CRC32();
+            crc.update(dictionary);
+            id = crc.getValue();
+        }
+        return (int) id;
+    }
+
+    static byte[] train(Collection<byte[]> samples, int dictionarySize) {
+        requireNonNull(samples, "samples cannot be null");
+        if (dictionarySize <= 0) {
+            throw new IllegalArgumentException("dictionarySize must be greater than 0");
+        }
+        long samplesSize = samples.stream().mapToLong(sample -> sample.length).sum();
+        var trainer = new ZstdDictTrainer((int) Math.min(Integer.MAX_VALUE, samplesSize), dictionarySize);
+        for (var sample : samples) {
+            trainer.addSample(sample);
+        }
+        return trainer.trainSamples();
+    }
+
+    @Override
+    public byte id() {
+        return (compressDictionary != null) ? ZSTD_DICTIONARY : ZSTD;
+    }
+
+    @Override
+    public int dictionaryId() {
+        return dictionaryId;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) throws IOException {
+        try {
+            return (compressDictionary != null) ?
+                    Zstd.compress(data, compressDictionary) :
+                    Zstd.compress(data, level);
+        } catch (ZstdException e) {
+            throw new IOException("zstd compression failed", e);
+        }
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int originalLength) throws IOException {
+        try {
+            var result = (decompressDictionary != null) ?
+                    Zstd.decompress(data, decompressDictionary, originalLength) :
+                    Zstd.decompress(data, originalLength);
+            if (result.length != originalLength) {
+                throw new IOException("corrupted zstd payload");
+            }
+            return result;
+        } catch (ZstdException e) {
+            throw new IOException("corrupted zstd payload", e);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package org.bsc.langgraph4j.serializer.std;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * Compact primitives of the std serializers: unsigned varint integers (LEB128), varint-prefixed UTF-8 strings and
+ * tagged values, so that the common types are written without the Java serialization class descriptors.
+ * <p>
+ * A compact record starts with a one byte tag, written as a raw byte. On an object stream the raw bytes are
+ * held by block data, so a record is told apart from a format starting with a serialized object (e.g. an enum)
+ * by {@link #readTag(ObjectInput)}, without consuming the object.
+ * The tags must be outside the range of the object stream type codes ({@code 0x70}-{@code 0x7E},
+ * e.g. {@code TC_OBJECT}, {@code TC_REFERENCE}, {@code TC_ENUM}).
+ */
+public final class CompactIO {
+
+    private static final int TC_BASE = 0x70;
+    private static final int TC_MAX = 0x7E;
+
+    private static final int VALUE_NULL = 0;
+    private static final int VALUE_STRING = 1;
+    private static final int VALUE_INT = 2;
+    private static final int VALUE_LONG = 3;
+    private static final int VALUE_TRUE = 4;
+    private static final int VALUE_FALSE = 5;
+    private static final int VALUE_DOUBLE = 6;
+    private static final int VALUE_ENUM = 7;
+    private static final int VALUE_LIST = 8;
+    private static final int VALUE_MAP = 9;
+    private static final int VALUE_OBJECT = 0x7F;
+
+    private CompactIO() {}
+
+    /**
+     * Reads the tag starting a compact record.
+     *
+     * @param in the input
+     * @return the tag, or -1 if the next element of the stream is a serialized object, i.e. the record has been
+     * written in a format preceding the compact one
+     * @throws IOException if an I/O error occurs or the tag is an object stream type code
+     */
+    public static int readTag(ObjectInput in) throws IOException {
+        final int tag = in.read();
+        if (tag >= TC_BASE && tag <= TC_MAX) {
+            // only on inputs not framing the raw bytes as block data
+            throw new StreamCorruptedException(format("object stream type code found in place of a record tag: 0x%02X", tag));
+        }
+        return tag;
+    }
+
+    /**
+     * Writes a long as unsigned varint: 7 bits per byte, the most significant bit set on every byte but the last.
+     *
+     * @param value the value, negative values take 10 bytes
+     * @param out   the output
+     * @throws IOException if an I/O error occurs
+     */
+    public static void writeVarLong(long value, ObjectOutput out) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    public static long readVarLong(ObjectInput in) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final int b = in.readUnsignedByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new StreamCorruptedException("malformed varint");
+    }
+
+    public static void writeVarInt(int value, ObjectOutput out) throws IOException {
+        writeVarLong(value & 0xFFFFFFFFL, out);
+    }
+
+    public static int readVarInt(ObjectInput in) throws IOException {
+        return (int) readVarLong(in);
+    }
+
+    /**
+     * Writes a non null string as varint length followed by its UTF-8 bytes.
+     *
+     * @param value the string
+     * @param out   the output
+     * @throws IOException if an I/O error occurs
+     */
+    public static void writeString(String value, ObjectOutput out) throws IOException {
+        final var bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length, out);
+        out.write(bytes);
+    }
+
+    public static String readString(ObjectInput in) throws IOException {
+        return readUTF8(readVarInt(in), in);
+    }
+
+    /**
+     * Writes a string that may be null, as varint length plus one (0 means null) followed by its UTF-8 bytes.
+     *
+     * @param value the string, may be null
+     * @param out   the output
+     * @throws IOException if an I/O error occurs
+     */
+    public static void writeNullableString(String value, ObjectOutput out) throws IOException {
+        if (value == null) {
+            writeVarInt(0, out);
+            return;
+        }
+        final var bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length + 1, out);
+        out.write(bytes);
+    }
+
+    public static String readNullableString(ObjectInput in) throws IOException {
+        final int length = readVarInt(in);
+        return (length == 0) ? null : readUTF8(length - 1, in);
+    }
+
+    private static String readUTF8(int length, ObjectInput in) throws IOException {
+        if (length < 0) {
+            throw new StreamCorruptedException(format("invalid string length: %d", length));
+        }
+        if (length == 0) {
+            return "";
+        }
+        final var bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a value preceded by a one byte type tag. Strings, integers, longs, booleans, doubles, enums, lists and
+     * maps with string keys are written compactly.
+     * Any other type is written through {@link ObjectOutput#writeObject(Object)}, only if it is {@link Serializable}
+     * or its serializer is registered in the mapper of the output.
+     *
+     * @param value the value, may be null
+     * @param out   the output
+     * @throws NotSerializableException if the value is of any other type
+     * @throws IOException if an I/O error occurs
+     */
+    public static void writeValue(Object value, ObjectOutput out) throws IOException {
+        if (value == null) {
+            out.writeByte(VALUE_NULL);
+        } else if (value instanceof String s) {
+            out.writeByte(VALUE_STRING);
+            writeString(s, out);
+        } else if (value instanceof Integer i) {
+            out.writeByte(VALUE_INT);
+            writeVarInt((i << 1) ^ (i >> 31), out); // zig-zag
+        } else if (value instanceof Long l) {
+            out.writeByte(VALUE_LONG);
+            writeVarLong((l << 1) ^ (l >> 63), out); // zig-zag
+        } else if (value instanceof Boolean b) {
+            out.writeByte(b ? VALUE_TRUE : VALUE_FALSE);
+        } else if (value instanceof Double d) {
+            out.writeByte(VALUE_DOUBLE);
+            out.writeDouble(d);
+        } else if (value instanceof Enum<?> e) {
+            out.writeByte(VALUE_ENUM);
+            writeString(e.getDeclaringClass().getName(), out);
+            writeString(e.name(), out);
+        } else if (value instanceof List<?> list) {
+            out.writeByte(VALUE_LIST);
+            writeVarInt(list.size(), out);
+            for (var element : list) {
+                writeValue(element, out);
+            }
+        } else if (value instanceof Map<?, ?> map && hasStringKeys(map)) {
+            out.writeByte(VALUE_MAP);
+            @SuppressWarnings("unchecked")
+            final var entries = (Map<String, Object>) map;
+            writeMap(entries, out);
+        } else if (value instanceof Serializable || hasMappedSerializer(value, out)) {
+            out.writeByte(VALUE_OBJECT);
+            out.writeObject(value);
+        } else {
+            throw new NotSerializableException(value.getClass().getName());
+        }
+    }
+
+    private static boolean hasStringKeys(Map<?, ?> map) {
+        for (var key : map.keySet()) {
+            if (!(key instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasMappedSerializer(Object value, ObjectOutput out) {
+        return out instanceof ObjectOutputWithMapper mapperOut
+                && mapperOut.mapper().getSerializer(value.getClass()).isPresent();
+    }
+
+    public static Object readValue(ObjectInput in) throws IOException, ClassNotFoundException {
+        final int tag = in.readUnsignedByte();
+        return switch (tag) {
+            case VALUE_NULL -> null;
+            case VALUE_STRING -> readString(in);
+            case VALUE_INT -> {
+                final int v = readVarInt(in);
+                yield (v >>> 1) ^ -(v & 1);
+            }
+            case VALUE_LONG -> {
+                final long v = readVarLong(in);
+                yield (v >>> 1) ^ -(v & 1);
+            }
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            case VALUE_DOUBLE -> in.readDouble();
+            case VALUE_ENUM -> enumOf(readString(in), readString(in));
+            case VALUE_LIST -> {
+                final int size = readVarInt(in);
+                final var list = new ArrayList<Object>(Math.min(size, 1024));
+                for (int i = 0; i < size; ++i) {
+                    list.add(readValue(in));
+                }
+                yield list;
+            }
+            case VALUE_MAP -> readMap(in);
+            case VALUE_OBJECT -> in.readObject();
+            default -> throw new StreamCorruptedException(format("invalid value tag: 0x%02X", tag));
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object enumOf(String className, String name) throws ClassNotFoundException {
+        var classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = CompactIO.class.getClassLoader();
+        }
+        return Enum.valueOf((Class) Class.forName(className, false, classLoader), name);
+    }
+
+    /**
+     * Writes a map with string keys as varint size followed by the entries, the values written by
+     * {@link #writeValue(Object, ObjectOutput)}.
+     *
+     * @param map the map, may be null (written as empty)
+     * @param out the output
+     * @throws IOException if an I/O error occurs
+     */
+    public static void writeMap(Map<String, Object> map, ObjectOutput out) throws IOException {
+        if (map == null) {
+            writeVarInt(0, out);
+            return;
+        }
+        writeVarInt(map.size(), out);
+        for (var entry : map.entrySet()) {
+            writeString(entry.getKey(), out);
+            writeValue(entry.getValue(), out);
+        }
+    }
+
+    public static Map<String, Object> readMap(ObjectInput in) throws IOException, ClassNotFoundException {
+        final int size = readVarInt(in);
+        final var result = new LinkedHashMap<String, Object>(Math.max(16, size * 2));
+        for (int i = 0; i < size; ++i) {
+            final var key = readString(in);
+            result.put(key, readValue(in));
+        }
+        return result;
+    }
+}
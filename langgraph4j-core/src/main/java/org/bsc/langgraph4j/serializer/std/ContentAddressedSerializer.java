@@ -0,0 +1,259 @@
+package org.bsc.langgraph4j.serializer.std;
+
+import org.bsc.langgraph4j.serializer.Serializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Serializer writing, in place of an object, a reference to its serialized content held by a {@link MessageStore}.
+ * <p>
+ * The object is serialized through the given inline serializer, the resulting bytes are stored once under their hash
+ * and only the hash is written: {@code [REFERENCE tag byte][32 bytes SHA-256 hash]}.
+ * The objects read are interned, so the same message referenced by many checkpoints is deserialized once and shared.
+ * The hashes of the objects written or read are remembered by identity, as long as the objects are reachable, so
+ * the messages carried over from a checkpoint to the next one are neither encoded nor hashed again: the cost of a
+ * checkpoint grows with its new messages only.
+ * For these reasons the serialized objects must be immutable, as the chat messages are.
+ * <p>
+ * The contents are never removed from the store: deleting the checkpoints, by release, retention policy or
+ * {@link org.bsc.langgraph4j.checkpoint.BaseCheckpointSaver#sweep() sweep}, doesn't free the messages they
+ * referenced. See {@link MessageStore}.
+ *
+ * @param <T> the type of the serialized objects
+ */
+public class ContentAddressedSerializer<T> implements Serializer<T> {
+
+    /**
+     * Tag byte of a reference. It must differ from the first byte written by the inline serializer.
+     */
+    public static final int REFERENCE = 0x7F;
+
+    public static final int DEFAULT_INTERNED_OBJECTS = 4096;
+
+    private static final int HASH_LENGTH = 32;
+
+    private final Serializer<T> inline;
+    private final MessageStore store;
+    private final SerializerMapper mapper;
+    private final Map<String, T> interned;
+    // hashes of the objects written or read, by identity
+    private final Map<IdentityReference, String> hashes = new HashMap<>();
+    private final ReferenceQueue<Object> released = new ReferenceQueue<>();
+    private final ReentrantLock _lock = new ReentrantLock();
+
+    /**
+     * Weak reference compared by the identity of the referent.
+     */
+    private static final class IdentityReference extends WeakReference<Object> {
+        private final int hashCode;
+
+        IdentityReference(Object referent, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.hashCode = System.identityHashCode(referent);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof IdentityReference other)) {
+                return false;
+            }
+            final var referent = get();
+            return referent != null && referent == other.get();
+        }
+    }
+
+    /**
+     * Creates a serializer interning up to {@value #DEFAULT_INTERNED_OBJECTS} objects.
+     *
+     * @param inline the serializer of the stored contents
+     * @param store  the content store
+     * @param mapper the mapper resolving the serializers of the nested objects
+     */
+    public ContentAddressedSerializer(Serializer<T> inline, MessageStore store, SerializerMapper mapper) {
+        this(inline, store, mapper, DEFAULT_INTERNED_OBJECTS);
+    }
+
+    /**
+     * Creates a serializer.
+     *
+     * @param inline          the serializer of the stored contents
+     * @param store           the content store
+     * @param mapper          the mapper resolving the serializers of the nested objects
+     * @param internedObjects the maximum number of interned objects, in least recently used order
+     */
+    public ContentAddressedSerializer(Serializer<T> inline, MessageStore store, SerializerMapper mapper, int internedObjects) {
+        this.inline = requireNonNull(inline, "inline cannot be null");
+        this.store = requireNonNull(store, "store cannot be null");
+        this.mapper = requireNonNull(mapper, "mapper cannot be null");
+        if (internedObjects <= 0) {
+            throw new IllegalArgumentException("internedObjects must be > 0!");
+        }
+        this.interned = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, T> eldest) {
+                return size() > internedObjects;
+            }
+        };
+    }
+
+    public MessageStore store() {
+        return store;
+    }
+
+    @Override
+    public void write(T object, ObjectOutput out) throws IOException {
+        var hash = rememberedHashOf(object);
+        if (hash == null) {
+            final var content = encode(object);
+            hash = MessageStore.hashOf(content);
+
+            if (!isInterned(hash)) {
+                store.putIfAbsent(hash, content);
+                intern(hash, object);
+            }
+            remember(object, hash);
+        }
+        out.writeByte(REFERENCE);
+        out.write(HexFormat.of().parseHex(hash));
+    }
+
+    @Override
+    public T read(ObjectInput in) throws IOException, ClassNotFoundException {
+        final int tag = in.readUnsignedByte();
+        if (tag != REFERENCE) {
+            throw new StreamCorruptedException(format("invalid reference tag: 0x%02X", tag));
+        }
+        return readReference(in);
+    }
+
+    /**
+     * Reads the hash following the {@link #REFERENCE} tag, already consumed by the caller, and resolves the object.
+     *
+     * @param in the input
+     * @return the referenced object
+     * @throws IOException if the hash cannot be read or the content is not found in the store
+     * @throws ClassNotFoundException if the class of a stored object cannot be found
+     */
+    public T readReference(ObjectInput in) throws IOException, ClassNotFoundException {
+        final var bytes = new byte[HASH_LENGTH];
+        in.readFully(bytes);
+        final var hash = HexFormat.of().formatHex(bytes);
+
+        _lock.lock();
+        try {
+            var object = interned.get(hash);
+            if (object != null) {
+                return object;
+            }
+        } finally {
+            _lock.unlock();
+        }
+
+        final var content = store.get(hash)
+                .orElseThrow(() -> new StreamCorruptedException(format("content '%s' not found in the message store", hash)));
+        final var object = decode(content);
+        intern(hash, object);
+        remember(object, hash);
+        return object;
+    }
+
+    private String rememberedHashOf(T object) {
+        _lock.lock();
+        try {
+            expungeReleased();
+            return hashes.get(new IdentityReference(object, null));
+        } finally {
+            _lock.unlock();
+        }
+    }
+
+    private void remember(T object, String hash) {
+        _lock.lock();
+        try {
+            expungeReleased();
+            hashes.put(new IdentityReference(object, released), hash);
+        } finally {
+            _lock.unlock();
+        }
+    }
+
+    // removes the hashes of the objects no longer reachable
+    private void expungeReleased() {
+        Reference<?> reference;
+        while ((reference = released.poll()) != null) {
+            hashes.remove(reference);
+        }
+    }
+
+    /**
+     * @return the number of objects whose hash is remembered
+     */
+    int rememberedHashes() {
+        _lock.lock();
+        try {
+            expungeReleased();
+            return hashes.size();
+        } finally {
+            _lock.unlock();
+        }
+    }
+
+    private boolean isInterned(String hash) {
+        _lock.lock();
+        try {
+            return interned.containsKey(hash);
+        } finally {
+            _lock.unlock();
+        }
+    }
+
+    private void intern(String hash, T object) {
+        _lock.lock();
+        try {
+            interned.putIfAbsent(hash, object);
+        } finally {
+            _lock.unlock();
+        }
+    }
+
+    private byte[] encode(T object) throws IOException {
+        try (var stream = new ByteArrayOutputStream()) {
+            var out = new ObjectOutputStream(stream);
+            inline.write(object, mapper.objectOutputWithMapper(out));
+            out.flush();
+            return stream.toByteArray();
+        }
+    }
+
+    private T decode(byte[] content) throws IOException, ClassNotFoundException {
+        try (var stream = new ByteArrayInputStream(content)) {
+            return inline.read(mapper.objectInputWithMapper(new ObjectInputStream(stream)));
+        }
+    }
+}
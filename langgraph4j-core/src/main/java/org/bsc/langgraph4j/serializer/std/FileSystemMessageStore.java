@@ -0,0 +1,69 @@
+package org.bsc.langgraph4j.serializer.std;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link MessageStore} holding each content in a file named by its hash, in a sub folder named by the first
+ * two characters of the hash.
+ * <p>
+ * Contents are written to a temporary file and then moved to their final name, so concurrent writers of the same
+ * content, also from different processes, never expose a partially written file.
+ */
+public class FileSystemMessageStore implements MessageStore {
+
+    private final Path targetFolder;
+
+    public FileSystemMessageStore(Path targetFolder) throws IOException {
+        this.targetFolder = requireNonNull(targetFolder, "targetFolder cannot be null");
+        Files.createDirectories(targetFolder);
+    }
+
+    private Path pathOf(String hash) {
+        requireNonNull(hash, "hash cannot be null");
+        if (hash.length() < 3 || !hash.chars().allMatch(c -> (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+            throw new IllegalArgumentException("invalid hash: " + hash);
+        }
+        return targetFolder.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    @Override
+    public Optional<byte[]> get(String hash) throws IOException {
+        try {
+            return Optional.of(Files.readAllBytes(pathOf(hash)));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void putIfAbsent(String hash, byte[] content) throws IOException {
+        requireNonNull(content, "content cannot be null");
+        final var path = pathOf(hash);
+        if (Files.exists(path)) {
+            return;
+        }
+        Files.createDirectories(path.getParent());
+        final var temp = Files.createTempFile(path.getParent(), hash, ".tmp");
+        try {
+            Files.write(temp, content);
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path);
+            }
+        } catch (FileAlreadyExistsException e) {
+            // stored concurrently
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.bsc.langgraph4j.serializer.std;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link MessageStore} holding the contents in memory, to use with the in-memory checkpoint savers.
+ */
+public class InMemoryMessageStore implements MessageStore {
+
+    private final Map<String, byte[]> contents = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<byte[]> get(String hash) {
+        return Optional.ofNullable(contents.get(requireNonNull(hash, "hash cannot be null")));
+    }
+
+    @Override
+    public void putIfAbsent(String hash, byte[] content) {
+        requireNonNull(hash, "hash cannot be null");
+        requireNonNull(content, "content cannot be null");
+        contents.putIfAbsent(hash, content);
+    }
+
+    /**
+     * @return the number of stored contents
+     */
+    public int size() {
+        return contents.size();
+    }
+}
@@ -0,0 +1,57 @@
+package org.bsc.langgraph4j.serializer.std;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Content-addressed store of serialized messages, used by {@link ContentAddressedSerializer}.
+ * <p>
+ * Every content is stored once, under the SHA-256 hash of its bytes, so the checkpoints hold only the hashes of
+ * the messages and the messages shared by several checkpoints, threads or thread branches are written once.
+ * <p>
+ * The store must be at least as durable as the checkpoint saver using it: e.g. a saver backed by a database
+ * requires a store that survives restarts, such as {@link FileSystemMessageStore}.
+ * <p>
+ * The store is append-only: a content may be referenced by any checkpoint of any thread sharing the store, and
+ * the savers don't track these references, so the contents are never removed. Releasing, pruning or sweeping the
+ * checkpoints frees the checkpoints only, the store keeps growing with the distinct messages written. To reclaim
+ * its space, a store can be dropped together with all the checkpoints referencing it.
+ */
+public interface MessageStore {
+
+    /**
+     * Returns the content stored under the given hash.
+     *
+     * @param hash the content hash, as lowercase hexadecimal string
+     * @return the content, empty if not found
+     * @throws IOException if an error occurs accessing the store
+     */
+    Optional<byte[]> get(String hash) throws IOException;
+
+    /**
+     * Stores the content under the given hash, unless already present.
+     *
+     * @param hash    the content hash, as lowercase hexadecimal string
+     * @param content the content
+     * @throws IOException if an error occurs accessing the store
+     */
+    void putIfAbsent(String hash, byte[] content) throws IOException;
+
+    /**
+     * Evaluates the hash of a content.
+     *
+     * @param content the content
+     * @return the SHA-256 hash of the content, as lowercase hexadecimal string
+     */
+    static String hashOf(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is required on every Java platform
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -17,6 +17,10 @@ class ObjectOutputWithMapper implements ObjectOutput {
         this.mapper = Objects.requireNonNull(mapper, "mapper cannot be null");
     }
 
+    SerializerMapper mapper() {
+        return mapper;
+    }
+
     @Override
     public void writeObject(Object obj) throws IOException {
         Objects.requireNonNull( obj, "object to serialize cannot be null" );
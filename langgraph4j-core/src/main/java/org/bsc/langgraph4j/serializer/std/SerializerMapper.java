@@ -6,6 +6,7 @@ import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
@@ -59,24 +60,32 @@ public class SerializerMapper {
         }
     }
     private final Map<Key, Serializer<?>> _serializers = new HashMap<>();
+    // serializers resolved by class, including the misses, invalidated on (un)registration
+    private final Map<Class<?>, Optional<Serializer<Object>>> _resolved = new ConcurrentHashMap<>();
 
     public SerializerMapper register( Class<?> clazz, Serializer<?> serializer ) {
         Objects.requireNonNull(clazz,"class cannot be null ");
         Objects.requireNonNull(clazz,"serializer cannot be null ");
 
         _serializers.put( Key.of(clazz), serializer);
+        _resolved.clear();
         return this;
     }
 
     public boolean unregister( Class<? extends Serializer<?>> clazz ) {
         Objects.requireNonNull( clazz, "Serializer's class cannot be null" );
         Serializer<?> serializer = _serializers.remove( Key.of(clazz) );
+        _resolved.clear();
         return serializer != null;
     }
 
-    @SuppressWarnings("unchecked")
     public Optional<Serializer<Object>> getSerializer( Class<?> clazz ) {
         Objects.requireNonNull(clazz,"class cannot be null ");
+        return _resolved.computeIfAbsent( clazz, this::resolveSerializer );
+    }
+
+    @SuppressWarnings("unchecked")
+    private Optional<Serializer<Object>> resolveSerializer( Class<?> clazz ) {
         Serializer<?> ser = _serializers.get( Key.of(clazz) );
 
         return ( ser != null ) ?
@@ -83,6 +83,61 @@ public class AppenderChannel<T> implements Channel<List<T>> {
         }
     }
 
+    /**
+     * Reducer appending through another reducer, then compacting the result according to a {@link CompactionPolicy}.
+     * @param <T>
+     */
+    public static class ReducerWithCompaction<T> implements Reducer<List<T>> {
+        private final Reducer<List<T>> reducer;
+        private final CompactionPolicy<T> policy;
+
+        public ReducerWithCompaction(Reducer<List<T>> reducer, CompactionPolicy<T> policy) {
+            this.reducer = Objects.requireNonNull(reducer, "reducer cannot be null");
+            this.policy = Objects.requireNonNull(policy, "policy cannot be null");
+        }
+
+        @Override
+        public List<T> apply(List<T> left, List<T> right) {
+            final var result = reducer.apply(left, right);
+            if (result == null) {
+                return null;
+            }
+            final var counter = policy.tokenCounter();
+
+            long tokens = 0;
+            for (T value : result) {
+                tokens += counter.count(value);
+            }
+            if (tokens <= policy.maxTokens()) {
+                return result;
+            }
+
+            // evict the oldest unpinned values, never the last one
+            final int from = Math.min(policy.pinned(), result.size());
+            final int last = result.size() - 1;
+            int to = from;
+            while (to < last && tokens > policy.targetTokens()) {
+                tokens -= counter.count(result.get(to++));
+            }
+            while (to < last && !policy.windowStart().test(result.get(to))) {
+                ++to;
+            }
+            if (to == from) {
+                return result;
+            }
+
+            final var replacement = policy.strategy().compact(new ArrayList<>(result.subList(from, to)));
+
+            final var compacted = new ArrayList<T>(from + replacement.size() + result.size() - to);
+            compacted.addAll(result.subList(0, from));
+            compacted.addAll(replacement);
+            compacted.addAll(result.subList(to, result.size()));
+
+            log.debug("compacted {} values into {}, window of {} values", to - from, replacement.size(), compacted.size());
+            return compacted;
+        }
+    }
+
 
     private final Reducer<List<T>> reducer;
     private final Supplier<List<T>> defaultProvider;
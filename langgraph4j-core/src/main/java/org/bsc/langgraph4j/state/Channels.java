@@ -9,6 +9,18 @@ public interface Channels {
         return new AppenderChannel<T>( new AppenderChannel.ReducerDisallowDuplicate<>(), defaultProvider );
     }
 
+    /**
+     * Creates an appender channel, disallowing duplicates, whose values are kept within the token budget of the given policy.
+     *
+     * @param defaultProvider the provider of the default list
+     * @param compaction      the compaction policy
+     * @param <T>             the type of the values
+     * @return the channel
+     */
+    static <T> Channel<List<T>> appender(Supplier<List<T>> defaultProvider, CompactionPolicy<T> compaction ) {
+        return new AppenderChannel<T>( new AppenderChannel.ReducerWithCompaction<>( new AppenderChannel.ReducerDisallowDuplicate<>(), compaction ), defaultProvider );
+    }
+
     static <T> Channel<List<T>> appenderWithDuplicate( Supplier<List<T>> defaultProvider ) {
         return new AppenderChannel<>( new AppenderChannel.ReducerAllowDuplicate<>(), defaultProvider );
     }
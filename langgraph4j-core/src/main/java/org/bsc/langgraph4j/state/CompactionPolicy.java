@@ -0,0 +1,205 @@
+package org.bsc.langgraph4j.state;
+
+import java.util.function.Predicate;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Policy keeping the elements of an {@link AppenderChannel}, e.g. the conversation messages, within a token budget.
+ * <p>
+ * When, after an update, the elements exceed {@link #maxTokens()}, the oldest ones following the
+ * {@link #pinned()} leading elements are evicted until the tokens fall to {@link #targetTokens()}, and replaced by
+ * the elements returned by the {@link #strategy()} (e.g. a summary). The new window begins at an element accepted by
+ * {@link #windowStart()}, so a tool call is never separated from its results. The last element is never evicted.
+ * <p>
+ * The compaction runs in the graph loop, as part of the state update, so the channel holds a bounded list and
+ * both the model requests and the checkpoints stop growing with the thread length.
+ *
+ * <pre>{@code
+ * Map<String, Channel<?>> SCHEMA = Map.of(
+ *         "messages", Channels.appender( ArrayList::new,
+ *                          CompactionPolicy.<ChatMessage>builder()
+ *                              .tokenCounter( estimator::estimateTokenCountInMessage )
+ *                              .maxTokens( 8_000 )
+ *                              .targetTokens( 6_000 )
+ *                              .windowStart( m -> m instanceof UserMessage )
+ *                              .strategy( CompactionStrategy.summarize( summarizer ) )
+ *                              .build() ));
+ * }</pre>
+ *
+ * @param <T> the type of the elements
+ */
+public final class CompactionPolicy<T> {
+
+    private TokenCounter<T> tokenCounter;
+    private int maxTokens;
+    private int targetTokens;
+    private int pinned;
+    private Predicate<T> windowStart = element -> true;
+    private CompactionStrategy<T> strategy = CompactionStrategy.evict();
+
+    private CompactionPolicy() {}
+
+    public TokenCounter<T> tokenCounter() {
+        return tokenCounter;
+    }
+
+    /**
+     * Returns the number of tokens beyond which the elements are compacted.
+     *
+     * @return the maximum number of tokens
+     */
+    public int maxTokens() {
+        return maxTokens;
+    }
+
+    /**
+     * Returns the number of tokens to which the elements are compacted.
+     *
+     * @return the target number of tokens
+     */
+    public int targetTokens() {
+        return targetTokens;
+    }
+
+    /**
+     * Returns the number of leading elements never evicted, e.g. the first request of the conversation.
+     *
+     * @return the number of pinned elements
+     */
+    public int pinned() {
+        return pinned;
+    }
+
+    public Predicate<T> windowStart() {
+        return windowStart;
+    }
+
+    public CompactionStrategy<T> strategy() {
+        return strategy;
+    }
+
+    @Override
+    public String toString() {
+        return format("CompactionPolicy{ maxTokens=%d, targetTokens=%d, pinned=%d }", maxTokens, targetTokens, pinned);
+    }
+
+    /**
+     * Returns a new {@link Builder} instance.
+     *
+     * @param <T> the type of the elements
+     * @return A {@link Builder} instance.
+     */
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Builder of {@link CompactionPolicy}
+     *
+     * @param <T> the type of the elements
+     */
+    public static class Builder<T> {
+        private final CompactionPolicy<T> policy = new CompactionPolicy<>();
+
+        /**
+         * Sets the counter of the tokens of an element (mandatory).
+         *
+         * @param tokenCounter the token counter
+         * @return this builder
+         */
+        public Builder<T> tokenCounter(TokenCounter<T> tokenCounter) {
+            policy.tokenCounter = requireNonNull(tokenCounter, "tokenCounter cannot be null");
+            return this;
+        }
+
+        /**
+         * Sets the number of tokens beyond which the elements are compacted (mandatory).
+         *
+         * @param maxTokens the maximum number of tokens, must be greater than 0
+         * @return this builder
+         */
+        public Builder<T> maxTokens(int maxTokens) {
+            if (maxTokens <= 0) {
+                throw new IllegalArgumentException("maxTokens must be > 0!");
+            }
+            policy.maxTokens = maxTokens;
+            return this;
+        }
+
+        /**
+         * Sets the number of tokens to which the elements are compacted (default three quarters of the maximum),
+         * so that the compaction doesn't run on every update.
+         *
+         * @param targetTokens the target number of tokens, must be greater than 0
+         * @return this builder
+         */
+        public Builder<T> targetTokens(int targetTokens) {
+            if (targetTokens <= 0) {
+                throw new IllegalArgumentException("targetTokens must be > 0!");
+            }
+            policy.targetTokens = targetTokens;
+            return this;
+        }
+
+        /**
+         * Sets the number of leading elements never evicted (default 0).
+         *
+         * @param pinned the number of pinned elements, must be >= 0
+         * @return this builder
+         */
+        public Builder<T> pinned(int pinned) {
+            if (pinned < 0) {
+                throw new IllegalArgumentException("pinned must be >= 0!");
+            }
+            policy.pinned = pinned;
+            return this;
+        }
+
+        /**
+         * Sets the condition of the first element of the window following the compaction (default any element).
+         *
+         * @param windowStart the condition
+         * @return this builder
+         */
+        public Builder<T> windowStart(Predicate<T> windowStart) {
+            policy.windowStart = requireNonNull(windowStart, "windowStart cannot be null");
+            return this;
+        }
+
+        /**
+         * Sets the strategy replacing the evicted elements (default {@link CompactionStrategy#evict()}).
+         *
+         * @param strategy the compaction strategy
+         * @return this builder
+         */
+        public Builder<T> strategy(CompactionStrategy<T> strategy) {
+            policy.strategy = requireNonNull(strategy, "strategy cannot be null");
+            return this;
+        }
+
+        /**
+         * Creates the compaction policy.
+         *
+         * @return the compaction policy
+         */
+        public CompactionPolicy<T> build() {
+            requireNonNull(policy.tokenCounter, "tokenCounter cannot be null");
+            if (policy.maxTokens <= 0) {
+                throw new IllegalArgumentException("maxTokens must be set!");
+            }
+            var result = new CompactionPolicy<T>();
+            result.tokenCounter = policy.tokenCounter;
+            result.maxTokens = policy.maxTokens;
+            result.targetTokens = (policy.targetTokens > 0) ? policy.targetTokens : Math.max(1, policy.maxTokens * 3 / 4);
+            if (result.targetTokens > result.maxTokens) {
+                throw new IllegalArgumentException("targetTokens must be <= maxTokens!");
+            }
+            result.pinned = policy.pinned;
+            result.windowStart = policy.windowStart;
+            result.strategy = policy.strategy;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.bsc.langgraph4j.state;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Replaces the oldest elements evicted from a compacted list, e.g. by a summary of them.
+ *
+ * @param <T> the type of the elements
+ * @see CompactionPolicy
+ */
+@FunctionalInterface
+public interface CompactionStrategy<T> {
+
+    /**
+     * Evaluates the elements taking the place of the evicted ones, at the beginning of the window.
+     *
+     * @param evicted the evicted elements, oldest first
+     * @return the replacing elements, empty to drop the evicted ones
+     */
+    List<T> compact(List<T> evicted);
+
+    /**
+     * Returns the strategy dropping the evicted elements.
+     *
+     * @param <T> the type of the elements
+     * @return the eviction strategy
+     */
+    static <T> CompactionStrategy<T> evict() {
+        return evicted -> List.of();
+    }
+
+    /**
+     * Returns the strategy replacing the evicted elements by a single summary.
+     * A previous summary, being the oldest element of the window, is evicted in turn and passed to the summarizer.
+     *
+     * @param summarizer the function summarizing the evicted elements
+     * @param <T>        the type of the elements
+     * @return the summarization strategy
+     */
+    static <T> CompactionStrategy<T> summarize(Function<List<T>, T> summarizer) {
+        requireNonNull(summarizer, "summarizer cannot be null");
+        return evicted -> List.of(summarizer.apply(evicted));
+    }
+}
@@ -0,0 +1,39 @@
+package org.bsc.langgraph4j.state;
+
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Counts the tokens taken by an element of the state, e.g. a message, in the model context window.
+ *
+ * @param <T> the type of the counted elements
+ * @see CompactionPolicy
+ */
+@FunctionalInterface
+public interface TokenCounter<T> {
+
+    /**
+     * Counts the tokens of the given element.
+     *
+     * @param element the element
+     * @return the number of tokens
+     */
+    int count(T element);
+
+    /**
+     * Returns a counter estimating about four characters per token, plus a fixed overhead per element.
+     * To use when the tokenizer of the model is not available.
+     *
+     * @param text the function extracting the text of an element
+     * @param <T>  the type of the counted elements
+     * @return the token counter
+     */
+    static <T> TokenCounter<T> approximate(Function<T, String> text) {
+        requireNonNull(text, "text cannot be null");
+        return element -> {
+            var value = text.apply(element);
+            return 4 + ((value != null) ? (value.length() + 3) / 4 : 0);
+        };
+    }
+}
@@ -0,0 +1,528 @@
+package org.bsc.langgraph4j.streaming;
+
+import org.bsc.async.AsyncGenerator;
+import org.bsc.langgraph4j.state.AgentState;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BinaryOperator;
+import java.util.function.Predicate;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Bounded ring buffer queue between a streaming provider (e.g. the callback of a streaming chat model) and
+ * the generator consuming the chunks.
+ * <p>
+ * The queue is lock-free and supports a single producer and a single consumer, as a streaming response does.
+ * The producer may change thread over time but the enqueuing operations cannot overlap: a concurrent one fails
+ * with an {@link IllegalStateException}.
+ * When the queue is full, the {@link OverflowPolicy} decides how a {@link #coalescible(Object) coalescible}
+ * element, i.e. a chunk, is handled:
+ * <ul>
+ *     <li>{@link OverflowPolicy#BLOCK}: the producer waits for room, slowing down the provider callback</li>
+ *     <li>{@link OverflowPolicy#COALESCE}: the chunks are merged in a pending element, enqueued as soon as there is room</li>
+ *     <li>{@link OverflowPolicy#DROP}: the chunk is discarded</li>
+ * </ul>
+ * The other elements (e.g. the completion or an error) are never dropped: the producer waits for room, at most
+ * for the given block timeout. {@link #add(Object)} doesn't throw on overflow, returning as {@link #offer(Object)}.
+ * <p>
+ * The queue depth, the time spent by the elements in the queue and the overflow counters are reported by {@link #metrics()}.
+ * <p>
+ * The {@link #iterator() iterator} is weakly consistent, as the one of the concurrent queues: it traverses the
+ * elements from the head and never fails on concurrent changes. The elements can only be removed in order by the
+ * consumer, so {@link #remove(Object)} and {@link Iterator#remove()} are not supported.
+ *
+ * @param <E> the type of the elements
+ */
+public class BoundedStreamingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(BoundedStreamingQueue.class);
+
+    public static final int DEFAULT_CAPACITY = 256;
+    public static final long DEFAULT_BLOCK_TIMEOUT_MILLIS = 30_000;
+
+    private static final int SPINS = 64;
+
+    /**
+     * How a chunk is handled when the queue is full
+     */
+    public enum OverflowPolicy {
+        BLOCK,
+        COALESCE,
+        DROP
+    }
+
+    /**
+     * Snapshot of the queue metrics.
+     *
+     * @param depth              the number of elements in the queue
+     * @param maxDepth           the maximum number of elements held by the queue
+     * @param enqueued           the number of elements enqueued
+     * @param dequeued           the number of elements taken by the consumer
+     * @param coalesced          the number of chunks merged into another one
+     * @param dropped            the number of discarded elements
+     * @param blockedNanos       the total time spent by the producer waiting for room
+     * @param meanLatencyNanos   the mean time spent by the elements in the queue
+     * @param maxLatencyNanos    the maximum time spent by an element in the queue
+     */
+    public record Metrics(int depth,
+                          int maxDepth,
+                          long enqueued,
+                          long dequeued,
+                          long coalesced,
+                          long dropped,
+                          long blockedNanos,
+                          long meanLatencyNanos,
+                          long maxLatencyNanos) {}
+
+    private final Object[] buffer;
+    private final long[] enqueuedAt;
+    private final int mask;
+    private final OverflowPolicy overflowPolicy;
+    private final Predicate<E> coalescible;
+    private final BinaryOperator<E> merger;
+    private final long blockTimeoutNanos;
+
+    // consumer index
+    private final AtomicLong head = new AtomicLong();
+    // producer index
+    private final AtomicLong tail = new AtomicLong();
+    private volatile Thread waitingConsumer;
+    private volatile Thread waitingProducer;
+    // set while an enqueuing operation is running
+    private final AtomicBoolean producing = new AtomicBoolean();
+
+    // owned by the producer
+    private E pending;
+
+    private final AtomicLong maxDepth = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong blockedNanos = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    /**
+     * Creates a queue of {@link StreamingOutput} data, whose chunks are coalesced by concatenation.
+     *
+     * @param capacity       the capacity, rounded up to a power of two
+     * @param overflowPolicy the overflow policy
+     * @param <State>        the type of the state
+     * @return the queue
+     */
+    public static <State extends AgentState> BoundedStreamingQueue<AsyncGenerator.Data<StreamingOutput<State>>> ofStreamingOutput(int capacity, OverflowPolicy overflowPolicy) {
+        return new BoundedStreamingQueue<>(capacity,
+                overflowPolicy,
+                BoundedStreamingQueue::isChunk,
+                (data1, data2) -> {
+                    var output1 = data1.future().join();
+                    var output2 = data2.future().join();
+                    return AsyncGenerator.Data.of(new StreamingOutput<>(
+                            Objects.toString(output1.chunk(), "") + Objects.toString(output2.chunk(), ""),
+                            output2.node(),
+                            output2.state()));
+                },
+                TimeUnit.MILLISECONDS.toNanos(DEFAULT_BLOCK_TIMEOUT_MILLIS));
+    }
+
+    private static <State extends AgentState> boolean isChunk(AsyncGenerator.Data<StreamingOutput<State>> data) {
+        final var future = data.future();
+        return future != null && !data.isDone() && future.isDone() && !future.isCompletedExceptionally()
+                && future.getNow(null) != null;
+    }
+
+    /**
+     * Creates a queue.
+     *
+     * @param capacity          the capacity, rounded up to a power of two
+     * @param overflowPolicy    the overflow policy
+     * @param coalescible       the condition of the elements that can be coalesced or dropped
+     * @param merger            the function merging two coalescible elements, oldest first
+     * @param blockTimeoutNanos the maximum time the producer waits for room, after which the element is dropped
+     */
+    public BoundedStreamingQueue(int capacity,
+                                 OverflowPolicy overflowPolicy,
+                                 Predicate<E> coalescible,
+                                 BinaryOperator<E> merger,
+                                 long blockTimeoutNanos) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0!");
+        }
+        if (blockTimeoutNanos <= 0) {
+            throw new IllegalArgumentException("blockTimeoutNanos must be > 0!");
+        }
+        final int size = (capacity == 1) ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.buffer = new Object[size];
+        this.enqueuedAt = new long[size];
+        this.mask = size - 1;
+        this.overflowPolicy = requireNonNull(overflowPolicy, "overflowPolicy cannot be null");
+        this.coalescible = requireNonNull(coalescible, "coalescible cannot be null");
+        this.merger = requireNonNull(merger, "merger cannot be null");
+        this.blockTimeoutNanos = blockTimeoutNanos;
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    public OverflowPolicy overflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Tells whether the given element can be coalesced or dropped on overflow.
+     *
+     * @param element the element
+     * @return true if the element is a chunk
+     */
+    public boolean coalescible(E element) {
+        return coalescible.test(element);
+    }
+
+    public Metrics metrics() {
+        final long dequeued = head.get();
+        return new Metrics(size(),
+                (int) maxDepth.get(),
+                tail.get(),
+                dequeued,
+                coalesced.get(),
+                dropped.get(),
+                blockedNanos.get(),
+                (dequeued > 0) ? totalLatencyNanos.get() / dequeued : 0,
+                maxLatencyNanos.get());
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return buffer.length - size();
+    }
+
+    /**
+     * Enqueues the element, applying the overflow policy if the queue is full.
+     *
+     * @param e the element
+     * @return true if the element has been enqueued or coalesced, false if it has been dropped
+     */
+    @Override
+    public boolean offer(E e) {
+        requireNonNull(e, "element cannot be null");
+        enterProducer();
+        try {
+            return offerChunk(e);
+        } finally {
+            producing.set(false);
+        }
+    }
+
+    private boolean offerChunk(E e) {
+        final boolean chunk = coalescible.test(e);
+
+        if (pending != null) {
+            if (tryEnqueue(pending)) {
+                pending = null;
+            } else if (chunk) {
+                pending = merger.apply(pending, e);
+                coalesced.incrementAndGet();
+                return true;
+            } else if (awaitEnqueue(pending)) {
+                pending = null;
+            } else {
+                pending = null;
+                dropped.incrementAndGet();
+            }
+        }
+
+        if (tryEnqueue(e)) {
+            return true;
+        }
+
+        if (chunk) {
+            switch (overflowPolicy) {
+                case COALESCE -> {
+                    pending = e;
+                    return true;
+                }
+                case DROP -> {
+                    dropped.incrementAndGet();
+                    return false;
+                }
+                case BLOCK -> {
+                    // wait for room below
+                }
+            }
+        }
+        if (awaitEnqueue(e)) {
+            return true;
+        }
+        log.warn("no room in the streaming queue after {} ms, element dropped: {}",
+                TimeUnit.NANOSECONDS.toMillis(blockTimeoutNanos), e);
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Enqueues the element, see {@link #offer(Object)}.
+     *
+     * @param e the element
+     * @return the result of {@link #offer(Object)}
+     */
+    @Override
+    public boolean add(E e) {
+        return offer(e);
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        requireNonNull(e, "element cannot be null");
+        enterProducer();
+        try {
+            if (tryEnqueue(e)) {
+                return true;
+            }
+            if (awaitRoom(unit.toNanos(timeout), true)) {
+                return tryEnqueue(e);
+            }
+            return false;
+        } finally {
+            producing.set(false);
+        }
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        requireNonNull(e, "element cannot be null");
+        enterProducer();
+        try {
+            while (!tryEnqueue(e)) {
+                awaitRoom(blockTimeoutNanos, true);
+            }
+        } finally {
+            producing.set(false);
+        }
+    }
+
+    private void enterProducer() {
+        if (!producing.compareAndSet(false, true)) {
+            throw new IllegalStateException("concurrent producers are not supported by the streaming queue");
+        }
+    }
+
+    private boolean tryEnqueue(E e) {
+        final long t = tail.get();
+        final long depth = t - head.get();
+        if (depth >= buffer.length) {
+            return false;
+        }
+        final int index = (int) (t & mask);
+        buffer[index] = e;
+        enqueuedAt[index] = System.nanoTime();
+        tail.set(t + 1);
+
+        if (depth + 1 > maxDepth.get()) {
+            maxDepth.set(depth + 1);
+        }
+        final var consumer = waitingConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+        return true;
+    }
+
+    private boolean awaitEnqueue(E e) {
+        try {
+            return awaitRoom(blockTimeoutNanos, false) && tryEnqueue(e);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean awaitRoom(long timeoutNanos, boolean interruptible) throws InterruptedException {
+        final long start = System.nanoTime();
+        try {
+            for (int spins = 0; tail.get() - head.get() >= buffer.length; ++spins) {
+                final long remaining = timeoutNanos - (System.nanoTime() - start);
+                if (remaining <= 0) {
+                    return false;
+                }
+                if (spins < SPINS) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                waitingProducer = Thread.currentThread();
+                if (tail.get() - head.get() >= buffer.length) {
+                    LockSupport.parkNanos(this, remaining);
+                }
+                waitingProducer = null;
+                if (Thread.interrupted()) {
+                    if (interruptible) {
+                        throw new InterruptedException();
+                    }
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            blockedNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        final long h = head.get();
+        if (h >= tail.get()) {
+            return null;
+        }
+        final int index = (int) (h & mask);
+        final var result = (E) buffer[index];
+        final long latency = System.nanoTime() - enqueuedAt[index];
+        buffer[index] = null;
+        head.set(h + 1);
+
+        totalLatencyNanos.addAndGet(latency);
+        if (latency > maxLatencyNanos.get()) {
+            maxLatencyNanos.set(latency);
+        }
+        final var producer = waitingProducer;
+        if (producer != null) {
+            LockSupport.unpark(producer);
+        }
+        return result;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        E result;
+        while ((result = poll(Long.MAX_VALUE, TimeUnit.NANOSECONDS)) == null) {
+            // parked for the maximum time
+        }
+        return result;
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        final long timeoutNanos = unit.toNanos(timeout);
+        final long start = System.nanoTime();
+        for (int spins = 0; ; ++spins) {
+            final var result = poll();
+            if (result != null) {
+                return result;
+            }
+            final long remaining = timeoutNanos - (System.nanoTime() - start);
+            if (remaining <= 0) {
+                return null;
+            }
+            if (spins < SPINS) {
+                Thread.onSpinWait();
+                continue;
+            }
+            waitingConsumer = Thread.currentThread();
+            if (head.get() >= tail.get()) {
+                LockSupport.parkNanos(this, remaining);
+            }
+            waitingConsumer = null;
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        final long h = head.get();
+        return (h < tail.get()) ? (E) buffer[(int) (h & mask)] : null;
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        requireNonNull(c, "collection cannot be null");
+        int result = 0;
+        E e;
+        while (result < maxElements && (e = poll()) != null) {
+            c.add(e);
+            ++result;
+        }
+        return result;
+    }
+
+    /**
+     * Not supported: the elements can only be removed in order by the consumer.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean remove(Object o) {
+        throw new UnsupportedOperationException("remove is not supported by the streaming queue");
+    }
+
+    /**
+     * Returns a weakly consistent iterator over the elements, from the head of the queue. The elements consumed
+     * after the creation of the iterator are skipped, the ones enqueued may be returned.
+     *
+     * @return the iterator, not supporting {@link Iterator#remove()}
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private long cursor = head.get();
+            private E next;
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public boolean hasNext() {
+                while (next == null) {
+                    cursor = Math.max(cursor, head.get());
+                    if (cursor >= tail.get()) {
+                        return false;
+                    }
+                    final var element = (E) buffer[(int) (cursor & mask)];
+                    VarHandle.loadLoadFence();
+                    // the slot is reused only after its element has been consumed
+                    if (element != null && head.get() <= cursor) {
+                        next = element;
+                    }
+                    ++cursor;
+                }
+                return true;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final var result = next;
+                next = null;
+                return result;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return format("BoundedStreamingQueue{ capacity=%d, overflowPolicy=%s, %s }", buffer.length, overflowPolicy, metrics());
+    }
+}
@@ -0,0 +1,208 @@
+package org.bsc.langgraph4j.streaming;
+
+import org.bsc.async.AsyncGenerator;
+import org.bsc.langgraph4j.state.AgentState;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Generator merging the consecutive {@link StreamingOutput} chunks of another generator, as defined by
+ * a {@link CoalescingPolicy}.
+ * <p>
+ * The wrapped generator is read by a single task, started by the first {@link #next()}, so that a batch can be
+ * emitted when its time window expires even though the next chunk hasn't arrived yet. The task runs on the
+ * {@link CoalescingPolicy#executor() policy executor} or, if not set, on a thread dedicated to the generator.
+ * The elements read are buffered up to {@link CoalescingPolicy#maxChunks()}: when the buffer is full the task
+ * waits for the consumer, so that a slow consumer holds back the wrapped generator, and it stops as soon as this
+ * generator is cancelled.
+ * Only chunks of the exact {@link StreamingOutput} type are merged: the merged output holds the concatenated text
+ * with the node and state of the latest chunk. Any other element, the completion and the errors are emitted
+ * unchanged and in order, so the result value of the wrapped generator is preserved.
+ *
+ * @param <E> the type of the elements
+ */
+public class CoalescingGenerator<E> extends AsyncGenerator.BaseCancellable<E> implements AsyncGenerator.HasResultValue {
+
+    private final AsyncGenerator<E> delegate;
+    private final CoalescingPolicy policy;
+    private final BlockingQueue<Data<E>> buffer;
+    private CompletableFuture<Void> reader;
+    // element read while merging, that didn't fit in the previous batch
+    private Data<E> pending;
+
+    /**
+     * Creates the generator.
+     *
+     * @param delegate the generator emitting the chunks
+     * @param policy   the coalescing policy
+     */
+    public CoalescingGenerator(AsyncGenerator<E> delegate, CoalescingPolicy policy) {
+        this.delegate = requireNonNull(delegate, "delegate cannot be null");
+        this.policy = requireNonNull(policy, "policy cannot be null");
+        this.buffer = new ArrayBlockingQueue<>(policy.maxChunks());
+    }
+
+    /**
+     * Returns the wrapped generator.
+     *
+     * @return the wrapped generator
+     */
+    public AsyncGenerator<E> delegate() {
+        return delegate;
+    }
+
+    @Override
+    public Optional<Object> resultValue() {
+        return AsyncGenerator.resultValue(delegate);
+    }
+
+    @Override
+    public Data<E> next() {
+        if (isCancelled()) {
+            return Data.done();
+        }
+        if (reader == null) {
+            reader = CompletableFuture.runAsync(this::read, policy.executor().orElseGet(CoalescingGenerator::dedicatedThread));
+        }
+
+        try {
+            Data<E> first = pending;
+            pending = null;
+            while (first == null) {
+                if (isCancelled()) {
+                    return Data.done();
+                }
+                first = buffer.poll(policy.window().toNanos(), TimeUnit.NANOSECONDS);
+            }
+
+            final var firstChunk = chunkOf(first);
+            if (firstChunk == null) {
+                return first;
+            }
+
+            final long deadline = System.nanoTime() + policy.window().toNanos();
+            StreamingOutput<?> lastChunk = firstChunk;
+            StringBuilder text = null;
+            int count = 1;
+
+            while (count < policy.maxChunks()) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                final var next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    break;
+                }
+                final var nextChunk = chunkOf(next);
+                if (nextChunk == null || !Objects.equals(nextChunk.node(), firstChunk.node())) {
+                    pending = next;
+                    break;
+                }
+                if (text == null) {
+                    text = new StringBuilder(firstChunk.chunk());
+                }
+                text.append(nextChunk.chunk());
+                lastChunk = nextChunk;
+                ++count;
+            }
+
+            if (count == 1) {
+                return first;
+            }
+            return Data.of(merge(text.toString(), lastChunk));
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Data.error(e);
+        }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        final var result = super.cancel(mayInterruptIfRunning);
+        if (delegate instanceof AsyncGenerator.IsCancellable cancellable) {
+            cancellable.cancel(mayInterruptIfRunning);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the task reading the wrapped generator.
+     *
+     * @return the reading task, null if not started yet
+     */
+    CompletableFuture<Void> reader() {
+        return reader;
+    }
+
+    private static Executor dedicatedThread() {
+        return task -> {
+            final var thread = new Thread(task, "coalescing-reader");
+            thread.setDaemon(true);
+            thread.start();
+        };
+    }
+
+    // reads the wrapped generator until its completion or the cancellation
+    private void read() {
+        Data<E> data;
+        do {
+            if (isCancelled()) {
+                return;
+            }
+            try {
+                data = delegate.next();
+                if (data.future() != null) {
+                    // waits for the element, without failing
+                    data.future().handle((value, ex) -> null).join();
+                }
+            } catch (Exception ex) {
+                data = Data.error(ex);
+            }
+            try {
+                // waits for room in the buffer, checking the cancellation once per window
+                while (!buffer.offer(data, policy.window().toNanos(), TimeUnit.NANOSECONDS)) {
+                    if (isCancelled()) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        while (!data.isDone() && !data.isError());
+    }
+
+    @SuppressWarnings("unchecked")
+    private E merge(String text, StreamingOutput<?> lastChunk) {
+        return (E) new StreamingOutput<>(text, lastChunk.node(), (AgentState) lastChunk.state());
+    }
+
+    private static StreamingOutput<?> chunkOf(Data<?> data) {
+        if (data.isDone() || data.isError() || data.embed() != null) {
+            return null;
+        }
+        final var value = data.future().getNow(null);
+        if (value != null && value.getClass() == StreamingOutput.class) {
+            final var output = (StreamingOutput<?>) value;
+            return (output.chunk() != null) ? output : null;
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return format("CoalescingGenerator{ policy=%s, delegate=%s }", policy, delegate);
+    }
+}
@@ -0,0 +1,146 @@
+package org.bsc.langgraph4j.streaming;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Coalescing policy of the {@link StreamingOutput} chunks emitted by the generators embedded in the graph
+ * (e.g. the streaming chat generators).
+ * <p>
+ * The consecutive chunks of the same node are concatenated in a single {@link StreamingOutput}, emitted when
+ * {@link #maxChunks()} chunks are merged or when the {@link #window()} opened by the first chunk expires,
+ * whichever comes first. The other outputs, the completion and the errors are emitted as they arrive.
+ *
+ * <pre>{@code
+ * var config = RunnableConfig.builder()
+ *                  .streamCoalescing( CoalescingPolicy.builder()
+ *                      .window(Duration.ofMillis(20))
+ *                      .maxChunks(64)
+ *                      .build() )
+ *                  .build();
+ *
+ * graph.stream( input, config );
+ * }</pre>
+ *
+ * @see CoalescingGenerator
+ */
+public final class CoalescingPolicy {
+
+    public static final Duration DEFAULT_WINDOW = Duration.ofMillis(20);
+    public static final int DEFAULT_MAX_CHUNKS = 32;
+
+    private Duration window = DEFAULT_WINDOW;
+    private int maxChunks = DEFAULT_MAX_CHUNKS;
+    private Executor executor;
+
+    private CoalescingPolicy() {}
+
+    /**
+     * Returns the maximum time a chunk is held waiting for the following ones.
+     *
+     * @return the time window
+     */
+    public Duration window() {
+        return window;
+    }
+
+    /**
+     * Returns the maximum number of chunks merged in a single output, that is also the maximum number of
+     * elements read ahead of the consumer.
+     *
+     * @return the maximum number of chunks
+     */
+    public int maxChunks() {
+        return maxChunks;
+    }
+
+    /**
+     * Returns the executor reading the embedded generator.
+     *
+     * @return the executor, empty means a thread dedicated to the generator
+     */
+    public Optional<Executor> executor() {
+        return ofNullable(executor);
+    }
+
+    @Override
+    public String toString() {
+        return format("CoalescingPolicy{ window=%s, maxChunks=%d }", window, maxChunks);
+    }
+
+    /**
+     * Returns a new {@link Builder} instance.
+     *
+     * @return A {@link Builder} instance.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder of {@link CoalescingPolicy}
+     */
+    public static class Builder {
+        private final CoalescingPolicy policy = new CoalescingPolicy();
+
+        /**
+         * Sets the maximum time a chunk is held waiting for the following ones (default 20ms).
+         *
+         * @param window the time window, must be positive
+         * @return this builder
+         */
+        public Builder window(Duration window) {
+            requireNonNull(window, "window cannot be null");
+            if (window.isNegative() || window.isZero()) {
+                throw new IllegalArgumentException("window must be positive!");
+            }
+            policy.window = window;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of chunks merged in a single output (default {@value CoalescingPolicy#DEFAULT_MAX_CHUNKS}).
+         *
+         * @param maxChunks the maximum number of chunks, must be greater than 0
+         * @return this builder
+         */
+        public Builder maxChunks(int maxChunks) {
+            if (maxChunks <= 0) {
+                throw new IllegalArgumentException("maxChunks must be > 0!");
+            }
+            policy.maxChunks = maxChunks;
+            return this;
+        }
+
+        /**
+         * Sets the executor reading the embedded generator (default a thread dedicated to the generator).
+         * The reading task blocks until the generator is completed or cancelled, also waiting for the consumer
+         * when {@link #maxChunks(int)} elements are buffered: it must not be a shared pool, e.g. the common pool.
+         *
+         * @param executor the executor
+         * @return this builder
+         */
+        public Builder executor(Executor executor) {
+            policy.executor = requireNonNull(executor, "executor cannot be null");
+            return this;
+        }
+
+        /**
+         * Creates the coalescing policy.
+         *
+         * @return the coalescing policy
+         */
+        public CoalescingPolicy build() {
+            var result = new CoalescingPolicy();
+            result.window = policy.window;
+            result.maxChunks = policy.maxChunks;
+            result.executor = policy.executor;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package org.bsc.langgraph4j.streaming;
+
+import org.bsc.async.AsyncGenerator;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link Flow.Publisher} emitting the elements of a generator as they are requested.
+ * <p>
+ * The publisher is cold: each subscription creates its own generator from the given supplier, so each subscriber
+ * receives a whole execution. The generator is advanced only while the subscriber has outstanding demand,
+ * i.e. the next element is evaluated after the previous one has been requested, and the elements are pulled on
+ * the executor of the generator, never on the thread calling {@link Flow.Subscription#request(long)}.
+ * Cancelling the subscription cancels the element in flight and the generator, interrupting its executor.
+ *
+ * @param <E> the type of the elements
+ */
+public class GeneratorPublisher<E> implements Flow.Publisher<E> {
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(GeneratorPublisher.class);
+
+    private final Supplier<? extends AsyncGenerator.Cancellable<E>> source;
+
+    /**
+     * Creates the publisher.
+     *
+     * @param source the supplier of the generator of each subscription
+     */
+    public GeneratorPublisher(Supplier<? extends AsyncGenerator.Cancellable<E>> source) {
+        this.source = requireNonNull(source, "source cannot be null");
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super E> subscriber) {
+        requireNonNull(subscriber, "subscriber cannot be null");
+
+        final AsyncGenerator.Cancellable<E> generator;
+        try {
+            generator = requireNonNull(source.get(), "generator cannot be null");
+        } catch (Throwable ex) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {}
+
+                @Override
+                public void cancel() {}
+            });
+            subscriber.onError(ex);
+            return;
+        }
+        subscriber.onSubscribe(new GeneratorSubscription<>(generator, subscriber));
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ((ex instanceof CompletionException || ex instanceof ExecutionException) && ex.getCause() != null)
+                ? ex.getCause()
+                : ex;
+    }
+
+    /**
+     * Subscription pulling the generator in a serialized drain loop: a signal arriving while the loop runs
+     * (request, completion of the element in flight) is counted and makes the loop run again.
+     */
+    private static final class GeneratorSubscription<E> implements Flow.Subscription {
+
+        private final AsyncGenerator.Cancellable<E> generator;
+        private final Flow.Subscriber<? super E> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pendingSignals = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+        private volatile CompletableFuture<E> inFlight;
+        private volatile boolean done;
+
+        GeneratorSubscription(AsyncGenerator.Cancellable<E> generator, Flow.Subscriber<? super E> subscriber) {
+            this.generator = generator;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("request must be > 0!");
+            } else {
+                demand.getAndUpdate(current -> (current + n < 0) ? Long.MAX_VALUE : current + n);
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            final var future = inFlight;
+            if (future != null) {
+                future.cancel(true);
+            }
+            generator.cancel(true);
+        }
+
+        private void signal() {
+            if (pendingSignals.getAndIncrement() != 0) {
+                return;
+            }
+            try {
+                generator.executor().execute(this::drain);
+            } catch (RejectedExecutionException ex) {
+                // the generator has been cancelled by someone else
+                if (!cancelled && !done) {
+                    cancelled = true;
+                    subscriber.onError(new CancellationException("generator cancelled"));
+                }
+            }
+        }
+
+        private void terminate(Throwable error) {
+            done = true;
+            inFlight = null;
+            subscriber.onError(unwrap(error));
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                pull();
+                missed = pendingSignals.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void pull() {
+            while (!cancelled && !done) {
+                if (invalidRequest != null) {
+                    generator.cancel(true);
+                    terminate(invalidRequest);
+                    return;
+                }
+
+                final var future = inFlight;
+                if (future != null) {
+                    if (!future.isDone()) {
+                        return;
+                    }
+                    final E value;
+                    try {
+                        value = future.join();
+                    } catch (Throwable ex) {
+                        if (!cancelled) {
+                            terminate(ex);
+                        }
+                        return;
+                    }
+                    inFlight = null;
+                    demand.decrementAndGet();
+                    try {
+                        subscriber.onNext(value);
+                    } catch (Throwable ex) {
+                        log.warn("subscriber failed on next, subscription cancelled", ex);
+                        cancel();
+                        return;
+                    }
+                    continue;
+                }
+
+                if (demand.get() == 0) {
+                    return;
+                }
+
+                final AsyncGenerator.Data<E> data;
+                try {
+                    data = generator.next();
+                } catch (Throwable ex) {
+                    if (!cancelled) {
+                        terminate(ex);
+                    }
+                    return;
+                }
+                if (data.isDone()) {
+                    done = true;
+                    log.trace("generator completed");
+                    subscriber.onComplete();
+                    return;
+                }
+                inFlight = data.future();
+                if (!data.future().isDone()) {
+                    // resumes the loop on completion
+                    data.future().whenComplete((value, ex) -> signal());
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -116,6 +116,21 @@ public final class CollectionsUtils {
                 ));
     }
 
+    /**
+     * Returns a read-only view of the base map with the entries of the overlay map on top of it.
+     * Unlike {@link #mergeMap(Map, Map, BinaryOperator)} no map is copied: the keys are resolved on demand,
+     * first in the overlay and then in the base.
+     *
+     * @param base    the base map
+     * @param overlay the map whose entries take precedence
+     * @param <K>     the type of the keys in the maps
+     * @param <V>     the type of the values in the maps
+     * @return the read-only view
+     */
+    public static <K, V> Map<K, V> overlayMap(Map<K, V> base, Map<K, V> overlay) {
+        return new OverlayMap<>(base, overlay);
+    }
+
     /**
      * create an entry that accept null value
      *
@@ -0,0 +1,118 @@
+package org.bsc.langgraph4j.utils;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Read-only view of a base map with the entries of an overlay map on top of it.
+ * <p>
+ * Keys are resolved on demand, first in the overlay and then in the base, so neither map is copied.
+ * Changes of the underlying maps are visible through the view.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @see CollectionsUtils#overlayMap(Map, Map)
+ */
+final class OverlayMap<K, V> extends AbstractMap<K, V> {
+
+    private final Map<K, V> base;
+    private final Map<K, V> overlay;
+    private Set<Entry<K, V>> entrySet;
+
+    OverlayMap(Map<K, V> base, Map<K, V> overlay) {
+        this.base = requireNonNull(base, "base cannot be null");
+        this.overlay = requireNonNull(overlay, "overlay cannot be null");
+    }
+
+    @Override
+    public V get(Object key) {
+        final var value = overlay.get(key);
+        if (value != null || overlay.containsKey(key)) {
+            return value;
+        }
+        return base.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return overlay.containsKey(key) || base.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        int size = overlay.size();
+        for (var key : base.keySet()) {
+            if (!overlay.containsKey(key)) {
+                ++size;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return overlay.isEmpty() && base.isEmpty();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return OverlayMap.this.size();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    /**
+     * Iterates the overlay entries, then the base entries not hidden by the overlay.
+     */
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+        private final Iterator<Entry<K, V>> overlayEntries = overlay.entrySet().iterator();
+        private final Iterator<Entry<K, V>> baseEntries = base.entrySet().iterator();
+        private Entry<K, V> next;
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            if (overlayEntries.hasNext()) {
+                next = overlayEntries.next();
+                return true;
+            }
+            while (baseEntries.hasNext()) {
+                final var entry = baseEntries.next();
+                if (!overlay.containsKey(entry.getKey())) {
+                    next = entry;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final var result = CollectionsUtils.entryOf(next.getKey(), next.getValue());
+            next = null;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.bsc.langgraph4j.utils;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generator of time-ordered UUIDs, laid out as version 7 UUIDs (RFC 9562).
+ * <p>
+ * The 48 most significant bits hold the Unix time in milliseconds and the following 12 bits
+ * a counter, so the generated UUIDs are strictly increasing within the JVM, also when generated in the same
+ * millisecond. The remaining 62 bits are random.
+ * <p>
+ * Used as primary key, time-ordered UUIDs are appended at the end of a B-tree index instead of
+ * being scattered across its pages.
+ */
+public final class TimeOrderedUUID {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // last generated (timestamp << 12 | counter)
+    private static final AtomicLong lastTimeAndCounter = new AtomicLong();
+
+    private TimeOrderedUUID() {}
+
+    /**
+     * Generates a new time-ordered UUID.
+     *
+     * @return the new UUID, greater than every UUID previously generated in this JVM
+     */
+    public static UUID next() {
+        final long now = System.currentTimeMillis() << 12;
+        final long timeAndCounter = lastTimeAndCounter.updateAndGet(last -> Math.max(now, last + 1));
+
+        final long msb = ((timeAndCounter >>> 12) << 16)  // unix_ts_ms
+                | 0x7000L                                 // version
+                | (timeAndCounter & 0x0FFFL);             // rand_a (counter)
+        final long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L; // variant + rand_b
+
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * Generates a new time-ordered UUID as string.
+     *
+     * @return the new UUID string
+     * @see #next()
+     */
+    public static String nextString() {
+        return next().toString();
+    }
+
+    /**
+     * Returns the creation time of a time-ordered UUID.
+     *
+     * @param id the UUID string
+     * @return the creation time, empty if the given string is not a version 7 UUID
+     */
+    public static Optional<Instant> timestampOf(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        try {
+            var uuid = UUID.fromString(id);
+            if (uuid.version() != 7) {
+                return Optional.empty();
+            }
+            return Optional.of(Instant.ofEpochMilli(uuid.getMostSignificantBits() >>> 16));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
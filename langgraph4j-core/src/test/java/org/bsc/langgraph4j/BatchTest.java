@@ -0,0 +1,166 @@
+package org.bsc.langgraph4j;
+
+import org.bsc.langgraph4j.checkpoint.MemorySaver;
+import org.bsc.langgraph4j.state.AgentState;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.bsc.langgraph4j.StateGraph.END;
+import static org.bsc.langgraph4j.StateGraph.START;
+import static org.bsc.langgraph4j.action.AsyncNodeAction.node_async;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchTest {
+
+    private CompiledGraph<AgentState> graph(AtomicInteger inFlight, AtomicInteger maxInFlight, CompileConfig config) throws Exception {
+        return new StateGraph<>(AgentState::new)
+                .addNode("work", node_async(state -> {
+                    var current = inFlight.incrementAndGet();
+                    maxInFlight.accumulateAndGet(current, Math::max);
+                    try {
+                        int n = state.<Integer>value("n").orElseThrow();
+                        if (n % 10 == 7) {
+                            throw new IllegalStateException("failed " + n);
+                        }
+                        Thread.sleep(state.<Integer>value("sleep").orElse(1));
+                        return Map.of("result", n * 2);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                }))
+                .addEdge(START, "work")
+                .addEdge("work", END)
+                .compile(config);
+    }
+
+    private static List<GraphInput> inputs(int size) {
+        return IntStream.range(0, size)
+                .mapToObj(n -> GraphInput.args(Map.of("n", n)))
+                .toList();
+    }
+
+    @Test
+    public void resultsInInputOrderWithErrorsIsolated() throws Exception {
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+        var app = graph(inFlight, maxInFlight, CompileConfig.builder()
+                .checkpointSaver(new MemorySaver())
+                .build());
+
+        try (var results = app.batch(inputs(100), RunnableConfig.builder().threadId("batch").build(), 4)) {
+            var list = results.toList();
+
+            assertEquals(100, list.size());
+            for (int n = 0; n < 100; ++n) {
+                var result = list.get(n);
+                assertEquals(n, result.index());
+                assertEquals("batch-" + n, result.config().threadId().orElseThrow());
+                if (n % 10 == 7) {
+                    assertTrue(result.isError());
+                    var cause = result.error();
+                    while (cause.getCause() != null) {
+                        cause = cause.getCause();
+                    }
+                    assertEquals("failed " + n, cause.getMessage());
+                    assertTrue(result.state().isEmpty());
+                } else {
+                    assertFalse(result.isError());
+                    assertEquals(n * 2, result.state().orElseThrow().value("result").orElseThrow());
+                }
+            }
+        }
+        assertTrue(maxInFlight.get() <= 4, "max in flight " + maxInFlight.get());
+    }
+
+    @Test
+    public void resultsInCompletionOrderOnSharedExecutor() throws Exception {
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+        var app = graph(inFlight, maxInFlight, CompileConfig.builder().build());
+
+        // the first input is the slowest
+        var inputs = List.of(
+                GraphInput.args(Map.of("n", 0, "sleep", 300)),
+                GraphInput.args(Map.of("n", 1, "sleep", 1)),
+                GraphInput.args(Map.of("n", 2, "sleep", 1)));
+
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var indexes = app.batch(inputs, RunnableConfig.builder().build(), 3, executor, CompiledGraph.BatchOrder.COMPLETION)
+                    .map(BatchResult::index)
+                    .toList();
+
+            assertEquals(3, indexes.size());
+            assertEquals(0, indexes.get(2));
+            assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void repeatedBatchesShareTheGraphThreads() throws Exception {
+        var threads = ConcurrentHashMap.<String>newKeySet();
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+        var app = new StateGraph<>(AgentState::new)
+                .addNode("work", node_async(state -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    try {
+                        threads.add(Thread.currentThread().getName());
+                        Thread.sleep(1);
+                        return Map.of();
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                }))
+                .addEdge(START, "work")
+                .addEdge("work", END)
+                .compile(CompileConfig.builder().batchThreads(3).build());
+
+        for (int batch = 0; batch < 20; ++batch) {
+            try (var results = app.batch(inputs(5), RunnableConfig.builder().build(), 5)) {
+                assertTrue(results.noneMatch(BatchResult::isError));
+            }
+        }
+        // the shared executor bounds the executions of every batch, and its threads are reused
+        assertTrue(maxInFlight.get() <= 3, "max in flight " + maxInFlight.get());
+        assertTrue(threads.size() <= 3, "threads " + threads);
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("langgraph4j-batch-")), "threads " + threads);
+    }
+
+    @Test
+    public void batchOnDedicatedThreads() throws Exception {
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+        var app = graph(inFlight, maxInFlight, CompileConfig.builder().batchThreads(1).build());
+
+        try (var results = app.batchOnDedicatedThreads(inputs(20), RunnableConfig.builder().build(), 4, CompiledGraph.BatchOrder.INPUT)) {
+            var list = results.toList();
+
+            assertEquals(20, list.size());
+            for (int n = 0; n < 20; ++n) {
+                assertEquals(n, list.get(n).index());
+                assertEquals(n % 10 == 7, list.get(n).isError());
+            }
+        }
+        // the dedicated threads aren't bound by the shared executor
+        assertTrue(maxInFlight.get() <= 4, "max in flight " + maxInFlight.get());
+        assertThrows(IllegalArgumentException.class,
+                () -> app.batchOnDedicatedThreads(inputs(1), RunnableConfig.builder().build(), 0, CompiledGraph.BatchOrder.INPUT));
+    }
+
+    @Test
+    public void concurrencyMustBePositive() throws Exception {
+        var app = graph(new AtomicInteger(), new AtomicInteger(), CompileConfig.builder().build());
+
+        assertThrows(IllegalArgumentException.class, () -> app.batch(inputs(1), RunnableConfig.builder().build(), 0));
+        assertEquals(0, app.batch(List.of(), RunnableConfig.builder().build(), 2).count());
+    }
+}
@@ -0,0 +1,48 @@
+package org.bsc.langgraph4j;
+
+import org.bsc.langgraph4j.checkpoint.MemorySaver;
+import org.bsc.langgraph4j.instrumentation.GraphListener;
+import org.bsc.langgraph4j.retry.RetryPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompileConfigTest {
+
+    @Test
+    public void builderFromConfigKeepsEveryOption() {
+        var saver = new MemorySaver();
+        var listener = new GraphListener() {};
+        var retryPolicy = RetryPolicy.builder().maxAttempts(2).build();
+
+        var config = CompileConfig.builder()
+                .checkpointSaver(saver)
+                .interruptBefore("a")
+                .interruptAfter("b")
+                .releaseThread(true)
+                .interruptBeforeEdge(true)
+                .recursionLimit(3)
+                .inlineSubgraphs(true)
+                .listener(listener)
+                .retryPolicy(retryPolicy)
+                .batchThreads(2)
+                .build();
+
+        var copy = CompileConfig.builder(config).build();
+
+        assertNotSame(config, copy);
+        assertSame(saver, copy.checkpointSaver().orElseThrow());
+        assertEquals(Set.of("a"), copy.interruptsBefore());
+        assertEquals(Set.of("b"), copy.interruptsAfter());
+        assertTrue(copy.releaseThread());
+        assertTrue(copy.interruptBeforeEdge());
+        assertEquals(3, copy.recursionLimit());
+        assertTrue(copy.inlineSubgraphs());
+        assertEquals(List.of(listener), copy.listeners());
+        assertSame(retryPolicy, copy.retryPolicy().orElseThrow());
+        assertEquals(2, copy.batchThreads());
+    }
+}
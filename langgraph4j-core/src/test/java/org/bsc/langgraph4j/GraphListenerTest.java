@@ -0,0 +1,205 @@
+package org.bsc.langgraph4j;
+
+import org.bsc.langgraph4j.action.AsyncNodeActionWithConfig;
+import org.bsc.langgraph4j.checkpoint.Checkpoint;
+import org.bsc.langgraph4j.checkpoint.MemorySaver;
+import org.bsc.langgraph4j.instrumentation.GraphListener;
+import org.bsc.langgraph4j.prebuilt.MessagesState;
+import org.bsc.langgraph4j.prebuilt.MessagesStateGraph;
+import org.bsc.langgraph4j.utils.EdgeMappings;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.bsc.langgraph4j.StateGraph.END;
+import static org.bsc.langgraph4j.StateGraph.START;
+import static org.bsc.langgraph4j.action.AsyncEdgeAction.edge_async;
+import static org.bsc.langgraph4j.action.AsyncNodeActionWithConfig.node_async;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphListenerTest {
+
+    static class RecordingListener implements GraphListener {
+        final List<String> events = new ArrayList<>();
+        int stateClones;
+
+        @Override
+        public void onNodeStart(String nodeId, RunnableConfig config) {
+            events.add("start:" + nodeId);
+        }
+
+        @Override
+        public void onNodeEnd(String nodeId, RunnableConfig config, long durationNanos, Throwable error) {
+            assertTrue(durationNanos >= 0);
+            events.add((error == null ? "end:" : "fail:") + nodeId);
+        }
+
+        @Override
+        public void onEdge(String sourceId, String targetId, RunnableConfig config, long durationNanos) {
+            events.add("edge:" + sourceId + "->" + targetId);
+        }
+
+        @Override
+        public void onStateClone(long durationNanos) {
+            ++stateClones;
+        }
+
+        @Override
+        public void onCheckpointPut(RunnableConfig config, Checkpoint checkpoint, long durationNanos) {
+            events.add("put:" + checkpoint.getNodeId());
+        }
+
+        @Override
+        public void onCheckpointGet(RunnableConfig config, Optional<Checkpoint> checkpoint, long durationNanos) {
+            events.add("get:" + checkpoint.map(Checkpoint::getNodeId).orElse("none"));
+        }
+
+        @Override
+        public void onInterrupt(String nodeId, RunnableConfig config) {
+            events.add("interrupt:" + nodeId);
+        }
+
+        @Override
+        public void onError(String nodeId, RunnableConfig config, Throwable error) {
+            events.add("error:" + nodeId);
+        }
+    }
+
+    private AsyncNodeActionWithConfig<MessagesState<String>> _nodeAction(String id) {
+        return node_async((state, config) ->
+                Map.of("messages", id)
+        );
+    }
+
+    @Test
+    public void listenerIsNotifiedAroundNodesEdgesAndCheckpoints() throws Exception {
+        var listener = new RecordingListener();
+
+        var workflow = new MessagesStateGraph<String>()
+                .addNode("A", _nodeAction("A"))
+                .addNode("B", _nodeAction("B"))
+                .addNode("C", _nodeAction("C"))
+                .addConditionalEdges("B",
+                        edge_async(state -> "C"),
+                        EdgeMappings.builder()
+                                .to("C")
+                                .toEND()
+                                .build())
+                .addEdge(START, "A")
+                .addEdge("A", "B")
+                .addEdge("C", END)
+                .compile(CompileConfig.builder()
+                        .checkpointSaver(new MemorySaver())
+                        .interruptAfter("B")
+                        .listener(listener)
+                        .build());
+
+        var runnableConfig = RunnableConfig.builder().build();
+
+        workflow.stream(Map.of(), runnableConfig).stream().toList();
+
+        assertIterableEquals(List.of(
+                "get:none",
+                "edge:__START__->A",
+                "put:__START__",
+                "start:A",
+                "end:A",
+                "edge:A->B",
+                "put:A",
+                "start:B",
+                "end:B",
+                "edge:B->C",
+                "put:B",
+                "interrupt:B"
+        ), listener.events);
+
+        listener.events.clear();
+
+        workflow.stream(GraphInput.resume(), runnableConfig).stream().toList();
+
+        assertIterableEquals(List.of(
+                "get:B",
+                "start:C",
+                "end:C",
+                "edge:C->__END__",
+                "put:C"
+        ), listener.events);
+
+        assertTrue(listener.stateClones > 0);
+    }
+
+    @Test
+    public void listenerIsNotifiedOnNodeError() throws Exception {
+        var first = new RecordingListener();
+        var second = new RecordingListener();
+
+        var workflow = new MessagesStateGraph<String>()
+                .addNode("A", node_async((state, config) -> {
+                    throw new IllegalStateException("node failure");
+                }))
+                .addEdge(START, "A")
+                .addEdge("A", END)
+                .compile(CompileConfig.builder()
+                        .listener(first)
+                        .listener(second)
+                        .build());
+
+        assertThrows(Exception.class, () -> workflow.stream(Map.of(), RunnableConfig.builder().build()).stream().toList());
+
+        assertIterableEquals(List.of(
+                "edge:__START__->A",
+                "start:A",
+                "fail:A",
+                "error:A"
+        ), first.events);
+        assertIterableEquals(first.events, second.events);
+    }
+
+    @Test
+    public void nodeExecutionsAreIdentified() throws Exception {
+        final class ExecutionListener implements GraphListener {
+            final List<String> events = new ArrayList<>();
+
+            @Override
+            public void onNodeStart(String nodeId, long executionId, RunnableConfig config) {
+                events.add("start:" + nodeId + "#" + executionId);
+            }
+
+            @Override
+            public void onNodeEnd(String nodeId, long executionId, RunnableConfig config, long durationNanos, Throwable error) {
+                events.add("end:" + nodeId + "#" + executionId);
+            }
+        }
+        var first = new ExecutionListener();
+        var second = new ExecutionListener();
+
+        var workflow = new MessagesStateGraph<String>()
+                .addNode("A", node_async((state, config) -> Map.of("messages", "A")))
+                .addEdge(START, "A")
+                .addEdge("A", END)
+                .compile(CompileConfig.builder()
+                        .listener(first)
+                        .listener(second)
+                        .build());
+
+        var config = RunnableConfig.builder().build();
+        workflow.invoke(Map.of(), config);
+        workflow.invoke(Map.of(), config);
+
+        assertEquals(4, first.events.size());
+        var firstRun = first.events.get(0).substring("start:A#".length());
+        var secondRun = first.events.get(2).substring("start:A#".length());
+        assertNotEquals(firstRun, secondRun);
+        assertIterableEquals(List.of(
+                "start:A#" + firstRun,
+                "end:A#" + firstRun,
+                "start:A#" + secondRun,
+                "end:A#" + secondRun
+        ), first.events);
+        assertIterableEquals(first.events, second.events);
+    }
+
+}
@@ -0,0 +1,126 @@
+package org.bsc.langgraph4j;
+
+import org.bsc.langgraph4j.action.AsyncNodeAction;
+import org.bsc.langgraph4j.checkpoint.MemorySaver;
+import org.bsc.langgraph4j.prebuilt.MessagesState;
+import org.bsc.langgraph4j.prebuilt.MessagesStateGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.bsc.langgraph4j.StateGraph.END;
+import static org.bsc.langgraph4j.StateGraph.START;
+import static org.bsc.langgraph4j.action.AsyncNodeAction.node_async;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InlinedSubGraphTest {
+
+    private AsyncNodeAction<MessagesState<String>> _makeNode(String id) {
+        return node_async(state -> Map.of("messages", id));
+    }
+
+    private final CompileConfig inline = CompileConfig.builder().inlineSubgraphs(true).build();
+
+    /**
+     * START -> A{level} -> sub{level}( ... ) -> C{level} -> END, the innermost level being START -> leaf -> END
+     */
+    private StateGraph<MessagesState<String>> nested(int depth, CompileConfig compileConfig) throws Exception {
+        var workflow = new MessagesStateGraph<String>()
+                .addNode("leaf", _makeNode("leaf"))
+                .addEdge(START, "leaf")
+                .addEdge("leaf", END);
+
+        for (int level = 1; level <= depth; ++level) {
+            var child = workflow.compile(compileConfig);
+            workflow = new MessagesStateGraph<String>()
+                    .addNode("A" + level, _makeNode("A" + level))
+                    .addNode("sub" + level, child)
+                    .addNode("C" + level, _makeNode("C" + level))
+                    .addEdge(START, "A" + level)
+                    .addEdge("A" + level, "sub" + level)
+                    .addEdge("sub" + level, "C" + level)
+                    .addEdge("C" + level, END);
+        }
+        return workflow;
+    }
+
+    @Test
+    public void inlineNestedCompiledSubgraphs() throws Exception {
+        var embedded = nested(3, CompileConfig.builder().build()).compile();
+        var inlined = nested(3, CompileConfig.builder().build()).compile(inline);
+
+        var expected = List.of("A3", "A2", "A1", "leaf", "C1", "C2", "C3");
+
+        assertEquals(expected, embedded.invoke(Map.of()).orElseThrow().messages());
+        assertEquals(expected, inlined.invoke(Map.of()).orElseThrow().messages());
+
+        var nodes = inlined.stream(GraphInput.args(Map.of()), RunnableConfig.builder().build())
+                .stream()
+                .map(NodeOutput::node)
+                .toList();
+
+        assertEquals(List.of(START,
+                "A3",
+                "sub3-A2",
+                "sub3-sub2-A1",
+                "sub3-sub2-sub1-leaf",
+                "sub3-sub2-C1",
+                "sub3-C2",
+                "C3",
+                END), nodes);
+    }
+
+    @Test
+    public void inlineNestedStateSubgraphs() throws Exception {
+        var inner = new MessagesStateGraph<String>()
+                .addNode("B1", _makeNode("B1"))
+                .addEdge(START, "B1")
+                .addEdge("B1", END);
+        var middle = new MessagesStateGraph<String>()
+                .addNode("B", inner)
+                .addNode("C", _makeNode("C"))
+                .addEdge(START, "B")
+                .addEdge("B", "C")
+                .addEdge("C", END);
+        var workflow = new MessagesStateGraph<String>()
+                .addNode("A", _makeNode("A"))
+                .addNode("M", middle)
+                .addEdge(START, "A")
+                .addEdge("A", "M")
+                .addEdge("M", END);
+
+        assertEquals(List.of("A", "B1", "C"), workflow.compile().invoke(Map.of()).orElseThrow().messages());
+    }
+
+    @Test
+    public void interruptInlinedSubgraph() throws Exception {
+        var child = new MessagesStateGraph<String>()
+                .addNode("B1", _makeNode("B1"))
+                .addNode("B2", _makeNode("B2"))
+                .addEdge(START, "B1")
+                .addEdge("B1", "B2")
+                .addEdge("B2", END)
+                .compile(CompileConfig.builder().interruptBefore("B2").build());
+
+        var app = new MessagesStateGraph<String>()
+                .addNode("A", _makeNode("A"))
+                .addNode("B", child)
+                .addNode("C", _makeNode("C"))
+                .addEdge(START, "A")
+                .addEdge("A", "B")
+                .addEdge("B", "C")
+                .addEdge("C", END)
+                .compile(CompileConfig.builder()
+                        .checkpointSaver(new MemorySaver())
+                        .inlineSubgraphs(true)
+                        .build());
+
+        var config = RunnableConfig.builder().threadId("T1").build();
+
+        assertEquals(List.of("A", "B1"), app.invoke(Map.of(), config).orElseThrow().messages());
+        assertEquals(SubGraphNode.formatId("B", "B2"), app.getState(config).next());
+
+        assertEquals(List.of("A", "B1", "B2", "C"), app.invoke(GraphInput.resume(), config).orElseThrow().messages());
+    }
+}
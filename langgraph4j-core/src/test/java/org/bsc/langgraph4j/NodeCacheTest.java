@@ -0,0 +1,275 @@
+package org.bsc.langgraph4j;
+
+import org.bsc.langgraph4j.cache.CachePolicy;
+import org.bsc.langgraph4j.cache.CachedNodeAction;
+import org.bsc.langgraph4j.cache.InMemoryNodeCache;
+import org.bsc.langgraph4j.cache.NodeCache;
+import org.bsc.langgraph4j.instrumentation.GraphListener;
+import org.bsc.langgraph4j.retry.RetryPolicy;
+import org.bsc.langgraph4j.serializer.std.ObjectStreamStateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.bsc.langgraph4j.StateGraph.END;
+import static org.bsc.langgraph4j.StateGraph.START;
+import static org.bsc.langgraph4j.action.AsyncNodeAction.node_async;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NodeCacheTest {
+
+    static class MutableClock extends Clock {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private CompiledGraph<AgentState> graph(AtomicInteger calls, CachePolicy policy) throws Exception {
+        return new StateGraph<>(AgentState::new)
+                .addNode("retrieve", node_async(state -> {
+                    calls.incrementAndGet();
+                    return Map.of("result", "docs for " + state.value("query").orElse(""));
+                }), policy)
+                .addEdge(START, "retrieve")
+                .addEdge("retrieve", END)
+                .compile();
+    }
+
+    @Test
+    public void hitSkipsNodeAction() throws Exception {
+        var calls = new AtomicInteger();
+        var app = graph(calls, CachePolicy.builder().keyChannels("query").build());
+
+        var result = app.invoke(Map.of("query", "java", "other", 1)).orElseThrow();
+        assertEquals("docs for java", result.value("result").orElseThrow());
+        assertEquals(1, calls.get());
+
+        // only the key channels are part of the key
+        result = app.invoke(Map.of("query", "java", "other", 2)).orElseThrow();
+        assertEquals("docs for java", result.value("result").orElseThrow());
+        assertEquals(1, calls.get());
+
+        result = app.invoke(Map.of("query", "python")).orElseThrow();
+        assertEquals("docs for python", result.value("result").orElseThrow());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void keyChannelsAreRequired() {
+        assertThrows(IllegalArgumentException.class, () -> CachePolicy.builder().build());
+        assertThrows(IllegalArgumentException.class, () -> CachePolicy.builder().keyChannels().build());
+    }
+
+    @Test
+    public void keyIsAFingerprintOfTheValues() throws Exception {
+        var policy = CachePolicy.builder().keyChannels("messages").build();
+        var serializer = new ObjectStreamStateSerializer<>(AgentState::new);
+        var messages = new ArrayList<>(List.of("hello"));
+
+        var key = policy.keyOf("agent", Map.of("messages", messages, "other", 1), serializer);
+        policy.cache().put(key, Map.of("result", "hi"), null);
+        assertEquals(key, policy.keyOf("agent", Map.of("messages", new ArrayList<>(List.of("hello")), "other", 2), serializer));
+
+        // the values changed after the evaluation don't affect the cached entries
+        messages.add("how are you?");
+        assertTrue(policy.cache().get(key).isPresent());
+        assertNotEquals(key, policy.keyOf("agent", Map.of("messages", messages), serializer));
+        assertEquals(key, policy.keyOf("agent", Map.of("messages", new ArrayList<>(List.of("hello"))), serializer));
+    }
+
+    @Test
+    public void unserializableKeysAreNotCached() throws Exception {
+        var calls = new AtomicInteger();
+        var policy = CachePolicy.builder().keyChannels("query").build();
+        var action = new CachedNodeAction<AgentState>("retrieve", (state, config) -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(Map.of("result", "docs"));
+        }, policy);
+
+        var state = new AgentState(Map.of("query", new Object()));
+        assertTrue(action.lookup(state.data()).isEmpty());
+        assertEquals("docs", action.apply(state, RunnableConfig.builder().build()).join().get("result"));
+        assertEquals("docs", action.apply(state, RunnableConfig.builder().build()).join().get("result"));
+        assertEquals(2, calls.get());
+        assertEquals(0, ((InMemoryNodeCache) policy.cache()).size());
+    }
+
+    @Test
+    public void entriesExpire() throws Exception {
+        var clock = new MutableClock();
+        var calls = new AtomicInteger();
+        var app = graph(calls, CachePolicy.builder()
+                .keyChannels("query")
+                .ttl(Duration.ofMinutes(1))
+                .clock(clock)
+                .build());
+
+        app.invoke(Map.of("query", "java"));
+        clock.now = clock.now.plusSeconds(30);
+        app.invoke(Map.of("query", "java"));
+        assertEquals(1, calls.get());
+
+        clock.now = clock.now.plusSeconds(31);
+        app.invoke(Map.of("query", "java"));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesAreEvicted() {
+        var cache = new InMemoryNodeCache(2);
+        var a = new NodeCache.Key("node", "a");
+        var b = new NodeCache.Key("node", "b");
+        var c = new NodeCache.Key("node", "c");
+
+        cache.put(a, Map.of("result", 1), null);
+        cache.put(b, Map.of("result", 2), null);
+        assertTrue(cache.get(a).isPresent()); // a becomes the most recently used
+        cache.put(c, Map.of("result", 3), null);
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.get(a).isPresent());
+        assertTrue(cache.get(b).isEmpty());
+        assertTrue(cache.get(c).isPresent());
+    }
+
+    @Test
+    public void sharedBackendIsKeyedByNode() throws Exception {
+        var cache = new InMemoryNodeCache(10);
+        var policy = CachePolicy.builder().keyChannels("query").cache(cache).build();
+        var calls = new AtomicInteger();
+
+        var app = new StateGraph<>(AgentState::new)
+                .addNode("first", node_async(state -> {
+                    calls.incrementAndGet();
+                    return Map.of("first", true);
+                }), policy)
+                .addNode("second", node_async(state -> {
+                    calls.incrementAndGet();
+                    return Map.of("second", true);
+                }), policy)
+                .addEdge(START, "first")
+                .addEdge("first", "second")
+                .addEdge("second", END)
+                .compile();
+
+        var result = app.invoke(Map.of("query", "java")).orElseThrow();
+        assertEquals(Map.of("query", "java", "first", true, "second", true), result.data());
+        assertEquals(2, calls.get());
+        assertEquals(2, cache.size());
+
+        app.invoke(Map.of("query", "java"));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void mergedSubgraphCopiesDontShareEntries() throws Exception {
+        var cache = new InMemoryNodeCache(10);
+        var calls = new AtomicInteger();
+        var child = new StateGraph<>(AgentState::new)
+                .addNode("retrieve", node_async(state -> {
+                    calls.incrementAndGet();
+                    return Map.of("result", "docs");
+                }), CachePolicy.builder().keyChannels("query").cache(cache).build())
+                .addEdge(START, "retrieve")
+                .addEdge("retrieve", END);
+
+        var app = new StateGraph<>(AgentState::new)
+                .addNode("first", child)
+                .addNode("second", child)
+                .addEdge(START, "first")
+                .addEdge("first", "second")
+                .addEdge("second", END)
+                .compile();
+
+        app.invoke(Map.of("query", "java"));
+        assertEquals(2, calls.get());
+        assertEquals(2, cache.size());
+
+        app.invoke(Map.of("query", "java"));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void cacheHitIsNotifiedToListeners() throws Exception {
+        var events = Collections.synchronizedList(new ArrayList<String>());
+        var listener = new GraphListener() {
+            @Override
+            public void onNodeStart(String nodeId, RunnableConfig config) {
+                events.add("start " + nodeId);
+            }
+
+            @Override
+            public void onNodeCacheHit(String nodeId, RunnableConfig config) {
+                events.add("hit " + nodeId);
+            }
+
+            @Override
+            public void onNodeEnd(String nodeId, RunnableConfig config, long durationNanos, Throwable error) {
+                events.add("end " + nodeId);
+            }
+        };
+        var calls = new AtomicInteger();
+        var app = new StateGraph<>(AgentState::new)
+                .addNode("retrieve", node_async(state -> {
+                    calls.incrementAndGet();
+                    return Map.of("result", "docs");
+                }), CachePolicy.builder().keyChannels("query").build())
+                .addEdge(START, "retrieve")
+                .addEdge("retrieve", END)
+                .compile(CompileConfig.builder().listener(listener).build());
+
+        app.invoke(Map.of("query", "java"));
+        assertEquals(List.of("start retrieve", "end retrieve"), events);
+
+        events.clear();
+        app.invoke(Map.of("query", "java"));
+        assertEquals(List.of("start retrieve", "hit retrieve", "end retrieve"), events);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void missesAreRetried() throws Exception {
+        var calls = new AtomicInteger();
+        var app = new StateGraph<>(AgentState::new)
+                .addNode("retrieve", node_async(state -> {
+                    if (calls.incrementAndGet() == 1) {
+                        throw new IllegalStateException("transient failure");
+                    }
+                    return Map.of("result", "docs");
+                }),
+                        CachePolicy.builder().keyChannels("query").build(),
+                        RetryPolicy.builder().maxAttempts(3).initialInterval(Duration.ofMillis(1)).build())
+                .addEdge(START, "retrieve")
+                .addEdge("retrieve", END)
+                .compile();
+
+        assertEquals("docs", app.invoke(Map.of("query", "java")).orElseThrow().value("result").orElseThrow());
+        assertEquals(2, calls.get());
+
+        assertEquals("docs", app.invoke(Map.of("query", "java")).orElseThrow().value("result").orElseThrow());
+        assertEquals(2, calls.get());
+    }
+}
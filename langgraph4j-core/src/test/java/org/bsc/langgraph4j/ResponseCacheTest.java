@@ -0,0 +1,82 @@
+package org.bsc.langgraph4j;
+
+import org.bsc.langgraph4j.cache.FileResponseCache;
+import org.bsc.langgraph4j.cache.InMemoryResponseCache;
+import org.bsc.langgraph4j.cache.ResponseCache;
+import org.bsc.langgraph4j.serializer.Serializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseCacheTest {
+
+    static class TextSerializer implements Serializer<String> {
+        @Override
+        public void write(String object, ObjectOutput out) throws IOException {
+            Serializer.writeUTF(object, out);
+        }
+
+        @Override
+        public String read(ObjectInput in) throws IOException {
+            return Serializer.readUTF(in);
+        }
+    }
+
+    @Test
+    public void keyIsCanonical() {
+        var key = ResponseCache.keyOf("user: hello");
+
+        assertEquals(64, key.length());
+        assertEquals(key, ResponseCache.keyOf("user: hello"));
+        assertNotEquals(key, ResponseCache.keyOf("user: hello!"));
+    }
+
+    @Test
+    public void inMemoryEvictsLeastRecentlyUsed() {
+        var cache = new InMemoryResponseCache<String>(2);
+
+        cache.put("k1", "v1");
+        cache.put("k2", "v2");
+        assertEquals(Optional.of("v1"), cache.get("k1"));
+
+        cache.put("k3", "v3");
+        assertEquals(2, cache.size());
+        assertEquals(Optional.of("v1"), cache.get("k1"));
+        assertTrue(cache.get("k2").isEmpty());
+        assertEquals(Optional.of("v3"), cache.get("k3"));
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void fileSurvivesRestart(@TempDir Path folder) throws Exception {
+        var key = ResponseCache.keyOf("user: hello");
+
+        var cache = new FileResponseCache<>(folder, new TextSerializer(), String.class);
+        assertTrue(cache.get(key).isEmpty());
+        cache.put(key, "recorded");
+        cache.put(key, "ignored");
+
+        var restarted = new FileResponseCache<>(folder, new TextSerializer(), String.class);
+        assertEquals(Optional.of("recorded"), restarted.get(key));
+
+        // a corrupted entry is a miss
+        Files.write(folder.resolve(key + ".response"), new byte[] { 1, 2, 3 });
+        assertTrue(restarted.get(key).isEmpty());
+
+        // only the responses are removed
+        var other = Files.writeString(folder.resolve("README"), "recorded responses");
+        restarted.clear();
+        assertTrue(restarted.get(key).isEmpty());
+        assertTrue(Files.exists(other));
+    }
+}
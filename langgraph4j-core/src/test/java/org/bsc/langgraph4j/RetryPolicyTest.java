@@ -0,0 +1,256 @@
+package org.bsc.langgraph4j;
+
+import org.bsc.langgraph4j.action.AsyncNodeActionWithConfig;
+import org.bsc.langgraph4j.checkpoint.MemorySaver;
+import org.bsc.langgraph4j.retry.RetryPolicy;
+import org.bsc.langgraph4j.state.AgentState;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.bsc.langgraph4j.StateGraph.END;
+import static org.bsc.langgraph4j.StateGraph.START;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RetryPolicyTest {
+
+    private final RetryPolicy fastRetry = RetryPolicy.builder()
+            .maxAttempts(3)
+            .initialInterval(Duration.ofMillis(1))
+            .build();
+
+    /**
+     * Action failing with the given error the first {@code failures} times
+     */
+    private AsyncNodeActionWithConfig<AgentState> flaky(AtomicInteger calls, int failures, Exception error, Set<AgentState> states) {
+        return (state, config) -> {
+            states.add(state);
+            if (calls.incrementAndGet() <= failures) {
+                return CompletableFuture.failedFuture(error);
+            }
+            return CompletableFuture.completedFuture(Map.of("result", "ok"));
+        };
+    }
+
+    private static Throwable rootCause(Throwable e) {
+        while (e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    @Test
+    public void transientFailuresAreRetried() throws Exception {
+        var calls = new AtomicInteger();
+        var states = Collections.newSetFromMap(new IdentityHashMap<AgentState, Boolean>());
+        var saver = new MemorySaver();
+
+        var app = new StateGraph<>(AgentState::new)
+                .addNode("flaky", flaky(calls, 2, new IOException("connection reset"), states), fastRetry)
+                .addEdge(START, "flaky")
+                .addEdge("flaky", END)
+                .compile(CompileConfig.builder().checkpointSaver(saver).build());
+
+        var config = RunnableConfig.builder().threadId("retry").build();
+        var result = app.invoke(Map.of("input", "test"), config).orElseThrow();
+
+        assertEquals("ok", result.value("result").orElseThrow());
+        assertEquals(3, calls.get());
+        // each attempt received its own clone of the state
+        assertEquals(3, states.size());
+        // START and the node, no checkpoint for the failed attempts
+        assertEquals(2, saver.list(config).size());
+    }
+
+    @Test
+    public void failedAttemptsDontAlterTheState() throws Exception {
+        var sizes = new ArrayList<Integer>();
+
+        AsyncNodeActionWithConfig<AgentState> action = (state, config) -> {
+            List<String> items = state.<List<String>>value("items").orElseThrow();
+            sizes.add(items.size());
+            items.add("partial");
+            if (sizes.size() < 3) {
+                return CompletableFuture.failedFuture(new IOException("connection reset"));
+            }
+            return CompletableFuture.completedFuture(Map.of("result", "ok"));
+        };
+
+        var app = new StateGraph<>(AgentState::new)
+                .addNode("mutating", action, fastRetry)
+                .addEdge(START, "mutating")
+                .addEdge("mutating", END)
+                .compile();
+
+        app.invoke(Map.of("items", new ArrayList<>(List.of("input")))).orElseThrow();
+
+        assertEquals(List.of(1, 1, 1), sizes);
+    }
+
+    @Test
+    public void failingBranchIsRetriedAlone() throws Exception {
+        var branchA = new AtomicInteger();
+        var branchB = new AtomicInteger();
+
+        var app = new StateGraph<>(AgentState::new)
+                .addNode("a", flaky(branchA, 1, new IOException("unavailable"), Collections.newSetFromMap(new IdentityHashMap<>())))
+                .addNode("b", flaky(branchB, 0, new IOException("unavailable"), Collections.newSetFromMap(new IdentityHashMap<>())))
+                .addNode("join", (state, config) -> CompletableFuture.completedFuture(Map.of()))
+                .addEdge(START, "a")
+                .addEdge(START, "b")
+                .addEdge("a", "join")
+                .addEdge("b", "join")
+                .addEdge("join", END)
+                .compile(CompileConfig.builder().retryPolicy(fastRetry).build());
+
+        assertEquals("ok", app.invoke(Map.of()).orElseThrow().value("result").orElseThrow());
+        assertEquals(2, branchA.get());
+        assertEquals(1, branchB.get());
+    }
+
+    @Test
+    public void nonRetryableFailureIsNotRetried() throws Exception {
+        var calls = new AtomicInteger();
+
+        var app = new StateGraph<>(AgentState::new)
+                .addNode("flaky", flaky(calls, 2, new IllegalArgumentException("bad input"), Collections.newSetFromMap(new IdentityHashMap<>())), fastRetry)
+                .addEdge(START, "flaky")
+                .addEdge("flaky", END)
+                .compile();
+
+        var exception = assertThrows(Exception.class, () -> app.invoke(Map.of("input", "test")));
+        assertInstanceOf(IllegalArgumentException.class, rootCause(exception));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void failsOnceAttemptsAreExhausted() throws Exception {
+        var calls = new AtomicInteger();
+
+        var app = new StateGraph<>(AgentState::new)
+                .addNode("flaky", flaky(calls, 5, new IOException("unavailable"), Collections.newSetFromMap(new IdentityHashMap<>())))
+                .addEdge(START, "flaky")
+                .addEdge("flaky", END)
+                .compile(CompileConfig.builder().retryPolicy(fastRetry).build());
+
+        var exception = assertThrows(Exception.class, () -> app.invoke(Map.of("input", "test")));
+        assertInstanceOf(IOException.class, rootCause(exception));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void retryOnSelectsTheFailures() throws Exception {
+        var calls = new AtomicInteger();
+        var policy = RetryPolicy.builder()
+                .initialInterval(Duration.ZERO)
+                .retryOn(IllegalStateException.class)
+                .build();
+
+        var app = new StateGraph<>(AgentState::new)
+                .addNode("flaky", flaky(calls, 1, new IllegalStateException("busy"), Collections.newSetFromMap(new IdentityHashMap<>())), policy)
+                .addEdge(START, "flaky")
+                .addEdge("flaky", END)
+                .compile();
+
+        assertEquals("ok", app.invoke(Map.of()).orElseThrow().value("result").orElseThrow());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void slowAttemptIsHedged() throws Exception {
+        var calls = new AtomicInteger();
+        var policy = RetryPolicy.builder()
+                .hedgeAfter(Duration.ofMillis(50))
+                .build();
+
+        AsyncNodeActionWithConfig<AgentState> action = (state, config) -> {
+            if (calls.incrementAndGet() == 1) {
+                // the first attempt hangs
+                return CompletableFuture.supplyAsync(() -> Map.of("result", "slow"),
+                        CompletableFuture.delayedExecutor(5, TimeUnit.SECONDS));
+            }
+            return CompletableFuture.completedFuture(Map.of("result", "fast"));
+        };
+
+        var app = new StateGraph<>(AgentState::new)
+                .addNode("hedged", action, policy)
+                .addEdge(START, "hedged")
+                .addEdge("hedged", END)
+                .compile();
+
+        long start = System.nanoTime();
+        var result = app.invoke(Map.of()).orElseThrow();
+
+        assertEquals("fast", result.value("result").orElseThrow());
+        assertEquals(2, calls.get());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+    }
+
+    @Test
+    public void losingAttemptIsInterrupted() throws Exception {
+        var calls = new AtomicInteger();
+        var interrupted = new CountDownLatch(1);
+        var states = Collections.newSetFromMap(new IdentityHashMap<AgentState, Boolean>());
+        var policy = RetryPolicy.builder()
+                .hedgeAfter(Duration.ofMillis(50))
+                .build();
+
+        // blocking action, as a synchronous remote call
+        AsyncNodeActionWithConfig<AgentState> action = (state, config) -> {
+            states.add(state);
+            if (calls.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    return CompletableFuture.failedFuture(e);
+                }
+                return CompletableFuture.completedFuture(Map.of("result", "slow"));
+            }
+            return CompletableFuture.completedFuture(Map.of("result", "fast"));
+        };
+
+        var app = new StateGraph<>(AgentState::new)
+                .addNode("hedged", action, policy)
+                .addEdge(START, "hedged")
+                .addEdge("hedged", END)
+                .compile();
+
+        assertEquals("fast", app.invoke(Map.of()).orElseThrow().value("result").orElseThrow());
+        assertTrue(interrupted.await(2, TimeUnit.SECONDS));
+        assertEquals(2, states.size());
+    }
+
+    @Test
+    public void backoffGrowsExponentiallyWithJitter() {
+        var policy = RetryPolicy.builder()
+                .initialInterval(Duration.ofMillis(100))
+                .backoffFactor(2)
+                .maxInterval(Duration.ofMillis(1000))
+                .jitter(0.5)
+                .build();
+
+        for (int i = 0; i < 100; ++i) {
+            var first = policy.backoff(1).toMillis();
+            assertTrue(first >= 50 && first <= 100, "first " + first);
+            var third = policy.backoff(3).toMillis();
+            assertTrue(third >= 200 && third <= 400, "third " + third);
+            var capped = policy.backoff(10).toMillis();
+            assertTrue(capped >= 500 && capped <= 1000, "capped " + capped);
+        }
+
+        var noJitter = RetryPolicy.builder().initialInterval(Duration.ofMillis(100)).jitter(0).build();
+        assertEquals(Duration.ofMillis(400), noJitter.backoff(3));
+    }
+}
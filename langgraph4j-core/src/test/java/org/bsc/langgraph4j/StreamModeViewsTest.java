@@ -0,0 +1,121 @@
+package org.bsc.langgraph4j;
+
+import org.bsc.langgraph4j.instrumentation.GraphListener;
+import org.bsc.langgraph4j.prebuilt.MessagesState;
+import org.bsc.langgraph4j.prebuilt.MessagesStateGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.bsc.langgraph4j.StateGraph.END;
+import static org.bsc.langgraph4j.StateGraph.START;
+import static org.bsc.langgraph4j.action.AsyncNodeAction.node_async;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamModeViewsTest {
+
+    private CompiledGraph<MessagesState<String>> compile(AtomicInteger stateClones) throws GraphStateException {
+        return new MessagesStateGraph<String>()
+                .addNode("A", node_async(state -> Map.of("messages", "A", "counter", 1)))
+                .addNode("B", node_async(state -> Map.of("messages", "B", "counter", 2)))
+                .addEdge(START, "A")
+                .addEdge("A", "B")
+                .addEdge("B", END)
+                .compile(CompileConfig.builder()
+                        .listener(new GraphListener() {
+                            @Override
+                            public void onStateClone(long durationNanos) {
+                                stateClones.incrementAndGet();
+                            }
+                        })
+                        .build());
+    }
+
+    @Test
+    public void streamViewsWithoutCloningOutputs() throws Exception {
+        var valuesClones = new AtomicInteger();
+        var values = compile(valuesClones)
+                .stream(Map.of(), RunnableConfig.builder().build())
+                .stream()
+                .map(output -> output.node() + ":" + output.state().messages())
+                .toList();
+
+        var viewsClones = new AtomicInteger();
+        var views = compile(viewsClones)
+                .stream(Map.of(), RunnableConfig.builder()
+                        .streamMode(CompiledGraph.StreamMode.VIEWS)
+                        .build())
+                .stream()
+                .map(output -> output.node() + ":" + output.state().messages())
+                .toList();
+
+        assertIterableEquals(List.of(
+                "__START__:[]",
+                "A:[A]",
+                "B:[A, B]",
+                "__END__:[A, B]"
+        ), values);
+        assertIterableEquals(values, views);
+
+        // only the node inputs are cloned
+        assertEquals(2, viewsClones.get());
+        assertEquals(6, valuesClones.get());
+    }
+
+    @Test
+    public void streamSelectedChannels() throws Exception {
+        var outputs = compile(new AtomicInteger())
+                .stream(Map.of(), RunnableConfig.builder()
+                        .streamMode(CompiledGraph.StreamMode.VIEWS)
+                        .streamChannels("messages")
+                        .build())
+                .stream()
+                .toList();
+
+        var last = outputs.get(outputs.size() - 1);
+
+        assertTrue(last.isEND());
+        assertEquals(Set.of("messages"), last.state().data().keySet());
+        assertThrows(UnsupportedOperationException.class, () -> last.state().messages().add("C"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void collectionValuesAreReadOnly() throws Exception {
+        var workflow = new MessagesStateGraph<String>()
+                .addNode("A", node_async(state -> Map.of("messages", "A")))
+                // the last node, so its values are not cloned as node input
+                .addNode("B", node_async(state -> Map.of(
+                        "tags", new HashSet<>(Set.of("a")),
+                        "attributes", new HashMap<>(Map.of("k", "v")),
+                        "note", new StringBuilder("x"))))
+                .addEdge(START, "A")
+                .addEdge("A", "B")
+                .addEdge("B", END)
+                .compile();
+
+        var notes = new ArrayList<String>();
+        workflow.stream(Map.of(), RunnableConfig.builder()
+                        .streamMode(CompiledGraph.StreamMode.VIEWS)
+                        .build())
+                .forEach(output -> {
+                    if (!output.node().equals("B")) {
+                        output.state().<StringBuilder>value("note").ifPresent(note -> notes.add(note.toString()));
+                        return;
+                    }
+                    var data = output.state().data();
+                    assertThrows(UnsupportedOperationException.class, () -> ((Set<String>) data.get("tags")).add("b"));
+                    assertThrows(UnsupportedOperationException.class, () -> ((Map<String, String>) data.get("attributes")).put("k", "w"));
+                    // the other mutable values are shared with the graph state
+                    ((StringBuilder) data.get("note")).append("y");
+                });
+
+        assertEquals(List.of("xy"), notes);
+    }
+}
@@ -0,0 +1,148 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import org.bsc.langgraph4j.CompileConfig;
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.StateGraph;
+import org.bsc.langgraph4j.state.AgentState;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.bsc.langgraph4j.StateGraph.END;
+import static org.bsc.langgraph4j.StateGraph.START;
+import static org.bsc.langgraph4j.action.AsyncNodeAction.node_async;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncCheckpointSaverTest {
+
+    /**
+     * Synchronous saver recording the threads invoking put.
+     */
+    static class RecordingSaver implements BaseCheckpointSaver {
+        final MemorySaver delegate = new MemorySaver();
+        final List<String> putThreads = new CopyOnWriteArrayList<>();
+        volatile boolean fail;
+
+        @Override
+        public Collection<Checkpoint> list(RunnableConfig config) {
+            return delegate.list(config);
+        }
+
+        @Override
+        public Optional<Checkpoint> get(RunnableConfig config) {
+            return delegate.get(config);
+        }
+
+        @Override
+        public RunnableConfig put(RunnableConfig config, Checkpoint checkpoint) throws Exception {
+            putThreads.add(Thread.currentThread().getName());
+            if (fail) {
+                throw new IllegalStateException("storage unavailable");
+            }
+            return delegate.put(config, checkpoint);
+        }
+
+        @Override
+        public Tag release(RunnableConfig config) throws Exception {
+            return delegate.release(config);
+        }
+    }
+
+    private static StateGraph<AgentState> workflow() throws Exception {
+        return new StateGraph<>(AgentState::new)
+                .addNode("agent_1", node_async(state -> Map.of("agent_1", "done")))
+                .addNode("agent_2", node_async(state -> Map.of("agent_2", "done")))
+                .addEdge(START, "agent_1")
+                .addEdge("agent_1", "agent_2")
+                .addEdge("agent_2", END);
+    }
+
+    @Test
+    public void memorySaverCompletesInline() throws Exception {
+        var saver = new MemorySaver();
+        var config = RunnableConfig.builder().threadId("T1").build();
+        var checkpoint = Checkpoint.builder().nodeId("node").nextNodeId("next").state(Map.of("step", 1)).build();
+
+        var put = saver.putAsync(config, checkpoint);
+        assertTrue(put.isDone());
+        assertEquals(checkpoint.getId(), put.join().checkPointId().orElseThrow());
+
+        assertEquals(1, saver.getAsync(config).join().orElseThrow().getState().get("step"));
+        assertEquals(1, saver.listAsync(config).join().size());
+        assertEquals(1, saver.releaseAsync(config).join().checkpoints().size());
+        assertTrue(saver.getAsync(config).join().isEmpty());
+    }
+
+    @Test
+    public void graphStoresCheckpointsOnExecutor() throws Exception {
+        var executor = AsyncCheckpointSaver.boundedExecutor("test-saver", 1);
+        try {
+            var recording = new RecordingSaver();
+            var saver = AsyncCheckpointSaver.of(recording, executor);
+
+            var app = workflow().compile(CompileConfig.builder().checkpointSaver(saver).build());
+            var config = RunnableConfig.builder().threadId("T1").build();
+
+            var result = app.invoke(Map.of("input", "test"), config);
+            assertTrue(result.isPresent());
+            assertEquals("done", result.get().data().get("agent_2"));
+
+            assertEquals(3, recording.putThreads.size()); // START, agent_1, agent_2
+            recording.putThreads.forEach(name -> assertTrue(name.startsWith("test-saver-"), name));
+            assertEquals(3, saver.list(config).size());
+            assertEquals("agent_2", saver.get(config).orElseThrow().getNodeId());
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void graphFailsWhenCheckpointCannotBeStored() throws Exception {
+        var executor = AsyncCheckpointSaver.boundedExecutor("test-saver", 1);
+        try {
+            var recording = new RecordingSaver();
+            recording.fail = true;
+            var saver = AsyncCheckpointSaver.of(recording, executor);
+
+            var app = workflow().compile(CompileConfig.builder().checkpointSaver(saver).build());
+            var config = RunnableConfig.builder().threadId("T1").build();
+
+            var exception = assertThrows(Exception.class, () -> app.invoke(Map.of("input", "test"), config));
+            Throwable cause = exception;
+            while (cause.getCause() != null && !(cause instanceof IllegalStateException)) {
+                cause = cause.getCause();
+            }
+            assertEquals("storage unavailable", cause.getMessage());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void adapterForwardsVersions() throws Exception {
+        var executor = new LazyExecutor(() -> AsyncCheckpointSaver.boundedExecutor("test-saver", 1));
+        try (executor) {
+            var versioned = new VersionedMemorySaver();
+            var saver = AsyncCheckpointSaver.of(versioned, executor);
+            var config = RunnableConfig.builder().threadId("T1").build();
+
+            assertInstanceOf(HasVersions.class, saver);
+            assertFalse(AsyncCheckpointSaver.of(new RecordingSaver(), executor) instanceof HasVersions);
+            assertFalse(executor.isStarted());
+
+            saver.putAsync(config, Checkpoint.builder().nodeId("agent_1").nextNodeId("agent_2").state(Map.of()).build()).join();
+            saver.releaseAsync(config).join();
+
+            assertTrue(executor.isStarted());
+            assertEquals(List.of(1), List.copyOf(((HasVersions) saver).versionsByThreadId("T1")));
+        }
+        var rejected = AsyncCheckpointSaver.supplyAsync(() -> "late", executor);
+        assertTrue(rejected.isCompletedExceptionally());
+    }
+}
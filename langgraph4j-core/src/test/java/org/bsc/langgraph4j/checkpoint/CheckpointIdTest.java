@@ -0,0 +1,84 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.utils.TimeOrderedUUID;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CheckpointIdTest {
+
+    private static Checkpoint checkpoint(int step) {
+        return Checkpoint.builder()
+                .nodeId("node")
+                .nextNodeId("node")
+                .state(Map.of("step", step))
+                .build();
+    }
+
+    @Test
+    public void idsAreTimeOrdered() {
+        var before = Instant.now();
+
+        var ids = new ArrayList<UUID>();
+        for (int i = 0; i < 10_000; ++i) {
+            ids.add(TimeOrderedUUID.next());
+        }
+
+        for (int i = 1; i < ids.size(); ++i) {
+            assertEquals(7, ids.get(i).version());
+            assertEquals(2, ids.get(i).variant());
+            assertTrue(ids.get(i - 1).toString().compareTo(ids.get(i).toString()) < 0);
+        }
+
+        var timestamp = TimeOrderedUUID.timestampOf(ids.get(0).toString()).orElseThrow();
+        assertFalse(timestamp.isBefore(before.minusMillis(1)));
+        assertFalse(timestamp.isAfter(Instant.now().plus(Duration.ofSeconds(5))));
+
+        assertTrue(TimeOrderedUUID.timestampOf(UUID.randomUUID().toString()).isEmpty());
+        assertTrue(TimeOrderedUUID.timestampOf("not an uuid").isEmpty());
+
+        var first = checkpoint(1);
+        var second = Checkpoint.copyOf(first);
+        assertTrue(first.getId().compareTo(second.getId()) < 0);
+    }
+
+    @Test
+    public void memorySaverLookupById() throws Exception {
+        var saver = new MemorySaver();
+        var config = RunnableConfig.builder().threadId("T1").build();
+
+        var ids = new ArrayList<String>();
+        for (int step = 1; step <= 100; ++step) {
+            var newConfig = saver.put(config, checkpoint(step));
+            ids.add(newConfig.checkPointId().orElseThrow());
+        }
+
+        for (int step = 1; step <= 100; ++step) {
+            var byId = RunnableConfig.builder(config).checkPointId(ids.get(step - 1)).build();
+            assertEquals(step, saver.get(byId).orElseThrow().getState().get("step"));
+        }
+
+        // replace keeps the checkpoint position
+        var replaced = Checkpoint.copyOf(checkpoint(500));
+        saver.put(RunnableConfig.builder(config).checkPointId(ids.get(49)).build(), replaced);
+
+        var steps = saver.list(config).stream().map(c -> c.getState().get("step")).toList();
+        assertEquals(100, steps.size());
+        assertEquals(List.of(52, 51, 500, 49, 48), steps.subList(48, 53));
+
+        assertTrue(saver.get(RunnableConfig.builder(config).checkPointId(ids.get(49)).build()).isEmpty());
+        assertEquals(500, saver.get(RunnableConfig.builder(config).checkPointId(replaced.getId()).build())
+                .orElseThrow().getState().get("step"));
+
+        saver.release(config);
+        assertTrue(saver.get(RunnableConfig.builder(config).checkPointId(ids.get(0)).build()).isEmpty());
+    }
+}
@@ -0,0 +1,236 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.serializer.std.ObjectStreamStateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CheckpointRetentionTest {
+
+    static class MutableClock extends Clock {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private static Checkpoint checkpoint(int step) {
+        return Checkpoint.builder()
+                .nodeId("node")
+                .nextNodeId("node")
+                .state(Map.of("step", step))
+                .build();
+    }
+
+    private static List<Object> steps(BaseCheckpointSaver saver, RunnableConfig config) {
+        return saver.list(config).stream()
+                .map(c -> c.getState().get("step"))
+                .toList();
+    }
+
+    @Test
+    public void keepLastCheckpoints() throws Exception {
+        var saver = new MemorySaver(CheckpointRetentionPolicy.builder()
+                .maxCheckpoints(3)
+                .build());
+        var config = RunnableConfig.builder().threadId("T1").build();
+
+        for (int step = 1; step <= 10; ++step) {
+            saver.put(config, checkpoint(step));
+        }
+
+        assertEquals(List.of(10, 9, 8), steps(saver, config));
+        assertEquals(10, saver.get(config).map(c -> c.getState().get("step")).orElseThrow());
+    }
+
+    @Test
+    public void replaceAfterPruneAndRelease() throws Exception {
+        var saver = new MemorySaver(CheckpointRetentionPolicy.builder()
+                .maxCheckpoints(3)
+                .build());
+        var config = RunnableConfig.builder().threadId("T1").build();
+
+        var ids = new ArrayList<String>();
+        for (int step = 1; step <= 5; ++step) {
+            ids.add(saver.put(config, checkpoint(step)).checkPointId().orElseThrow());
+        }
+        // pruned
+        assertTrue(saver.get(RunnableConfig.builder(config).checkPointId(ids.get(0)).build()).isEmpty());
+        assertThrows(NoSuchElementException.class,
+                () -> saver.put(RunnableConfig.builder(config).checkPointId(ids.get(1)).build(), checkpoint(0)));
+
+        saver.put(RunnableConfig.builder(config).checkPointId(ids.get(3)).build(), checkpoint(40));
+        assertEquals(List.of(5, 40, 3), steps(saver, config));
+
+        // a new history of the same size
+        saver.release(config);
+        ids.clear();
+        for (int step = 6; step <= 8; ++step) {
+            ids.add(saver.put(config, checkpoint(step)).checkPointId().orElseThrow());
+        }
+        var replacement = checkpoint(60);
+        saver.put(RunnableConfig.builder(config).checkPointId(ids.get(0)).build(), replacement);
+        assertEquals(List.of(8, 7, 60), steps(saver, config));
+        assertTrue(saver.get(RunnableConfig.builder(config).checkPointId(ids.get(0)).build()).isEmpty());
+        assertSame(replacement, saver.get(RunnableConfig.builder(config).checkPointId(replacement.getId()).build()).orElseThrow());
+    }
+
+    @Test
+    public void dropExpiredCheckpoints() throws Exception {
+        var clock = new MutableClock();
+        var saver = new MemorySaver(CheckpointRetentionPolicy.builder()
+                .maxAge(Duration.ofMinutes(10))
+                .clock(clock)
+                .build());
+        var config = RunnableConfig.builder().threadId("T1").build();
+
+        saver.put(config, checkpoint(1));
+        saver.put(config, checkpoint(2));
+        clock.advance(Duration.ofMinutes(5));
+        saver.put(config, checkpoint(3));
+
+        assertEquals(List.of(3, 2, 1), steps(saver, config));
+
+        clock.advance(Duration.ofMinutes(6));
+        saver.put(config, checkpoint(4));
+
+        assertEquals(List.of(4, 3), steps(saver, config));
+
+        // the last checkpoint is always retained
+        clock.advance(Duration.ofHours(1));
+        saver.put(config, checkpoint(5));
+
+        assertEquals(List.of(5), steps(saver, config));
+    }
+
+    @Test
+    public void limitTotalBytes() throws Exception {
+        var saver = new MemorySaver(CheckpointRetentionPolicy.builder()
+                .maxBytes(25, c -> 10)
+                .build());
+        var config = RunnableConfig.builder().threadId("T1").build();
+
+        for (int step = 1; step <= 5; ++step) {
+            saver.put(config, checkpoint(step));
+        }
+
+        assertEquals(List.of(5, 4), steps(saver, config));
+    }
+
+    @Test
+    public void sweepReleasedVersions() throws Exception {
+        var clock = new MutableClock();
+        var saver = new VersionedMemorySaver(CheckpointRetentionPolicy.builder()
+                .maxCheckpoints(2)
+                .maxAge(Duration.ofDays(1))
+                .clock(clock)
+                .build());
+        var config = RunnableConfig.builder().threadId("T1").build();
+
+        for (int step = 1; step <= 5; ++step) {
+            saver.put(config, checkpoint(step));
+        }
+        var tag = saver.release(config);
+        assertEquals(2, tag.checkpoints().size());
+
+        clock.advance(Duration.ofHours(12));
+        saver.put(config, checkpoint(6));
+        saver.release(config);
+
+        assertEquals(List.of(1, 2), List.copyOf(saver.versionsByThreadId("T1")));
+        assertEquals(0, saver.sweep());
+
+        clock.advance(Duration.ofHours(13));
+        assertEquals(1, saver.sweep());
+        assertEquals(List.of(2), List.copyOf(saver.versionsByThreadId("T1")));
+
+        clock.advance(Duration.ofDays(1));
+        assertEquals(1, saver.sweep());
+        assertTrue(saver.versionsByThreadId("T1").isEmpty());
+    }
+
+    @Test
+    public void reloadedCheckpointsKeepTheirAge(@TempDir Path folder) throws Exception {
+        var stateSerializer = new ObjectStreamStateSerializer<>(AgentState::new);
+        var clock = new MutableClock();
+        clock.now = Instant.now();
+        var policy = CheckpointRetentionPolicy.builder()
+                .maxAge(Duration.ofMinutes(10))
+                .clock(clock)
+                .build();
+        var config = RunnableConfig.builder().threadId("T1").build();
+
+        var saver = new FileSystemSaver(folder, stateSerializer, policy);
+        for (int step = 1; step <= 3; ++step) {
+            saver.put(config, checkpoint(step));
+        }
+        // saved one hour ago
+        Files.setLastModifiedTime(folder.resolve("thread-T1" + FileSystemSaver.EXTENSION),
+                FileTime.from(clock.now.minus(Duration.ofHours(1))));
+
+        var reloaded = new FileSystemSaver(folder, stateSerializer, policy);
+        reloaded.put(config, checkpoint(4));
+
+        assertEquals(List.of(4), steps(reloaded, config));
+    }
+
+    @Test
+    public void fileSystemSaverRetention(@TempDir Path folder) throws Exception {
+        var stateSerializer = new ObjectStreamStateSerializer<>(AgentState::new);
+        var policy = CheckpointRetentionPolicy.builder()
+                .maxCheckpoints(2)
+                .maxAge(Duration.ofDays(1))
+                .build();
+        var config = RunnableConfig.builder().threadId("T1").build();
+
+        var saver = new FileSystemSaver(folder, stateSerializer, policy);
+        for (int step = 1; step <= 5; ++step) {
+            saver.put(config, checkpoint(step));
+        }
+
+        // reload from file
+        var reloaded = new FileSystemSaver(folder, stateSerializer, policy);
+        assertEquals(List.of(5, 4), steps(reloaded, config));
+
+        reloaded.release(config);
+
+        var released = folder.resolve("thread-T1-v1" + FileSystemSaver.EXTENSION);
+        assertTrue(Files.exists(released));
+        assertEquals(0, reloaded.sweep());
+
+        Files.setLastModifiedTime(released, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+        assertEquals(1, reloaded.sweep());
+        assertFalse(Files.exists(released));
+    }
+}
@@ -0,0 +1,313 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import org.bsc.langgraph4j.RunnableConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedCheckpointSaverTest {
+
+    private static Checkpoint checkpoint(int step) {
+        return Checkpoint.builder()
+                .nodeId("node")
+                .nextNodeId("node")
+                .state(Map.of("step", step))
+                .build();
+    }
+
+    private static RunnableConfig thread(int i) {
+        return RunnableConfig.builder().threadId("thread-" + i).build();
+    }
+
+    private static List<Object> steps(BaseCheckpointSaver saver, RunnableConfig config) {
+        return saver.list(config).stream()
+                .map(c -> c.getState().get("step"))
+                .toList();
+    }
+
+    @Test
+    public void spreadThreadsOverShards() throws Exception {
+        var shards = Map.of(
+                "s1", new MemorySaver(),
+                "s2", new MemorySaver(),
+                "s3", new MemorySaver(),
+                "s4", new MemorySaver());
+        var builder = ShardedCheckpointSaver.builder();
+        shards.forEach(builder::shard);
+        var saver = builder.build();
+
+        final int threads = 4_000;
+        for (int i = 0; i < threads; ++i) {
+            saver.put(thread(i), checkpoint(i));
+        }
+
+        var counts = new HashMap<String, Integer>();
+        for (int i = 0; i < threads; ++i) {
+            var shard = saver.shardOf("thread-" + i);
+            counts.merge(shard, 1, Integer::sum);
+            assertEquals(List.of(i), steps(shards.get(shard), thread(i)));
+            assertEquals(i, saver.get(thread(i)).orElseThrow().getState().get("step"));
+        }
+
+        assertEquals(4, counts.size());
+        counts.values().forEach(count -> assertTrue(count > threads / 8, "unbalanced shards: " + counts));
+    }
+
+    @Test
+    public void readThroughMigration() throws Exception {
+        var s1 = new MemorySaver();
+        var s2 = new MemorySaver();
+        var s3 = new MemorySaver();
+        var saver = ShardedCheckpointSaver.builder()
+                .shard("s1", s1)
+                .shard("s2", s2)
+                .build();
+
+        final int threads = 1_000;
+        for (int i = 0; i < threads; ++i) {
+            for (int step = 1; step <= 3; ++step) {
+                saver.put(thread(i), checkpoint(step));
+            }
+        }
+        var before = IntStream.range(0, threads).mapToObj(i -> saver.shardOf("thread-" + i)).toList();
+
+        saver.addShard("s3", s3);
+
+        int moved = 0;
+        for (int i = 0; i < threads; ++i) {
+            var shard = saver.shardOf("thread-" + i);
+            if (!shard.equals(before.get(i))) {
+                // only threads moving to the new shard
+                assertEquals("s3", shard);
+                ++moved;
+            }
+            assertEquals(List.of(3, 2, 1), steps(saver, thread(i)));
+            assertEquals(List.of(3, 2, 1), steps(shard.equals("s3") ? s3 : shard.equals("s2") ? s2 : s1, thread(i)));
+        }
+        assertTrue(moved > threads / 6 && moved < threads / 2, "moved threads: " + moved);
+
+        // migrated threads are released on the previous shard
+        var movedThread = IntStream.range(0, threads)
+                .filter(i -> saver.shardOf("thread-" + i).equals("s3"))
+                .findFirst().orElseThrow();
+        var previous = before.get(movedThread).equals("s1") ? s1 : s2;
+        assertTrue(previous.get(thread(movedThread)).isEmpty());
+
+        // writes continue on the new shard
+        saver.put(thread(movedThread), checkpoint(4));
+        assertEquals(List.of(4, 3, 2, 1), steps(s3, thread(movedThread)));
+    }
+
+    @Test
+    public void resumeRebalanceAfterRestart() throws Exception {
+        var s1 = new MemorySaver();
+        var s2 = new MemorySaver();
+
+        var single = ShardedCheckpointSaver.builder().shard("s1", s1).build();
+        for (int i = 0; i < 100; ++i) {
+            single.put(thread(i), checkpoint(i));
+        }
+
+        var saver = ShardedCheckpointSaver.builder()
+                .shard("s1", s1)
+                .shard("s2", s2)
+                .previousShards("s1")
+                .build();
+
+        int migrated = 0;
+        for (int i = 0; i < 100; ++i) {
+            if (saver.migrate(thread(i))) {
+                ++migrated;
+            }
+        }
+        assertTrue(migrated > 0);
+
+        saver.completeRebalance();
+
+        for (int i = 0; i < 100; ++i) {
+            assertEquals(List.of(i), steps(saver, thread(i)));
+        }
+    }
+
+    @Test
+    public void checkedThreadsAreBounded() throws Exception {
+        var s1 = new MemorySaver();
+        var saver = ShardedCheckpointSaver.builder()
+                .shard("s1", s1)
+                .maxCheckedThreads(10)
+                .build();
+        for (int i = 0; i < 100; ++i) {
+            saver.put(thread(i), checkpoint(i));
+        }
+        saver.addShard("s2", new MemorySaver());
+
+        for (int round = 0; round < 2; ++round) {
+            for (int i = 0; i < 100; ++i) {
+                assertEquals(List.of(i), steps(saver, thread(i)));
+            }
+            assertEquals(10, saver.checkedThreadCount());
+        }
+    }
+
+    @Test
+    public void asyncOperationsAreDelegatedToTheOwningShard() throws Exception {
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var asyncPuts = new AtomicInteger();
+            var asyncShard = new ExecutorCheckpointSaver(new MemorySaver(), executor) {
+                @Override
+                public java.util.concurrent.CompletableFuture<RunnableConfig> putAsync(RunnableConfig config, Checkpoint checkpoint) {
+                    asyncPuts.incrementAndGet();
+                    return super.putAsync(config, checkpoint);
+                }
+            };
+            var s2 = new MemorySaver();
+            var saver = ShardedCheckpointSaver.builder()
+                    .shard("s1", asyncShard)
+                    .shard("s2", s2)
+                    .executor(executor)
+                    .build();
+
+            int onAsyncShard = 0;
+            for (int i = 0; i < 100; ++i) {
+                saver.putAsync(thread(i), checkpoint(i)).join();
+                if (saver.shardOf("thread-" + i).equals("s1")) {
+                    ++onAsyncShard;
+                }
+                assertEquals(i, saver.getAsync(thread(i)).join().orElseThrow().getState().get("step"));
+                assertEquals(1, saver.listAsync(thread(i)).join().size());
+            }
+            assertTrue(onAsyncShard > 0);
+            assertEquals(onAsyncShard, asyncPuts.get());
+
+            var onSyncShard = IntStream.range(0, 100)
+                    .filter(i -> saver.shardOf("thread-" + i).equals("s2"))
+                    .findFirst().orElseThrow();
+            assertEquals(List.of(onSyncShard), steps(s2, thread(onSyncShard)));
+            saver.releaseAsync(thread(onSyncShard)).join();
+            assertTrue(s2.get(thread(onSyncShard)).isEmpty());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Shard delegating to a {@link MemorySaver}, with a hook invoked before each put.
+     */
+    private static BaseCheckpointSaver shard(MemorySaver delegate, java.util.function.Consumer<RunnableConfig> beforePut) {
+        return new BaseCheckpointSaver() {
+            @Override
+            public java.util.Collection<Checkpoint> list(RunnableConfig config) {
+                return delegate.list(config);
+            }
+
+            @Override
+            public java.util.Optional<Checkpoint> get(RunnableConfig config) {
+                return delegate.get(config);
+            }
+
+            @Override
+            public RunnableConfig put(RunnableConfig config, Checkpoint checkpoint) throws Exception {
+                beforePut.accept(config);
+                return delegate.put(config, checkpoint);
+            }
+
+            @Override
+            public Tag release(RunnableConfig config) throws Exception {
+                return delegate.release(config);
+            }
+        };
+    }
+
+    private static int movedThread(ShardedCheckpointSaver saver, String shard, int from) {
+        return IntStream.range(from, 1_000)
+                .filter(i -> saver.shardOf("thread-" + i).equals(shard))
+                .findFirst().orElseThrow();
+    }
+
+    @Test
+    public void interruptedMigrationIsResumed() throws Exception {
+        var s1 = new MemorySaver();
+        var s2 = new MemorySaver();
+        var failures = new AtomicInteger(1);
+        var puts = new AtomicInteger();
+        var saver = ShardedCheckpointSaver.builder()
+                .shard("s1", s1)
+                .build();
+        for (int i = 0; i < 1_000; ++i) {
+            for (int step = 1; step <= 3; ++step) {
+                saver.put(thread(i), checkpoint(step));
+            }
+        }
+
+        saver.addShard("s2", shard(s2, config -> {
+            // fails the second copied checkpoint
+            if (puts.incrementAndGet() == 2 && failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("shard unavailable");
+            }
+        }));
+        var moved = thread(movedThread(saver, "s2", 0));
+
+        assertThrows(IllegalStateException.class, () -> saver.get(moved));
+        // partial history on the new shard, the whole one still on the previous shard
+        assertEquals(List.of(1), steps(s2, moved));
+        assertEquals(List.of(3, 2, 1), steps(s1, moved));
+
+        assertEquals(3, saver.get(moved).orElseThrow().getState().get("step"));
+        assertEquals(List.of(3, 2, 1), steps(s2, moved));
+        assertTrue(s1.get(moved).isEmpty());
+    }
+
+    @Test
+    public void migrationsLockTheirThreadOnly() throws Exception {
+        var s1 = new MemorySaver();
+        var s2 = new MemorySaver();
+        var saver = ShardedCheckpointSaver.builder()
+                .shard("s1", s1)
+                .build();
+        for (int i = 0; i < 1_000; ++i) {
+            saver.put(thread(i), checkpoint(i));
+        }
+
+        var blockedId = new java.util.concurrent.atomic.AtomicReference<String>();
+        var entered = new java.util.concurrent.CountDownLatch(1);
+        var release = new java.util.concurrent.CountDownLatch(1);
+        saver.addShard("s2", shard(s2, config -> {
+            if (config.threadId().orElseThrow().equals(blockedId.get())) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }));
+        var blocked = movedThread(saver, "s2", 0);
+        blockedId.set("thread-" + blocked);
+        var other = movedThread(saver, "s2", blocked + 1);
+
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var blockedThread = thread(blocked);
+            var pending = executor.submit(() -> saver.get(blockedThread));
+            assertTrue(entered.await(5, java.util.concurrent.TimeUnit.SECONDS));
+
+            // another thread is migrated while the first migration is in progress
+            assertEquals(other, saver.get(thread(other)).orElseThrow().getState().get("step"));
+
+            release.countDown();
+            assertEquals(blocked, pending.get(5, java.util.concurrent.TimeUnit.SECONDS).orElseThrow().getState().get("step"));
+            assertEquals(0, saver.migrationLockCount());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package org.bsc.langgraph4j.serializer;
+
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.checkpoint.Checkpoint;
+import org.bsc.langgraph4j.checkpoint.FileSystemSaver;
+import org.bsc.langgraph4j.serializer.compression.CompressedStateSerializer;
+import org.bsc.langgraph4j.serializer.compression.CompressionCodec;
+import org.bsc.langgraph4j.serializer.plain_text.jackson.JacksonStateSerializer;
+import org.bsc.langgraph4j.serializer.std.ObjectStreamStateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressedStateSerializerTest {
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(CompressedStateSerializerTest.class);
+
+    final ObjectStreamStateSerializer<AgentState> stateSerializer = new ObjectStreamStateSerializer<>(AgentState::new);
+
+    private static Map<String, Object> conversation(int turns) {
+        var messages = IntStream.range(0, turns)
+                .mapToObj(i -> (i % 2 == 0) ?
+                        "user: what's the weather like in city %d today? I'd like to go for a walk".formatted(i) :
+                        "assistant: the weather in city %d is sunny, with a temperature of %d degrees".formatted(i - 1, 20 + i % 7))
+                .toList();
+        return Map.of("messages", new ArrayList<>(messages), "counter", turns);
+    }
+
+    private void roundTrip(CompressionCodec codec) throws Exception {
+        var serializer = new CompressedStateSerializer<>(stateSerializer, codec);
+        var data = conversation(100);
+
+        var plain = stateSerializer.dataToBytes(data);
+        var compressed = serializer.dataToBytes(data);
+
+        log.info("codec {}: {} -> {} bytes", codec.id(), plain.length, compressed.length);
+        assertTrue(compressed.length * 3 < plain.length);
+        assertEquals(data, serializer.dataFromBytes(compressed));
+    }
+
+    @Test
+    public void deflate() throws Exception {
+        roundTrip(CompressionCodec.deflate());
+    }
+
+    @Test
+    public void lz4() throws Exception {
+        roundTrip(CompressionCodec.lz4());
+    }
+
+    @Test
+    public void zstd() throws Exception {
+        roundTrip(CompressionCodec.zstd());
+    }
+
+    @Test
+    public void zstdWithDictionary() throws Exception {
+        var samples = IntStream.range(1, 200)
+                .mapToObj(i -> conversation(i % 5 + 1))
+                .toList();
+        var dictionary = CompressedStateSerializer.trainDictionary(stateSerializer, samples, 4 * 1024);
+
+        var data = conversation(4);
+        var plain = new CompressedStateSerializer<>(stateSerializer, CompressionCodec.zstd(), 0).dataToBytes(data);
+        var serializer = new CompressedStateSerializer<>(stateSerializer, CompressionCodec.zstd(dictionary), 0);
+        var compressed = serializer.dataToBytes(data);
+
+        log.info("zstd small state: {} bytes without dictionary, {} bytes with dictionary", plain.length, compressed.length);
+        assertTrue(compressed.length < plain.length);
+        assertEquals(data, serializer.dataFromBytes(compressed));
+
+        // the dictionary is required to read the data back
+        var withoutDictionary = new CompressedStateSerializer<>(stateSerializer, CompressionCodec.zstd());
+        assertThrows(IOException.class, () -> withoutDictionary.dataFromBytes(compressed));
+    }
+
+    @Test
+    public void rotatedDictionaryIsDetected() throws Exception {
+        var samples = IntStream.range(1, 200)
+                .mapToObj(i -> conversation(i % 5 + 1))
+                .toList();
+        var dictionaryA = CompressedStateSerializer.trainDictionary(stateSerializer, samples, 4 * 1024);
+        var dictionaryB = CompressedStateSerializer.trainDictionary(stateSerializer, samples.subList(0, 150), 2 * 1024);
+        assertNotEquals(CompressionCodec.zstd(dictionaryA).dictionaryId(), CompressionCodec.zstd(dictionaryB).dictionaryId());
+
+        var data = conversation(4);
+        var compressed = new CompressedStateSerializer<>(stateSerializer, CompressionCodec.zstd(dictionaryA), 0).dataToBytes(data);
+
+        var rotated = new CompressedStateSerializer<>(stateSerializer, CompressionCodec.zstd(dictionaryB), 0);
+        var error = assertThrows(IOException.class, () -> rotated.dataFromBytes(compressed));
+        assertTrue(error.getMessage().contains("dictionary"), error.getMessage());
+
+        // raw content dictionaries have no zstd id
+        var raw = "user: assistant: the weather in city".getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        assertNotEquals(0, CompressionCodec.zstd(raw).dictionaryId());
+    }
+
+    @Test
+    public void lengthsAreCapped() throws Exception {
+        var data = conversation(100);
+        var serializer = new CompressedStateSerializer<>(stateSerializer, CompressionCodec.lz4());
+        var bytes = serializer.dataToBytes(data);
+
+        // corrupted original length
+        var stream = new java.io.ByteArrayOutputStream();
+        try (var out = new java.io.ObjectOutputStream(stream)) {
+            out.writeObject(CompressedStateSerializer.HEADER);
+            out.writeByte(CompressionCodec.LZ4);
+            out.writeInt(Integer.MAX_VALUE - 8);
+            out.writeInt(10);
+            out.write(new byte[10]);
+        }
+        var corrupted = stream.toByteArray();
+        var error = assertThrows(IOException.class, () -> serializer.dataFromBytes(corrupted));
+        assertTrue(error.getMessage().contains("maximum size"), error.getMessage());
+
+        var small = new CompressedStateSerializer<>(stateSerializer, CompressionCodec.lz4(), 0, 1024);
+        assertThrows(IOException.class, () -> small.dataToBytes(data));
+        assertThrows(IOException.class, () -> small.dataFromBytes(bytes));
+    }
+
+    @Test
+    public void selfDescribingHeader() throws Exception {
+        var data = conversation(50);
+
+        var lz4 = new CompressedStateSerializer<>(stateSerializer, CompressionCodec.lz4());
+        var zstd = new CompressedStateSerializer<>(stateSerializer, CompressionCodec.zstd());
+
+        assertEquals(data, zstd.dataFromBytes(lz4.dataToBytes(data)));
+        assertEquals(data, lz4.dataFromBytes(zstd.dataToBytes(data)));
+
+        // small states are stored uncompressed
+        var small = Map.<String, Object>of("counter", 1);
+        assertEquals(small, lz4.dataFromBytes(lz4.dataToBytes(small)));
+        var none = new CompressedStateSerializer<>(stateSerializer, CompressionCodec.none());
+        assertArrayEquals(none.dataToBytes(small), lz4.dataToBytes(small));
+    }
+
+    @Test
+    public void dataWrittenBeforeCompressionIsReadable() throws Exception {
+        var data = conversation(50);
+        var jackson = new JacksonStateSerializer<AgentState>(AgentState::new) {};
+
+        for (StateSerializer<AgentState> delegate : List.of(stateSerializer, jackson)) {
+            var legacy = delegate.dataToBytes(data);
+            var serializer = new CompressedStateSerializer<>(delegate, CompressionCodec.lz4());
+
+            assertEquals(data, serializer.dataFromBytes(legacy));
+            assertEquals(data, serializer.dataFromBytes(serializer.dataToBytes(data)));
+        }
+
+        var unknown = new java.io.ByteArrayOutputStream();
+        try (var out = new java.io.ObjectOutputStream(unknown)) {
+            out.writeObject("langgraph4j.compressed/99");
+        }
+        var serializer = new CompressedStateSerializer<>(stateSerializer, CompressionCodec.lz4());
+        var error = assertThrows(IOException.class, () -> serializer.dataFromBytes(unknown.toByteArray()));
+        assertTrue(error.getMessage().contains("header"), error.getMessage());
+    }
+
+    @Test
+    public void saverSwitchedToCompression(@TempDir Path folder) throws Exception {
+        var config = RunnableConfig.builder().threadId("T1").build();
+
+        var saver = new FileSystemSaver(folder, stateSerializer);
+        for (int step = 1; step <= 2; ++step) {
+            saver.put(config, Checkpoint.builder()
+                    .nodeId("node")
+                    .nextNodeId("node")
+                    .state(conversation(step * 10))
+                    .build());
+        }
+
+        // the checkpoints written before the compression are read along with the compressed ones
+        var serializer = new CompressedStateSerializer<>(stateSerializer, CompressionCodec.lz4());
+        var compressed = new FileSystemSaver(folder, serializer);
+        compressed.put(config, Checkpoint.builder()
+                .nodeId("node")
+                .nextNodeId("node")
+                .state(conversation(30))
+                .build());
+
+        var reloaded = new FileSystemSaver(folder, serializer);
+        var states = reloaded.list(config).stream().map(Checkpoint::getState).toList();
+        assertEquals(List.of(conversation(30), conversation(20), conversation(10)), states);
+    }
+
+    @Test
+    public void fileSystemSaver(@TempDir Path folder) throws Exception {
+        var serializer = new CompressedStateSerializer<>(stateSerializer, CompressionCodec.lz4());
+        var config = RunnableConfig.builder().threadId("T1").build();
+
+        var saver = new FileSystemSaver(folder, serializer);
+        for (int step = 1; step <= 5; ++step) {
+            saver.put(config, Checkpoint.builder()
+                    .nodeId("node")
+                    .nextNodeId("node")
+                    .state(conversation(step * 10))
+                    .build());
+        }
+
+        var reloaded = new FileSystemSaver(folder, serializer);
+        var states = reloaded.list(config).stream().map(Checkpoint::getState).toList();
+        assertEquals(List.of(conversation(50), conversation(40), conversation(30), conversation(20), conversation(10)), states);
+    }
+}
@@ -0,0 +1,99 @@
+package org.bsc.langgraph4j.serializer.std;
+
+import org.bsc.langgraph4j.serializer.Serializer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContentAddressedSerializerTest {
+
+    record Note(String text) {}
+
+    static class NoteSerializer implements Serializer<Note> {
+        final AtomicInteger writes = new AtomicInteger();
+
+        @Override
+        public void write(Note object, ObjectOutput out) throws IOException {
+            writes.incrementAndGet();
+            Serializer.writeUTF(object.text(), out);
+        }
+
+        @Override
+        public Note read(ObjectInput in) throws IOException, ClassNotFoundException {
+            return new Note(Serializer.readUTF(in));
+        }
+    }
+
+    private static byte[] write(ContentAddressedSerializer<Note> serializer, Note note) throws IOException {
+        try (var stream = new ByteArrayOutputStream()) {
+            var out = new ObjectOutputStream(stream);
+            serializer.write(note, out);
+            out.flush();
+            return stream.toByteArray();
+        }
+    }
+
+    private static Note read(ContentAddressedSerializer<Note> serializer, byte[] bytes) throws Exception {
+        try (var stream = new ByteArrayInputStream(bytes)) {
+            return serializer.read(new ObjectInputStream(stream));
+        }
+    }
+
+    @Test
+    public void writtenObjectsAreNotEncodedAgain() throws Exception {
+        var inline = new NoteSerializer();
+        var store = new InMemoryMessageStore();
+        var serializer = new ContentAddressedSerializer<>(inline, store, new SerializerMapper());
+
+        var note = new Note("the weather is sunny");
+        var reference = write(serializer, note);
+        for (int step = 0; step < 10; ++step) {
+            assertArrayEquals(reference, write(serializer, note));
+        }
+        assertEquals(1, inline.writes.get());
+
+        // an equal object is encoded, but stored once
+        assertArrayEquals(reference, write(serializer, new Note("the weather is sunny")));
+        assertEquals(2, inline.writes.get());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void readObjectsAreNotEncodedAgain() throws Exception {
+        var store = new InMemoryMessageStore();
+        var reference = write(new ContentAddressedSerializer<>(new NoteSerializer(), store, new SerializerMapper()),
+                new Note("the weather is sunny"));
+
+        // e.g. after a restart, the messages of the last checkpoint are written in the next one
+        var inline = new NoteSerializer();
+        var serializer = new ContentAddressedSerializer<>(inline, store, new SerializerMapper());
+        var note = read(serializer, reference);
+
+        assertArrayEquals(reference, write(serializer, note));
+        assertEquals(0, inline.writes.get());
+    }
+
+    @Test
+    public void unreachableObjectsAreForgotten() throws Exception {
+        var serializer = new ContentAddressedSerializer<>(new NoteSerializer(), new InMemoryMessageStore(), new SerializerMapper(), 1);
+
+        for (int i = 0; i < 1_000; ++i) {
+            write(serializer, new Note("note " + i));
+        }
+        // only the last note is interned, the others can be collected
+        for (int attempt = 0; attempt < 50 && serializer.rememberedHashes() > 1; ++attempt) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertTrue(serializer.rememberedHashes() < 1_000);
+    }
+}
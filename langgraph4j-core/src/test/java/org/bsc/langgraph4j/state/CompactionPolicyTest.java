@@ -0,0 +1,66 @@
+package org.bsc.langgraph4j.state;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactionPolicyTest {
+
+    // every value takes 10 tokens
+    private final TokenCounter<String> counter = value -> 10;
+
+    private List<String> append(Map<String, Channel<?>> schema, int turns) {
+        Map<String, Object> state = Map.of();
+        for (int i = 0; i < turns; ++i) {
+            state = AgentState.updateState(state, Map.of("messages", "m" + i), schema);
+        }
+        @SuppressWarnings("unchecked")
+        var result = (List<String>) state.get("messages");
+        return result;
+    }
+
+    @Test
+    public void evictOldestKeepingPinned() {
+        var schema = Map.<String, Channel<?>>of("messages", Channels.appender(ArrayList::new,
+                CompactionPolicy.<String>builder()
+                        .tokenCounter(counter)
+                        .maxTokens(100)
+                        .targetTokens(50)
+                        .pinned(1)
+                        .build()));
+
+        var messages = append(schema, 1000);
+
+        assertTrue(messages.size() <= 10, "window of " + messages.size());
+        assertEquals("m0", messages.get(0));
+        assertEquals("m999", messages.get(messages.size() - 1));
+    }
+
+    @Test
+    public void summarizeFromWindowStart() {
+        var schema = Map.<String, Channel<?>>of("messages", Channels.appender(ArrayList::new,
+                CompactionPolicy.<String>builder()
+                        .tokenCounter(counter)
+                        .maxTokens(100)
+                        // the window starts at an even message
+                        .windowStart(value -> !value.startsWith("summary") && Integer.parseInt(value.substring(1)) % 2 == 0)
+                        .strategy(CompactionStrategy.summarize(evicted -> "summary of " + evicted.size()))
+                        .build()));
+
+        var messages = append(schema, 11);
+
+        assertEquals(List.of("summary of 4", "m4", "m5", "m6", "m7", "m8", "m9", "m10"), messages);
+    }
+
+    @Test
+    public void invalidPolicy() {
+        assertThrows(NullPointerException.class, () -> CompactionPolicy.<String>builder().maxTokens(10).build());
+        assertThrows(IllegalArgumentException.class, () -> CompactionPolicy.<String>builder().tokenCounter(counter).build());
+        assertThrows(IllegalArgumentException.class, () -> CompactionPolicy.<String>builder()
+                .tokenCounter(counter).maxTokens(10).targetTokens(20).build());
+    }
+}
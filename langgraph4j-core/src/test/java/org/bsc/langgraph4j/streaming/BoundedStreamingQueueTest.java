@@ -0,0 +1,160 @@
+package org.bsc.langgraph4j.streaming;
+
+import org.bsc.async.AsyncGenerator;
+import org.bsc.async.AsyncGeneratorQueue;
+import org.bsc.langgraph4j.state.AgentState;
+import org.bsc.langgraph4j.streaming.BoundedStreamingQueue.OverflowPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedStreamingQueueTest {
+
+    private static AsyncGenerator.Data<StreamingOutput<AgentState>> token(int i) {
+        return AsyncGenerator.Data.of(new StreamingOutput<>(String.valueOf(i % 10), "agent", null));
+    }
+
+    private static String produce(BoundedStreamingQueue<AsyncGenerator.Data<StreamingOutput<AgentState>>> queue, int tokens) {
+        var expected = new StringBuilder();
+        for (int i = 0; i < tokens; ++i) {
+            queue.add(token(i));
+            expected.append(i % 10);
+        }
+        queue.add(AsyncGenerator.Data.done(Map.of("result", "done")));
+        return expected.toString();
+    }
+
+    private static String consume(BoundedStreamingQueue<AsyncGenerator.Data<StreamingOutput<AgentState>>> queue) {
+        var generator = new AsyncGeneratorQueue.Generator<>(queue);
+        var result = new StringBuilder();
+        for (var output : generator) {
+            result.append(output.chunk());
+            if (result.length() % 100 == 0) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(1); // slow consumer
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+        return result.toString();
+    }
+
+    @Test
+    public void blockKeepsEveryToken() throws Exception {
+        var queue = BoundedStreamingQueue.<AgentState>ofStreamingOutput(16, OverflowPolicy.BLOCK);
+        assertEquals(16, queue.capacity());
+
+        var producer = CompletableFuture.supplyAsync(() -> produce(queue, 5_000));
+        var consumed = consume(queue);
+
+        assertEquals(producer.get(10, TimeUnit.SECONDS), consumed);
+
+        var metrics = queue.metrics();
+        assertEquals(5_001, metrics.enqueued());
+        assertEquals(5_001, metrics.dequeued());
+        assertEquals(0, metrics.depth());
+        assertTrue(metrics.maxDepth() <= 16);
+        assertEquals(0, metrics.dropped());
+    }
+
+    @Test
+    public void coalesceMergesTokens() throws Exception {
+        var queue = BoundedStreamingQueue.<AgentState>ofStreamingOutput(4, OverflowPolicy.COALESCE);
+
+        var producer = CompletableFuture.supplyAsync(() -> produce(queue, 1_000));
+
+        // the consumer starts late, so the tokens overflow
+        TimeUnit.MILLISECONDS.sleep(100);
+        var consumed = consume(queue);
+
+        assertEquals(producer.get(10, TimeUnit.SECONDS), consumed);
+        var metrics = queue.metrics();
+        assertTrue(metrics.coalesced() > 0);
+        assertEquals(0, metrics.dropped());
+    }
+
+    @Test
+    public void dropDiscardsTokensButNotCompletion() throws Exception {
+        var queue = BoundedStreamingQueue.<AgentState>ofStreamingOutput(4, OverflowPolicy.DROP);
+
+        var producer = CompletableFuture.runAsync(() -> produce(queue, 100));
+
+        TimeUnit.MILLISECONDS.sleep(100);
+        var consumed = consume(queue);
+        producer.get(10, TimeUnit.SECONDS);
+
+        assertEquals("0123", consumed);
+        assertEquals(96, queue.metrics().dropped());
+    }
+
+    @Test
+    public void collectionViewsAreWeaklyConsistent() {
+        var queue = new BoundedStreamingQueue<Integer>(4, OverflowPolicy.BLOCK, i -> true, (i1, i2) -> i2,
+                TimeUnit.SECONDS.toNanos(1));
+        queue.add(1);
+        queue.add(2);
+        queue.add(3);
+
+        assertTrue(queue.contains(2));
+        assertFalse(queue.contains(4));
+        assertArrayEquals(new Object[] { 1, 2, 3 }, queue.toArray());
+
+        // the elements consumed after the creation of the iterator are skipped
+        var iterator = queue.iterator();
+        assertEquals(1, queue.poll());
+        var remaining = new java.util.ArrayList<Integer>();
+        iterator.forEachRemaining(remaining::add);
+        assertEquals(java.util.List.of(2, 3), remaining);
+        assertThrows(java.util.NoSuchElementException.class, iterator::next);
+
+        // wrapped around the ring
+        queue.add(4);
+        queue.add(5);
+        assertEquals(java.util.List.of(2, 3, 4, 5), java.util.List.copyOf(queue));
+
+        assertThrows(UnsupportedOperationException.class, () -> queue.remove(3));
+        var drained = new java.util.ArrayList<Integer>();
+        assertEquals(4, queue.drainTo(drained));
+        assertEquals(java.util.List.of(2, 3, 4, 5), drained);
+        assertFalse(queue.iterator().hasNext());
+    }
+
+    @Test
+    public void concurrentProducersAreRejected() throws Exception {
+        var merging = new java.util.concurrent.CountDownLatch(1);
+        var release = new java.util.concurrent.CountDownLatch(1);
+        var queue = new BoundedStreamingQueue<Integer>(1, OverflowPolicy.COALESCE, i -> true, (i1, i2) -> {
+            merging.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return i1 + i2;
+        }, TimeUnit.SECONDS.toNanos(1));
+
+        // the first producer is held while merging the overflowing elements
+        var producer = CompletableFuture.runAsync(() -> {
+            queue.add(1);
+            queue.add(2);
+            queue.add(3);
+        });
+        assertTrue(merging.await(5, TimeUnit.SECONDS));
+
+        assertThrows(IllegalStateException.class, () -> queue.add(4));
+        assertThrows(IllegalStateException.class, () -> queue.offer(4, 1, TimeUnit.MILLISECONDS));
+
+        release.countDown();
+        producer.get(5, TimeUnit.SECONDS);
+
+        // producers in sequence, on different threads, are accepted
+        assertEquals(1, queue.poll());
+        assertTrue(queue.add(6));
+        assertEquals(5, queue.poll());
+    }
+}
@@ -0,0 +1,147 @@
+package org.bsc.langgraph4j.streaming;
+
+import org.bsc.async.AsyncGenerator;
+import org.bsc.async.AsyncGeneratorQueue;
+import org.bsc.langgraph4j.GraphInput;
+import org.bsc.langgraph4j.NodeOutput;
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.StateGraph;
+import org.bsc.langgraph4j.state.AgentState;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.bsc.langgraph4j.StateGraph.END;
+import static org.bsc.langgraph4j.StateGraph.START;
+import static org.bsc.langgraph4j.action.AsyncNodeAction.node_async;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoalescingGeneratorTest {
+
+    private static AsyncGenerator<StreamingOutput<AgentState>> tokens(int count, long pauseMillis) {
+        return AsyncGeneratorQueue.of(new LinkedBlockingQueue<>(), queue -> {
+            for (int i = 0; i < count; ++i) {
+                queue.add(AsyncGenerator.Data.of(new StreamingOutput<>(String.valueOf(i % 10), "agent", null)));
+                if (pauseMillis > 0) {
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(pauseMillis);
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            }
+            queue.add(AsyncGenerator.Data.done(Map.of("text", "done")));
+        });
+    }
+
+    private static String expected(int count) {
+        var result = new StringBuilder();
+        for (int i = 0; i < count; ++i) {
+            result.append(i % 10);
+        }
+        return result.toString();
+    }
+
+    @Test
+    public void mergesChunksByCount() {
+        var policy = CoalescingPolicy.builder()
+                .window(Duration.ofSeconds(1))
+                .maxChunks(10)
+                .build();
+        var generator = new CoalescingGenerator<>(tokens(1_000, 0), policy);
+
+        var chunks = new ArrayList<String>();
+        AsyncGenerator.Data<StreamingOutput<AgentState>> data;
+        while (!(data = generator.next()).isDone()) {
+            var output = data.future().join();
+            assertEquals("agent", output.node());
+            chunks.add(output.chunk());
+        }
+
+        assertEquals(Map.of("text", "done"), data.resultValue());
+        assertEquals(expected(1_000), String.join("", chunks));
+        assertTrue(chunks.size() < 1_000);
+        assertTrue(chunks.stream().allMatch(chunk -> chunk.length() <= 10));
+    }
+
+    @Test
+    public void emitsWhenWindowExpires() {
+        var policy = CoalescingPolicy.builder()
+                .window(Duration.ofMillis(20))
+                .maxChunks(100)
+                .build();
+        var generator = new CoalescingGenerator<>(tokens(3, 200), policy);
+
+        var chunks = new ArrayList<String>();
+        generator.forEach(output -> chunks.add(output.chunk()));
+
+        assertEquals(List.of("0", "1", "2"), chunks);
+    }
+
+    @Test
+    public void coalescesGraphStreamPerConfig() throws Exception {
+        var workflow = new StateGraph<>(AgentState::new)
+                .addNode("agent", node_async(state -> Map.of("_streaming_messages", tokens(500, 0))))
+                .addEdge(START, "agent")
+                .addEdge("agent", END)
+                .compile();
+
+        var config = RunnableConfig.builder()
+                .streamCoalescing(CoalescingPolicy.builder()
+                        .window(Duration.ofSeconds(1))
+                        .maxChunks(50)
+                        .build())
+                .build();
+
+        var chunks = new ArrayList<String>();
+        NodeOutput<AgentState> last = null;
+        for (var output : workflow.stream(GraphInput.args(Map.of()), config)) {
+            if (output instanceof StreamingOutput<AgentState> streaming) {
+                chunks.add(streaming.chunk());
+            }
+            last = output;
+        }
+
+        assertEquals(expected(500), String.join("", chunks));
+        assertTrue(chunks.size() <= 50);
+        assertNotNull(last);
+        assertEquals("done", last.state().value("text").orElse(null));
+    }
+
+    @Test
+    public void readerIsBoundedAndStopsOnCancel() throws Exception {
+        var produced = new AtomicInteger();
+        var endless = AsyncGenerator.from(new java.util.Iterator<StreamingOutput<AgentState>>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public StreamingOutput<AgentState> next() {
+                produced.incrementAndGet();
+                return new StreamingOutput<>("x", "agent", null);
+            }
+        });
+        var policy = CoalescingPolicy.builder()
+                .window(Duration.ofMillis(10))
+                .maxChunks(8)
+                .build();
+        var generator = new CoalescingGenerator<>(endless, policy);
+
+        assertFalse(generator.next().isDone());
+        TimeUnit.MILLISECONDS.sleep(200);
+        // the merged batch, the buffer and the element waiting for room
+        assertTrue(produced.get() <= 8 + 8 + 1, () -> "produced " + produced.get());
+
+        generator.cancel(false);
+        generator.reader().get(1, TimeUnit.SECONDS);
+        assertTrue(generator.next().isDone());
+    }
+}
@@ -0,0 +1,161 @@
+package org.bsc.langgraph4j.streaming;
+
+import org.bsc.langgraph4j.CompiledGraph;
+import org.bsc.langgraph4j.GraphInput;
+import org.bsc.langgraph4j.NodeOutput;
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.StateGraph;
+import org.bsc.langgraph4j.state.AgentState;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.bsc.langgraph4j.StateGraph.END;
+import static org.bsc.langgraph4j.StateGraph.START;
+import static org.bsc.langgraph4j.action.AsyncNodeAction.node_async;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GeneratorPublisherTest {
+
+    // records the signals, requesting on demand of the test
+    static class RecordingSubscriber implements Flow.Subscriber<NodeOutput<AgentState>> {
+        final BlockingQueue<NodeOutput<AgentState>> outputs = new LinkedBlockingQueue<>();
+        final CountDownLatch terminated = new CountDownLatch(1);
+        volatile Flow.Subscription subscription;
+        volatile Throwable error;
+        volatile boolean completed;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(NodeOutput<AgentState> item) {
+            outputs.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            terminated.countDown();
+        }
+
+        NodeOutput<AgentState> take() throws InterruptedException {
+            return outputs.poll(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private CompiledGraph<AgentState> graph(AtomicInteger executions) throws Exception {
+        return new StateGraph<>(AgentState::new)
+                .addNode("node_1", node_async(state -> Map.of("node_1", executions.incrementAndGet())))
+                .addNode("node_2", node_async(state -> Map.of("node_2", executions.incrementAndGet())))
+                .addEdge(START, "node_1")
+                .addEdge("node_1", "node_2")
+                .addEdge("node_2", END)
+                .compile();
+    }
+
+    @Test
+    public void stepsFollowTheDemand() throws Exception {
+        var executions = new AtomicInteger();
+        var subscriber = new RecordingSubscriber();
+
+        graph(executions).publisher(GraphInput.noArgs(), RunnableConfig.builder().build()).subscribe(subscriber);
+        // cold: nothing runs before the first request
+        Thread.sleep(100);
+        assertEquals(0, executions.get());
+
+        subscriber.subscription.request(1);
+        assertEquals(START, subscriber.take().node());
+        Thread.sleep(100);
+        assertEquals(0, executions.get());
+
+        subscriber.subscription.request(1);
+        assertEquals("node_1", subscriber.take().node());
+        Thread.sleep(100);
+        assertEquals(1, executions.get());
+        assertTrue(subscriber.outputs.isEmpty());
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertTrue(subscriber.terminated.await(5, TimeUnit.SECONDS));
+        assertTrue(subscriber.completed);
+        assertEquals(List.of("node_2", END), subscriber.outputs.stream().map(NodeOutput::node).toList());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    public void cancellationInterruptsRunningNode() throws Exception {
+        var started = new CountDownLatch(1);
+        var interrupted = new CountDownLatch(1);
+        var app = new StateGraph<>(AgentState::new)
+                .addNode("slow", node_async(state -> {
+                    started.countDown();
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                        throw e;
+                    }
+                    return Map.of();
+                }))
+                .addEdge(START, "slow")
+                .addEdge("slow", END)
+                .compile();
+
+        var subscriber = new RecordingSubscriber();
+        app.publisher(GraphInput.noArgs(), RunnableConfig.builder().build()).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        subscriber.subscription.cancel();
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertFalse(subscriber.terminated.await(200, TimeUnit.MILLISECONDS));
+        assertEquals(List.of(START), subscriber.outputs.stream().map(NodeOutput::node).toList());
+    }
+
+    @Test
+    public void errorsAreSignalled() throws Exception {
+        var app = new StateGraph<>(AgentState::new)
+                .addNode("failing", node_async(state -> {
+                    throw new IllegalStateException("node failed");
+                }))
+                .addEdge(START, "failing")
+                .addEdge("failing", END)
+                .compile();
+
+        var subscriber = new RecordingSubscriber();
+        app.publisher(GraphInput.noArgs(), RunnableConfig.builder().build()).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertTrue(subscriber.terminated.await(5, TimeUnit.SECONDS));
+        assertFalse(subscriber.completed);
+        var cause = subscriber.error;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        assertEquals("node failed", cause.getMessage());
+
+        // a non positive request is a protocol violation
+        var invalid = new RecordingSubscriber();
+        graph(new AtomicInteger()).publisher(GraphInput.noArgs(), RunnableConfig.builder().build()).subscribe(invalid);
+        invalid.subscription.request(0);
+
+        assertTrue(invalid.terminated.await(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, invalid.error);
+    }
+}
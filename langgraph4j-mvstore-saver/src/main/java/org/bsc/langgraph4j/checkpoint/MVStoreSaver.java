@@ -0,0 +1,623 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.serializer.StateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.h2.mvstore.type.ByteArrayDataType;
+import org.h2.mvstore.type.LongDataType;
+import org.h2.mvstore.type.StringDataType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static java.util.Optional.ofNullable;
+
+/**
+ * <p>
+ * MVStoreSaver stores the checkpoints in an embedded <a href="https://www.h2database.com/html/mvstore.html">H2 MVStore</a>,
+ * a log-structured key-value store that is crash-safe: each commit is appended to the file and, after a crash,
+ * the store is opened at the last complete commit.
+ * </p>
+ * <p>
+ * The checkpoints are stored in a single ordered map whose key is made by
+ * <i>thread id</i>, <i>checkpoint sequence</i> (per thread, zero padded hex) and <i>checkpoint id</i>, so that:
+ * <ul>
+ *     <li>the last checkpoint of a thread is found with a single O(log n) lookup</li>
+ *     <li>the history of a thread is a range scan, the most recent first</li>
+ *     <li>the lookup by checkpoint id goes through a secondary index</li>
+ * </ul>
+ * Released threads are moved in a separate map, one version for each release, and purged by {@link #sweep()}.
+ * </p>
+ * <p>
+ * The writes are group committed: each put returns once a commit including its checkpoint is written, and the
+ * puts arriving while a commit is in progress wait for the next one, that writes all of them as a single chunk.
+ * Setting {@link Builder#commitOnPut(boolean)} to false trades durability for latency: the puts return before
+ * the commit and the changes are written by a background thread every {@link Builder#commitDelay(Duration)},
+ * so a crash can lose the checkpoints of the last commit window.
+ * </p>
+ * <p>
+ * Ex:
+ * <pre>
+ * try( var saver = MVStoreSaver.builder()
+ *                     .path( Path.of("checkpoints.mv") )
+ *                     .stateSerializer( workflow.getStateSerializer() )
+ *                     .build() ) {
+ *     ...
+ * }
+ * </pre>
+ * </p>
+ */
+public class MVStoreSaver implements BaseCheckpointSaver, AutoCloseable {
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(MVStoreSaver.class);
+
+    static final char SEPARATOR = '\u0000';
+    static final char UPPER_BOUND = '\u0001';
+    static final int SEQ_LENGTH = 16;
+
+    static final String CHECKPOINTS_MAP = "checkpoints";
+    static final String CHECKPOINT_KEYS_MAP = "checkpointKeys";
+    static final String RELEASED_CHECKPOINTS_MAP = "releasedCheckpoints";
+    static final String RELEASES_MAP = "releases";
+
+    private final MVStore store;
+    // thread \0 sequence \0 checkpoint id -> checkpoint record
+    private final MVMap<String, byte[]> checkpoints;
+    // thread \0 checkpoint id -> checkpoints key
+    private final MVMap<String, String> checkpointKeys;
+    // thread \0 version \0 sequence \0 checkpoint id -> checkpoint record
+    private final MVMap<String, byte[]> releasedCheckpoints;
+    // thread \0 version -> release time
+    private final MVMap<String, Long> releases;
+
+    private final StateSerializer<? extends AgentState> stateSerializer;
+    private final CheckpointRetentionPolicy retentionPolicy;
+    private final boolean commitOnPut;
+    private final ReentrantLock _lock = new ReentrantLock();
+
+    // group commit: the writes are numbered, the first waiting writer commits all the writes done so far
+    private final AtomicLong writes = new AtomicLong();
+    private final ReentrantLock _commitLock = new ReentrantLock();
+    private final Condition commitDone = _commitLock.newCondition();
+    private long committedWrites;
+    private long commitCount;
+    private boolean committing;
+
+    private MVStoreSaver(Builder builder) {
+        this.stateSerializer = builder.stateSerializer;
+        this.retentionPolicy = builder.retentionPolicy;
+        this.commitOnPut = builder.commitOnPut;
+
+        var storeBuilder = new MVStore.Builder()
+                .cacheSize(builder.cacheSize)
+                .backgroundExceptionHandler((thread, ex) -> log.error("MVStore background error", ex));
+        if (builder.path != null) {
+            storeBuilder.fileName(builder.path.toString());
+        }
+        if (builder.compress) {
+            storeBuilder.compress();
+        }
+        this.store = storeBuilder.open();
+        this.store.setAutoCommitDelay((int) builder.commitDelay.toMillis());
+
+        this.checkpoints = store.openMap(CHECKPOINTS_MAP, new MVMap.Builder<String, byte[]>()
+                .keyType(StringDataType.INSTANCE)
+                .valueType(ByteArrayDataType.INSTANCE));
+        this.checkpointKeys = store.openMap(CHECKPOINT_KEYS_MAP, new MVMap.Builder<String, String>()
+                .keyType(StringDataType.INSTANCE)
+                .valueType(StringDataType.INSTANCE));
+        this.releasedCheckpoints = store.openMap(RELEASED_CHECKPOINTS_MAP, new MVMap.Builder<String, byte[]>()
+                .keyType(StringDataType.INSTANCE)
+                .valueType(ByteArrayDataType.INSTANCE));
+        this.releases = store.openMap(RELEASES_MAP, new MVMap.Builder<String, Long>()
+                .keyType(StringDataType.INSTANCE)
+                .valueType(LongDataType.INSTANCE));
+    }
+
+    /**
+     * Creates an instance of a builder that allows to configure and create a new
+     * instance of MVStoreSaver.
+     *
+     * @return a new instance of the builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static String threadIdOf(RunnableConfig config) {
+        var threadId = config.threadId().orElse(THREAD_ID_DEFAULT);
+        if (threadId.indexOf(SEPARATOR) >= 0) {
+            throw new IllegalArgumentException("threadId cannot contain the NUL character");
+        }
+        return threadId;
+    }
+
+    private static String prefixOf(String threadId) {
+        return threadId + SEPARATOR;
+    }
+
+    private static String upperBoundOf(String threadId) {
+        return threadId + UPPER_BOUND;
+    }
+
+    private static String checkpointKey(String threadId, long seq, String checkpointId) {
+        return format("%s%c%016x%c%s", threadId, SEPARATOR, seq, SEPARATOR, checkpointId);
+    }
+
+    private static String checkpointIdKey(String threadId, String checkpointId) {
+        return prefixOf(threadId) + checkpointId;
+    }
+
+    private static long seqOf(String key, String prefix) {
+        return Long.parseUnsignedLong(key, prefix.length(), prefix.length() + SEQ_LENGTH, 16);
+    }
+
+    private static String checkpointIdOf(String key, String prefix) {
+        return key.substring(prefix.length() + SEQ_LENGTH + 1);
+    }
+
+    private long now() {
+        return (retentionPolicy != null) ? retentionPolicy.clock().millis() : System.currentTimeMillis();
+    }
+
+    private byte[] encode(Checkpoint checkpoint, long savedAt) throws IOException {
+        var state = stateSerializer.dataToBytes(checkpoint.getState());
+        var bytes = new ByteArrayOutputStream(state.length + 64);
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeLong(savedAt);
+            out.writeUTF(checkpoint.getNodeId());
+            out.writeUTF(checkpoint.getNextNodeId());
+            out.write(state);
+        }
+        return bytes.toByteArray();
+    }
+
+    private Checkpoint decode(String checkpointId, byte[] record) throws IOException, ClassNotFoundException {
+        try (var in = new DataInputStream(new ByteArrayInputStream(record))) {
+            in.readLong(); // saved at
+            var nodeId = in.readUTF();
+            var nextNodeId = in.readUTF();
+            return Checkpoint.builder()
+                    .id(checkpointId)
+                    .nodeId(nodeId)
+                    .nextNodeId(nextNodeId)
+                    .state(stateSerializer.dataFromBytes(in.readAllBytes()))
+                    .build();
+        }
+    }
+
+    private static long savedAtOf(byte[] record) {
+        return ByteBuffer.wrap(record, 0, Long.BYTES).getLong();
+    }
+
+    /**
+     * Returns the key of the last checkpoint of the thread, if any.
+     */
+    private Optional<String> lastKey(String threadId) {
+        var key = checkpoints.lowerKey(upperBoundOf(threadId));
+        return ofNullable(key).filter(k -> k.startsWith(prefixOf(threadId)));
+    }
+
+    /**
+     * Numbers a completed write. It must be called holding the lock, after the changes are applied to the maps.
+     *
+     * @return the number of the write, to be passed to {@link #awaitCommit(long)}
+     */
+    private long writeDone() {
+        return writes.incrementAndGet();
+    }
+
+    /**
+     * Waits until a commit includes the given write, if {@link Builder#commitOnPut(boolean)} is set.
+     * If no commit is in progress, the caller commits the writes done so far on behalf of all the waiting callers,
+     * otherwise it waits for the commit in progress and, if that doesn't include its write, for the next one.
+     *
+     * @param write the number of the write
+     */
+    private void awaitCommit(long write) {
+        if (!commitOnPut) {
+            return;
+        }
+        _commitLock.lock();
+        try {
+            while (committedWrites < write) {
+                if (committing) {
+                    commitDone.awaitUninterruptibly();
+                    continue;
+                }
+                committing = true;
+                final long target = writes.get();
+                boolean done = false;
+                _commitLock.unlock();
+                try {
+                    store.commit();
+                    done = true;
+                } finally {
+                    _commitLock.lock();
+                    committing = false;
+                    if (done) {
+                        committedWrites = Math.max(committedWrites, target);
+                        ++commitCount;
+                    }
+                    commitDone.signalAll();
+                }
+            }
+        } finally {
+            _commitLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of commits made on behalf of the puts.
+     */
+    long commitCount() {
+        _commitLock.lock();
+        try {
+            return commitCount;
+        } finally {
+            _commitLock.unlock();
+        }
+    }
+
+    /**
+     * Lists the checkpoints of the thread, the most recent first.
+     *
+     * @param config the runnable config
+     * @return the checkpoints of the thread
+     */
+    @Override
+    public Collection<Checkpoint> list(RunnableConfig config) {
+        final var threadId = threadIdOf(config);
+        final var prefix = prefixOf(threadId);
+
+        var result = new ArrayList<Checkpoint>();
+        try {
+            var cursor = checkpoints.cursor(checkpoints.getRoot(), upperBoundOf(threadId), prefix, true);
+            while (cursor.hasNext()) {
+                var key = cursor.next();
+                result.add(decode(checkpointIdOf(key, prefix), cursor.getValue()));
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public Optional<Checkpoint> get(RunnableConfig config) {
+        final var threadId = threadIdOf(config);
+
+        try {
+            if (config.checkPointId().isPresent()) {
+                var checkpointId = config.checkPointId().get();
+                var key = checkpointKeys.get(checkpointIdKey(threadId, checkpointId));
+                var record = (key != null) ? checkpoints.get(key) : null;
+                return (record != null) ? Optional.of(decode(checkpointId, record)) : Optional.empty();
+            }
+
+            var root = checkpoints.getRoot();
+            var key = checkpoints.lowerKey(root, upperBoundOf(threadId));
+            if (key == null || !key.startsWith(prefixOf(threadId))) {
+                return Optional.empty();
+            }
+            return Optional.of(decode(checkpointIdOf(key, prefixOf(threadId)), checkpoints.get(root.root, key)));
+        } catch (IOException | ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public RunnableConfig put(RunnableConfig config, Checkpoint checkpoint) throws Exception {
+        requireNonNull(checkpoint, "checkpoint cannot be null");
+        final var threadId = threadIdOf(config);
+        final var prefix = prefixOf(threadId);
+
+        final RunnableConfig result;
+        final long write;
+        _lock.lock();
+        try {
+            final var record = encode(checkpoint, now());
+
+            if (config.checkPointId().isPresent()) { // Replace Checkpoint
+                var checkPointId = config.checkPointId().get();
+                var idKey = checkpointIdKey(threadId, checkPointId);
+                var key = checkpointKeys.get(idKey);
+                if (key == null) {
+                    throw new NoSuchElementException(format("Checkpoint with id %s not found!", checkPointId));
+                }
+                var newKey = checkpointKey(threadId, seqOf(key, prefix), checkpoint.getId());
+                if (!newKey.equals(key)) {
+                    checkpoints.remove(key);
+                    checkpointKeys.remove(idKey);
+                }
+                checkpoints.put(newKey, record);
+                checkpointKeys.put(checkpointIdKey(threadId, checkpoint.getId()), newKey);
+                result = config;
+            } else {
+                long seq = lastKey(threadId).map(key -> seqOf(key, prefix) + 1).orElse(1L);
+                var key = checkpointKey(threadId, seq, checkpoint.getId());
+                checkpoints.put(key, record);
+                checkpointKeys.put(checkpointIdKey(threadId, checkpoint.getId()), key);
+
+                if (retentionPolicy != null) {
+                    prune(threadId);
+                }
+                result = RunnableConfig.builder(config)
+                        .checkPointId(checkpoint.getId())
+                        .build();
+            }
+            write = writeDone();
+        } finally {
+            _lock.unlock();
+        }
+        // the commit is awaited outside the lock, so that the concurrent puts share it
+        awaitCommit(write);
+        return result;
+    }
+
+    /**
+     * Removes the checkpoints of the thread exceeding the retention policy.
+     * The size of a checkpoint is the size of its stored record.
+     */
+    private void prune(String threadId) {
+        final var prefix = prefixOf(threadId);
+
+        var keys = new ArrayList<String>();
+        var info = new HashMap<String, long[]>();
+        var stored = new ArrayList<Checkpoint>();
+
+        var cursor = checkpoints.cursor(upperBoundOf(threadId), prefix, true);
+        while (cursor.hasNext()) {
+            var key = cursor.next();
+            var checkpointId = checkpointIdOf(key, prefix);
+            var record = cursor.getValue();
+            keys.add(key);
+            info.put(checkpointId, new long[]{savedAtOf(record), record.length});
+            // the policy only needs the checkpoint identity, the state is not decoded
+            stored.add(Checkpoint.builder()
+                    .id(checkpointId)
+                    .nodeId("")
+                    .nextNodeId("")
+                    .state(Map.of())
+                    .build());
+        }
+
+        int retained = retentionPolicy.retainedCount(stored,
+                checkpoint -> info.get(checkpoint.getId())[0],
+                checkpoint -> info.get(checkpoint.getId())[1]);
+
+        for (int i = retained; i < keys.size(); ++i) {
+            checkpoints.remove(keys.get(i));
+            checkpointKeys.remove(checkpointIdKey(threadId, stored.get(i).getId()));
+        }
+    }
+
+    /**
+     * Releases the thread: its checkpoints are moved to a new released version of the thread.
+     *
+     * @param config the runnable config
+     * @return the released checkpoints
+     * @throws Exception if an error occurs decoding the checkpoints
+     */
+    @Override
+    public Tag release(RunnableConfig config) throws Exception {
+        final var threadId = threadIdOf(config);
+        final var prefix = prefixOf(threadId);
+
+        final Tag result;
+        final long write;
+        _lock.lock();
+        try {
+            int version = ofNullable(releases.lowerKey(upperBoundOf(threadId)))
+                    .filter(key -> key.startsWith(prefix))
+                    .map(key -> Integer.parseInt(key.substring(prefix.length()), 16) + 1)
+                    .orElse(1);
+            var releaseKey = format("%s%08x", prefix, version);
+
+            var keys = new ArrayList<String>();
+            var released = new ArrayList<Checkpoint>();
+
+            var cursor = checkpoints.cursor(upperBoundOf(threadId), prefix, true);
+            while (cursor.hasNext()) {
+                var key = cursor.next();
+                var record = cursor.getValue();
+                var checkpointId = checkpointIdOf(key, prefix);
+                keys.add(key);
+                released.add(decode(checkpointId, record));
+                releasedCheckpoints.put(releaseKey + SEPARATOR + key.substring(prefix.length()), record);
+            }
+            for (int i = 0; i < keys.size(); ++i) {
+                checkpoints.remove(keys.get(i));
+                checkpointKeys.remove(checkpointIdKey(threadId, released.get(i).getId()));
+            }
+            releases.put(releaseKey, now());
+
+            result = new Tag(threadId, released);
+            write = writeDone();
+        } finally {
+            _lock.unlock();
+        }
+        awaitCommit(write);
+        return result;
+    }
+
+    @Override
+    public Optional<CheckpointRetentionPolicy> retentionPolicy() {
+        return ofNullable(retentionPolicy);
+    }
+
+    /**
+     * Purges the released versions older than the {@link CheckpointRetentionPolicy#maxAge()}.
+     *
+     * @return the number of purged versions
+     */
+    @Override
+    public int sweep() {
+        if (retentionPolicy == null || retentionPolicy.maxAge().isEmpty()) {
+            return 0;
+        }
+        final int result;
+        final long write;
+        _lock.lock();
+        try {
+            var expired = new ArrayList<String>();
+            for (var release : releases.entrySet()) {
+                if (retentionPolicy.isExpired(release.getValue())) {
+                    expired.add(release.getKey());
+                }
+            }
+            for (var releaseKey : expired) {
+                var keys = new ArrayList<String>();
+                var cursor = releasedCheckpoints.cursor(releaseKey + SEPARATOR, releaseKey + UPPER_BOUND, false);
+                while (cursor.hasNext()) {
+                    keys.add(cursor.next());
+                }
+                keys.forEach(releasedCheckpoints::remove);
+                releases.remove(releaseKey);
+            }
+            result = expired.size();
+            write = writeDone();
+        } finally {
+            _lock.unlock();
+        }
+        awaitCommit(write);
+        return result;
+    }
+
+    /**
+     * Commits the pending changes, without waiting for the next background commit.
+     */
+    public void commit() {
+        store.commit();
+    }
+
+    /**
+     * Commits the pending changes and closes the store.
+     */
+    @Override
+    public void close() {
+        store.close();
+    }
+
+    /**
+     * A builder for MVStoreSaver.
+     */
+    public static class Builder {
+        private Path path;
+        private StateSerializer<? extends AgentState> stateSerializer;
+        private Duration commitDelay = Duration.ofMillis(100);
+        private boolean commitOnPut = true;
+        private int cacheSize = 16;
+        private boolean compress;
+        private CheckpointRetentionPolicy retentionPolicy;
+
+        /**
+         * Sets the store file (default none, the store is kept in memory).
+         *
+         * @param path the store file
+         * @return this builder
+         */
+        public Builder path(Path path) {
+            this.path = path;
+            return this;
+        }
+
+        /**
+         * Sets the serializer used to store the state. It should be the state serializer of the graph.
+         *
+         * @param stateSerializer the state serializer
+         * @param <State>         the type of the state
+         * @return this builder
+         */
+        public <State extends AgentState> Builder stateSerializer(StateSerializer<State> stateSerializer) {
+            this.stateSerializer = stateSerializer;
+            return this;
+        }
+
+        /**
+         * Sets the background commit window (default 100ms): when {@link #commitOnPut(boolean)} is false, the changes
+         * are written by a background thread, as a single chunk, at most after the given delay.
+         *
+         * @param commitDelay the background commit window
+         * @return this builder
+         */
+        public Builder commitDelay(Duration commitDelay) {
+            requireNonNull(commitDelay, "commitDelay cannot be null");
+            if (commitDelay.isNegative() || commitDelay.isZero()) {
+                throw new IllegalArgumentException("commitDelay must be positive!");
+            }
+            this.commitDelay = commitDelay;
+            return this;
+        }
+
+        /**
+         * Makes each put, release and sweep return once its changes are committed (default true).
+         * The concurrent callers share the commits, so the cost of a commit is paid once for all of them.
+         * If false, they return before the commit, that is left to the background thread: the latency is lower,
+         * but the changes of the last {@link #commitDelay(Duration)} are lost on crash.
+         *
+         * @param commitOnPut false to defer the commits to the background thread
+         * @return this builder
+         */
+        public Builder commitOnPut(boolean commitOnPut) {
+            this.commitOnPut = commitOnPut;
+            return this;
+        }
+
+        /**
+         * Sets the page cache size in MB (default 16).
+         *
+         * @param cacheSize the cache size in MB
+         * @return this builder
+         */
+        public Builder cacheSize(int cacheSize) {
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
+        /**
+         * Compresses the stored pages (default false).
+         *
+         * @param compress true to compress the stored pages
+         * @return this builder
+         */
+        public Builder compress(boolean compress) {
+            this.compress = compress;
+            return this;
+        }
+
+        /**
+         * Sets the retention policy of the checkpoints (default none, the checkpoint history is unbounded).
+         *
+         * @param retentionPolicy the retention policy
+         * @return this builder
+         */
+        public Builder retentionPolicy(CheckpointRetentionPolicy retentionPolicy) {
+            this.retentionPolicy = retentionPolicy;
+            return this;
+        }
+
+        /**
+         * Creates a new instance of MVStoreSaver
+         *
+         * @return the new instance of MVStoreSaver.
+         */
+        public MVStoreSaver build() {
+            requireNonNull(stateSerializer, "stateSerializer cannot be null");
+            return new MVStoreSaver(this);
+        }
+    }
+}
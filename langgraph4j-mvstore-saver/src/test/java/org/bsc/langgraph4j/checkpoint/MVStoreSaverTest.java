@@ -0,0 +1,274 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import org.bsc.langgraph4j.CompileConfig;
+import org.bsc.langgraph4j.GraphInput;
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.StateGraph;
+import org.bsc.langgraph4j.serializer.std.ObjectStreamStateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.bsc.langgraph4j.StateGraph.END;
+import static org.bsc.langgraph4j.StateGraph.START;
+import static org.bsc.langgraph4j.action.AsyncNodeAction.node_async;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MVStoreSaverTest {
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(MVStoreSaverTest.class);
+
+    static class MutableClock extends Clock {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    final ObjectStreamStateSerializer<AgentState> stateSerializer = new ObjectStreamStateSerializer<>(AgentState::new);
+
+    private static Checkpoint checkpoint(int step) {
+        return Checkpoint.builder()
+                .nodeId("node")
+                .nextNodeId("next")
+                .state(Map.of("step", step))
+                .build();
+    }
+
+    private static List<Object> steps(BaseCheckpointSaver saver, RunnableConfig config) {
+        return saver.list(config).stream()
+                .map(c -> c.getState().get("step"))
+                .toList();
+    }
+
+    @Test
+    public void putGetList(@TempDir Path folder) throws Exception {
+        var file = folder.resolve("checkpoints.mv");
+        var config = RunnableConfig.builder().threadId("T1").build();
+        var other = RunnableConfig.builder().threadId("T").build();
+
+        String secondId;
+        try (var saver = MVStoreSaver.builder().path(file).stateSerializer(stateSerializer).build()) {
+            assertTrue(saver.get(config).isEmpty());
+            assertTrue(saver.list(config).isEmpty());
+
+            for (int step = 1; step <= 20; ++step) {
+                saver.put(config, checkpoint(step));
+            }
+            saver.put(other, checkpoint(100));
+
+            secondId = saver.list(config).stream().toList().get(18).getId();
+        }
+
+        // reopen
+        try (var saver = MVStoreSaver.builder().path(file).stateSerializer(stateSerializer).build()) {
+            var last = saver.get(config).orElseThrow();
+            assertEquals(20, last.getState().get("step"));
+            assertEquals("node", last.getNodeId());
+            assertEquals("next", last.getNextNodeId());
+
+            assertEquals(20, steps(saver, config).size());
+            assertEquals(20, steps(saver, config).get(0));
+            assertEquals(1, steps(saver, config).get(19));
+            assertEquals(List.of(100), steps(saver, other));
+
+            var second = saver.get(RunnableConfig.builder(config).checkPointId(secondId).build()).orElseThrow();
+            assertEquals(2, second.getState().get("step"));
+
+            // sequence continues after reopen
+            saver.put(config, checkpoint(21));
+            assertEquals(21, saver.get(config).orElseThrow().getState().get("step"));
+        }
+    }
+
+    @Test
+    public void replaceCheckpoint() throws Exception {
+        try (var saver = MVStoreSaver.builder().stateSerializer(stateSerializer).build()) {
+            var config = RunnableConfig.builder().threadId("T1").build();
+
+            saver.put(config, checkpoint(1));
+            var newConfig = saver.put(config, checkpoint(2));
+            saver.put(config, checkpoint(3));
+
+            var replaced = Checkpoint.copyOf(checkpoint(20));
+            saver.put(newConfig, replaced);
+
+            assertEquals(List.of(3, 20, 1), steps(saver, config));
+            assertTrue(saver.get(newConfig).isEmpty());
+            assertEquals(20, saver.get(RunnableConfig.builder(config).checkPointId(replaced.getId()).build())
+                    .orElseThrow().getState().get("step"));
+
+            assertThrows(NoSuchElementException.class,
+                    () -> saver.put(RunnableConfig.builder(config).checkPointId("missing").build(), checkpoint(4)));
+        }
+    }
+
+    @Test
+    public void releaseAndSweep() throws Exception {
+        var clock = new MutableClock();
+        var policy = CheckpointRetentionPolicy.builder()
+                .maxCheckpoints(3)
+                .maxAge(Duration.ofDays(1))
+                .clock(clock)
+                .build();
+        try (var saver = MVStoreSaver.builder().stateSerializer(stateSerializer).retentionPolicy(policy).build()) {
+            var config = RunnableConfig.builder().threadId("T1").build();
+
+            for (int step = 1; step <= 10; ++step) {
+                saver.put(config, checkpoint(step));
+            }
+            assertEquals(List.of(10, 9, 8), steps(saver, config));
+
+            var tag = saver.release(config);
+            assertEquals("T1", tag.threadId());
+            assertEquals(3, tag.checkpoints().size());
+            assertTrue(saver.get(config).isEmpty());
+
+            clock.advance(Duration.ofHours(12));
+            saver.put(config, checkpoint(11));
+            saver.release(config);
+
+            assertEquals(0, saver.sweep());
+            clock.advance(Duration.ofHours(13));
+            assertEquals(1, saver.sweep());
+            clock.advance(Duration.ofDays(1));
+            assertEquals(1, saver.sweep());
+            assertEquals(0, saver.sweep());
+        }
+    }
+
+    @Test
+    public void resumeGraphFromStore(@TempDir Path folder) throws Exception {
+        var file = folder.resolve("graph.mv");
+
+        var workflow = new StateGraph<>(AgentState::new)
+                .addNode("agent_1", node_async(state -> Map.of("agent_1:prop1", "agent_1:test")))
+                .addNode("agent_2", node_async(state -> Map.of("agent_2:prop1", "agent_2:test")))
+                .addEdge(START, "agent_1")
+                .addEdge("agent_1", "agent_2")
+                .addEdge("agent_2", END);
+
+        var runnableConfig = RunnableConfig.builder().threadId("thread_1").build();
+
+        try (var saver = MVStoreSaver.builder().path(file).stateSerializer(workflow.getStateSerializer()).build()) {
+            var app = workflow.compile(CompileConfig.builder()
+                    .checkpointSaver(saver)
+                    .interruptBefore("agent_2")
+                    .build());
+            var result = app.invoke(Map.of("input", "test1"), runnableConfig);
+            assertTrue(result.isPresent());
+            assertFalse(result.get().data().containsKey("agent_2:prop1"));
+        }
+
+        try (var saver = MVStoreSaver.builder().path(file).stateSerializer(workflow.getStateSerializer()).build()) {
+            var app = workflow.compile(CompileConfig.builder()
+                    .checkpointSaver(saver)
+                    .interruptBefore("agent_2")
+                    .build());
+            var state = app.getState(runnableConfig);
+            assertEquals("agent_2", state.next());
+
+            var result = app.invoke(GraphInput.resume(), runnableConfig);
+            assertTrue(result.isPresent());
+            assertEquals("agent_2:test", result.get().data().get("agent_2:prop1"));
+        }
+    }
+
+    @Test
+    public void concurrentPutsShareCommits(@TempDir Path folder) throws Exception {
+        final int threads = 8, steps = 50;
+        var path = folder.resolve("group.mv");
+        try (var saver = MVStoreSaver.builder()
+                .path(path)
+                .stateSerializer(stateSerializer)
+                .commitDelay(Duration.ofHours(1)) // no background commit
+                .build()) {
+            var executor = Executors.newFixedThreadPool(threads);
+            try {
+                var futures = new ArrayList<Future<?>>();
+                for (int t = 0; t < threads; ++t) {
+                    var config = RunnableConfig.builder().threadId("T" + t).build();
+                    futures.add(executor.submit(() -> {
+                        for (int step = 0; step < steps; ++step) {
+                            saver.put(config, checkpoint(step));
+                        }
+                        return null;
+                    }));
+                }
+                for (var future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+            assertTrue(saver.commitCount() <= threads * steps);
+            log.info("MVStoreSaver: {} puts in {} commits", threads * steps, saver.commitCount());
+
+            // the acknowledged puts survive a crash: the file is copied while the store is still open
+            var copy = folder.resolve("crash.mv");
+            Files.copy(path, copy);
+            try (var recovered = MVStoreSaver.builder()
+                    .path(copy)
+                    .stateSerializer(stateSerializer)
+                    .build()) {
+                for (int t = 0; t < threads; ++t) {
+                    var config = RunnableConfig.builder().threadId("T" + t).build();
+                    assertEquals(steps, recovered.list(config).size());
+                    assertEquals(steps - 1, recovered.get(config).orElseThrow().getState().get("step"));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void deferredCommitThroughput(@TempDir Path folder) throws Exception {
+        final int count = 20_000;
+        try (var saver = MVStoreSaver.builder()
+                .path(folder.resolve("throughput.mv"))
+                .stateSerializer(stateSerializer)
+                .commitOnPut(false)
+                .build()) {
+            var config = RunnableConfig.builder().threadId("T1").build();
+
+            long start = System.nanoTime();
+            for (int step = 0; step < count; ++step) {
+                saver.put(config, checkpoint(step));
+            }
+            saver.commit();
+            long elapsed = System.nanoTime() - start;
+
+            log.info("MVStoreSaver: {} checkpoints in {}ms ({} checkpoints/s)",
+                    count, elapsed / 1_000_000, (long) (count / (elapsed / 1e9)));
+
+            assertEquals(count - 1, saver.get(config).orElseThrow().getState().get("step"));
+        }
+    }
+}
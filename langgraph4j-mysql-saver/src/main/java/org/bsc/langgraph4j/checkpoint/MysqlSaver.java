@@ -1,11 +1,20 @@
 package org.bsc.langgraph4j.checkpoint;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysql.cj.jdbc.MysqlDataSource;
 import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.serializer.StateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+import org.bsc.langgraph4j.utils.TimeOrderedUUID;
 
 import javax.sql.DataSource;
+import java.io.IOException;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import static java.lang.String.format;
 
 /**
  * <p>
@@ -25,13 +34,16 @@ import java.util.*;
  *          ON LANGRAPH4J_THREAD(thread_name, is_released)
  *
  *     CREATE TABLE LANGRAPH4J_CHECKPOINT (
- *          checkpoint_id VARCHAR(36) PRIMARY KEY,
  *          thread_id VARCHAR(36) NOT NULL,
+ *          seq BIGINT NOT NULL,
+ *          checkpoint_id VARCHAR(36) NOT NULL,
  *          node_id VARCHAR(255),
  *          next_node_id VARCHAR(255),
  *          state_data JSON NOT NULL,
  *          saved_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
  *
+ *          PRIMARY KEY (thread_id, seq),
+ *          UNIQUE KEY UK_LANGRAPH4J_CHECKPOINT_ID (checkpoint_id),
  *          CONSTRAINT LANGRAPH4J_FK_THREAD
  *              FOREIGN KEY(thread_id)
  *              REFERENCES LANGRAPH4J_THREAD(thread_id)
@@ -46,6 +58,29 @@ import java.util.*;
  * to the database
  * - CreateOption : indicates whether the tables should be created or
  * existing tables should be used.
+ * - StateSerializer (optional): if set, the state is serialized with the graph
+ * state serializer and stored, base64 encoded, in the JSON column, otherwise
+ * the state is converted to JSON using Jackson.
+ * - serverPreparedStatements (optional): if the data source is a
+ * {@link MysqlDataSource}, enables server-side prepared statements and their
+ * client-side cache.
+ * - CheckpointRetentionPolicy (optional): prunes the checkpoints of a thread on
+ * each put, and the expired released threads on {@link #sweep()}.
+ * </p>
+ * <p>
+ * The checkpoints are clustered by thread and per-thread sequence number (the
+ * InnoDB primary key), so the history of a thread is stored contiguously and
+ * new checkpoints are appended at the end of the thread range. Thread and
+ * checkpoint ids are time-ordered UUIDs.
+ * </p>
+ * <p>
+ * The database id of each open thread is cached, so after the first checkpoint
+ * of a thread each new checkpoint is written by locking the thread row and
+ * inserting the checkpoint within one transaction. The first checkpoint of a
+ * thread also registers the thread in the same transaction. The lock serializes
+ * the writers of the same thread, also from other processes, so that each one
+ * evaluates the next sequence number after the previous one is committed.
+ * The cache assumes that open threads are released through this instance.
  * </p>
  * <p>
  * Ex:
@@ -58,7 +93,7 @@ import java.util.*;
  * </pre>
  * </p>
  */
-public class MysqlSaver extends MemorySaver {
+public class MysqlSaver extends MemorySaver implements AutoCloseable {
 
     // DDL statements
     private static final String CREATE_THREAD_TABLE = """
@@ -75,13 +110,16 @@ public class MysqlSaver extends MemorySaver {
 
     private static final String CREATE_CHECKPOINT_TABLE = """
             CREATE TABLE IF NOT EXISTS LANGRAPH4J_CHECKPOINT (
-               checkpoint_id VARCHAR(36) PRIMARY KEY,
                thread_id VARCHAR(36) NOT NULL,
+               seq BIGINT NOT NULL,
+               checkpoint_id VARCHAR(36) NOT NULL,
                node_id VARCHAR(255),
                next_node_id VARCHAR(255),
                state_data JSON NOT NULL,
                saved_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
 
+               PRIMARY KEY (thread_id, seq),
+               UNIQUE KEY UK_LANGRAPH4J_CHECKPOINT_ID (checkpoint_id),
                CONSTRAINT LANGRAPH4J_FK_THREAD
                    FOREIGN KEY(thread_id)
                    REFERENCES LANGRAPH4J_THREAD(thread_id)
@@ -98,13 +136,26 @@ public class MysqlSaver extends MemorySaver {
             ON DUPLICATE KEY UPDATE thread_id = thread_id
             """;
 
-    private static final String INSERT_CHECKPOINT = """
-            INSERT INTO LANGRAPH4J_CHECKPOINT(checkpoint_id, thread_id, node_id, next_node_id, state_data)
-            SELECT ?, thread_id, ?, ?, ?
+    private static final String SELECT_THREAD_ID = """
+            SELECT thread_id
             FROM LANGRAPH4J_THREAD
             WHERE thread_name = ? AND is_released = FALSE
             """;
 
+    private static final String LOCK_THREAD = """
+            SELECT thread_id
+            FROM LANGRAPH4J_THREAD
+            WHERE thread_id = ?
+            FOR UPDATE
+            """;
+
+    private static final String INSERT_CHECKPOINT = """
+            INSERT INTO LANGRAPH4J_CHECKPOINT(checkpoint_id, thread_id, seq, node_id, next_node_id, state_data)
+            SELECT ?, ?, COALESCE(MAX(seq), 0) + 1, ?, ?, ?
+            FROM LANGRAPH4J_CHECKPOINT
+            WHERE thread_id = ?
+            """;
+
     private static final String UPDATE_CHECKPOINT = """
             UPDATE LANGRAPH4J_CHECKPOINT
             SET
@@ -120,17 +171,28 @@ public class MysqlSaver extends MemorySaver {
               c.checkpoint_id,
               c.node_id,
               c.next_node_id,
-              c.state_data
+              c.state_data,
+              t.thread_id,
+              c.saved_at
             FROM LANGRAPH4J_CHECKPOINT c
               INNER JOIN LANGRAPH4J_THREAD t ON c.thread_id = t.thread_id
             WHERE t.thread_name = ? AND t.is_released != TRUE
-            ORDER BY c.saved_at DESC
+            ORDER BY c.seq DESC
             """;
 
     private static final String DELETE_CHECKPOINTS = """
                 DELETE FROM LANGRAPH4J_CHECKPOINT WHERE checkpoint_id = ?
             """;
 
+    private static final String DELETE_EXPIRED_RELEASED_THREADS = """
+            DELETE t FROM LANGRAPH4J_THREAD t
+            WHERE t.is_released = TRUE
+            AND NOT EXISTS (
+                SELECT 1 FROM LANGRAPH4J_CHECKPOINT c
+                WHERE c.thread_id = t.thread_id AND c.saved_at >= ?
+            )
+            """;
+
     private static final String RELEASE_THREAD = """
             UPDATE LANGRAPH4J_THREAD SET is_released = TRUE WHERE thread_name = ? AND is_released = FALSE
             """;
@@ -139,21 +201,49 @@ public class MysqlSaver extends MemorySaver {
     private final DataSource dataSource;
     private final CreateOption createOption;
     private final ObjectMapper objectMapper;
+    private final StateSerializer<? extends AgentState> stateSerializer;
+    private final Executor asyncExecutor;
+    // created on the first asynchronous operation, null if the executor is set by the builder
+    private final LazyExecutor defaultExecutor;
+
+    // database thread id of the open threads, by thread name
+    private final Map<String, String> openThreadIds = new ConcurrentHashMap<>();
 
     /**
      * Private constructor used by the builder to create a new instance of
      * MysqlSaver.
      * 
-     * @param dataSource   the data source
-     * @param createOption the create options
+     * @param builder the builder
      */
-    private MysqlSaver(DataSource dataSource, CreateOption createOption) {
-        this.dataSource = dataSource;
-        this.createOption = createOption;
+    private MysqlSaver(Builder builder) {
+        super(builder.retentionPolicy);
+        this.dataSource = builder.dataSource;
+        this.createOption = builder.createOption;
+        this.stateSerializer = builder.stateSerializer;
         this.objectMapper = new ObjectMapper();
+        this.defaultExecutor = (builder.asyncExecutor != null) ?
+                null :
+                LazyExecutor.bounded("langgraph4j-mysql-saver", AsyncCheckpointSaver.DEFAULT_ASYNC_THREADS);
+        this.asyncExecutor = (builder.asyncExecutor != null) ? builder.asyncExecutor : defaultExecutor;
         initTables();
     }
 
+    @Override
+    protected Executor asyncExecutor() {
+        return asyncExecutor;
+    }
+
+    /**
+     * Shuts down the default executor of the asynchronous operations, if it has been started.
+     * An executor set through the builder is owned by the caller and is left running.
+     */
+    @Override
+    public void close() {
+        if (defaultExecutor != null) {
+            defaultExecutor.close();
+        }
+    }
+
     /**
      * Creates an instance of a builder that allows to configure and create a new
      * instance of MysqlSaver.
@@ -188,15 +278,18 @@ public class MysqlSaver extends MemorySaver {
             preparedStatement.setString(1, threadName);
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 while (resultSet.next()) {
-                    String jsonString = resultSet.getString(4);
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> state = objectMapper.readValue(jsonString, Map.class);
+                    Map<String, Object> state = decodeState(resultSet.getString(4));
+                    openThreadIds.putIfAbsent(threadName, resultSet.getString(5));
                     Checkpoint checkpoint = Checkpoint.builder()
                             .id(resultSet.getString(1))
                             .nodeId(resultSet.getString(2))
                             .nextNodeId(resultSet.getString(3))
                             .state(state)
                             .build();
+                    Timestamp savedAt = resultSet.getTimestamp(6);
+                    if (savedAt != null) {
+                        loadedCheckpointSavedAt(checkpoint, savedAt.getTime());
+                    }
                     checkpoints.add(checkpoint);
                 }
             }
@@ -220,25 +313,111 @@ public class MysqlSaver extends MemorySaver {
             throws Exception {
 
         final String threadName = config.threadId().orElse(THREAD_ID_DEFAULT);
-        try (Connection connection = dataSource.getConnection();
-                PreparedStatement upsertStatement = connection.prepareStatement(UPSERT_THREAD);
-                PreparedStatement insertCheckpointStatement = connection.prepareStatement(INSERT_CHECKPOINT)) {
+        final String stateData = encodeState(checkpoint.getState());
+
+        try (Connection connection = dataSource.getConnection()) {
+
+            connection.setAutoCommit(false);
+            try {
+                final String cachedThreadId = openThreadIds.get(threadName);
+                final String resolvedThreadId = (cachedThreadId != null)
+                        ? cachedThreadId
+                        : resolveThreadId(connection, threadName);
+                lockThread(connection, resolvedThreadId);
+                insertCheckpoint(connection, resolvedThreadId, checkpoint, stateData);
+                connection.commit();
+                openThreadIds.put(threadName, resolvedThreadId);
+            } catch (SQLException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException sqlException) {
+            throw new RuntimeException("Unable to insert checkpoint", sqlException);
+        }
 
-            upsertStatement.setString(1, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Registers the thread, if not already present, and returns its database id.
+     */
+    private String resolveThreadId(Connection connection, String threadName) throws SQLException {
+        try (PreparedStatement upsertStatement = connection.prepareStatement(UPSERT_THREAD);
+                PreparedStatement selectStatement = connection.prepareStatement(SELECT_THREAD_ID)) {
+
+            upsertStatement.setString(1, TimeOrderedUUID.nextString());
             upsertStatement.setString(2, threadName);
             upsertStatement.execute();
 
-            insertCheckpointStatement.setString(1, checkpoint.getId());
-            insertCheckpointStatement.setString(2, checkpoint.getNodeId());
-            insertCheckpointStatement.setString(3, checkpoint.getNextNodeId());
-            insertCheckpointStatement.setString(4, objectMapper.writeValueAsString(checkpoint.getState()));
-            insertCheckpointStatement.setString(5, threadName);
+            selectStatement.setString(1, threadName);
+            try (ResultSet resultSet = selectStatement.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw new SQLException(format("Unable to resolve thread '%s'", threadName));
+                }
+                return resultSet.getString(1);
+            }
+        }
+    }
 
+    /**
+     * Locks the thread row until the end of the transaction.
+     */
+    private void lockThread(Connection connection, String threadId) throws SQLException {
+        try (PreparedStatement lockStatement = connection.prepareStatement(LOCK_THREAD)) {
+            lockStatement.setString(1, threadId);
+            try (ResultSet resultSet = lockStatement.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw new SQLException(format("Unable to lock thread '%s'", threadId));
+                }
+            }
+        }
+    }
+
+    private void insertCheckpoint(Connection connection, String threadId, Checkpoint checkpoint, String stateData)
+            throws SQLException {
+        try (PreparedStatement insertCheckpointStatement = connection.prepareStatement(INSERT_CHECKPOINT)) {
+            insertCheckpointStatement.setString(1, checkpoint.getId());
+            insertCheckpointStatement.setString(2, threadId);
+            insertCheckpointStatement.setString(3, checkpoint.getNodeId());
+            insertCheckpointStatement.setString(4, checkpoint.getNextNodeId());
+            insertCheckpointStatement.setString(5, stateData);
+            insertCheckpointStatement.setString(6, threadId);
             insertCheckpointStatement.execute();
-        } catch (SQLException sqlException) {
-            throw new RuntimeException("Unable to insert checkpoint", sqlException);
         }
+    }
+
+    /**
+     * Encodes the state as JSON, using the state serializer if set.
+     */
+    private String encodeState(Map<String, Object> state) throws IOException {
+        if (stateSerializer == null) {
+            return objectMapper.writeValueAsString(state);
+        }
+        var payload = Map.of(
+                "contentType", stateSerializer.contentType(),
+                "binaryPayload", Base64.getEncoder().encodeToString(stateSerializer.dataToBytes(state)));
+        return objectMapper.writeValueAsString(payload);
+    }
+
+    /**
+     * Decodes the state from JSON. States written through the state serializer are recognized by their
+     * {@code binaryPayload} field, so that tables written with or without the state serializer can be read.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> decodeState(String jsonString) throws IOException, ClassNotFoundException {
+        Map<String, Object> state = objectMapper.readValue(jsonString, Map.class);
 
+        if (stateSerializer == null || state.size() != 2 || !(state.get("binaryPayload") instanceof String binaryPayload)) {
+            return state;
+        }
+        if (!Objects.equals(state.get("contentType"), stateSerializer.contentType())) {
+            throw new IllegalStateException(
+                    format("Content Type used for store state '%s' is different from one '%s' used for deserialize it",
+                            state.get("contentType"),
+                            stateSerializer.contentType()));
+        }
+        return stateSerializer.dataFromBytes(Base64.getDecoder().decode(binaryPayload));
     }
 
     /**
@@ -259,11 +438,60 @@ public class MysqlSaver extends MemorySaver {
                 PreparedStatement preparedStatement = connection.prepareStatement(RELEASE_THREAD)) {
             preparedStatement.setString(1, threadName);
             preparedStatement.execute();
+            openThreadIds.remove(threadName);
         } catch (SQLException sqlException) {
             throw new Exception("Unable to release checkpoint", sqlException);
         }
     }
 
+    /**
+     * Deletes the checkpoints pruned by the retention policy
+     *
+     * @param config      the configuration
+     * @param checkpoints the retained checkpoints
+     * @param removed     the pruned checkpoints
+     * @throws Exception if an error occurs while deleting the checkpoints
+     */
+    @Override
+    protected void removedCheckpoints(RunnableConfig config, LinkedList<Checkpoint> checkpoints, List<Checkpoint> removed)
+            throws Exception {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(DELETE_CHECKPOINTS)) {
+            for (Checkpoint checkpoint : removed) {
+                preparedStatement.setString(1, checkpoint.getId());
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+        } catch (SQLException sqlException) {
+            throw new Exception("Unable to delete checkpoints", sqlException);
+        }
+    }
+
+    /**
+     * Deletes the released threads whose last checkpoint is older than the
+     * {@link CheckpointRetentionPolicy#maxAge()}. Their checkpoints are deleted
+     * in cascade.
+     *
+     * @return the number of deleted threads
+     * @throws Exception if an error occurs while deleting the threads
+     */
+    @Override
+    public int sweep() throws Exception {
+        var policy = retentionPolicy().filter(p -> p.maxAge().isPresent()).orElse(null);
+        if (policy == null) {
+            return 0;
+        }
+        var cutoff = policy.clock().millis() - policy.maxAge().get().toMillis();
+
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(DELETE_EXPIRED_RELEASED_THREADS)) {
+            preparedStatement.setTimestamp(1, new Timestamp(cutoff));
+            return preparedStatement.executeUpdate();
+        } catch (SQLException sqlException) {
+            throw new Exception("Unable to delete expired threads", sqlException);
+        }
+    }
+
     /**
      * If the checkpoint exists, updates the checkpoint, otherwise it inserts it.
      * 
@@ -282,7 +510,7 @@ public class MysqlSaver extends MemorySaver {
                 preparedStatement.setString(1, checkpoint.getId());
                 preparedStatement.setString(2, checkpoint.getNodeId());
                 preparedStatement.setString(3, checkpoint.getNextNodeId());
-                preparedStatement.setString(4, objectMapper.writeValueAsString(checkpoint.getState()));
+                preparedStatement.setString(4, encodeState(checkpoint.getState()));
                 preparedStatement.setString(5, config.checkPointId().get());
                 preparedStatement.execute();
             } catch (SQLException sqlException) {
@@ -300,6 +528,7 @@ public class MysqlSaver extends MemorySaver {
         try (Connection connection = dataSource.getConnection();
                 Statement statement = connection.createStatement()) {
             if (createOption == CreateOption.CREATE_OR_REPLACE) {
+                openThreadIds.clear();
                 // Drop tables (indexes are automatically dropped with tables in MySQL)
                 statement.addBatch(DROP_CHECKPOINT_TABLE);
                 statement.addBatch(DROP_THREAD_TABLE);
@@ -320,17 +549,42 @@ public class MysqlSaver extends MemorySaver {
                     }
                 }
             }
+            checkCheckpointTable(connection);
         } catch (SQLException sqlException) {
             throw new RuntimeException("Unable to create tables", sqlException);
         }
     }
 
+    /**
+     * Fails fast if the checkpoint table exists with the schema of a previous version, without the {@code seq}
+     * column: the table is left as is by the creation statements and every insert would fail.
+     */
+    private void checkCheckpointTable(Connection connection) {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT 1 FROM LANGRAPH4J_CHECKPOINT WHERE 1 = 0").close();
+        } catch (SQLException e) {
+            // no table yet, nothing to check
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT seq FROM LANGRAPH4J_CHECKPOINT WHERE 1 = 0").close();
+        } catch (SQLException e) {
+            throw new IllegalStateException("table LANGRAPH4J_CHECKPOINT has the schema of a previous version (no 'seq' column): " +
+                    "migrate it as described in the README of the saver ('Migrating from previous versions'), or recreate it with CreateOption.CREATE_OR_REPLACE " +
+                    "(existing checkpoints are lost)", e);
+        }
+    }
+
     /**
      * A builder for MysqlSaver.
      */
     public static class Builder {
         private DataSource dataSource;
         private CreateOption createOption = CreateOption.CREATE_IF_NOT_EXISTS;
+        private StateSerializer<? extends AgentState> stateSerializer;
+        private boolean serverPreparedStatements;
+        private CheckpointRetentionPolicy retentionPolicy;
+        private Executor asyncExecutor;
 
         /**
          * Sets the datasource
@@ -354,13 +608,73 @@ public class MysqlSaver extends MemorySaver {
             return this;
         }
 
+        /**
+         * Sets the serializer used to store the state (default none, the state is converted to JSON using Jackson).
+         * It should be the state serializer of the graph.
+         *
+         * @param stateSerializer the state serializer
+         * @param <State>         the type of the state
+         * @return this builder
+         */
+        public <State extends AgentState> Builder stateSerializer(StateSerializer<State> stateSerializer) {
+            this.stateSerializer = stateSerializer;
+            return this;
+        }
+
+        /**
+         * Enables server-side prepared statements and their client-side cache (default false).
+         * It is applied only if the data source is a {@link MysqlDataSource}, for other data sources
+         * (e.g. connection pools) set the {@code useServerPrepStmts} and {@code cachePrepStmts}
+         * connection properties.
+         *
+         * @param serverPreparedStatements true to enable server-side prepared statements
+         * @return this builder
+         */
+        public Builder serverPreparedStatements(boolean serverPreparedStatements) {
+            this.serverPreparedStatements = serverPreparedStatements;
+            return this;
+        }
+
+        /**
+         * Sets the retention policy of the checkpoints (default none, the checkpoint history is unbounded).
+         *
+         * @param retentionPolicy the retention policy
+         * @return this builder
+         */
+        public Builder retentionPolicy(CheckpointRetentionPolicy retentionPolicy) {
+            this.retentionPolicy = retentionPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the executor running the asynchronous operations, used by the graph runner to store the checkpoints
+         * without blocking the node completion thread. It should not run more operations than the available connections
+         * (default a bounded executor of {@value AsyncCheckpointSaver#DEFAULT_ASYNC_THREADS} threads, started on the first
+         * asynchronous operation and shut down by {@link MysqlSaver#close()}). The given executor isn't shut down by the saver.
+         *
+         * @param asyncExecutor the executor
+         * @return this builder
+         */
+        public Builder asyncExecutor(Executor asyncExecutor) {
+            this.asyncExecutor = asyncExecutor;
+            return this;
+        }
+
         /**
          * Creates a new instance of MysqlSaver
          * 
          * @return the new instance of MysqlSaver.
          */
         public MysqlSaver build() {
-            return new MysqlSaver(dataSource, createOption);
+            if (serverPreparedStatements && dataSource instanceof MysqlDataSource mysqlDataSource) {
+                try {
+                    mysqlDataSource.setUseServerPrepStmts(true);
+                    mysqlDataSource.setCachePrepStmts(true);
+                } catch (SQLException sqlException) {
+                    throw new RuntimeException("Unable to enable server prepared statements", sqlException);
+                }
+            }
+            return new MysqlSaver(this);
         }
     }
 }
@@ -0,0 +1,144 @@
+package org.bsc.langgraph4j.checkpoint;
+
+import com.mysql.cj.jdbc.MysqlDataSource;
+import org.bsc.langgraph4j.CompileConfig;
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.StateGraph;
+import org.bsc.langgraph4j.instrumentation.GraphListener;
+import org.bsc.langgraph4j.state.AgentState;
+import org.bsc.langgraph4j.state.Channel;
+import org.bsc.langgraph4j.state.Channels;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.format;
+import static org.bsc.langgraph4j.StateGraph.END;
+import static org.bsc.langgraph4j.StateGraph.START;
+import static org.bsc.langgraph4j.action.AsyncEdgeAction.edge_async;
+import static org.bsc.langgraph4j.action.AsyncNodeAction.node_async;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures the per-step checkpoint latency of MysqlSaver against a MySQL testcontainer.
+ */
+public class MysqlSaverITest {
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(MysqlSaverITest.class);
+
+    static final int STEPS = 200;
+
+    static MySQLContainer<?> mysqlContainer;
+    static MysqlDataSource DATA_SOURCE;
+
+    static class State extends AgentState {
+        static final Map<String, Channel<?>> SCHEMA = Map.of(
+                "messages", Channels.appender(ArrayList::new));
+
+        State(Map<String, Object> initData) {
+            super(initData);
+        }
+
+        List<String> messages() {
+            return this.<List<String>>value("messages").orElseGet(List::of);
+        }
+    }
+
+    @BeforeAll
+    @SuppressWarnings("resource")
+    public static void setup() {
+        mysqlContainer = new MySQLContainer<>(MysqlSaverTest.MYSQL_IMAGE_NAME)
+                .withDatabaseName("testdb")
+                .withUsername("testuser")
+                .withPassword("testpwd");
+        mysqlContainer.start();
+
+        DATA_SOURCE = new MysqlDataSource();
+        MysqlSaverTest.initDataSource(DATA_SOURCE,
+                mysqlContainer.getJdbcUrl(),
+                mysqlContainer.getUsername(),
+                mysqlContainer.getPassword());
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (mysqlContainer != null) {
+            mysqlContainer.close();
+        }
+    }
+
+    private List<Long> runSteps(MysqlSaver saver, String threadId) throws Exception {
+        final var latencies = Collections.synchronizedList(new ArrayList<Long>());
+
+        var graph = new StateGraph<>(State.SCHEMA, State::new)
+                .addNode("agent", node_async(state -> Map.of("messages", format("step %d", state.messages().size()))))
+                .addEdge(START, "agent")
+                .addConditionalEdges("agent",
+                        edge_async(state -> state.messages().size() < STEPS ? "next" : "exit"),
+                        Map.of("next", "agent", "exit", END));
+
+        var workflow = graph.compile(CompileConfig.builder()
+                .checkpointSaver(saver)
+                .recursionLimit(STEPS * 2)
+                .listener(new GraphListener() {
+                    @Override
+                    public void onCheckpointPut(RunnableConfig config, Checkpoint checkpoint, long durationNanos) {
+                        latencies.add(durationNanos);
+                    }
+                })
+                .build());
+
+        var runnableConfig = RunnableConfig.builder().threadId(threadId).build();
+
+        var result = workflow.invoke(Map.of(), runnableConfig);
+
+        assertTrue(result.isPresent());
+        assertEquals(STEPS, result.get().messages().size());
+
+        // reload from database
+        var reloaded = MysqlSaver.builder()
+                .dataSource(DATA_SOURCE)
+                .createOption(CreateOption.CREATE_NONE)
+                .stateSerializer(graph.getStateSerializer())
+                .build();
+        var last = reloaded.get(runnableConfig);
+        assertTrue(last.isPresent());
+
+        return latencies;
+    }
+
+    private void report(String name, List<Long> latencies) {
+        var sorted = latencies.stream().sorted().toList();
+        var avg = sorted.stream().mapToLong(Long::longValue).average().orElse(0) / 1_000_000.0;
+        var p50 = sorted.get(sorted.size() / 2) / 1_000_000.0;
+        var p99 = sorted.get((int) (sorted.size() * 0.99)) / 1_000_000.0;
+        log.info("{}: steps={} avg={}ms p50={}ms p99={}ms",
+                name, sorted.size(),
+                format("%.3f", avg), format("%.3f", p50), format("%.3f", p99));
+    }
+
+    @Test
+    public void measurePerStepLatency() throws Exception {
+
+        var saver = MysqlSaver.builder()
+                .dataSource(DATA_SOURCE)
+                .createOption(CreateOption.CREATE_OR_REPLACE)
+                .serverPreparedStatements(true)
+                .stateSerializer(new StateGraph<>(State.SCHEMA, State::new).getStateSerializer())
+                .build();
+
+        // warm up
+        runSteps(saver, "warmup");
+
+        var latencies = runSteps(saver, "measure");
+
+        assertEquals(STEPS + 1, latencies.size());
+
+        report("MysqlSaver checkpoint put", latencies);
+    }
+}
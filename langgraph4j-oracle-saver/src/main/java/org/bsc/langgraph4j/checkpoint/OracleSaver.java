@@ -8,11 +8,13 @@ import oracle.jdbc.OracleTypes;
 import oracle.jdbc.provider.oson.OsonFactory;
 import oracle.sql.json.OracleJsonDatum;
 import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.utils.TimeOrderedUUID;
 
 import javax.sql.DataSource;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.Executor;
 
 /**
  * <p>
@@ -32,13 +34,15 @@ import java.util.*;
  *          ON LANGRAPH4J_THREAD(thread_name, is_released)
  *
  *     CREATE TABLE LANGRAPH4J_CHECKPOINT (
- *          checkpoint_id VARCHAR2(36) PRIMARY KEY,
  *          thread_id VARCHAR2(36) NOT NULL,
+ *          seq NUMBER(19) NOT NULL,
+ *          checkpoint_id VARCHAR2(36) NOT NULL UNIQUE,
  *          node_id VARCHAR(255),
  *          next_node_id VARCHAR(255),
  *          state_data JSON NOT NULL,
  *          saved_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
  *
+ *          PRIMARY KEY (thread_id, seq),
  *          CONSTRAINT LANGRAPH4J_FK_THREAD
  *              FOREIGN KEY(thread_id)
  *              REFERENCES LANGRAPH4J_THREAD(thread_id)
@@ -47,12 +51,21 @@ import java.util.*;
  * </pre>
  * </p>
  * <p>
+ * The checkpoints are keyed by thread and per-thread sequence number, and the
+ * history of a thread is read in sequence order through the primary key.
+ * Thread and checkpoint ids are time-ordered UUIDs. A checkpoint table created by a
+ * previous version, without the {@code seq} column, is rejected at startup: see the
+ * README of the module to migrate it.
+ * </p>
+ * <p>
  * A builder can be use to create an instance or OracleSaver. The builder
  * allows to configure the following options:
  * - DataSource: indicates which data source should be used to connect
  * to the database
  * - CreateOption : indicates whether the tables should be created or
  * existing tables should be used.
+ * - CheckpointRetentionPolicy (optional): prunes the checkpoints of a thread on
+ * each put, and the expired released threads on {@link #sweep()}.
  * </p>
  * <p>
  * Ex:
@@ -65,7 +78,7 @@ import java.util.*;
  * </pre>
  * </p>
  */
-public class OracleSaver extends MemorySaver {
+public class OracleSaver extends MemorySaver implements AutoCloseable {
 
     // DDL statements
     private static final String CREATE_THREAD_TABLE = """
@@ -82,13 +95,15 @@ public class OracleSaver extends MemorySaver {
 
     private static final String CREATE_CHECKPOINT_TABLE = """
             CREATE TABLE IF NOT EXISTS LANGRAPH4J_CHECKPOINT (
-               checkpoint_id VARCHAR2(36) PRIMARY KEY,
                thread_id VARCHAR2(36) NOT NULL,
+               seq NUMBER(19) NOT NULL,
+               checkpoint_id VARCHAR2(36) NOT NULL UNIQUE,
                node_id VARCHAR(255),
                next_node_id VARCHAR(255),
                state_data JSON NOT NULL,
                saved_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
 
+               PRIMARY KEY (thread_id, seq),
                CONSTRAINT LANGRAPH4J_FK_THREAD
                    FOREIGN KEY(thread_id)
                    REFERENCES LANGRAPH4J_THREAD(thread_id)
@@ -108,10 +123,12 @@ public class OracleSaver extends MemorySaver {
             """;
 
     private static final String INSERT_CHECKPOINT = """
-            INSERT INTO LANGRAPH4J_CHECKPOINT(checkpoint_id, thread_id, node_id, next_node_id, state_data)
-            SELECT ?, thread_id, ?, ?, ?
-            FROM LANGRAPH4J_THREAD
-            WHERE THREAD_NAME = ? AND IS_RELEASED = FALSE
+            INSERT INTO LANGRAPH4J_CHECKPOINT(checkpoint_id, thread_id, seq, node_id, next_node_id, state_data)
+            SELECT ?, t.thread_id,
+                   (SELECT COALESCE(MAX(c.seq), 0) + 1 FROM LANGRAPH4J_CHECKPOINT c WHERE c.thread_id = t.thread_id),
+                   ?, ?, ?
+            FROM LANGRAPH4J_THREAD t
+            WHERE t.THREAD_NAME = ? AND t.IS_RELEASED = FALSE
             """;
 
     private static final String UPDATE_CHECKPOINT = """
@@ -129,17 +146,27 @@ public class OracleSaver extends MemorySaver {
               c.checkpoint_id,
               c.node_id,
               c.next_node_id,
-              c.state_data
+              c.state_data,
+              c.saved_at
             FROM LANGRAPH4J_CHECKPOINT c
               INNER JOIN LANGRAPH4J_THREAD t ON c.thread_id = t.thread_id
             WHERE t.thread_name = ? AND t.is_released != TRUE
-            ORDER BY c.saved_at DESC
+            ORDER BY c.seq DESC
             """;
 
     private static final String DELETE_CHECKPOINTS = """
                 DELETE FROM LANGRAPH4J_CHECKPOINT WHERE checkpoint_id = ?
             """;
 
+    private static final String DELETE_EXPIRED_RELEASED_THREADS = """
+            DELETE FROM LANGRAPH4J_THREAD t
+            WHERE t.is_released = TRUE
+            AND NOT EXISTS (
+                SELECT 1 FROM LANGRAPH4J_CHECKPOINT c
+                WHERE c.thread_id = t.thread_id AND c.saved_at >= ?
+            )
+            """;
+
     private static final String RELEASE_THREAD = """
             UPDATE LANGRAPH4J_THREAD SET is_released = TRUE WHERE thread_name = ? AND is_released = FALSE
             """;
@@ -147,20 +174,46 @@ public class OracleSaver extends MemorySaver {
     // Configuration
     private final DataSource dataSource;
     private final CreateOption createOption;
+    private final Executor asyncExecutor;
+    // created on the first asynchronous operation, null if the executor is set by the builder
+    private final LazyExecutor defaultExecutor;
 
     /**
      * Private constructor used by the builder to create a new instance of
      * OracleSaver.
      * 
-     * @param dataSource   the data source
-     * @param createOption the create options
+     * @param dataSource      the data source
+     * @param createOption    the create options
+     * @param retentionPolicy the retention policy, may be null
+     * @param asyncExecutor   the executor of the asynchronous operations, may be null
      */
-    private OracleSaver(DataSource dataSource, CreateOption createOption) {
+    private OracleSaver(DataSource dataSource, CreateOption createOption, CheckpointRetentionPolicy retentionPolicy, Executor asyncExecutor) {
+        super(retentionPolicy);
         this.dataSource = dataSource;
         this.createOption = createOption;
+        this.defaultExecutor = (asyncExecutor != null) ?
+                null :
+                LazyExecutor.bounded("langgraph4j-oracle-saver", AsyncCheckpointSaver.DEFAULT_ASYNC_THREADS);
+        this.asyncExecutor = (asyncExecutor != null) ? asyncExecutor : defaultExecutor;
         initTables();
     }
 
+    @Override
+    protected Executor asyncExecutor() {
+        return asyncExecutor;
+    }
+
+    /**
+     * Shuts down the default executor of the asynchronous operations, if it has been started.
+     * An executor set through the builder is owned by the caller and is left running.
+     */
+    @Override
+    public void close() {
+        if (defaultExecutor != null) {
+            defaultExecutor.close();
+        }
+    }
+
     /**
      * Creates an instance of a builder that allows to configure and create a new
      * instace of OracleSaver.
@@ -221,6 +274,10 @@ public class OracleSaver extends MemorySaver {
                             .nextNodeId(resultSet.getString(3))
                             .state(objectMapper.readValue(osonBytes, Map.class))
                             .build();
+                    Timestamp savedAt = resultSet.getTimestamp(5);
+                    if (savedAt != null) {
+                        loadedCheckpointSavedAt(checkpoint, savedAt.getTime());
+                    }
                     checkpoints.add(checkpoint);
                 }
             }
@@ -248,7 +305,7 @@ public class OracleSaver extends MemorySaver {
                 PreparedStatement upsertStatement = connection.prepareStatement(UPSERT_THREAD);
                 PreparedStatement insertCheckpointStatement = connection.prepareStatement(INSERT_CHECKPOINT)) {
 
-            upsertStatement.setString(1, UUID.randomUUID().toString());
+            upsertStatement.setString(1, TimeOrderedUUID.nextString());
             upsertStatement.setString(2, threadName);
             upsertStatement.execute();
 
@@ -288,6 +345,54 @@ public class OracleSaver extends MemorySaver {
         }
     }
 
+    /**
+     * Deletes the checkpoints pruned by the retention policy
+     *
+     * @param config      the configuration
+     * @param checkpoints the retained checkpoints
+     * @param removed     the pruned checkpoints
+     * @throws Exception if an error occurs while deleting the checkpoints
+     */
+    @Override
+    protected void removedCheckpoints(RunnableConfig config, LinkedList<Checkpoint> checkpoints, List<Checkpoint> removed)
+            throws Exception {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(DELETE_CHECKPOINTS)) {
+            for (Checkpoint checkpoint : removed) {
+                preparedStatement.setString(1, checkpoint.getId());
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+        } catch (SQLException sqlException) {
+            throw new Exception("Unable to delete checkpoints", sqlException);
+        }
+    }
+
+    /**
+     * Deletes the released threads whose last checkpoint is older than the
+     * {@link CheckpointRetentionPolicy#maxAge()}. Their checkpoints are deleted
+     * in cascade.
+     *
+     * @return the number of deleted threads
+     * @throws Exception if an error occurs while deleting the threads
+     */
+    @Override
+    public int sweep() throws Exception {
+        var policy = retentionPolicy().filter(p -> p.maxAge().isPresent()).orElse(null);
+        if (policy == null) {
+            return 0;
+        }
+        var cutoff = policy.clock().millis() - policy.maxAge().get().toMillis();
+
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(DELETE_EXPIRED_RELEASED_THREADS)) {
+            preparedStatement.setTimestamp(1, new Timestamp(cutoff));
+            return preparedStatement.executeUpdate();
+        } catch (SQLException sqlException) {
+            throw new Exception("Unable to delete expired threads", sqlException);
+        }
+    }
+
     /**
      * If the checkpoint exists, updates the checkpoint, otherwise it inserts it.
      * 
@@ -337,17 +442,40 @@ public class OracleSaver extends MemorySaver {
                 statement.addBatch(CREATE_CHECKPOINT_TABLE);
                 statement.executeBatch();
             }
+            checkCheckpointTable(connection);
         } catch (SQLException sqlException) {
             throw new RuntimeException("Unable to create tables", sqlException);
         }
     }
 
+    /**
+     * Fails fast if the checkpoint table exists with the schema of a previous version, without the {@code seq}
+     * column: the table is left as is by the creation statements and every insert would fail.
+     */
+    private void checkCheckpointTable(Connection connection) {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT 1 FROM LANGRAPH4J_CHECKPOINT WHERE 1 = 0").close();
+        } catch (SQLException e) {
+            // no table yet, nothing to check
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT seq FROM LANGRAPH4J_CHECKPOINT WHERE 1 = 0").close();
+        } catch (SQLException e) {
+            throw new IllegalStateException("table LANGRAPH4J_CHECKPOINT has the schema of a previous version (no 'seq' column): " +
+                    "migrate it as described in the README of the saver ('Migrating from previous versions'), or recreate it with CreateOption.CREATE_OR_REPLACE " +
+                    "(existing checkpoints are lost)", e);
+        }
+    }
+
     /**
      * A builder for OracleSaver.
      */
     public static class Builder {
         private DataSource dataSource;
         private CreateOption createOption = CreateOption.CREATE_IF_NOT_EXISTS;
+        private CheckpointRetentionPolicy retentionPolicy;
+        private Executor asyncExecutor;
 
         /**
          * Sets the datasource
@@ -371,13 +499,38 @@ public class OracleSaver extends MemorySaver {
             return this;
         }
 
+        /**
+         * Sets the retention policy of the checkpoints (default none, the checkpoint history is unbounded).
+         *
+         * @param retentionPolicy the retention policy
+         * @return this builder
+         */
+        public Builder retentionPolicy(CheckpointRetentionPolicy retentionPolicy) {
+            this.retentionPolicy = retentionPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the executor running the asynchronous operations, used by the graph runner to store the checkpoints
+         * without blocking the node completion thread. It should not run more operations than the available connections
+         * (default a bounded executor of {@value AsyncCheckpointSaver#DEFAULT_ASYNC_THREADS} threads, started on the first
+         * asynchronous operation and shut down by {@link OracleSaver#close()}). The given executor isn't shut down by the saver.
+         *
+         * @param asyncExecutor the executor
+         * @return this builder
+         */
+        public Builder asyncExecutor(Executor asyncExecutor) {
+            this.asyncExecutor = asyncExecutor;
+            return this;
+        }
+
         /**
          * Creates a new instance of OracleSaver
          * 
          * @return the new instance of OracleSaver.
          */
         public OracleSaver build() {
-            return new OracleSaver(dataSource, createOption);
+            return new OracleSaver(dataSource, createOption, retentionPolicy, asyncExecutor);
         }
     }
 }
@@ -11,25 +11,26 @@ CREATE TABLE LG4JThread (
 );
 
 CREATE TABLE LG4JCheckpoint (
-    checkpoint_id UUID PRIMARY KEY,
-    parent_checkpoint_id UUID,
     thread_id UUID NOT NULL,
+    seq BIGINT NOT NULL, -- per-thread sequence number
+    checkpoint_id UUID NOT NULL UNIQUE,
+    parent_checkpoint_id UUID,
     node_id VARCHAR(255),
     next_node_id VARCHAR(255),
     state_data JSONB NOT NULL,
     state_content_type VARCHAR(100) NOT NULL, -- New field for content type
     saved_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
 
+    PRIMARY KEY (thread_id, seq),
     CONSTRAINT fk_thread
         FOREIGN KEY(thread_id)
         REFERENCES LG4JThread(thread_id)
         ON DELETE CASCADE
 );
 
--- Indexes for common query patterns
-CREATE INDEX idx_lg4jcheckpoint_thread_id ON LG4JCheckpoint(thread_id);
+-- The thread history is read through the primary key (thread_id, seq)
 
--- Useful for fetching the latest checkpoint(s) for a thread
+-- Useful for purging the expired threads
 CREATE INDEX idx_lg4jcheckpoint_thread_id_saved_at_desc ON LG4JCheckpoint(thread_id, saved_at DESC);
 
 -- Index to optimize search for thread_name where is_released is FALSE
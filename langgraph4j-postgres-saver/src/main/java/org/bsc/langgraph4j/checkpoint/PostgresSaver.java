@@ -3,6 +3,7 @@ package org.bsc.langgraph4j.checkpoint;
 import org.bsc.langgraph4j.RunnableConfig;
 import org.bsc.langgraph4j.serializer.StateSerializer;
 import org.bsc.langgraph4j.state.AgentState;
+import org.bsc.langgraph4j.utils.TimeOrderedUUID;
 import org.postgresql.ds.PGSimpleDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,11 +12,20 @@ import javax.sql.DataSource;
 import java.io.IOException;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.Executor;
 
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 
-public class PostgresSaver extends MemorySaver {
+/**
+ * PostgresSaver is an extension of MemorySaver that stores the workflow state in a PostgreSQL database.
+ * <p>
+ * The checkpoints are keyed by thread and per-thread sequence number, {@code PRIMARY KEY (thread_id, seq)},
+ * and the history of a thread is read in sequence order. Thread and checkpoint ids are time-ordered UUIDs,
+ * so that new keys are appended at the end of the indexes. The table can be physically ordered by its
+ * primary key with {@code CLUSTER LG4JCheckpoint USING lg4jcheckpoint_pkey}.
+ */
+public class PostgresSaver extends MemorySaver implements AutoCloseable {
     private static final Logger log = LoggerFactory.getLogger(PostgresSaver.class);
     /**
      * Datasource used to create the store
@@ -23,13 +33,37 @@ public class PostgresSaver extends MemorySaver {
     protected final DataSource datasource;
 
     private final StateSerializer<? extends AgentState> stateSerializer;
+    private final Executor asyncExecutor;
+    // created on the first asynchronous operation, null if the executor is set by the builder
+    private final LazyExecutor defaultExecutor;
 
     protected PostgresSaver( Builder builder ) throws SQLException {
+        super( builder.retentionPolicy );
         this.datasource = builder.datasource;
         this.stateSerializer =  builder.stateSerializer;
+        this.defaultExecutor = ( builder.asyncExecutor != null ) ?
+                null :
+                LazyExecutor.bounded( "langgraph4j-postgres-saver", AsyncCheckpointSaver.DEFAULT_ASYNC_THREADS );
+        this.asyncExecutor = ( builder.asyncExecutor != null ) ? builder.asyncExecutor : defaultExecutor;
         initTable( builder.dropTablesFirst, builder.createTables);
     }
 
+    @Override
+    protected Executor asyncExecutor() {
+        return asyncExecutor;
+    }
+
+    /**
+     * Shuts down the default executor of the asynchronous operations, if it has been started.
+     * An executor set through the builder is owned by the caller and is left running.
+     */
+    @Override
+    public void close() {
+        if( defaultExecutor != null ) {
+            defaultExecutor.close();
+        }
+    }
+
     public static Builder builder() {
         return new Builder();
     }
@@ -84,22 +118,23 @@ public class PostgresSaver extends MemorySaver {
                  );
                 
                  CREATE TABLE IF NOT EXISTS LG4JCheckpoint (
-                     checkpoint_id UUID PRIMARY KEY,
-                     parent_checkpoint_id UUID,
                      thread_id UUID NOT NULL,
+                     seq BIGINT NOT NULL,
+                     checkpoint_id UUID NOT NULL UNIQUE,
+                     parent_checkpoint_id UUID,
                      node_id VARCHAR(255),
                      next_node_id VARCHAR(255),
                      state_data JSONB NOT NULL,
                      state_content_type VARCHAR(100) NOT NULL, -- New field for content type
                      saved_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
                 
+                     PRIMARY KEY (thread_id, seq),
                      CONSTRAINT fk_thread
                          FOREIGN KEY(thread_id)
                          REFERENCES LG4JThread(thread_id)
                          ON DELETE CASCADE
                  );
                 
-                 CREATE INDEX idx_lg4jcheckpoint_thread_id ON LG4JCheckpoint(thread_id);
                  CREATE INDEX idx_lg4jcheckpoint_thread_id_saved_at_desc ON LG4JCheckpoint(thread_id, saved_at DESC);
                  CREATE UNIQUE INDEX idx_unique_lg4jthread_thread_name_unreleased  ON LG4JThread(thread_name) WHERE is_released = FALSE;
                 """;
@@ -122,6 +157,30 @@ public class PostgresSaver extends MemorySaver {
             log.error( "error executing command\n{}\n", sqlCommand, ex );
             throw ex;
         }
+        // the schema probes run on their own connection, a failed statement aborts the current transaction
+        try (Connection connection = getConnection()) {
+            checkCheckpointTable(connection);
+        }
+    }
+
+    /**
+     * Fails fast if the checkpoint table exists with the schema of a previous version, without the {@code seq}
+     * column: the table is left as is by the creation statements and every insert would fail.
+     */
+    private void checkCheckpointTable(Connection connection) {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT 1 FROM LG4JCheckpoint WHERE 1 = 0").close();
+        } catch (SQLException e) {
+            // no table yet, nothing to check
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT seq FROM LG4JCheckpoint WHERE 1 = 0").close();
+        } catch (SQLException e) {
+            throw new IllegalStateException("table LG4JCheckpoint has the schema of a previous version (no 'seq' column): " +
+                    "migrate it as described in the README of the saver ('Migrating from previous versions'), or recreate it with dropTablesFirst(true) " +
+                    "(existing checkpoints are lost)", e);
+        }
     }
 
     @Override
@@ -147,10 +206,11 @@ public class PostgresSaver extends MemorySaver {
                         c.next_node_id,
                         c.state_data->>'binaryPayload' AS base64_data,
                         c.state_content_type,
-                        c.parent_checkpoint_id
+                        c.parent_checkpoint_id,
+                        c.saved_at
                 FROM matched_thread t
                 JOIN LG4JCheckpoint c ON c.thread_id = t.thread_id
-                ORDER BY c.saved_at DESC
+                ORDER BY c.seq DESC
                 """;
         try( Connection conn = getConnection() ) {
 
@@ -179,6 +239,10 @@ public class PostgresSaver extends MemorySaver {
                             .nextNodeId( rs.getString(3) )
                             .state( decodeState( rs.getBytes(4), rs.getString( 5) ) )
                             .build();
+                    var savedAt = rs.getTimestamp( 7 );
+                    if( savedAt != null ) {
+                        loadedCheckpointSavedAt( checkpoint, savedAt.getTime() );
+                    }
                     checkpoints.add( checkpoint );
                 }
             }
@@ -188,23 +252,26 @@ public class PostgresSaver extends MemorySaver {
         return checkpoints;
     }
 
-    private void insertCheckpoint( Connection conn, RunnableConfig config, LinkedList<Checkpoint> checkpoints, Checkpoint checkpoint) throws Exception {
+    /**
+     * Inserts the checkpoint with the given sequence number, or with the next sequence number of the thread if null.
+     * The thread row is locked until the end of the transaction, so the concurrent writers of the same thread,
+     * also from other processes, evaluate the next sequence number one at a time.
+     */
+    private void insertCheckpoint( Connection conn, RunnableConfig config, Checkpoint checkpoint, Long seq ) throws Exception {
         var threadId = config.threadId().orElse( THREAD_ID_DEFAULT );
 
         var upsertThreadSql = """
-            WITH inserted AS (
-                INSERT INTO LG4JThread (thread_id, thread_name, is_released)
-                VALUES (?, ?, FALSE)
-                ON CONFLICT (thread_name)
-                WHERE is_released = FALSE
-                DO NOTHING
-                RETURNING thread_id
-            )
-            SELECT thread_id FROM inserted
-            UNION ALL
+            INSERT INTO LG4JThread (thread_id, thread_name, is_released)
+            VALUES (?, ?, FALSE)
+            ON CONFLICT (thread_name)
+            WHERE is_released = FALSE
+            DO NOTHING;
+            """;
+        // a new statement, it sees the thread inserted by a concurrent transaction
+        var lockThreadSql = """
             SELECT thread_id FROM LG4JThread
             WHERE thread_name = ? AND is_released = FALSE
-            LIMIT 1;
+            FOR UPDATE;
             """;
 
         var insertCheckpointSql = """
@@ -212,22 +279,32 @@ public class PostgresSaver extends MemorySaver {
                 checkpoint_id,
                 parent_checkpoint_id,
                 thread_id,
+                seq,
                 node_id,
                 next_node_id,
                 state_data,
                 state_content_type)
-                VALUES (?, ?, ?, ?, ?, ?::jsonb, ?)
+                VALUES (?, ?, ?,
+                        COALESCE(?, (SELECT COALESCE(MAX(seq), 0) + 1 FROM LG4JCheckpoint WHERE thread_id = ?)),
+                        ?, ?, ?::jsonb, ?)
                 """;
         UUID threadUUID = null;
 
         // 1. Upsert thread information
         try (PreparedStatement ps = conn.prepareStatement(upsertThreadSql)) {
             var field = 0;
-            ps.setObject(++field, UUID.randomUUID(), Types.OTHER);
-            ps.setString(++field, threadId);
+            ps.setObject(++field, TimeOrderedUUID.next(), Types.OTHER);
             ps.setString(++field, threadId);
 
             log.trace( "Executing upsert thread:\n---\n{}---", upsertThreadSql);
+            ps.executeUpdate();
+        }
+
+        // 2. Lock the thread until the end of the transaction
+        try (PreparedStatement ps = conn.prepareStatement(lockThreadSql)) {
+            ps.setString(1, threadId);
+
+            log.trace( "Executing lock thread:\n---\n{}---", lockThreadSql);
 
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
@@ -238,7 +315,7 @@ public class PostgresSaver extends MemorySaver {
 
 
 
-        // 2. Insert checkpoint data
+        // 3. Insert checkpoint data
         try (PreparedStatement ps = conn.prepareStatement(insertCheckpointSql)) {
             var field = 0;
             // checkpoint_id
@@ -251,6 +328,14 @@ public class PostgresSaver extends MemorySaver {
             ps.setObject(++field,
                     requireNonNull(threadUUID, "threadUUID cannot be null"),
                     Types.OTHER);
+            // seq
+            if( seq != null ) {
+                ps.setLong(++field, seq);
+            }
+            else {
+                ps.setNull(++field, Types.BIGINT);
+            }
+            ps.setObject(++field, threadUUID, Types.OTHER);
             // node_id
             ps.setString(++field, checkpoint.getNodeId());
             // next_node_id
@@ -279,7 +364,7 @@ public class PostgresSaver extends MemorySaver {
         try( Connection ignored = conn = getConnection() )  {
             conn.setAutoCommit(false); // Start transaction
 
-            insertCheckpoint( conn, config, checkpoints, checkpoint );
+            insertCheckpoint( conn, config, checkpoint, null );
 
             conn.commit();
             log.debug("Checkpoint {} for thread {} inserted successfully.", checkpoint.getId(), threadId);
@@ -301,7 +386,8 @@ public class PostgresSaver extends MemorySaver {
 
         var deletePreviousCheckpointSql = """
                 DELETE FROM LG4JCheckpoint
-                WHERE checkpoint_id = ?;
+                WHERE checkpoint_id = ?
+                RETURNING seq;
                 """;
 
         Connection conn = null;
@@ -309,6 +395,7 @@ public class PostgresSaver extends MemorySaver {
         try( Connection ignored = conn = getConnection()  )  {
             conn.setAutoCommit(false); // Start transaction
 
+            Long seq = null; // the replacing checkpoint keeps the position of the replaced one
             if( config.checkPointId().isPresent() ) {
 
                 try (PreparedStatement ps = conn.prepareStatement(deletePreviousCheckpointSql)) {
@@ -320,11 +407,15 @@ public class PostgresSaver extends MemorySaver {
                                     config.checkPointId().get(),
                                     threadId,
                                     deletePreviousCheckpointSql);
-                    ps.executeUpdate();
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (rs.next()) {
+                            seq = rs.getLong(1);
+                        }
+                    }
                 }
             }
 
-            insertCheckpoint( conn, config, checkpoints, checkpoint);
+            insertCheckpoint( conn, config, checkpoint, seq );
 
             conn.commit();
 
@@ -391,6 +482,53 @@ public class PostgresSaver extends MemorySaver {
 
     }
 
+    @Override
+    protected void removedCheckpoints( RunnableConfig config, LinkedList<Checkpoint> checkpoints, List<Checkpoint> removed) throws Exception {
+        var deleteCheckpointSql = """
+                DELETE FROM LG4JCheckpoint
+                WHERE checkpoint_id = ?
+                """;
+
+        try( Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(deleteCheckpointSql) )  {
+            for( var checkpoint : removed ) {
+                ps.setObject(1, UUID.fromString(checkpoint.getId()), Types.OTHER);
+                ps.addBatch();
+            }
+            log.trace( "Executing delete {} pruned checkpoints:\n---\n{}---", removed.size(), deleteCheckpointSql);
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * Deletes the released threads whose last checkpoint is older than the {@link CheckpointRetentionPolicy#maxAge()}.
+     * Their checkpoints are deleted in cascade.
+     *
+     * @return the number of deleted threads
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public int sweep() throws SQLException {
+        var policy = retentionPolicy().filter( p -> p.maxAge().isPresent() ).orElse(null);
+        if( policy == null ) {
+            return 0;
+        }
+        var deleteReleasedThreadsSql = """
+                DELETE FROM LG4JThread t
+                WHERE t.is_released = TRUE
+                AND NOT EXISTS (
+                    SELECT 1 FROM LG4JCheckpoint c
+                    WHERE c.thread_id = t.thread_id AND c.saved_at >= ?
+                )
+                """;
+        var cutoff = policy.clock().millis() - policy.maxAge().get().toMillis();
+
+        try( Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(deleteReleasedThreadsSql) )  {
+            ps.setTimestamp(1, new Timestamp(cutoff));
+            log.trace( "Executing delete expired released threads:\n---\n{}---", deleteReleasedThreadsSql);
+            return ps.executeUpdate();
+        }
+    }
+
     /**
      * Datasource connection
      * Creates the vector extension and add the vector type if it does not exist.
@@ -413,6 +551,8 @@ public class PostgresSaver extends MemorySaver {
         private boolean createTables;
         private boolean dropTablesFirst;
         private DataSource datasource;
+        private CheckpointRetentionPolicy retentionPolicy;
+        private Executor asyncExecutor;
 
         public <State extends AgentState> Builder stateSerializer(StateSerializer<State> stateSerializer) {
             this.stateSerializer = stateSerializer;
@@ -454,6 +594,31 @@ public class PostgresSaver extends MemorySaver {
             return this;
         }
 
+        /**
+         * Sets the retention policy of the checkpoints, enforced on each put and by {@link PostgresSaver#sweep()}.
+         *
+         * @param retentionPolicy the retention policy
+         * @return this builder
+         */
+        public Builder retentionPolicy(CheckpointRetentionPolicy retentionPolicy) {
+            this.retentionPolicy = retentionPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the executor running the asynchronous operations, used by the graph runner to store the checkpoints
+         * without blocking the node completion thread. It should not run more operations than the available connections
+         * (default a bounded executor of {@value AsyncCheckpointSaver#DEFAULT_ASYNC_THREADS} threads, started on the first
+         * asynchronous operation and shut down by {@link PostgresSaver#close()}). The given executor isn't shut down by the saver.
+         *
+         * @param asyncExecutor the executor
+         * @return this builder
+         */
+        public Builder asyncExecutor(Executor asyncExecutor) {
+            this.asyncExecutor = asyncExecutor;
+            return this;
+        }
+
         private String requireNotBlank( String value, String name ) {
             if( requireNonNull(value, format("'%s' cannot be null", name) ).isBlank() ) {
                 throw new IllegalArgumentException(format("'%s' cannot be blank", name));
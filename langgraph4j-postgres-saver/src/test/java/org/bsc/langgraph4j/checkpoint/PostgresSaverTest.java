@@ -192,4 +192,35 @@ public class PostgresSaverTest {
 
     }
 
+    @Test
+    public void concurrentPutsOnTheSameThread() throws Exception {
+        // savers with their own cache, as different processes
+        var savers = java.util.List.of( buildPostgresSaver().build(), buildPostgresSaver().build() );
+        var config = RunnableConfig.builder().threadId("concurrent-" + System.nanoTime()).build();
+
+        final int puts = 50;
+        var executor = java.util.concurrent.Executors.newFixedThreadPool(8);
+        try {
+            var futures = new java.util.ArrayList<java.util.concurrent.Future<?>>();
+            for (int i = 0; i < puts; ++i) {
+                final var saver = savers.get(i % savers.size());
+                final var step = i;
+                futures.add(executor.submit(() -> saver.put(config, Checkpoint.builder()
+                        .nodeId("node")
+                        .nextNodeId("node")
+                        .state(Map.of("step", step))
+                        .build())));
+            }
+            for (var future : futures) {
+                future.get(); // fails on a duplicated sequence number
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        var reloaded = buildPostgresSaver().build();
+        assertEquals(puts, reloaded.list(config).size());
+        reloaded.release(config);
+    }
+
 }
@@ -0,0 +1,215 @@
+package org.bsc.langgraph4j.spring.ai.agent;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.bsc.langgraph4j.cache.ResponseCache;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.tool.ToolCallback;
+import reactor.core.publisher.Flux;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.Optional.ofNullable;
+
+/**
+ * {@link ReactAgent.ChatService} answering the repeated identical requests from a {@link ResponseCache}.
+ * <p>
+ * The cache key is the hash of the canonical form of the messages (type, text, tool calls and tool responses,
+ * not the provider metadata) preceded by a fingerprint of the chat client configuration, i.e. system message,
+ * tool definitions and all the default model options. On a hit, the streaming execution replays the cached response as
+ * a single chunk, so it goes through the same generator as a model stream.
+ */
+public class CachedChatService implements ReactAgent.ChatService {
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(CachedChatService.class);
+
+    private final ReactAgent.ChatService delegate;
+    private final ResponseCache<AssistantMessage> responseCache;
+    private static final ObjectMapper canonicalMapper = new ObjectMapper()
+            .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+            .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+
+    private final String fingerprint;
+
+    /**
+     * Creates the service.
+     *
+     * @param delegate      the service calling the model
+     * @param responseCache the response cache
+     * @param fingerprint   the canonical form of the configuration shared by all the requests
+     */
+    public CachedChatService(ReactAgent.ChatService delegate, ResponseCache<AssistantMessage> responseCache, String fingerprint) {
+        this.delegate = requireNonNull(delegate, "delegate cannot be null!");
+        this.responseCache = requireNonNull(responseCache, "responseCache cannot be null!");
+        this.fingerprint = requireNonNull(fingerprint, "fingerprint cannot be null!");
+    }
+
+    /**
+     * Evaluates the fingerprint of the chat client configured by the given builder.
+     * <p>
+     * The default model options are included field by field (model, sampling options, max tokens, stop sequences,
+     * penalties, tool names and callbacks) and, to cover the options specific to a provider, as the JSON of their
+     * copy without tool callbacks and tool context. If the options cannot be serialized the configuration is not
+     * recognised and the fingerprint is empty, so that the responses are never cached.
+     *
+     * @param builder the agent builder
+     * @return the canonical form of the system message, tool definitions and default model options, empty if the
+     * options are not recognised
+     */
+    public static Optional<String> fingerprintOf(ReactAgentBuilder<?, ?> builder) {
+        final var result = new StringBuilder();
+        result.append("system:").append(builder.systemMessage().orElse("")).append('\n');
+        for (var tool : builder.tools()) {
+            result.append("tool:").append(canonicalToolOf(tool)).append('\n');
+        }
+        if (builder.chatModel != null) {
+            result.append("model:").append(builder.chatModel.getClass().getName());
+            final var options = builder.chatModel.getDefaultOptions();
+            if (options != null) {
+                try {
+                    result.append('|').append(canonicalMapper.writeValueAsString(canonicalOptionsOf(options)));
+                } catch (JsonProcessingException | RuntimeException e) {
+                    log.warn("chat options {} not recognised, responses not cached", options.getClass().getName(), e);
+                    return Optional.empty();
+                }
+            }
+            result.append('\n');
+        }
+        return Optional.of(result.toString());
+    }
+
+    private static String canonicalToolOf(ToolCallback tool) {
+        final var definition = tool.getToolDefinition();
+        return definition.name() + '|' + definition.description() + '|' + definition.inputSchema();
+    }
+
+    private static Map<String, Object> canonicalOptionsOf(ChatOptions options) {
+        final var canonical = new LinkedHashMap<String, Object>();
+        canonical.put("type", options.getClass().getName());
+        canonical.put("model", options.getModel());
+        canonical.put("temperature", options.getTemperature());
+        canonical.put("topP", options.getTopP());
+        canonical.put("topK", options.getTopK());
+        canonical.put("maxTokens", options.getMaxTokens());
+        canonical.put("stopSequences", options.getStopSequences());
+        canonical.put("frequencyPenalty", options.getFrequencyPenalty());
+        canonical.put("presencePenalty", options.getPresencePenalty());
+
+        final ChatOptions provider = options.copy();
+        if (options instanceof ToolCallingChatOptions toolOptions) {
+            canonical.put("toolNames", new TreeSet<>(ofNullable(toolOptions.getToolNames()).orElseGet(Set::of)));
+            canonical.put("toolCallbacks", ofNullable(toolOptions.getToolCallbacks()).orElseGet(List::of).stream()
+                    .map(CachedChatService::canonicalToolOf)
+                    .sorted()
+                    .toList());
+            canonical.put("internalToolExecutionEnabled", toolOptions.getInternalToolExecutionEnabled());
+            // callbacks and context are not data, the callbacks are already part of the fingerprint
+            if (provider instanceof ToolCallingChatOptions providerToolOptions) {
+                providerToolOptions.setToolCallbacks(List.of());
+                providerToolOptions.setToolContext(Map.of());
+            }
+        }
+        canonical.put("provider", canonicalMapper.valueToTree(provider));
+        return canonical;
+    }
+
+    private String cacheKeyOf(List<Message> messages) {
+        final var result = new StringBuilder(fingerprint);
+        for (var message : messages) {
+            result.append(message.getMessageType().getValue()).append(':').append(message.getText());
+            if (message instanceof AssistantMessage assistant && assistant.hasToolCalls()) {
+                for (var toolCall : assistant.getToolCalls()) {
+                    result.append("|call:").append(toolCall.id())
+                            .append(',').append(toolCall.name())
+                            .append(',').append(toolCall.arguments());
+                }
+            }
+            if (message instanceof ToolResponseMessage toolResponse) {
+                for (var response : toolResponse.getResponses()) {
+                    result.append("|response:").append(response.id())
+                            .append(',').append(response.name())
+                            .append(',').append(response.responseData());
+                }
+            }
+            result.append('\n');
+        }
+        return ResponseCache.keyOf(result.toString());
+    }
+
+    private static ChatResponse cachedResponse(AssistantMessage message) {
+        return new ChatResponse(List.of(new Generation(message)));
+    }
+
+    // the cached message holds neither the provider metadata nor the media
+    private static AssistantMessage cacheable(AssistantMessage message) {
+        return new AssistantMessage(message.getText(), Map.of(), ofNullable(message.getToolCalls()).orElseGet(List::of));
+    }
+
+    @Override
+    public ChatClient chatClient() {
+        return delegate.chatClient();
+    }
+
+    @Override
+    public ChatResponse execute(List<Message> messages) {
+        final var cacheKey = cacheKeyOf(messages);
+        final var cached = responseCache.get(cacheKey);
+        if (cached.isPresent()) {
+            log.trace("response cache hit: {}", cacheKey);
+            return cachedResponse(cached.get());
+        }
+
+        final var response = delegate.execute(messages);
+        if (response != null && response.getResult() != null && response.getResult().getOutput() != null) {
+            responseCache.put(cacheKey, cacheable(response.getResult().getOutput()));
+        }
+        return response;
+    }
+
+    @Override
+    public Flux<ChatResponse> streamingExecute(List<Message> messages) {
+        final var cacheKey = cacheKeyOf(messages);
+        final var cached = responseCache.get(cacheKey);
+        if (cached.isPresent()) {
+            log.trace("response cache hit: {}", cacheKey);
+            return Flux.just(cachedResponse(cached.get()));
+        }
+
+        // merges the chunks as the streaming generator does
+        final var merged = new AtomicReference<AssistantMessage>();
+
+        return delegate.streamingExecute(messages)
+                .doOnNext(response -> {
+                    if (response.getResult() == null || response.getResult().getOutput() == null) {
+                        return;
+                    }
+                    final var current = response.getResult().getOutput();
+                    merged.updateAndGet(last -> {
+                        if (last == null || current.hasToolCalls()) {
+                            return cacheable(current);
+                        }
+                        return new AssistantMessage(
+                                ofNullable(last.getText()).orElse("") + ofNullable(current.getText()).orElse(""),
+                                Map.of(),
+                                last.getToolCalls());
+                    });
+                })
+                .doOnComplete(() -> ofNullable(merged.get()).ifPresent(message -> responseCache.put(cacheKey, message)));
+    }
+}
@@ -55,7 +55,7 @@ public interface ReactAgent {
          */
         public StateGraph<State> build(Function<ReactAgentBuilder<?,?>, ChatService> chatServiceFactory ) throws GraphStateException {
 
-            final var chatService = requireNonNull(chatServiceFactory, "chatServiceFactory cannot be null!").apply(this);
+            final var chatService = chatService(chatServiceFactory);
 
             final var callModelAction = new CallModelAction<State>( chatService, streaming );
 
@@ -2,9 +2,11 @@ package org.bsc.langgraph4j.spring.ai.agent;
 
 import org.bsc.langgraph4j.GraphStateException;
 import org.bsc.langgraph4j.StateGraph;
+import org.bsc.langgraph4j.cache.ResponseCache;
 import org.bsc.langgraph4j.prebuilt.MessagesState;
 import org.bsc.langgraph4j.serializer.StateSerializer;
 import org.bsc.langgraph4j.state.Channel;
+import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.support.ToolCallbacks;
@@ -28,6 +30,7 @@ public abstract class ReactAgentBuilder<B extends ReactAgentBuilder<B,State>, St
     protected boolean streaming = false;
     protected final List<ToolCallback> tools = new ArrayList<>();
     protected Map<String, Channel<?>> schema;
+    protected ResponseCache<AssistantMessage> responseCache;
 
     public Optional<String> systemMessage() {
         return ofNullable(systemMessage);
@@ -100,6 +103,38 @@ public abstract class ReactAgentBuilder<B extends ReactAgentBuilder<B,State>, St
     }
 
 
+    /**
+     * Sets the cache of the model responses, keyed by the canonical hash of the messages and of the chat client
+     * configuration. On a hit the model isn't called and, when streaming, the cached response is replayed
+     * through the streaming generator.
+     *
+     * @param responseCache the response cache, e.g. {@link org.bsc.langgraph4j.cache.InMemoryResponseCache} or
+     *                      {@link org.bsc.langgraph4j.cache.FileResponseCache} with a
+     *                      {@link org.bsc.langgraph4j.spring.ai.serializer.std.MessageSerializer}
+     * @return the builder
+     * @see CachedChatService
+     */
+    public B responseCache(ResponseCache<AssistantMessage> responseCache) {
+        this.responseCache = responseCache;
+        return result();
+    }
+
+    /**
+     * Creates the chat service through the given factory, answering from the response cache if set.
+     *
+     * @param chatServiceFactory the chat service factory
+     * @return the chat service
+     */
+    protected ReactAgent.ChatService chatService(Function<ReactAgentBuilder<?,?>, ReactAgent.ChatService> chatServiceFactory) {
+        final var chatService = requireNonNull(chatServiceFactory, "chatServiceFactory cannot be null!").apply(this);
+        if (responseCache == null) {
+            return chatService;
+        }
+        return CachedChatService.fingerprintOf(this)
+                .<ReactAgent.ChatService>map(fingerprint -> new CachedChatService(chatService, responseCache, fingerprint))
+                .orElse(chatService);
+    }
+
     public abstract StateGraph<State> build(Function<ReactAgentBuilder<?,?>, ReactAgent.ChatService> chatServiceFactory ) throws GraphStateException;
 
     public final StateGraph<State> build() throws GraphStateException {
@@ -25,7 +25,6 @@ import java.util.function.Function;
 import java.util.stream.Stream;
 
 import static java.lang.String.format;
-import static java.util.Objects.requireNonNull;
 import static org.bsc.langgraph4j.state.AgentState.MARK_FOR_REMOVAL;
 import static org.bsc.langgraph4j.state.AgentState.MARK_FOR_RESET;
 import static org.bsc.langgraph4j.utils.CollectionsUtils.mergeMap;
@@ -137,7 +136,7 @@ public interface AgentExecutorEx {
                 stateSerializer = new SpringAIStateSerializer<>(AgentExecutorEx.State::new);
             }
 
-            final var chatService = requireNonNull(chatServiceFactory, "chatServiceFactory cannot be null!").apply(this);
+            final var chatService = chatService(chatServiceFactory);
 
             // verify approval
             final var toolService = new SpringAIToolService(tools());
@@ -6,9 +6,12 @@ import org.springframework.ai.chat.messages.AssistantMessage;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import static org.bsc.langgraph4j.serializer.std.CompactIO.*;
+
 class AssistantMessageSerializer implements NullableObjectSerializer<AssistantMessage> {
 
 
@@ -29,4 +32,32 @@ class AssistantMessageSerializer implements NullableObjectSerializer<AssistantMe
         var toolCalls = (List<AssistantMessage.ToolCall>)readNullableObject(in).orElseGet(List::of);
         return new AssistantMessage( text, metadata, toolCalls);
     }
-}
\ No newline at end of file
+
+    void writeCompact(AssistantMessage object, ObjectOutput out) throws IOException {
+        writeNullableString( object.getText(), out );
+        writeMap( object.getMetadata(), out );
+        var toolCalls = ( object.getToolCalls() != null ) ? object.getToolCalls() : List.<AssistantMessage.ToolCall>of();
+        writeVarInt( toolCalls.size(), out );
+        for( var toolCall : toolCalls ) {
+            writeNullableString( toolCall.id(), out );
+            writeNullableString( toolCall.type(), out );
+            writeNullableString( toolCall.name(), out );
+            writeNullableString( toolCall.arguments(), out );
+        }
+    }
+
+    AssistantMessage readCompact(ObjectInput in) throws IOException, ClassNotFoundException {
+        var text = readNullableString(in);
+        var metadata = readMap(in);
+        int size = readVarInt(in);
+        var toolCalls = new ArrayList<AssistantMessage.ToolCall>(size);
+        for( int i = 0; i < size; ++i ) {
+            toolCalls.add( new AssistantMessage.ToolCall(
+                    readNullableString(in),
+                    readNullableString(in),
+                    readNullableString(in),
+                    readNullableString(in) ) );
+        }
+        return new AssistantMessage( text, metadata, toolCalls );
+    }
+}
@@ -1,36 +1,129 @@
 package org.bsc.langgraph4j.spring.ai.serializer.std;
 
 import org.bsc.langgraph4j.serializer.Serializer;
+import org.bsc.langgraph4j.serializer.std.CompactIO;
+import org.bsc.langgraph4j.serializer.std.ContentAddressedSerializer;
+import org.bsc.langgraph4j.serializer.std.MessageStore;
+import org.bsc.langgraph4j.serializer.std.SerializerMapper;
 import org.springframework.ai.chat.messages.*;
 
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.io.StreamCorruptedException;
+import java.util.Objects;
 
+/**
+ * Serializer of the spring-ai messages.
+ * <p>
+ * Messages are written in a compact format: a raw one byte type tag followed by the message fields, as varint-prefixed
+ * UTF-8 strings and tagged metadata values (see {@link CompactIO}). The previous format, starting with the Java
+ * serialized {@link MessageType}, is still read.
+ */
 public class MessageSerializer implements Serializer<Message> {
+    // raw tags, outside the object stream type codes (see CompactIO)
+    static final int TAG_USER = 1;
+    static final int TAG_ASSISTANT = 2;
+    static final int TAG_SYSTEM = 3;
+    static final int TAG_TOOL = 4;
+
     final UserMessageSerializer user = new UserMessageSerializer();
     final AssistantMessageSerializer assistant = new AssistantMessageSerializer();
     final SystemMessageSerializer system = new SystemMessageSerializer();
     final ToolResponseMessageSerializer tool = new ToolResponseMessageSerializer();
 
+    private final ContentAddressedSerializer<Message> references;
+
+    public MessageSerializer() {
+        this.references = null;
+    }
+
+    /**
+     * Creates a serializer writing the messages once in the given store and only their references
+     * in the serialized state. Both the inline messages and the references are read.
+     *
+     * @param store  the message store
+     * @param mapper the mapper of the state serializer, resolving the serializers of the nested objects
+     */
+    public MessageSerializer(MessageStore store, SerializerMapper mapper) {
+        Objects.requireNonNull(store, "store cannot be null");
+        Objects.requireNonNull(mapper, "mapper cannot be null");
+
+        this.references = new ContentAddressedSerializer<>(new Serializer<>() {
+            @Override
+            public void write(Message object, ObjectOutput out) throws IOException {
+                writeCompact(object, out);
+            }
+
+            @Override
+            public Message read(ObjectInput in) throws IOException, ClassNotFoundException {
+                return MessageSerializer.this.read(in);
+            }
+        }, store, mapper);
+    }
+
     @Override
     public void write(Message object, ObjectOutput out) throws IOException {
-        out.writeObject(object.getMessageType());
+        if( references != null ) {
+            references.write(object, out);
+        }
+        else {
+            writeCompact(object, out);
+        }
+    }
 
+    private void writeCompact(Message object, ObjectOutput out) throws IOException {
         switch( object.getMessageType() ) {
-            case USER -> user.write( (UserMessage)object, out );
-            case ASSISTANT -> assistant.write( (AssistantMessage)object, out );
-            case SYSTEM -> system.write( (SystemMessage) object, out );
-            case TOOL -> tool.write( (ToolResponseMessage) object, out );
+            case USER -> {
+                out.writeByte(TAG_USER);
+                user.writeCompact( (UserMessage)object, out );
+            }
+            case ASSISTANT -> {
+                out.writeByte(TAG_ASSISTANT);
+                assistant.writeCompact( (AssistantMessage)object, out );
+            }
+            case SYSTEM -> {
+                out.writeByte(TAG_SYSTEM);
+                system.writeCompact( (SystemMessage) object, out );
+            }
+            case TOOL -> {
+                out.writeByte(TAG_TOOL);
+                tool.writeCompact( (ToolResponseMessage) object, out );
+            }
             default -> throw new IllegalArgumentException("Unsupported message type: " + object.getMessageType());
         }
     }
 
     @Override
     public Message read(ObjectInput in) throws IOException, ClassNotFoundException {
+        final int tag = CompactIO.readTag(in);
+        if( tag >= 0 ) {
+            return readTagged( tag, in );
+        }
+        final Object header = in.readObject();
+        if( header instanceof MessageType type ) {
+            return readLegacy(type, in);
+        }
+        throw new StreamCorruptedException("invalid message header: " + header);
+    }
 
-        MessageType type = (MessageType) in.readObject();
+    private Message readTagged(int tag, ObjectInput in) throws IOException, ClassNotFoundException {
+        return switch( tag ) {
+            case TAG_USER -> user.readCompact(in);
+            case TAG_ASSISTANT -> assistant.readCompact(in);
+            case TAG_SYSTEM -> system.readCompact(in);
+            case TAG_TOOL -> tool.readCompact(in);
+            case ContentAddressedSerializer.REFERENCE -> {
+                if( references == null ) {
+                    throw new StreamCorruptedException("message reference found, but no message store has been configured");
+                }
+                yield references.readReference(in);
+            }
+            default -> throw new StreamCorruptedException(String.format("invalid message tag: 0x%02X", tag));
+        };
+    }
 
+    private Message readLegacy(MessageType type, ObjectInput in) throws IOException, ClassNotFoundException {
        return  switch (type) {
             case ASSISTANT -> assistant.read(in);
             case USER -> user.read(in);
@@ -1,5 +1,6 @@
 package org.bsc.langgraph4j.spring.ai.serializer.std;
 
+import org.bsc.langgraph4j.serializer.std.MessageStore;
 import org.bsc.langgraph4j.serializer.std.ObjectStreamStateSerializer;
 import org.bsc.langgraph4j.state.AgentState;
 import org.bsc.langgraph4j.state.AgentStateFactory;
@@ -7,12 +8,17 @@ import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.ToolResponseMessage;
 
+import java.io.IOException;
+
 /**
  * This class is responsible for serializing and deserializing the state of an agent executor.
  * It extends {@link ObjectStreamStateSerializer} for handling the serialization of the AgentExecutor.State object.
  */
 public class SpringAIStateSerializer<State extends AgentState> extends ObjectStreamStateSerializer<State>  {
 
+    // clones the states writing the messages inline, null if the messages are already written inline
+    private final SpringAIStateSerializer<State> cloneSerializer;
+
     /**
      * Constructor that initializes the serializer with a supplier for creating new AgentExecutor.State instances and registers various serializers for different types.
      */
@@ -22,8 +28,32 @@ public class SpringAIStateSerializer<State extends AgentState> extends ObjectStr
         mapper().register(Message.class, new MessageSerializer());
         mapper().register(AssistantMessage.ToolCall.class, new ToolCallSerializer());
         mapper().register(ToolResponseMessage.ToolResponse.class, new ToolResponseSerializer());
+        cloneSerializer = null;
+    }
+
+    /**
+     * Constructor that writes the messages once in the given store, so the serialized states hold only the message references.
+     * The store is written only by the serialization of the checkpoints: the clones of the states, taken on each step,
+     * write the messages inline.
+     *
+     * @param stateFactory the state factory
+     * @param messageStore the content-addressed message store
+     */
+    public SpringAIStateSerializer(AgentStateFactory<State> stateFactory, MessageStore messageStore ) {
+        super( stateFactory );
 
+        mapper().register(Message.class, new MessageSerializer(messageStore, mapper()));
+        mapper().register(AssistantMessage.ToolCall.class, new ToolCallSerializer());
+        mapper().register(ToolResponseMessage.ToolResponse.class, new ToolResponseSerializer());
+        cloneSerializer = new SpringAIStateSerializer<>( stateFactory );
     }
 
+    @Override
+    public State cloneObject(State object) throws IOException, ClassNotFoundException {
+        if( cloneSerializer != null ) {
+            return cloneSerializer.cloneObject(object);
+        }
+        return super.cloneObject(object);
+    }
 
 }
\ No newline at end of file
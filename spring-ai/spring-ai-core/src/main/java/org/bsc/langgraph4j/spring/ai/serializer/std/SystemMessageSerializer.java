@@ -8,6 +8,8 @@ import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.util.Objects;
 
+import static org.bsc.langgraph4j.serializer.std.CompactIO.*;
+
 class SystemMessageSerializer implements Serializer<SystemMessage> {
 
     @Override
@@ -22,4 +24,13 @@ class SystemMessageSerializer implements Serializer<SystemMessage> {
         var text = Serializer.readUTF(in);
         return new SystemMessage( text );
     }
+
+    void writeCompact(SystemMessage object, ObjectOutput out) throws IOException {
+        var text = Objects.requireNonNull( object.getText(), "text cannot be null" );
+        writeString( text, out );
+    }
+
+    SystemMessage readCompact(ObjectInput in) throws IOException {
+        return new SystemMessage( readString(in) );
+    }
 }
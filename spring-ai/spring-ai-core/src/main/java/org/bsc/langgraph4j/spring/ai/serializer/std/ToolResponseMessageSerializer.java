@@ -6,9 +6,12 @@ import org.springframework.ai.chat.messages.ToolResponseMessage;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import static org.bsc.langgraph4j.serializer.std.CompactIO.*;
+
 class ToolResponseMessageSerializer implements Serializer<ToolResponseMessage> {
 
     @Override
@@ -24,4 +27,28 @@ class ToolResponseMessageSerializer implements Serializer<ToolResponseMessage> {
         var metadata = (Map<String,Object>)in.readObject();
         return new ToolResponseMessage( response, metadata );
     }
+
+    void writeCompact(ToolResponseMessage object, ObjectOutput out) throws IOException {
+        var responses = object.getResponses();
+        writeVarInt( responses.size(), out );
+        for( var response : responses ) {
+            writeNullableString( response.id(), out );
+            writeNullableString( response.name(), out );
+            writeNullableString( response.responseData(), out );
+        }
+        writeMap( object.getMetadata(), out );
+    }
+
+    ToolResponseMessage readCompact(ObjectInput in) throws IOException, ClassNotFoundException {
+        int size = readVarInt(in);
+        var responses = new ArrayList<ToolResponseMessage.ToolResponse>(size);
+        for( int i = 0; i < size; ++i ) {
+            responses.add( new ToolResponseMessage.ToolResponse(
+                    readNullableString(in),
+                    readNullableString(in),
+                    readNullableString(in) ) );
+        }
+        var metadata = readMap(in);
+        return new ToolResponseMessage( responses, metadata );
+    }
 }
@@ -9,6 +9,8 @@ import java.io.ObjectOutput;
 import java.util.Map;
 import java.util.Objects;
 
+import static org.bsc.langgraph4j.serializer.std.CompactIO.*;
+
 class UserMessageSerializer implements Serializer<UserMessage> {
 
     @Override
@@ -25,4 +27,16 @@ class UserMessageSerializer implements Serializer<UserMessage> {
         var metadata = (Map<String, Object>) in.readObject();
         return UserMessage.builder().text(text).metadata(metadata).build();
     }
+
+    void writeCompact(UserMessage object, ObjectOutput out) throws IOException {
+        Objects.requireNonNull(object.getText(), "text cannot be null");
+        writeString(object.getText(), out);
+        writeMap(object.getMetadata(), out);
+    }
+
+    UserMessage readCompact(ObjectInput in) throws IOException, ClassNotFoundException {
+        var text = readString(in);
+        var metadata = readMap(in);
+        return UserMessage.builder().text(text).metadata(metadata).build();
+    }
 }
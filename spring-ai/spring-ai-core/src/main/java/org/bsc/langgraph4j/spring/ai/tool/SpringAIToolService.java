@@ -17,6 +17,7 @@ import static java.util.concurrent.CompletableFuture.completedFuture;
 import static java.util.concurrent.CompletableFuture.failedFuture;
 import static org.bsc.langgraph4j.agent.ToolResponseBuilder.COMMAND_RESULT;
 import static org.bsc.langgraph4j.utils.CollectionsUtils.mergeMap;
+import static org.bsc.langgraph4j.utils.CollectionsUtils.overlayMap;
 
 /**
  * Service class responsible for managing tools and their callbacks.
@@ -127,10 +128,9 @@ public class SpringAIToolService {
                                                 Map<String,Object> toolContextData  )
     {
         final var scopedCommandResult = new AtomicReference<Command>();
-        final var context = mergeMap(
+        final var context = overlayMap(
                 requireNonNull(toolContextData, "state cannot be null!"),
-                Map.of(COMMAND_RESULT, scopedCommandResult),
-                (v1, v2) -> v2);
+                Map.of(COMMAND_RESULT, scopedCommandResult));
 
         final var toolContext = new ToolContext( context );
 
@@ -0,0 +1,113 @@
+package org.bsc.langgraph4j.spring.ai.serializer.std;
+
+import org.bsc.langgraph4j.serializer.Serializer;
+import org.bsc.langgraph4j.serializer.std.InMemoryMessageStore;
+import org.bsc.langgraph4j.serializer.std.ObjectStreamStateSerializer;
+import org.bsc.langgraph4j.state.AgentState;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.*;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MessageSerializerTest {
+
+    /**
+     * Writes the messages in the format preceding the compact one
+     */
+    static class LegacyMessageSerializer implements Serializer<Message> {
+        final MessageSerializer serializer = new MessageSerializer();
+
+        @Override
+        public void write(Message object, ObjectOutput out) throws IOException {
+            out.writeObject(object.getMessageType());
+            switch (object.getMessageType()) {
+                case USER -> serializer.user.write((UserMessage) object, out);
+                case ASSISTANT -> serializer.assistant.write((AssistantMessage) object, out);
+                case SYSTEM -> serializer.system.write((SystemMessage) object, out);
+                case TOOL -> serializer.tool.write((ToolResponseMessage) object, out);
+            }
+        }
+
+        @Override
+        public Message read(ObjectInput in) throws IOException, ClassNotFoundException {
+            return serializer.read(in);
+        }
+    }
+
+    static class LegacyStateSerializer extends ObjectStreamStateSerializer<AgentState> {
+        LegacyStateSerializer() {
+            super(AgentState::new);
+            mapper().register(Message.class, new LegacyMessageSerializer());
+            mapper().register(AssistantMessage.ToolCall.class, new ToolCallSerializer());
+            mapper().register(ToolResponseMessage.ToolResponse.class, new ToolResponseSerializer());
+        }
+    }
+
+    private final List<Message> messages = List.of(
+            new SystemMessage("You are a helpful assistant"),
+            UserMessage.builder().text("what's the weather in Napoli? ☀️").metadata(Map.of("user", "bartolomeo", "turn", 1)).build(),
+            new AssistantMessage("", Map.of("tokens", 42L, "finish", "tool_calls"),
+                    List.of(new AssistantMessage.ToolCall("call_1", "function", "weather", "{\"city\":\"Napoli\"}"))),
+            new ToolResponseMessage(List.of(new ToolResponseMessage.ToolResponse("call_1", "weather", "sunny")), Map.of()),
+            new AssistantMessage("it is sunny", Map.of("score", 0.9, "cached", true)));
+
+    @Test
+    public void cloneLeavesTheStoreUntouched() throws Exception {
+        var store = new InMemoryMessageStore();
+        var serializer = new SpringAIStateSerializer<>(AgentState::new, store);
+
+        var clone = serializer.cloneObject(Map.of("messages", messages));
+        assertEquals(messages.size(), clone.<List<?>>value("messages").orElseThrow().size());
+        assertEquals(0, store.size());
+
+        // the checkpoints hold the references
+        serializer.dataToBytes(Map.of("messages", messages));
+        assertEquals(messages.size(), store.size());
+    }
+
+    @Test
+    public void compactRoundTrip() throws Exception {
+        var serializer = new SpringAIStateSerializer<>(AgentState::new);
+
+        var result = serializer.dataFromBytes(serializer.dataToBytes(Map.of("messages", messages)));
+
+        assertEquals(messages, result.get("messages"));
+    }
+
+    @Test
+    public void metadataValuesAreWrittenExplicitly() throws Exception {
+        var serializer = new SpringAIStateSerializer<>(AgentState::new);
+
+        var nested = List.<Message>of(UserMessage.builder()
+                .text("hi")
+                .metadata(Map.of("tags", List.of("a", 1L), "usage", Map.of("tokens", 42)))
+                .build());
+        var result = serializer.dataFromBytes(serializer.dataToBytes(Map.of("messages", nested)));
+        assertEquals(nested, result.get("messages"));
+
+        // neither compact, nor serializable, nor mapped
+        var unknown = List.<Message>of(UserMessage.builder()
+                .text("hi")
+                .metadata(Map.of("thread", new Object()))
+                .build());
+        assertThrows(java.io.NotSerializableException.class, () -> serializer.dataToBytes(Map.of("messages", unknown)));
+    }
+
+    @Test
+    public void legacyFormatIsRead() throws Exception {
+        var data = Map.<String, Object>of("messages", messages);
+
+        var legacyBytes = new LegacyStateSerializer().dataToBytes(data);
+        var compactBytes = new SpringAIStateSerializer<>(AgentState::new).dataToBytes(data);
+
+        assertEquals(messages, new SpringAIStateSerializer<>(AgentState::new).dataFromBytes(legacyBytes).get("messages"));
+        assertTrue(compactBytes.length < legacyBytes.length,
+                "compact " + compactBytes.length + " legacy " + legacyBytes.length);
+    }
+}
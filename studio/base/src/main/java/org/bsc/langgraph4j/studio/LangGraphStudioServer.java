@@ -26,11 +26,18 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletionException;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
@@ -161,10 +168,332 @@ public interface LangGraphStudioServer {
     class CacheEntry {
         final CompiledGraph<? extends AgentState> compiledGraph;
         AsyncGenerator.Cancellable<? extends NodeOutput<? extends AgentState>> generator;
+        volatile long lastAccess;
+        // the key of the entry in its instance cache, set when the cache creates the entry
+        PersistentConfig config;
 
         public CacheEntry(CompiledGraph<? extends AgentState> compiledGraph) {
             this.compiledGraph = compiledGraph;
         }
+
+        /**
+         * Cancels the running generator, if any.
+         *
+         * @return true if a running generator has been cancelled, false otherwise
+         */
+        boolean cancelGenerator() {
+            var runningGenerator = generator;
+            generator = null;
+            return runningGenerator != null && !runningGenerator.isCancelled() && runningGenerator.cancel(true);
+        }
+    }
+
+    /**
+     * Runtime cache of a studio {@link Instance}.
+     * <p>
+     * It holds the {@link CompiledGraph} shared by all sessions, compiled once on first use, and the
+     * per-session {@link CacheEntry} keyed by {@link PersistentConfig}.
+     * Entries are evicted when they have been idle longer than {@code maxIdle} or when the cache grows
+     * beyond {@code maxSize} (least recently accessed first). The generator of an evicted entry is cancelled.
+     * The idle entries are evicted on each access and by a background sweep every half {@code maxIdle},
+     * so they are released even if the server receives no request. The sweep holds the cache weakly and
+     * stops once the cache is no longer reachable.
+     * <p>
+     * The entries are kept in access order, so both evictions only visit the evicted entries.
+     */
+    class InstanceCache {
+        public static final Duration DEFAULT_MAX_IDLE = Duration.ofMinutes(30);
+        public static final int DEFAULT_MAX_SIZE = 1000;
+
+        private static final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "langgraph4j-studio-session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        final Logger log = LangGraphStudioServer.log;
+
+        private final Map<PersistentConfig, CacheEntry> entries;
+        private final ReentrantLock _lock = new ReentrantLock();
+        private final StateGraph<? extends AgentState> graph;
+        private final CompileConfig compileConfig;
+        private final long maxIdleNanos;
+        private final int maxSize;
+        private final LongSupplier ticker;
+        private volatile CompiledGraph<? extends AgentState> compiledGraph;
+
+        InstanceCache(StateGraph<? extends AgentState> graph,
+                      CompileConfig compileConfig,
+                      Duration maxIdle,
+                      int maxSize,
+                      LongSupplier ticker) {
+            this.graph = requireNonNull(graph, "graph cannot be null");
+            this.compileConfig = requireNonNull(compileConfig, "compileConfig cannot be null");
+            if( requireNonNull(maxIdle, "maxIdle cannot be null").isNegative() || maxIdle.isZero() ) {
+                throw new IllegalArgumentException("maxIdle must be > 0!");
+            }
+            if( maxSize <= 0 ) {
+                throw new IllegalArgumentException("maxSize must be > 0!");
+            }
+            this.maxIdleNanos = maxIdle.toNanos();
+            this.maxSize = maxSize;
+            this.ticker = requireNonNull(ticker, "ticker cannot be null");
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<PersistentConfig, CacheEntry> eldest) {
+                    if (size() <= InstanceCache.this.maxSize) {
+                        return false;
+                    }
+                    evicted(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+            };
+        }
+
+        public InstanceCache(StateGraph<? extends AgentState> graph,
+                             CompileConfig compileConfig,
+                             Duration maxIdle,
+                             int maxSize) {
+            this(graph, compileConfig, maxIdle, maxSize, System::nanoTime);
+            scheduleSweep(this, Math.max(1L, maxIdleNanos / 2));
+        }
+
+        private static void scheduleSweep(InstanceCache cache, long intervalNanos) {
+            final var reference = new WeakReference<>(cache);
+            final var task = new AtomicReference<ScheduledFuture<?>>();
+            task.set(sweeper.scheduleWithFixedDelay(() -> {
+                var target = reference.get();
+                if (target == null) {
+                    ofNullable(task.get()).ifPresent(future -> future.cancel(false));
+                    return;
+                }
+                try {
+                    target.evict();
+                } catch (Exception e) {
+                    target.log.error("session sweep failed", e);
+                }
+            }, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS));
+        }
+
+        /**
+         * Returns the compiled graph shared by all sessions, compiling it on first call.
+         *
+         * @return the shared compiled graph
+         * @throws GraphStateException if the graph cannot be compiled
+         */
+        public CompiledGraph<? extends AgentState> compiledGraph() throws GraphStateException {
+            var result = compiledGraph;
+            if (result == null) {
+                synchronized (this) {
+                    result = compiledGraph;
+                    if (result == null) {
+                        compiledGraph = result = graph.compile(compileConfig);
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Returns the entry related to the given config, refreshing its last access time.
+         * The idle entries are evicted first.
+         *
+         * @param config the persistent config
+         * @return the cached entry or {@code null} if not present
+         */
+        public CacheEntry get(PersistentConfig config) {
+            requireNonNull(config, "config cannot be null");
+            _lock.lock();
+            try {
+                evict();
+                var entry = entries.get(config);
+                if (entry != null) {
+                    entry.lastAccess = ticker.getAsLong();
+                }
+                return entry;
+            } finally {
+                _lock.unlock();
+            }
+        }
+
+        /**
+         * Returns the entry related to the given config, creating it if it is not present.
+         * Expired entries are evicted before a new entry is added, and the least recently accessed one
+         * if the cache is full.
+         *
+         * @param config the persistent config
+         * @return the cached entry
+         * @throws GraphStateException if the shared graph cannot be compiled
+         */
+        public CacheEntry getOrCreate(PersistentConfig config) throws GraphStateException {
+            var entry = get(config);
+            if (entry != null) {
+                return entry;
+            }
+            var sharedGraph = compiledGraph();
+            _lock.lock();
+            try {
+                evict();
+                entry = entries.get(config);
+                if (entry == null) {
+                    entry = new CacheEntry(sharedGraph);
+                    entry.config = config;
+                    entry.lastAccess = ticker.getAsLong();
+                    entries.put(config, entry);
+                }
+                return entry;
+            } finally {
+                _lock.unlock();
+            }
+        }
+
+        /**
+         * Refreshes the last access time of the given entry, and evicts the idle entries.
+         *
+         * @param entry the entry to refresh
+         */
+        public void touch(CacheEntry entry) {
+            requireNonNull(entry, "entry cannot be null");
+            _lock.lock();
+            try {
+                entry.lastAccess = ticker.getAsLong();
+                // moves the entry at the end of the access order
+                if (entry.config != null) {
+                    entries.get(entry.config);
+                }
+                evict();
+            } finally {
+                _lock.unlock();
+            }
+        }
+
+        /**
+         * Adds the given entry, replacing the one related to the same config whose generator is cancelled.
+         * Expired entries are evicted before the entry is added, and the least recently accessed one
+         * if the cache is full.
+         *
+         * @param config the persistent config
+         * @param entry  the entry to add
+         * @return the replaced entry or {@code null} if not present
+         */
+        public CacheEntry put(PersistentConfig config, CacheEntry entry) {
+            requireNonNull(config, "config cannot be null");
+            requireNonNull(entry, "entry cannot be null");
+            _lock.lock();
+            try {
+                evict();
+                entry.config = config;
+                entry.lastAccess = ticker.getAsLong();
+                var previous = entries.put(config, entry);
+                if (previous != null && previous != entry) {
+                    evicted(config, previous);
+                }
+                return previous;
+            } finally {
+                _lock.unlock();
+            }
+        }
+
+        /**
+         * Returns a live map view of the entries. Its lookups and updates go through the cache, so they
+         * refresh the entries and apply the evictions, while its iteration is over a snapshot of the entries.
+         *
+         * @return the map view of the entries
+         */
+        public Map<PersistentConfig, CacheEntry> asMap() {
+            return new AbstractMap<>() {
+                @Override
+                public CacheEntry get(Object key) {
+                    return (key instanceof PersistentConfig config) ? InstanceCache.this.get(config) : null;
+                }
+
+                @Override
+                public boolean containsKey(Object key) {
+                    return get(key) != null;
+                }
+
+                @Override
+                public CacheEntry put(PersistentConfig key, CacheEntry value) {
+                    return InstanceCache.this.put(key, value);
+                }
+
+                @Override
+                public CacheEntry remove(Object key) {
+                    return (key instanceof PersistentConfig config) ? InstanceCache.this.remove(config).orElse(null) : null;
+                }
+
+                @Override
+                public int size() {
+                    return InstanceCache.this.size();
+                }
+
+                @Override
+                public Set<Entry<PersistentConfig, CacheEntry>> entrySet() {
+                    _lock.lock();
+                    try {
+                        return Collections.unmodifiableMap(new LinkedHashMap<>(entries)).entrySet();
+                    } finally {
+                        _lock.unlock();
+                    }
+                }
+            };
+        }
+
+        /**
+         * Removes the entry related to the given config, cancelling its generator if running.
+         *
+         * @param config the persistent config
+         * @return the removed entry if any
+         */
+        public Optional<CacheEntry> remove(PersistentConfig config) {
+            requireNonNull(config, "config cannot be null");
+            _lock.lock();
+            try {
+                var entry = entries.remove(config);
+                if (entry != null) {
+                    evicted(config, entry);
+                }
+                return ofNullable(entry);
+            } finally {
+                _lock.unlock();
+            }
+        }
+
+        private void evicted(PersistentConfig config, CacheEntry entry) {
+            if (entry.cancelGenerator()) {
+                log.info("generator for instanceId: {} and threadId: {} cancelled on eviction", config.instanceId(), config.threadId());
+            }
+        }
+
+        /**
+         * Evicts the entries idle longer than {@code maxIdle}, visiting them from the least recently accessed.
+         */
+        public void evict() {
+            _lock.lock();
+            try {
+                final var now = ticker.getAsLong();
+                final var iterator = entries.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    var eldest = iterator.next();
+                    if (now - eldest.getValue().lastAccess <= maxIdleNanos) {
+                        break;
+                    }
+                    iterator.remove();
+                    evicted(eldest.getKey(), eldest.getValue());
+                }
+            } finally {
+                _lock.unlock();
+            }
+        }
+
+        public int size() {
+            _lock.lock();
+            try {
+                return entries.size();
+            } finally {
+                _lock.unlock();
+            }
+        }
     }
 
     record Instance( String title,
@@ -172,12 +501,25 @@ public interface LangGraphStudioServer {
                      CompileConfig compileConfig,
                      List<ArgumentMetadata> args,
                      ObjectMapper objectMapper,
-                     Map<PersistentConfig, CacheEntry> cache
+                     InstanceCache sessions
     ) {
         public Instance {
             requireNonNull(graph, "graph cannot be null");
             requireNonNull(compileConfig, "compileConfig cannot be null");
             requireNonNull(args, "args cannot be null");
+            requireNonNull(sessions, "sessions cannot be null");
+        }
+
+        /**
+         * Returns a live map view of the session entries, see {@link InstanceCache#asMap()}.
+         * It keeps the type of the former {@code cache} component of this record.
+         *
+         * @return the map view of the session entries
+         * @deprecated use {@link #sessions()}
+         */
+        @Deprecated
+        public Map<PersistentConfig, CacheEntry> cache() {
+            return sessions.asMap();
         }
 
         private static ObjectMapper objectMapperFromGraph(StateGraph<? extends AgentState> graph) {
@@ -198,17 +540,63 @@ public interface LangGraphStudioServer {
 
         }
 
+        /**
+         * Creates an instance whose session cache has the default limits and holds the given entries.
+         * Kept for the integrations built before the session cache became an {@link InstanceCache}.
+         *
+         * @deprecated use {@link #Instance(String, StateGraph, CompileConfig, List, ObjectMapper, InstanceCache)}
+         * or {@link #builder()}
+         */
+        @Deprecated
+        public Instance(String title,
+                        StateGraph<? extends AgentState> graph,
+                        CompileConfig compileConfig,
+                        List<ArgumentMetadata> args,
+                        ObjectMapper objectMapper,
+                        Map<PersistentConfig, CacheEntry> cache) {
+            this(title, graph, compileConfig, args, objectMapper,
+                    cacheOf(graph, compileConfig, requireNonNull(cache, "cache cannot be null")));
+        }
+
+        private static InstanceCache cacheOf(StateGraph<? extends AgentState> graph,
+                                             CompileConfig compileConfig,
+                                             Map<PersistentConfig, CacheEntry> entries) {
+            var result = new InstanceCache(graph, compileConfig, InstanceCache.DEFAULT_MAX_IDLE, InstanceCache.DEFAULT_MAX_SIZE);
+            entries.forEach(result::put);
+            return result;
+        }
+
+        public Instance(String title,
+                        StateGraph<? extends AgentState> graph,
+                        CompileConfig compileConfig,
+                        List<ArgumentMetadata> args,
+                        Duration sessionMaxIdle,
+                        int sessionMaxSize) {
+            this(title, graph, compileConfig, args, objectMapperFromGraph(graph),
+                    new InstanceCache(graph, compileConfig, sessionMaxIdle, sessionMaxSize));
+        }
+
         public Instance(String title,
                         StateGraph<? extends AgentState> graph,
                         CompileConfig compileConfig,
                         List<ArgumentMetadata> args) {
-            this(title, graph, compileConfig, args, objectMapperFromGraph(graph), new ConcurrentHashMap<>());
+            this(title, graph, compileConfig, args, InstanceCache.DEFAULT_MAX_IDLE, InstanceCache.DEFAULT_MAX_SIZE);
+        }
+
+        /**
+         * Returns the compiled graph shared by all the sessions of this instance.
+         *
+         * @return the shared compiled graph
+         * @throws GraphStateException if the graph cannot be compiled
+         */
+        public CompiledGraph<? extends AgentState> compiledGraph() throws GraphStateException {
+            return sessions.compiledGraph();
         }
 
         public InitGraphData toInitGraphData(String id) {
             requireNonNull(id, "id cannot be null");
             try {
-                var compiledGraph = graph.compile();
+                var compiledGraph = compiledGraph();
                 var graph = compiledGraph.getGraph(GraphRepresentation.Type.MERMAID, /*initData.title()*/ null, false);
 
                 return new InitGraphData(id, title(), graph.content(), args());
@@ -232,6 +620,8 @@ public interface LangGraphStudioServer {
             private String title = null;
             private CompileConfig compileConfig;
             private StateGraph<? extends AgentState> graph;
+            private Duration sessionMaxIdle = InstanceCache.DEFAULT_MAX_IDLE;
+            private int sessionMaxSize = InstanceCache.DEFAULT_MAX_SIZE;
 
 
             /**
@@ -321,6 +711,30 @@ public interface LangGraphStudioServer {
                 return this;
             }
 
+            /**
+             * Sets how long a session entry can stay idle before being evicted.
+             * The running generator of an evicted entry is cancelled.
+             *
+             * @param sessionMaxIdle the maximum idle time
+             * @return the Builder instance
+             */
+            public Builder sessionMaxIdle(Duration sessionMaxIdle) {
+                this.sessionMaxIdle = requireNonNull(sessionMaxIdle, "sessionMaxIdle cannot be null");
+                return this;
+            }
+
+            /**
+             * Sets the maximum number of session entries kept by the instance.
+             * When exceeded, the least recently accessed entries are evicted.
+             *
+             * @param sessionMaxSize the maximum number of entries
+             * @return the Builder instance
+             */
+            public Builder sessionMaxSize(int sessionMaxSize) {
+                this.sessionMaxSize = sessionMaxSize;
+                return this;
+            }
+
             public Instance build() {
 
                 if( compileConfig != null  ) {
@@ -339,7 +753,9 @@ public interface LangGraphStudioServer {
                         ofNullable(title).orElse("LangGraph Studio"),
                         graph,
                         compileConfig,
-                        inputArgs
+                        inputArgs,
+                        sessionMaxIdle,
+                        sessionMaxSize
                         );
             }
         }
@@ -445,16 +861,6 @@ public interface LangGraphStudioServer {
             super.init(config);
         }
 
-        /**
-         * Compiles the configuration for the given persistent configuration.
-         *
-         * @param config the persistent configuration.
-         * @return the compiled configuration.
-         */
-        private CompileConfig compileConfig( Instance instance, PersistentConfig config) {
-            return instance.compileConfig();
-        }
-
         /**
          * Creates a runnable configuration based on the persistent configuration.
          *
@@ -468,25 +874,6 @@ public interface LangGraphStudioServer {
                     .build();
         }
 
-        /**
-         * Serializes the output to the given writer.
-         *
-         * @param writer the writer to serialize to.
-         * @param threadId the ID of the thread.
-         * @param output the output to serialize.
-         */
-        private void serializeOutput( Instance instance, PrintWriter writer, String threadId, NodeOutput<? extends AgentState> output) {
-            try {
-                writer.printf("[ \"%s\",", threadId);
-                writer.println();
-                var outputAsString = instance.objectMapper().writeValueAsString(output);
-                writer.println(outputAsString);
-                writer.println("]");
-            } catch (IOException e) {
-                log.warn("error serializing state", e);
-            }
-        }
-
         private Optional<String> instanceIdFromRequest( HttpServletRequest request ) {
 
             return ofNullable(request.getPathInfo())
@@ -511,7 +898,7 @@ public interface LangGraphStudioServer {
 
             var persistentConfig = new PersistentConfig( session.getId(), instanceId, threadId);
 
-            var cacheEntry = instance.cache().get(persistentConfig);
+            var cacheEntry = instance.sessions().get(persistentConfig);
 
             if( cacheEntry == null ) {
                 log.warn( "cache for instanceId: {} and threadId: {} not found!", instanceId, threadId);
@@ -534,7 +921,7 @@ public interface LangGraphStudioServer {
 
         private void cacheGeneratorCleanUp(  LangGraphStudioServer.Instance instance, PersistentConfig config ) {
             var cacheEntry = requireNonNull(instance, "instance cannot be null")
-                                .cache()
+                                .sessions()
                                 .get( requireNonNull(config, "config cannot be null") );
             if( cacheEntry != null ) {
                 cacheEntry.generator = null;
@@ -556,6 +943,15 @@ public interface LangGraphStudioServer {
             resp.setContentType("text/plain");
             resp.setCharacterEncoding("UTF-8");
 
+            final NodeOutputFrameWriter.Format frameFormat;
+            try {
+                frameFormat = NodeOutputFrameWriter.Format.of(req.getParameter("format"));
+            }
+            catch( IllegalArgumentException ex ) {
+                resp.sendError( HttpServletResponse.SC_BAD_REQUEST, format("invalid format: [%s]", req.getParameter("format")) );
+                return;
+            }
+
             final var instanceId = instanceIdFromRequest( req )
                                 .orElseThrow( () -> new ServletException("instance id is not found in req"));
 
@@ -579,7 +975,7 @@ public interface LangGraphStudioServer {
                 final var persistentConfig = new PersistentConfig( session.getId(), instanceId, threadId);
 
 
-                var cacheEntry = instance.cache().get(persistentConfig);
+                var cacheEntry = instance.sessions().get(persistentConfig);
 
                 final Map<String, Object> candidateDataMap;
                 if ( /*resume && */ instance.graph().getStateSerializer() instanceof PlainTextStateSerializer<? extends AgentState> textSerializer) {
@@ -601,7 +997,7 @@ public interface LangGraphStudioServer {
                 if (resume) {
                     log.trace("RESUME REQUEST PREPARE");
 
-                    if (cacheEntry.compiledGraph == null) {
+                    if (cacheEntry == null || cacheEntry.compiledGraph == null) {
                         throw new IllegalStateException("Missing CompiledGraph in session!");
                     }
 
@@ -634,19 +1030,23 @@ public interface LangGraphStudioServer {
                     log.trace("dataMap: {}", dataMap);
 
                     if (cacheEntry == null) {
-                        cacheEntry = new CacheEntry( instance.graph().compile( compileConfig(instance, persistentConfig)) ) ;
-                        instance.cache().put(persistentConfig, cacheEntry);
+                        cacheEntry = instance.sessions().getOrCreate(persistentConfig);
                     }
 
                     cacheEntry.generator  = cacheEntry.compiledGraph.streamSnapshots(dataMap, runnableConfig(persistentConfig));
                 }
 
-                cacheEntry.generator.forEachAsync(s -> {
+                final var streamingEntry = cacheEntry;
+                final var frameWriter = new NodeOutputFrameWriter(frameFormat, instance.objectMapper(), writer, threadId);
+                streamingEntry.generator.forEachAsync(s -> {
                             try {
-                                serializeOutput(instance, writer, threadId, s);
+                                instance.sessions().touch(streamingEntry);
+                                frameWriter.write(s);
                                 writer.println();
                                 writer.flush();
                                 TimeUnit.SECONDS.sleep(1);
+                            } catch (IOException e) {
+                                log.warn("error serializing state", e);
                             } catch (InterruptedException e) {
                                 throw new CompletionException(e);
                             }
@@ -0,0 +1,169 @@
+package org.bsc.langgraph4j.studio;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.bsc.langgraph4j.NodeOutput;
+import org.bsc.langgraph4j.state.AgentState;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes the studio output frames of a single graph stream directly on the response writer.
+ * <p>
+ * Each frame has the shape {@code [ "<threadId>", { ... } ]}. Depending on the {@link Format}:
+ * <ul>
+ *     <li>{@link Format#FULL}: every frame carries the whole state in the {@code state} field</li>
+ *     <li>{@link Format#INCREMENTAL}: the first frame carries the whole state, the following ones carry
+ *     only a {@code patch} field holding the JSON-patch (RFC 6902) operations, computed per channel,
+ *     that transform the previous state into the current one</li>
+ * </ul>
+ * An instance is stateful and must be used for one stream only.
+ */
+class NodeOutputFrameWriter {
+
+    /**
+     * Wire format of the output frames
+     */
+    enum Format {
+        FULL,
+        INCREMENTAL;
+
+        /**
+         * Parses the value of the {@code format} request parameter.
+         *
+         * @param value the parameter value, can be null
+         * @return the parsed format, {@link #FULL} if value is null
+         * @throws IllegalArgumentException if the value is not a format name
+         */
+        static Format of(String value) {
+            return Optional.ofNullable(value)
+                    .map(String::toUpperCase)
+                    .map(Format::valueOf)
+                    .orElse(FULL);
+        }
+    }
+
+    private final Format format;
+    private final ObjectMapper objectMapper;
+    private final JsonGenerator gen;
+    private final String threadId;
+    private ObjectNode previousState;
+
+    NodeOutputFrameWriter(Format format, ObjectMapper objectMapper, Writer writer, String threadId) throws IOException {
+        this.format = requireNonNull(format, "format cannot be null");
+        this.objectMapper = requireNonNull(objectMapper, "objectMapper cannot be null");
+        this.threadId = requireNonNull(threadId, "threadId cannot be null");
+        this.gen = objectMapper.getFactory()
+                .createGenerator(requireNonNull(writer, "writer cannot be null"))
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)
+                .setRootValueSeparator(null);
+    }
+
+    /**
+     * Writes the frame related to the given output.
+     *
+     * @param output the output to write
+     * @throws IOException if an I/O error occurs
+     */
+    void write(NodeOutput<? extends AgentState> output) throws IOException {
+        gen.writeRaw("[ \"");
+        gen.writeRaw(threadId);
+        gen.writeRaw("\",\n");
+
+        if (format == Format.FULL) {
+            objectMapper.writeValue(gen, output);
+        } else {
+            writeIncremental(output);
+        }
+
+        gen.writeRaw("\n]\n");
+        gen.flush();
+    }
+
+    private void writeIncremental(NodeOutput<? extends AgentState> output) throws IOException {
+        final ObjectNode currentState = objectMapper.valueToTree(output.state().data());
+
+        gen.writeStartObject();
+        NodeOutputSerializer.writeNodeFields(output, gen);
+
+        if (previousState == null) {
+            gen.writeFieldName("state");
+            gen.writeTree(currentState);
+        } else {
+            gen.writeArrayFieldStart("patch");
+            writePatch(previousState, currentState);
+            gen.writeEndArray();
+        }
+
+        NodeOutputSerializer.writeNextField(output, gen);
+        gen.writeEndObject();
+
+        previousState = currentState;
+    }
+
+    private void writePatch(ObjectNode source, ObjectNode target) throws IOException {
+        var sourceFields = source.fieldNames();
+        while (sourceFields.hasNext()) {
+            var channel = sourceFields.next();
+            if (!target.has(channel)) {
+                writeOperation("remove", pathOf(channel), null);
+            }
+        }
+
+        var targetFields = target.fields();
+        while (targetFields.hasNext()) {
+            var entry = targetFields.next();
+            var path = pathOf(entry.getKey());
+            var sourceValue = source.get(entry.getKey());
+            var targetValue = entry.getValue();
+
+            if (sourceValue == null) {
+                writeOperation("add", path, targetValue);
+            } else if (isAppended(sourceValue, targetValue)) {
+                // append only the new elements (i.e. AppenderChannel)
+                for (int i = sourceValue.size(); i < targetValue.size(); ++i) {
+                    writeOperation("add", path + "/-", targetValue.get(i));
+                }
+            } else if (!sourceValue.equals(targetValue)) {
+                writeOperation("replace", path, targetValue);
+            }
+        }
+    }
+
+    private static boolean isAppended(JsonNode source, JsonNode target) {
+        if (!source.isArray() || !target.isArray() || target.size() < source.size()) {
+            return false;
+        }
+        for (int i = 0; i < source.size(); ++i) {
+            if (!source.get(i).equals(target.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writeOperation(String op, String path, JsonNode value) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("op", op);
+        gen.writeStringField("path", path);
+        if (value != null) {
+            gen.writeFieldName("value");
+            gen.writeTree(value);
+        }
+        gen.writeEndObject();
+    }
+
+    /**
+     * Returns the JSON pointer (RFC 6901) of the given channel.
+     */
+    private static String pathOf(String channel) {
+        return "/" + channel.replace("~", "~0").replace("/", "~1");
+    }
+}
@@ -10,8 +10,6 @@ import org.slf4j.Logger;
 
 import java.io.IOException;
 
-import static java.lang.String.format;
-
 /**
  * Serializer for NodeOutput objects, extending the StdSerializer class.
  * This class is responsible for converting NodeOutput instances into JSON format.
@@ -41,9 +39,26 @@ class NodeOutputSerializer extends StdSerializer<NodeOutput> {
             IOException {
         log.trace( "NodeOutputSerializer start! {}", nodeOutput.getClass() );
         gen.writeStartObject();
+        writeNodeFields( nodeOutput, gen );
+
+        // serializerProvider.defaultSerializeField("state", nodeOutput.state().data(), gen);
+
+        gen.writeObjectField("state", nodeOutput.state().data());
+
+        writeNextField( nodeOutput, gen );
+        gen.writeEndObject();
+    }
+
+    /**
+     * Writes the checkpoint, node and subgraph fields of the given NodeOutput.
+     *
+     * @param nodeOutput the NodeOutput instance to serialize
+     * @param gen the JsonGenerator used to write JSON
+     * @throws IOException if an I/O error occurs during serialization
+     */
+    static void writeNodeFields(NodeOutput<?> nodeOutput, JsonGenerator gen) throws IOException {
         if( nodeOutput instanceof StateSnapshot<?> snapshot) {
             var checkpoint = snapshot.config().checkPointId();
-            log.trace( "checkpoint: {}", checkpoint );
             if( checkpoint.isPresent() ) {
                 gen.writeStringField("checkpoint", checkpoint.get());
             }
@@ -58,14 +73,18 @@ class NodeOutputSerializer extends StdSerializer<NodeOutput> {
 
             gen.writeStringField("subgraphNode", node.concat(subgraph.subGraphId()) );
         }
+    }
 
-        // serializerProvider.defaultSerializeField("state", nodeOutput.state().data(), gen);
-
-        gen.writeObjectField("state", nodeOutput.state().data());
-
+    /**
+     * Writes the next node field of the given NodeOutput if it is a {@link StateSnapshot}.
+     *
+     * @param nodeOutput the NodeOutput instance to serialize
+     * @param gen the JsonGenerator used to write JSON
+     * @throws IOException if an I/O error occurs during serialization
+     */
+    static void writeNextField(NodeOutput<?> nodeOutput, JsonGenerator gen) throws IOException {
         if( nodeOutput instanceof StateSnapshot<?> snapshot ) {
             gen.writeObjectField("next", snapshot.next() );
         }
-        gen.writeEndObject();
     }
 }
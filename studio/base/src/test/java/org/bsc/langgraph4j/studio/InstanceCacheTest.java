@@ -0,0 +1,170 @@
+package org.bsc.langgraph4j.studio;
+
+import org.bsc.langgraph4j.CompileConfig;
+import org.bsc.langgraph4j.RunnableConfig;
+import org.bsc.langgraph4j.StateGraph;
+import org.bsc.langgraph4j.checkpoint.MemorySaver;
+import org.bsc.langgraph4j.state.AgentState;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.bsc.langgraph4j.StateGraph.END;
+import static org.bsc.langgraph4j.StateGraph.START;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InstanceCacheTest {
+
+    private StateGraph<AgentState> workflow() throws Exception {
+        return new StateGraph<>(AgentState::new)
+                .addNode("agent", state -> completedFuture(Map.of()))
+                .addEdge(START, "agent")
+                .addEdge("agent", END);
+    }
+
+    private LangGraphStudioServer.InstanceCache newCache(AtomicLong ticker, Duration maxIdle, int maxSize) throws Exception {
+        var compileConfig = CompileConfig.builder()
+                .checkpointSaver(new MemorySaver())
+                .build();
+        return new LangGraphStudioServer.InstanceCache(workflow(), compileConfig, maxIdle, maxSize, ticker::get);
+    }
+
+    @Test
+    public void compiledGraphIsSharedAcrossSessions() throws Exception {
+        var ticker = new AtomicLong();
+        var cache = newCache(ticker, Duration.ofMinutes(1), 10);
+
+        var entry1 = cache.getOrCreate(new LangGraphStudioServer.PersistentConfig("s1", "i", "t1"));
+        var entry2 = cache.getOrCreate(new LangGraphStudioServer.PersistentConfig("s2", "i", "t1"));
+
+        assertNotSame(entry1, entry2);
+        assertSame(entry1.compiledGraph, entry2.compiledGraph);
+        assertSame(cache.compiledGraph(), entry1.compiledGraph);
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void idleEntriesAreEvicted() throws Exception {
+        var ticker = new AtomicLong();
+        var cache = newCache(ticker, Duration.ofSeconds(10), 10);
+
+        var config1 = new LangGraphStudioServer.PersistentConfig("s1", "i", "t1");
+        var config2 = new LangGraphStudioServer.PersistentConfig("s2", "i", "t1");
+
+        var entry1 = cache.getOrCreate(config1);
+        entry1.generator = cache.compiledGraph().streamSnapshots(Map.of(), RunnableConfig.builder().build());
+
+        ticker.addAndGet(Duration.ofSeconds(11).toNanos());
+
+        cache.getOrCreate(config2);
+
+        assertEquals(1, cache.size());
+        assertNull(cache.get(config1));
+        assertNull(entry1.generator);
+        assertNotNull(cache.get(config2));
+    }
+
+    @Test
+    public void leastRecentlyAccessedEntriesAreEvictedWhenFull() throws Exception {
+        var ticker = new AtomicLong();
+        var cache = newCache(ticker, Duration.ofMinutes(1), 2);
+
+        var config1 = new LangGraphStudioServer.PersistentConfig("s1", "i", "t1");
+        var config2 = new LangGraphStudioServer.PersistentConfig("s2", "i", "t1");
+        var config3 = new LangGraphStudioServer.PersistentConfig("s3", "i", "t1");
+
+        cache.getOrCreate(config1);
+        ticker.incrementAndGet();
+        cache.getOrCreate(config2);
+        ticker.incrementAndGet();
+        cache.get(config1); // refresh config1
+        ticker.incrementAndGet();
+        cache.getOrCreate(config3);
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(config1));
+        assertNull(cache.get(config2));
+        assertNotNull(cache.get(config3));
+    }
+
+    @Test
+    public void touchedEntriesAreKeptWhenFull() throws Exception {
+        var ticker = new AtomicLong();
+        var cache = newCache(ticker, Duration.ofMinutes(1), 2);
+
+        var config1 = new LangGraphStudioServer.PersistentConfig("s1", "i", "t1");
+        var config2 = new LangGraphStudioServer.PersistentConfig("s2", "i", "t1");
+        var config3 = new LangGraphStudioServer.PersistentConfig("s3", "i", "t1");
+
+        var entry1 = cache.getOrCreate(config1);
+        cache.getOrCreate(config2);
+        cache.touch(entry1); // a streaming session
+        cache.getOrCreate(config3);
+
+        assertEquals(2, cache.size());
+        assertSame(entry1, cache.get(config1));
+        assertNull(cache.get(config2));
+    }
+
+    @Test
+    public void instanceBuiltFromEntriesMap() throws Exception {
+        var compileConfig = CompileConfig.builder().build();
+        var config = new LangGraphStudioServer.PersistentConfig("s1", "i", "t1");
+        var entries = new ConcurrentHashMap<LangGraphStudioServer.PersistentConfig, LangGraphStudioServer.CacheEntry>();
+        var entry = new LangGraphStudioServer.CacheEntry(workflow().compile());
+        entries.put(config, entry);
+
+        var instance = new LangGraphStudioServer.Instance("title", workflow(), compileConfig, List.of(),
+                new com.fasterxml.jackson.databind.ObjectMapper(), entries);
+
+        Map<LangGraphStudioServer.PersistentConfig, LangGraphStudioServer.CacheEntry> view = instance.cache();
+        assertSame(entry, view.get(config));
+        assertEquals(1, view.size());
+
+        // the map view goes through the session cache
+        var config2 = new LangGraphStudioServer.PersistentConfig("s2", "i", "t1");
+        var entry2 = new LangGraphStudioServer.CacheEntry(workflow().compile());
+        assertNull(view.put(config2, entry2));
+        assertSame(entry2, instance.sessions().get(config2));
+        assertEquals(Set.of(config, config2), view.keySet());
+        assertSame(entry, view.remove(config));
+        assertNull(instance.sessions().get(config));
+        assertEquals(1, instance.sessions().size());
+    }
+
+    @Test
+    public void idleEntriesAreEvictedOnTouch() throws Exception {
+        var ticker = new AtomicLong();
+        var cache = newCache(ticker, Duration.ofSeconds(10), 10);
+
+        var config1 = new LangGraphStudioServer.PersistentConfig("s1", "i", "t1");
+        var config2 = new LangGraphStudioServer.PersistentConfig("s2", "i", "t1");
+        cache.getOrCreate(config1);
+        var entry2 = cache.getOrCreate(config2);
+
+        ticker.addAndGet(Duration.ofSeconds(11).toNanos());
+        cache.touch(entry2); // a streaming session
+
+        assertEquals(1, cache.size());
+        assertSame(entry2, cache.get(config2));
+    }
+
+    @Test
+    public void idleEntriesAreSwept() throws Exception {
+        var cache = new LangGraphStudioServer.InstanceCache(workflow(), CompileConfig.builder().build(), Duration.ofMillis(50), 10);
+        cache.getOrCreate(new LangGraphStudioServer.PersistentConfig("s1", "i", "t1"));
+        assertEquals(1, cache.size());
+
+        // no further access: the background sweep evicts the idle entry
+        for (int attempt = 0; attempt < 100 && cache.size() > 0; ++attempt) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, cache.size());
+    }
+}
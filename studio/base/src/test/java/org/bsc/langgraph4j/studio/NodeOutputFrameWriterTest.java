@@ -0,0 +1,149 @@
+package org.bsc.langgraph4j.studio;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.bsc.langgraph4j.NodeOutput;
+import org.bsc.langgraph4j.state.AgentState;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NodeOutputFrameWriterTest {
+
+    private static ObjectMapper newObjectMapper() {
+        var module = new SimpleModule();
+        module.addSerializer(NodeOutput.class, new NodeOutputSerializer());
+        return new ObjectMapper().registerModule(module);
+    }
+
+    private static List<NodeOutput<AgentState>> growingMessagesOutputs(int steps) {
+        var result = new ArrayList<NodeOutput<AgentState>>();
+        var messages = new ArrayList<String>();
+        for (int i = 0; i < steps; ++i) {
+            messages.add("message %d: the quick brown fox jumps over the lazy dog".formatted(i));
+            var state = new AgentState(Map.of(
+                    "messages", List.copyOf(messages),
+                    "step", i));
+            result.add(NodeOutput.of("agent", state));
+        }
+        return result;
+    }
+
+    private static String frame(NodeOutputFrameWriter frameWriter, StringWriter writer, NodeOutput<AgentState> output) throws Exception {
+        writer.getBuffer().setLength(0);
+        frameWriter.write(output);
+        return writer.toString();
+    }
+
+    private static JsonNode frameBody(ObjectMapper objectMapper, String frame) throws Exception {
+        var array = objectMapper.readTree(frame);
+        assertTrue(array.isArray());
+        assertEquals("thread1", array.get(0).asText());
+        return array.get(1);
+    }
+
+    private static void applyPatch(ObjectNode state, JsonNode patch) {
+        for (var operation : patch) {
+            var channel = operation.get("path").asText().substring(1).split("/");
+            var op = operation.get("op").asText();
+            if (op.equals("remove")) {
+                state.remove(channel[0]);
+            } else if (channel.length == 2 && channel[1].equals("-")) {
+                ((ArrayNode) state.get(channel[0])).add(operation.get("value"));
+            } else {
+                state.set(channel[0], operation.get("value"));
+            }
+        }
+    }
+
+    @Test
+    public void fullFormatIsTheLegacyOne() throws Exception {
+        var objectMapper = newObjectMapper();
+        var writer = new StringWriter();
+        var frameWriter = new NodeOutputFrameWriter(NodeOutputFrameWriter.Format.FULL, objectMapper, writer, "thread1");
+
+        for (var output : growingMessagesOutputs(3)) {
+            var expected = "[ \"thread1\",\n%s\n]\n".formatted(objectMapper.writeValueAsString(output));
+            assertEquals(expected, frame(frameWriter, writer, output));
+        }
+    }
+
+    @Test
+    public void incrementalFormatRebuildsTheFullState() throws Exception {
+        var objectMapper = newObjectMapper();
+        var writer = new StringWriter();
+        var frameWriter = new NodeOutputFrameWriter(NodeOutputFrameWriter.Format.INCREMENTAL, objectMapper, writer, "thread1");
+
+        ObjectNode state = null;
+        for (var output : growingMessagesOutputs(10)) {
+            var body = frameBody(objectMapper, frame(frameWriter, writer, output));
+            assertEquals("agent", body.get("node").asText());
+            if (state == null) {
+                assertTrue(body.has("state"));
+                state = (ObjectNode) body.get("state");
+            } else {
+                assertFalse(body.has("state"));
+                applyPatch(state, body.get("patch"));
+            }
+            assertEquals(objectMapper.valueToTree(output.state().data()), state);
+        }
+    }
+
+    @Test
+    public void incrementalFormatIsSmallerWithGrowingMessages() throws Exception {
+        var objectMapper = newObjectMapper();
+        var outputs = growingMessagesOutputs(200);
+
+        var fullWriter = new StringWriter();
+        var fullFrameWriter = new NodeOutputFrameWriter(NodeOutputFrameWriter.Format.FULL, objectMapper, fullWriter, "thread1");
+        var incrementalWriter = new StringWriter();
+        var incrementalFrameWriter = new NodeOutputFrameWriter(NodeOutputFrameWriter.Format.INCREMENTAL, objectMapper, incrementalWriter, "thread1");
+
+        long fullTotal = 0, incrementalTotal = 0;
+        for (var output : outputs) {
+            fullTotal += frame(fullFrameWriter, fullWriter, output).length();
+            incrementalTotal += frame(incrementalFrameWriter, incrementalWriter, output).length();
+        }
+
+        assertTrue(incrementalTotal * 10 < fullTotal);
+    }
+
+    @Test
+    public void formatIsParsed() {
+        assertEquals(NodeOutputFrameWriter.Format.FULL, NodeOutputFrameWriter.Format.of(null));
+        assertEquals(NodeOutputFrameWriter.Format.INCREMENTAL, NodeOutputFrameWriter.Format.of("incremental"));
+        assertThrows(IllegalArgumentException.class, () -> NodeOutputFrameWriter.Format.of("delta"));
+    }
+
+    @Test
+    public void invalidFormatIsABadRequest() throws Exception {
+        var params = Map.of("format", "delta", "thread", "thread1");
+        var request = (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class },
+                (proxy, method, args) -> method.getName().equals("getParameter") ? params.get((String) args[0]) : null);
+        var status = new int[1];
+        var response = (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { HttpServletResponse.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("sendError")) {
+                        status[0] = (int) args[0];
+                    }
+                    return null;
+                });
+
+        new LangGraphStudioServer.GraphStreamServlet(Map.of()).doPost(request, response);
+
+        assertEquals(HttpServletResponse.SC_BAD_REQUEST, status[0]);
+    }
+}